@@ -0,0 +1,140 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.astrapi69.collection.list.ListFactory;
+
+/**
+ * The benchmark class {@link LiteralReplacerBenchmark} compares the {@link LiteralReplacer} with
+ * the former per line regular expression replacement of the run configurations on a run
+ * configuration with 20000 lines
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LiteralReplacerBenchmark
+{
+	/** The number of lines of the run configuration. */
+	private static final int LINE_COUNT = 20_000;
+
+	/** The name of the source project. */
+	private static final String SOURCE_PROJECT_NAME = "java-library-template";
+
+	/** The name of the target project. */
+	private static final String TARGET_PROJECT_NAME = "crypt-data";
+
+	/** The lines of the run configuration. */
+	private List<String> lines;
+
+	/** The content of the run configuration. */
+	private String content;
+
+	/** The replacer that is reused for all invocations. */
+	private LiteralReplacer replacer;
+
+	/**
+	 * Creates the run configuration
+	 */
+	@Setup
+	public void setup()
+	{
+		lines = ListFactory.newArrayList();
+		lines.add("<component name=\"ProjectRunConfigurationManager\">");
+		for (int i = 0; i < LINE_COUNT; i++)
+		{
+			lines.add(i % 10 == 0
+				? "  <configuration name=\"" + SOURCE_PROJECT_NAME + " [task" + i
+					+ "]\" type=\"GradleRunConfiguration\" factoryName=\"Gradle\">"
+				: "    <option name=\"externalProjectPath\" value=\"$PROJECT_DIR$/module" + i
+					+ "\" />");
+		}
+		lines.add("</component>");
+		content = String.join(System.lineSeparator(), lines) + System.lineSeparator();
+		replacer = GradleRunConfigurationsCopier.newProjectNameReplacer(SOURCE_PROJECT_NAME,
+			TARGET_PROJECT_NAME);
+	}
+
+	/**
+	 * Benchmark for the former implementation that calls String#replaceAll on every line
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 */
+	@Benchmark
+	public void legacyReplaceAllPerLine(Blackhole blackhole)
+	{
+		StringBuilder result = new StringBuilder(content.length());
+		for (String line : lines)
+		{
+			result.append(line.replaceAll(SOURCE_PROJECT_NAME, TARGET_PROJECT_NAME))
+				.append(System.lineSeparator());
+		}
+		blackhole.consume(result.toString());
+	}
+
+	/**
+	 * Benchmark for the {@link LiteralReplacer} on the whole content
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 */
+	@Benchmark
+	public void literalReplacer(Blackhole blackhole)
+	{
+		blackhole.consume(replacer.replace(content));
+	}
+
+	/**
+	 * Benchmark for the {@link LiteralReplacer} that streams the content from a reader into a
+	 * writer
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Benchmark
+	public void literalReplacerStreaming(Blackhole blackhole) throws IOException
+	{
+		StringWriter writer = new StringWriter(content.length());
+		replacer.replace(new StringReader(content), writer);
+		blackhole.consume(writer.toString());
+	}
+}
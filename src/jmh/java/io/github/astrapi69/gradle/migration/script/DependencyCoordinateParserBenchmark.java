@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The benchmark class {@link DependencyCoordinateParserBenchmark} compares the cursor based
+ * {@link DependencyCoordinateParser} with the former implementation of
+ * DependenciesExtensions#getDependencyInfo on 100000 dependency rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DependencyCoordinateParserBenchmark
+{
+	/** The number of dependency rows. */
+	private static final int ROW_COUNT = 100_000;
+
+	/** The dependency rows to parse. */
+	private List<String> dependencyRows;
+
+	/**
+	 * Creates the dependency rows
+	 */
+	@Setup
+	public void setup()
+	{
+		String[] scopes = { "implementation", "testImplementation", "compileOnly",
+				"annotationProcessor" };
+		dependencyRows = ListFactory.newArrayList();
+		for (int i = 0; i < ROW_COUNT; i++)
+		{
+			dependencyRows.add("    " + scopes[i % scopes.length] + "(\"io.github.group" + i
+				+ ":artifact-name-" + i + ":$artifactName" + i + "Version\")");
+		}
+	}
+
+	/**
+	 * Benchmark for the former implementation with strip, substring and split
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 */
+	@Benchmark
+	public void legacyGetDependencyInfo(Blackhole blackhole)
+	{
+		for (String dependencyRow : dependencyRows)
+		{
+			blackhole.consume(legacyGetDependencyInfo(dependencyRow));
+		}
+	}
+
+	/**
+	 * Benchmark for the cursor based {@link DependencyCoordinateParser} with a reused instance
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 */
+	@Benchmark
+	public void dependencyCoordinateParser(Blackhole blackhole)
+	{
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
+		for (String dependencyRow : dependencyRows)
+		{
+			blackhole.consume(parser.parseDependencyInfo(dependencyRow));
+		}
+	}
+
+	/**
+	 * Benchmark for the cursor based {@link DependencyCoordinateParser} that only creates the
+	 * strings of the artifact ids
+	 *
+	 * @param blackhole
+	 *            the blackhole
+	 */
+	@Benchmark
+	public void dependencyCoordinateParserArtifactIdOnly(Blackhole blackhole)
+	{
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
+		for (String dependencyRow : dependencyRows)
+		{
+			if (parser.parse(dependencyRow))
+			{
+				blackhole.consume(parser.getArtifactId());
+			}
+		}
+	}
+
+	/**
+	 * The former implementation of DependenciesExtensions#getDependencyInfo
+	 *
+	 * @param dependencyRow
+	 *            the dependency string
+	 * @return the {@link DependencyInfo} object or null if the dependency string is invalid
+	 */
+	private static DependencyInfo legacyGetDependencyInfo(String dependencyRow)
+	{
+		String stripped = dependencyRow.strip();
+		int indexOf = stripped.indexOf("(");
+		if (indexOf != -1)
+		{
+			String scope = stripped.substring(0, indexOf);
+			String dependency = StringUtils.substringBetween(stripped, "\"");
+			String[] split = dependency.split(":");
+			if (split.length == 2)
+			{
+				return DependencyInfo.builder().scope(scope).groupId(split[0]).artifactId(split[1])
+					.build();
+			}
+			if (split.length == 3)
+			{
+				return DependencyInfo.builder().scope(scope).groupId(split[0]).artifactId(split[1])
+					.version(split[2]).build();
+			}
+			return DependencyInfo.builder().scope(scope).build();
+		}
+		return null;
+	}
+}
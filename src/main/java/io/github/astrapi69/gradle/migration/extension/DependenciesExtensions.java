@@ -26,20 +26,22 @@ package io.github.astrapi69.gradle.migration.extension;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
-
-import io.github.astrapi69.collection.array.ArrayExtensions;
 import io.github.astrapi69.collection.list.ListFactory;
 import io.github.astrapi69.collection.map.MapFactory;
 import io.github.astrapi69.collection.properties.PropertiesExtensions;
 import io.github.astrapi69.gradle.migration.info.DependencyInfo;
 import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
+import io.github.astrapi69.gradle.migration.script.BuildScriptIndex;
+import io.github.astrapi69.gradle.migration.script.DependencyCoordinateParser;
+import io.github.astrapi69.gradle.migration.script.DependencyReader;
+import io.github.astrapi69.gradle.migration.toml.VersionCatalogRenderer;
 import io.github.astrapi69.string.CaseExtensions;
 import io.github.astrapi69.string.StringExtensions;
 import lombok.NonNull;
@@ -72,6 +74,20 @@ public final class DependenciesExtensions
 		return GradleRunConfigurationsCopier.getContentOf("dependencies", buildGradle);
 	}
 
+	/**
+	 * Retrieves the content of the 'dependencies' section from the given {@link BuildScriptIndex}.
+	 * This avoids to read and search the build.gradle file again if other sections are needed as
+	 * well.
+	 *
+	 * @param buildScriptIndex
+	 *            the index of the build.gradle file
+	 * @return the content of the 'dependencies' section
+	 */
+	public static String getDependenciesContent(BuildScriptIndex buildScriptIndex)
+	{
+		return GradleRunConfigurationsCopier.getContentOf("dependencies", buildScriptIndex);
+	}
+
 	/**
 	 * Transforms the given project name (in kebab-case) into camel-case, appends 'Version' to it,
 	 * and returns the result.
@@ -89,7 +105,8 @@ public final class DependenciesExtensions
 
 	/**
 	 * Converts the content of the 'dependencies' section into a list of strings, each representing
-	 * a dependency.
+	 * a dependency. The header line and the line with the closing brace are removed and line
+	 * breaks are recognized as '\n', '\r' or '\r\n'.
 	 *
 	 * @param dependenciesContent
 	 *            the content of the 'dependencies' section
@@ -97,9 +114,12 @@ public final class DependenciesExtensions
 	 */
 	public static List<String> getDependenciesAsStringList(String dependenciesContent)
 	{
-		String[] lines = dependenciesContent.split("\n");
-		String[] copyOfRange = Arrays.copyOfRange(lines, 1, lines.length - 1);
-		return ArrayExtensions.asList(copyOfRange);
+		List<String> lines = dependenciesContent.lines().toList();
+		if (lines.size() < 2)
+		{
+			return ListFactory.newArrayList();
+		}
+		return new ArrayList<>(lines.subList(1, lines.size() - 1));
 	}
 
 	/**
@@ -116,25 +136,64 @@ public final class DependenciesExtensions
 		Map<String, String> versionMap)
 	{
 		List<DependencyInfo> dependencyInfos = ListFactory.newArrayList();
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
 		dependencyRows.forEach(row -> {
-			DependencyInfo dependencyInfo = DependenciesExtensions.getDependencyInfo(row);
+			DependencyInfo dependencyInfo = parser.parseDependencyInfo(row);
 			if (dependencyInfo != null)
 			{
-				String versionAlias = dependencyInfo.getVersion();
-				if (versionAlias != null)
-				{
-					String stringVersion = versionAlias.substring(1);
-					String actualVersion = versionMap.get(stringVersion);
-					dependencyInfo.setVersion(actualVersion);
-				}
-				dependencyInfos.add(dependencyInfo);
+				dependencyInfos.add(resolveVersion(dependencyInfo, versionMap));
 			}
 		});
 		return dependencyInfos;
 	}
 
 	/**
-	 * Extracts {@link DependencyInfo} from the given dependency string.
+	 * Creates a lazy stream of {@link DependencyInfo} objects from the 'dependencies' section of
+	 * the given build.gradle file, using the provided version map to resolve version aliases. The
+	 * file is read line by line, so the memory usage does not depend on the size of the file. The
+	 * returned stream has to be closed, so the file is closed too.
+	 *
+	 * @param buildGradle
+	 *            the path of the build.gradle file
+	 * @param versionMap
+	 *            the map of version aliases to actual versions
+	 * @return a lazy stream of {@link DependencyInfo} objects
+	 * @throws IOException
+	 *             if an I/O error occurs during opening the file
+	 */
+	public static Stream<DependencyInfo> getDependencyInfos(Path buildGradle,
+		Map<String, String> versionMap) throws IOException
+	{
+		return DependencyReader.dependencyInfos(buildGradle)
+			.map(dependencyInfo -> resolveVersion(dependencyInfo, versionMap));
+	}
+
+	/**
+	 * Resolves the version alias of the given {@link DependencyInfo} object with the provided
+	 * version map
+	 *
+	 * @param dependencyInfo
+	 *            the {@link DependencyInfo} object
+	 * @param versionMap
+	 *            the map of version aliases to actual versions
+	 * @return the given {@link DependencyInfo} object
+	 */
+	private static DependencyInfo resolveVersion(DependencyInfo dependencyInfo,
+		Map<String, String> versionMap)
+	{
+		String versionAlias = dependencyInfo.getVersion();
+		if (versionAlias != null)
+		{
+			String stringVersion = versionAlias.substring(1);
+			String actualVersion = versionMap.get(stringVersion);
+			dependencyInfo.setVersion(actualVersion);
+		}
+		return dependencyInfo;
+	}
+
+	/**
+	 * Extracts {@link DependencyInfo} from the given dependency string. Single and double quoted
+	 * coordinates are accepted, with or without parentheses.
 	 *
 	 * @param dependencyRow
 	 *            the dependency string
@@ -142,26 +201,7 @@ public final class DependenciesExtensions
 	 */
 	public static DependencyInfo getDependencyInfo(String dependencyRow)
 	{
-		String stripped = dependencyRow.strip();
-		int indexOf = stripped.indexOf("(");
-		if (indexOf != -1)
-		{
-			String scope = stripped.substring(0, indexOf);
-			String dependency = StringUtils.substringBetween(stripped, "\"");
-			String[] split = dependency.split(":");
-			if (split.length == 2)
-			{
-				return DependencyInfo.builder().scope(scope).groupId(split[0]).artifactId(split[1])
-					.build();
-			}
-			if (split.length == 3)
-			{
-				return DependencyInfo.builder().scope(scope).groupId(split[0]).artifactId(split[1])
-					.version(split[2]).build();
-			}
-			return DependencyInfo.builder().scope(scope).build();
-		}
-		return null;
+		return DependencyCoordinateParser.toDependencyInfo(dependencyRow);
 	}
 
 	/**
@@ -201,25 +241,7 @@ public final class DependenciesExtensions
 	 */
 	public static String getNewDependenciesStructure(List<DependencyInfo> dependencyInfos)
 	{
-		StringBuilder sb = new StringBuilder();
-		List<String> versionKeys = ListFactory.newArrayList();
-		sb.append("dependencies {").append(System.lineSeparator());
-		dependencyInfos.forEach(dependencyInfo -> {
-			String dependencyInfoVersionKey = dependencyInfo.getArtifactId() + "-version";
-			if (!versionKeys.contains(dependencyInfoVersionKey))
-			{
-				versionKeys.add(dependencyInfoVersionKey);
-				String scope = dependencyInfo.getScope();
-				if (dependencyInfo.getArtifactId() != null)
-				{
-					String artifactId = dependencyInfo.getArtifactId().replaceAll("-", ".");
-					sb.append(scope).append(" libs.").append(artifactId)
-						.append(System.lineSeparator());
-				}
-			}
-		});
-		sb.append("}").append(System.lineSeparator());
-		return sb.toString();
+		return VersionCatalogRenderer.getDependenciesStructureAsString(dependencyInfos);
 	}
 
 	/**
@@ -232,132 +254,6 @@ public final class DependenciesExtensions
 	 */
 	public static String getLibsVersionTomlMapAsString(List<DependencyInfo> dependencyInfos)
 	{
-		AtomicBoolean withLombok = new AtomicBoolean(false);
-		AtomicBoolean withJunit = new AtomicBoolean(false);
-		StringBuilder sb = new StringBuilder();
-		List<String> versionKeys = ListFactory.newArrayList();
-		sb.append("[versions]").append(System.lineSeparator());
-		dependencyInfos.forEach(dependencyInfo -> {
-
-			if (dependencyInfo.getVersion() != null)
-			{
-				String dependencyInfoVersionKey = dependencyInfo.getArtifactId() + "-version";
-				if (!versionKeys.contains(dependencyInfoVersionKey))
-				{
-					versionKeys.add(dependencyInfoVersionKey);
-					sb.append(dependencyInfoVersionKey).append(" = ").append("\"")
-						.append(dependencyInfo.getVersion()).append("\"")
-						.append(System.lineSeparator());
-				}
-			}
-			if (dependencyInfo.getGroupId() != null
-				&& dependencyInfo.getGroupId().equals("org.projectlombok"))
-			{
-				withLombok.set(true);
-			}
-			if (dependencyInfo.getGroupId() != null
-				&& dependencyInfo.getGroupId().equals("org.junit.jupiter"))
-			{
-				withJunit.set(true);
-			}
-		});
-		// add plugin versions
-		sb.append("gradle-plugin-grgit-version").append(" = ").append("\"").append("5.2.2")
-			.append("\"").append(System.lineSeparator());
-
-		sb.append("gradle-plugin-license-version").append(" = ").append("\"").append("0.16.1")
-			.append("\"").append(System.lineSeparator());
-
-		if (withLombok.get())
-		{
-
-			sb.append("gradle-plugin-lombok-version").append(" = ").append("\"").append("8.6")
-				.append("\"").append(System.lineSeparator());
-		}
-
-		sb.append("gradle-plugin-spotless-version").append(" = ").append("\"").append("7.0.0.BETA1")
-			.append("\"").append(System.lineSeparator());
-
-		sb.append("gradle-plugin-version-catalog-update-version").append(" = ").append("\"")
-			.append("0.8.4").append("\"").append(System.lineSeparator());
-
-		sb.append("gradle-plugin-versions-version").append(" = ").append("\"").append("0.51.0")
-			.append("\"").append(System.lineSeparator());
-
-		sb.append(System.lineSeparator());
-		List<String> libraryKeys = ListFactory.newArrayList();
-		sb.append("[libraries]").append(System.lineSeparator());
-		dependencyInfos.forEach(dependencyInfo -> {
-			String libraryKey = dependencyInfo.getArtifactId();
-
-			if (!libraryKeys.contains(libraryKey))
-			{
-				String dependencyInfoVersionKey = dependencyInfo.getArtifactId() + "-version";
-				sb.append(libraryKey).append(" = { module = \"").append(dependencyInfo.getGroupId())
-					.append(":").append(dependencyInfo.getArtifactId());
-				if (dependencyInfo.getVersion() != null)
-				{
-					sb.append("\", version.ref = \"").append(dependencyInfoVersionKey).append("\"}")
-						.append(System.lineSeparator());
-				}
-				else
-				{
-					sb.append("\"}").append(System.lineSeparator());
-				}
-				libraryKeys.add(libraryKey);
-			}
-		});
-		// add default bundles section ...
-		sb.append(System.lineSeparator()).append("[bundles]").append(System.lineSeparator());
-		if (withJunit.get())
-		{
-			String junitDefaultBundles = """
-				unit-testing = [
-				    "junit-jupiter",
-				    "meanbean",
-				    "test-object",
-				]
-				                """;
-			sb.append(junitDefaultBundles).append(System.lineSeparator());
-		}
-		else
-		{
-			String testngDefaultBundles = """
-				unit-testing = [
-				    "meanbean",
-				    "test-object",
-				    "testng",
-				]
-				                """;
-			sb.append(testngDefaultBundles).append(System.lineSeparator());
-		}
-		// TODO add default plugins section...
-		// add default plugins section ...
-		sb.append("[plugins]").append(System.lineSeparator());
-
-		if (withLombok.get())
-		{
-			String withLombokPlugins = """
-				gradle-versions-plugin = { id = "com.github.ben-manes.versions", version.ref = "gradle-plugin-versions-version" }
-				grgit-gradle = { id = "org.ajoberstar.grgit", version.ref = "gradle-plugin-grgit-version" }
-				license-gradle-plugin = { id = "com.github.hierynomus.license", version.ref = "gradle-plugin-license-version" }
-				lombok-plugin = { id = "io.freefair.lombok", version.ref = "gradle-plugin-lombok-version" }
-				spotless-plugin-gradle = { id = "com.diffplug.spotless", version.ref = "gradle-plugin-spotless-version" }
-				version-catalog-update = { id = "nl.littlerobots.version-catalog-update", version.ref = "gradle-plugin-version-catalog-update-version" }
-				                                """;
-			sb.append(withLombokPlugins).append(System.lineSeparator());
-		}
-		else
-		{
-			String defaultPlugins = """
-				gradle-versions-plugin = { id = "com.github.ben-manes.versions", version.ref = "gradle-plugin-versions-version" }
-				grgit-gradle = { id = "org.ajoberstar.grgit", version.ref = "gradle-plugin-grgit-version" }
-				license-gradle-plugin = { id = "com.github.hierynomus.license", version.ref = "gradle-plugin-license-version" }
-				spotless-plugin-gradle = { id = "com.diffplug.spotless", version.ref = "gradle-plugin-spotless-version" }
-				version-catalog-update = { id = "nl.littlerobots.version-catalog-update", version.ref = "gradle-plugin-version-catalog-update-version" }
-				                                """;
-			sb.append(defaultPlugins).append(System.lineSeparator());
-		}
-		return sb.toString();
+		return VersionCatalogRenderer.getLibsVersionsTomlAsString(dependencyInfos);
 	}
 }
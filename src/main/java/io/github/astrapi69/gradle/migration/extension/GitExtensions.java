@@ -24,19 +24,33 @@
  */
 package io.github.astrapi69.gradle.migration.extension;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 
-import io.github.astrapi69.io.shell.LinuxShellExecutor;
+import io.github.astrapi69.gradle.migration.git.ConcurrentGitBackend;
+import io.github.astrapi69.gradle.migration.git.GitBackend;
+import io.github.astrapi69.gradle.migration.git.GitStatusCache;
+import io.github.astrapi69.gradle.migration.git.JGitBackend;
+import io.github.astrapi69.gradle.migration.git.ShellGitBackend;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import lombok.NonNull;
 import lombok.extern.java.Log;
 
 /**
- * The class {@code GitAddExtensions} provides methods to add files to a Git repository
+ * The class {@code GitAddExtensions} provides methods to add files to a Git repository. The git
+ * operations are executed by an exchangeable {@link GitBackend}.
  */
 @Log
 public final class GitExtensions
 {
 
+	/** The backend that executes the git operations. */
+	private static volatile GitBackend backend = new ConcurrentGitBackend(new ShellGitBackend());
+
+	/** The cache of the status of the repositories. */
+	private static final GitStatusCache STATUS_CACHE = new GitStatusCache();
+
 	/**
 	 * Private constructor to prevent instantiation
 	 */
@@ -50,7 +64,8 @@ public final class GitExtensions
 	 * @param filesToAdd
 	 *            the list of files to add
 	 * @param shellPath
-	 *            the path to the shell executable
+	 *            the path to the shell executable, not used because the git operations are
+	 *            executed by the current {@link GitBackend}
 	 * @param executionPath
 	 *            the path where the command should be executed
 	 * @throws IOException
@@ -61,12 +76,28 @@ public final class GitExtensions
 	public static void addFilesToGit(List<String> filesToAdd, String shellPath,
 		String executionPath) throws IOException, InterruptedException
 	{
-		String output;
-		for (String file : filesToAdd)
-		{
-			output = addFileToGit(file, shellPath, executionPath);
-			log.info("output of command: " + output);
-		}
+		String output = addFilesToGit(filesToAdd, new File(executionPath));
+		log.info("output of command: " + output);
+	}
+
+	/**
+	 * Adds a list of files to Git with the current {@link GitBackend}. The default
+	 * {@link ShellGitBackend} adds all files with a single git process.
+	 *
+	 * @param filesToAdd
+	 *            the list of files to add
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @return the output of the executed commands
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	public static String addFilesToGit(List<String> filesToAdd, File executionDirectory)
+		throws IOException, InterruptedException
+	{
+		return backend.add(executionDirectory, filesToAdd);
 	}
 
 	/**
@@ -75,7 +106,8 @@ public final class GitExtensions
 	 * @param fileToAdd
 	 *            the file to add
 	 * @param shellPath
-	 *            the path to the shell executable
+	 *            the path to the shell executable, not used because the git operations are
+	 *            executed by the current {@link GitBackend}
 	 * @param executionPath
 	 *            the path where the command should be executed
 	 * @return the output of the executed command
@@ -87,16 +119,8 @@ public final class GitExtensions
 	public static String addFileToGit(String fileToAdd, String shellPath, String executionPath)
 		throws IOException, InterruptedException
 	{
-		String command;
-		String output;
-		String commandPrefix;
-		commandPrefix = "git -c credential.helper= -c core.quotepath=false -c log.showSignature=false add "
-			+ "--ignore-errors -A -f -- ";
-		command = commandPrefix + fileToAdd;
-		log.info("Executing command: " + command);
-
-		output = LinuxShellExecutor.execute(shellPath, executionPath, command);
-		return output;
+		log.info("Adding file to git: " + fileToAdd);
+		return backend.add(new File(executionPath), List.of(fileToAdd));
 	}
 
 	/**
@@ -105,7 +129,8 @@ public final class GitExtensions
 	 * @param filesToUnstage
 	 *            the list of files to unstage
 	 * @param shellPath
-	 *            the path to the shell executable
+	 *            the path to the shell executable, not used because the git operations are
+	 *            executed by the current {@link GitBackend}
 	 * @param executionPath
 	 *            the path where the command should be executed
 	 * @throws IOException
@@ -116,20 +141,36 @@ public final class GitExtensions
 	public static void unstageFiles(List<String> filesToUnstage, String shellPath,
 		String executionPath) throws IOException, InterruptedException
 	{
-		for (String file : filesToUnstage)
-		{
-			String command = "git -c credential.helper= restore --staged " + file;
-			log.info("Unstaging file with command: " + command);
-			String output = LinuxShellExecutor.execute(shellPath, executionPath, command);
-			log.info("output of unstaging command: " + output);
-		}
+		String output = unstageFiles(filesToUnstage, new File(executionPath));
+		log.info("output of unstaging command: " + output);
+	}
+
+	/**
+	 * Unstages a list of files from the Git staging area with the current {@link GitBackend}. The
+	 * default backend unstages all files with a single git process.
+	 *
+	 * @param filesToUnstage
+	 *            the list of files to unstage
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @return the output of the executed commands
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	public static String unstageFiles(List<String> filesToUnstage, File executionDirectory)
+		throws IOException, InterruptedException
+	{
+		return backend.restoreStaged(executionDirectory, filesToUnstage);
 	}
 
 	/**
 	 * Executes the 'git status' command in the specified directory using the given shell path.
 	 *
 	 * @param shellPath
-	 *            the path to the shell executable
+	 *            the path to the shell executable, not used because the git operations are
+	 *            executed by the current {@link GitBackend}
 	 * @param executionPath
 	 *            the directory in which the command should be executed
 	 * @throws IOException
@@ -140,11 +181,67 @@ public final class GitExtensions
 	public static void gitStatus(String shellPath, String executionPath)
 		throws IOException, InterruptedException
 	{
-		String output;
-		String command;
-		command = "git status";
-		log.info("Executing command: " + command);
-		output = LinuxShellExecutor.execute(shellPath, executionPath, command);
-		log.info("output of command: " + output);
+		String output = backend.status(new File(executionPath));
+		log.info("output of git status: " + output);
+	}
+
+	/**
+	 * Gets the parsed status of the repository of the given directory. The status is cached until
+	 * the index file of the repository changes, for instance because files were added to git. A
+	 * change of the work tree that is not staged has to be announced with
+	 * {@link #invalidateStatus(File)}.
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @return the status of the repository
+	 * @throws IOException
+	 *             if an I/O error occurs or the directory is not in a work tree
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	public static GitStatus getStatus(File executionDirectory)
+		throws IOException, InterruptedException
+	{
+		return STATUS_CACHE.get(executionDirectory, backend);
+	}
+
+	/**
+	 * Removes the cached status of the repository of the given directory
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @throws IOException
+	 *             if an I/O error occurs during resolving the repository
+	 */
+	public static void invalidateStatus(File executionDirectory) throws IOException
+	{
+		STATUS_CACHE.invalidate(executionDirectory);
+	}
+
+	/**
+	 * Gets the backend that executes the git operations
+	 *
+	 * @return the backend
+	 */
+	public static GitBackend getBackend()
+	{
+		return backend;
+	}
+
+	/**
+	 * Sets the backend that executes the git operations, for instance a {@link JGitBackend} for
+	 * environments without a git executable. The default backend is a {@link ShellGitBackend}
+	 * wrapped into a {@link ConcurrentGitBackend}, a backend that is used from several threads has
+	 * to be wrapped as well.
+	 *
+	 * @param gitBackend
+	 *            the new backend
+	 * @return the previous backend
+	 */
+	public static GitBackend setBackend(@NonNull GitBackend gitBackend)
+	{
+		GitBackend previous = backend;
+		backend = gitBackend;
+		return previous;
 	}
 }
@@ -0,0 +1,259 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.extension;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import io.github.astrapi69.gradle.migration.info.MigrationInfo;
+
+/**
+ * The class {@link ProjectDiscoveryExtensions} provides methods to find all Gradle projects in a
+ * directory tree. A directory is a Gradle project root if it contains a build.gradle, a
+ * settings.gradle or a gradle/dependencies.gradle file. Each directory is scanned with a
+ * {@link java.nio.file.FileVisitor} that forks a task for every subdirectory, so the directory
+ * tree is scanned in parallel on a {@link ForkJoinPool}. The subtrees of version control, build
+ * output and dependency directories are skipped.
+ */
+public final class ProjectDiscoveryExtensions
+{
+
+	/** The names of the directories whose subtrees are skipped. */
+	public static final Set<String> PRUNED_DIRECTORY_NAMES = Set.of(".git", "build", ".gradle",
+		"node_modules", "out");
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private ProjectDiscoveryExtensions()
+	{
+	}
+
+	/**
+	 * Finds all Gradle projects in the given directory tree with the common {@link ForkJoinPool}
+	 *
+	 * @param rootDirectory
+	 *            the root directory of the tree
+	 * @return the {@link MigrationInfo} objects of the found projects sorted by their project
+	 *         directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the root directory
+	 */
+	public static List<MigrationInfo> discover(File rootDirectory) throws IOException
+	{
+		return discover(rootDirectory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Finds all Gradle projects in the given directory tree with the given {@link ForkJoinPool}.
+	 * The gradle directories of the returned {@link MigrationInfo} objects are not created.
+	 *
+	 * @param rootDirectory
+	 *            the root directory of the tree
+	 * @param pool
+	 *            the pool that runs the scan of the directories
+	 * @return the {@link MigrationInfo} objects of the found projects sorted by their project
+	 *         directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the root directory
+	 */
+	public static List<MigrationInfo> discover(File rootDirectory, ForkJoinPool pool)
+		throws IOException
+	{
+		if (!rootDirectory.isDirectory())
+		{
+			throw new IllegalArgumentException("Given root is not a directory: " + rootDirectory);
+		}
+		List<MigrationInfo> projects;
+		try
+		{
+			projects = pool
+				.invoke(new DiscoveryTask(rootDirectory.toPath().toAbsolutePath(), true));
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+		projects.sort(Comparator.comparing(MigrationInfo::getProjectDirectory));
+		return projects;
+	}
+
+	/**
+	 * Checks if the given directory is a Gradle project root
+	 *
+	 * @param directory
+	 *            the directory to check
+	 * @return true if the directory contains a build.gradle, a settings.gradle or a
+	 *         gradle/dependencies.gradle file, otherwise false
+	 */
+	public static boolean isProjectRoot(Path directory)
+	{
+		return Files.isRegularFile(directory.resolve(DependenciesInfo.BUILD_GRADLE_FILENAME))
+			|| Files.isRegularFile(directory.resolve(DependenciesInfo.SETTINGS_GRADLE_FILENAME))
+			|| Files.isRegularFile(directory.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME)
+				.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME));
+	}
+
+	/**
+	 * Creates the {@link MigrationInfo} of the given project directory without creating any
+	 * directories
+	 *
+	 * @param projectDirectory
+	 *            the project directory
+	 * @return the {@link MigrationInfo} of the project
+	 */
+	private static MigrationInfo newMigrationInfo(Path projectDirectory)
+	{
+		return MigrationInfo.builder().projectDirectory(projectDirectory.toFile())
+			.gradleDirectory(
+				projectDirectory.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME).toFile())
+			.build();
+	}
+
+	/**
+	 * The task that scans a single directory and forks a task for each of its subdirectories
+	 */
+	private static final class DiscoveryTask extends RecursiveTask<List<MigrationInfo>>
+	{
+
+		/** The serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The directory to scan. */
+		private final transient Path directory;
+
+		/** Flag that indicates if the directory is the root directory of the tree. */
+		private final boolean root;
+
+		/**
+		 * Instantiates a new {@link DiscoveryTask}
+		 *
+		 * @param directory
+		 *            the directory to scan
+		 * @param root
+		 *            flag that indicates if the directory is the root directory of the tree
+		 */
+		DiscoveryTask(Path directory, boolean root)
+		{
+			this.directory = directory;
+			this.root = root;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected List<MigrationInfo> compute()
+		{
+			List<DiscoveryTask> subtasks = ListFactory.newArrayList();
+			boolean[] projectRoot = new boolean[1];
+			try
+			{
+				Files.walkFileTree(directory, new SimpleFileVisitor<>()
+				{
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+					{
+						if (dir.equals(directory))
+						{
+							return FileVisitResult.CONTINUE;
+						}
+						String name = dir.getFileName().toString();
+						if (PRUNED_DIRECTORY_NAMES.contains(name))
+						{
+							return FileVisitResult.SKIP_SUBTREE;
+						}
+						if (DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME.equals(name)
+							&& Files.isRegularFile(
+								dir.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME)))
+						{
+							projectRoot[0] = true;
+						}
+						DiscoveryTask subtask = new DiscoveryTask(dir, false);
+						subtask.fork();
+						subtasks.add(subtask);
+						return FileVisitResult.SKIP_SUBTREE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+					{
+						String name = file.getFileName().toString();
+						if (!attrs.isDirectory()
+							&& (DependenciesInfo.BUILD_GRADLE_FILENAME.equals(name)
+								|| DependenciesInfo.SETTINGS_GRADLE_FILENAME.equals(name)))
+						{
+							projectRoot[0] = true;
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException exception)
+						throws IOException
+					{
+						if (root && file.equals(directory))
+						{
+							throw exception;
+						}
+						// an unreadable entry below the directory is skipped
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			}
+			catch (IOException e)
+			{
+				if (root)
+				{
+					throw new UncheckedIOException(e);
+				}
+				// an unreadable subdirectory is skipped with the projects found so far
+			}
+			List<MigrationInfo> projects = ListFactory.newArrayList();
+			if (projectRoot[0])
+			{
+				projects.add(newMigrationInfo(directory));
+			}
+			for (DiscoveryTask subtask : subtasks)
+			{
+				projects.addAll(subtask.join());
+			}
+			return projects;
+		}
+	}
+}
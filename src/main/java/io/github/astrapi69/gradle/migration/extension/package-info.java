@@ -7,7 +7,8 @@
  * a build.gradle file, converting project names between naming conventions, and generating
  * dependency-related structures for Gradle projects.</li>
  * <li>Interacting with Git repositories, such as adding files to Git, unstaging files, and checking
- * the status of a repository using shell commands.</li>
+ * the status of a repository using an exchangeable git backend.</li>
+ * <li>Finding all Gradle projects of a directory tree in parallel.</li>
  * </ul>
  *
  * The classes in this package are designed to facilitate the migration and maintenance of
@@ -0,0 +1,418 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import lombok.NonNull;
+
+/**
+ * The class {@link ConcurrentGitBackend} makes a {@link GitBackend} safe for the concurrent use
+ * from several threads. Each repository, identified by the canonical path of its top-level
+ * directory, has its own lock and queue, so the operations on different repositories run fully in
+ * parallel, while the operations on the same repository never compete for its index.lock file.
+ *
+ * <p>
+ * The add and restore operations on the same repository are queued. The thread that acquires the
+ * lock of the repository executes all queued operations and merges consecutive operations of the
+ * same kind into a single call of the wrapped backend. Every operation of such a batch receives the
+ * output of the whole batch.
+ * </p>
+ */
+public final class ConcurrentGitBackend implements GitBackend
+{
+
+	/** The wrapped backend. */
+	private final GitBackend backend;
+
+	/** The queues of the repositories keyed by the canonical top-level directory. */
+	private final Map<File, RepositoryQueue> repositories = new ConcurrentHashMap<>();
+
+	/**
+	 * Instantiates a new {@link ConcurrentGitBackend}
+	 *
+	 * @param backend
+	 *            the wrapped backend
+	 */
+	public ConcurrentGitBackend(@NonNull GitBackend backend)
+	{
+		this.backend = backend;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String add(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException
+	{
+		return enqueue(OperationKind.ADD, executionDirectory, paths);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String restoreStaged(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException
+	{
+		return enqueue(OperationKind.RESTORE_STAGED, executionDirectory, paths);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String status(File executionDirectory) throws IOException, InterruptedException
+	{
+		RepositoryQueue queue = queue(executionDirectory);
+		if (queue == null)
+		{
+			return backend.status(executionDirectory);
+		}
+		queue.lock.lock();
+		try
+		{
+			// the queued operations are executed first, so the status reflects them
+			queue.drain(backend);
+			return backend.status(executionDirectory);
+		}
+		finally
+		{
+			queue.lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitStatus getStatus(File executionDirectory) throws IOException, InterruptedException
+	{
+		RepositoryQueue queue = queue(executionDirectory);
+		if (queue == null)
+		{
+			return backend.getStatus(executionDirectory);
+		}
+		queue.lock.lock();
+		try
+		{
+			queue.drain(backend);
+			return backend.getStatus(executionDirectory);
+		}
+		finally
+		{
+			queue.lock.unlock();
+		}
+	}
+
+	/**
+	 * Closes the wrapped backend
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		repositories.clear();
+		backend.close();
+	}
+
+	/**
+	 * Queues the given operation and waits until it is executed, either by the current thread or by
+	 * another thread that holds the lock of the repository
+	 *
+	 * @param kind
+	 *            the kind of the operation
+	 * @param executionDirectory
+	 *            the directory where the operation should be executed
+	 * @param paths
+	 *            the paths of the operation
+	 * @return the output of the batch that contained the operation
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private String enqueue(OperationKind kind, File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException
+	{
+		if (paths.isEmpty())
+		{
+			return "";
+		}
+		RepositoryQueue queue = queue(executionDirectory);
+		if (queue == null)
+		{
+			// git itself reports that the directory is not in a work tree
+			return kind.execute(backend, executionDirectory, paths);
+		}
+		List<String> absolutePaths = ListFactory.newArrayList();
+		for (String path : paths)
+		{
+			File file = new File(path);
+			absolutePaths.add(
+				file.isAbsolute() ? path : new File(executionDirectory, path).getAbsolutePath());
+		}
+		Operation operation = new Operation(kind, absolutePaths);
+		queue.pending.add(operation);
+		try
+		{
+			queue.lock.lockInterruptibly();
+		}
+		catch (InterruptedException e)
+		{
+			if (queue.pending.remove(operation))
+			{
+				throw e;
+			}
+			// another thread already executes the operation
+			Thread.currentThread().interrupt();
+			return operation.getOutput();
+		}
+		try
+		{
+			if (!operation.result.isDone())
+			{
+				queue.drain(backend);
+			}
+		}
+		finally
+		{
+			queue.lock.unlock();
+		}
+		return operation.getOutput();
+	}
+
+	/**
+	 * Gets the queue of the repository of the given directory
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @return the queue or null if the directory is not in a work tree
+	 * @throws IOException
+	 *             if an I/O error occurs during resolving the repository
+	 */
+	private RepositoryQueue queue(File executionDirectory) throws IOException
+	{
+		File workTree = GitDirectories.findWorkTree(executionDirectory);
+		if (workTree == null)
+		{
+			return null;
+		}
+		return repositories.computeIfAbsent(workTree, RepositoryQueue::new);
+	}
+
+	/**
+	 * The kinds of the queued operations
+	 */
+	private enum OperationKind
+	{
+		/** Adds files to the index. */
+		ADD,
+		/** Removes files from the index. */
+		RESTORE_STAGED;
+
+		/**
+		 * Executes this kind of operation with the given backend
+		 *
+		 * @param backend
+		 *            the backend
+		 * @param executionDirectory
+		 *            the directory where the operation should be executed
+		 * @param paths
+		 *            the paths of the operation
+		 * @return the output of the operation
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 * @throws InterruptedException
+		 *             if the current thread is interrupted while waiting
+		 */
+		String execute(GitBackend backend, File executionDirectory, List<String> paths)
+			throws IOException, InterruptedException
+		{
+			return this == ADD
+				? backend.add(executionDirectory, paths)
+				: backend.restoreStaged(executionDirectory, paths);
+		}
+	}
+
+	/**
+	 * A queued operation with its result
+	 */
+	private static final class Operation
+	{
+		/** The kind of the operation. */
+		final OperationKind kind;
+
+		/** The absolute paths of the operation. */
+		final List<String> paths;
+
+		/** The output of the batch that contained the operation. */
+		final CompletableFuture<String> result = new CompletableFuture<>();
+
+		/**
+		 * Instantiates a new {@link Operation}
+		 *
+		 * @param kind
+		 *            the kind of the operation
+		 * @param paths
+		 *            the absolute paths of the operation
+		 */
+		Operation(OperationKind kind, List<String> paths)
+		{
+			this.kind = kind;
+			this.paths = paths;
+		}
+
+		/**
+		 * Gets the output of the executed operation
+		 *
+		 * @return the output
+		 * @throws IOException
+		 *             if the execution failed with an I/O error
+		 * @throws InterruptedException
+		 *             if the execution was interrupted
+		 */
+		String getOutput() throws IOException, InterruptedException
+		{
+			try
+			{
+				return result.get();
+			}
+			catch (ExecutionException e)
+			{
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException exception)
+				{
+					throw exception;
+				}
+				if (cause instanceof InterruptedException exception)
+				{
+					throw exception;
+				}
+				if (cause instanceof RuntimeException exception)
+				{
+					throw exception;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * The lock and the queued operations of a single repository
+	 */
+	private static final class RepositoryQueue
+	{
+		/** The top-level directory of the repository. */
+		final File workTree;
+
+		/** The lock that serializes the operations on the repository. */
+		final ReentrantLock lock = new ReentrantLock();
+
+		/** The queued operations. */
+		final Queue<Operation> pending = new ConcurrentLinkedQueue<>();
+
+		/**
+		 * Instantiates a new {@link RepositoryQueue}
+		 *
+		 * @param workTree
+		 *            the top-level directory of the repository
+		 */
+		RepositoryQueue(File workTree)
+		{
+			this.workTree = workTree;
+		}
+
+		/**
+		 * Executes all queued operations in their order. Consecutive operations of the same kind
+		 * are merged into a single batch. The lock of this repository has to be held.
+		 *
+		 * @param backend
+		 *            the backend that executes the batches
+		 */
+		void drain(GitBackend backend)
+		{
+			List<Operation> batch = ListFactory.newArrayList();
+			for (Operation operation = pending.poll(); operation != null; operation = pending
+				.poll())
+			{
+				if (!batch.isEmpty() && batch.get(0).kind != operation.kind)
+				{
+					execute(backend, batch);
+					batch.clear();
+				}
+				batch.add(operation);
+			}
+			if (!batch.isEmpty())
+			{
+				execute(backend, batch);
+			}
+		}
+
+		/**
+		 * Executes a batch of operations of the same kind with a single call of the backend
+		 *
+		 * @param backend
+		 *            the backend
+		 * @param batch
+		 *            the operations
+		 */
+		private void execute(GitBackend backend, List<Operation> batch)
+		{
+			Set<String> paths = SetFactory.newLinkedHashSet();
+			batch.forEach(operation -> paths.addAll(operation.paths));
+			try
+			{
+				String output = batch.get(0).kind.execute(backend, workTree,
+					List.copyOf(paths));
+				batch.forEach(operation -> operation.result.complete(output));
+			}
+			catch (Exception e)
+			{
+				batch.forEach(operation -> operation.result.completeExceptionally(e));
+				if (e instanceof InterruptedException)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+}
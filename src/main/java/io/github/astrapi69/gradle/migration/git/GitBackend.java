@@ -0,0 +1,114 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+
+/**
+ * The interface {@link GitBackend} executes the git operations of a migration. The paths of the
+ * operations are either absolute or relative to the given execution directory, which is the work
+ * tree of a repository or one of its subdirectories. Errors that are reported by git itself, for
+ * instance a path that does not match any file, do not cause an exception but are returned in the
+ * output of the operation.
+ */
+public interface GitBackend extends Closeable
+{
+
+	/**
+	 * Adds the given files with their changes and deletions to the index like
+	 * <code>git add -A -f</code>
+	 *
+	 * @param executionDirectory
+	 *            the directory where the operation should be executed
+	 * @param paths
+	 *            the paths of the files to add
+	 * @return the output of the operation
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	String add(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException;
+
+	/**
+	 * Removes the given files from the index like <code>git restore --staged</code>
+	 *
+	 * @param executionDirectory
+	 *            the directory where the operation should be executed
+	 * @param paths
+	 *            the paths of the files to unstage
+	 * @return the output of the operation
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	String restoreStaged(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException;
+
+	/**
+	 * Reports the status of the work tree like <code>git status</code>
+	 *
+	 * @param executionDirectory
+	 *            the directory where the operation should be executed
+	 * @return the output of the operation
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	String status(File executionDirectory) throws IOException, InterruptedException;
+
+	/**
+	 * Reads the status of the work tree like <code>git status --porcelain=v2</code>
+	 *
+	 * @param executionDirectory
+	 *            the directory where the operation should be executed
+	 * @return the parsed status of the work tree
+	 * @throws IOException
+	 *             if an I/O error occurs or the execution directory is not in a work tree
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	GitStatus getStatus(File executionDirectory) throws IOException, InterruptedException;
+
+	/**
+	 * Releases the resources that are held by this backend. The default implementation holds no
+	 * resources and does nothing.
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	default void close() throws IOException
+	{
+	}
+}
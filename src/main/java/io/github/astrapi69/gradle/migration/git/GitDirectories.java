@@ -0,0 +1,99 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * The class {@link GitDirectories} resolves the work tree and the git directory of a repository
+ * from a directory inside of its work tree without starting git.
+ */
+final class GitDirectories
+{
+
+	/** The name of the git directory or the git file in the top-level directory. */
+	static final String DOT_GIT = ".git";
+
+	/** The prefix of the content of a .git file that points to the git directory. */
+	private static final String GITDIR_PREFIX = "gitdir:";
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private GitDirectories()
+	{
+	}
+
+	/**
+	 * Finds the top-level directory of the work tree that contains the given directory
+	 *
+	 * @param directory
+	 *            the directory
+	 * @return the canonical top-level directory or null if the directory is not in a work tree
+	 * @throws IOException
+	 *             if an I/O error occurs during resolving the canonical directory
+	 */
+	static File findWorkTree(File directory) throws IOException
+	{
+		for (File current = directory.getCanonicalFile(); current != null; current = current
+			.getParentFile())
+		{
+			if (new File(current, DOT_GIT).exists())
+			{
+				return current;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves the git directory of the given top-level directory. The .git file of a linked work
+	 * tree or a submodule points to the git directory.
+	 *
+	 * @param workTree
+	 *            the top-level directory of the work tree
+	 * @return the canonical git directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the .git file
+	 */
+	static File gitDirectory(File workTree) throws IOException
+	{
+		File dotGit = new File(workTree, DOT_GIT);
+		if (dotGit.isFile())
+		{
+			String content = Files.readString(dotGit.toPath(), StandardCharsets.UTF_8).trim();
+			if (content.startsWith(GITDIR_PREFIX))
+			{
+				File target = new File(content.substring(GITDIR_PREFIX.length()).trim());
+				return (target.isAbsolute() ? target : new File(workTree, target.getPath()))
+					.getCanonicalFile();
+			}
+		}
+		return dotGit.getCanonicalFile();
+	}
+}
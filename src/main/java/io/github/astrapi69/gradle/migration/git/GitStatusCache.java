@@ -0,0 +1,220 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+
+/**
+ * The class {@link GitStatusCache} caches the {@link GitStatus} of each repository. A cached status
+ * is valid as long as the modification time and the size of the index file of the repository are
+ * unchanged. Changes of the work tree that do not touch the index, for instance a file that is
+ * written but not staged, are not detected, so the status of a repository has to be invalidated
+ * with {@link #invalidate(File)} after such changes. A status is only cached if the index file
+ * did not change while it was read, so a concurrent change of the index, for instance by another
+ * thread that stages files, never stores an outdated status under the new state of the index.
+ */
+public final class GitStatusCache
+{
+
+	/** The index files of the canonical execution directories. */
+	private final Map<File, File> indexFiles = new ConcurrentHashMap<>();
+
+	/** The cached status of the index files. */
+	private final Map<File, CachedStatus> statuses = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the status of the repository of the given execution directory from the cache or from
+	 * the given backend if the index file has changed since the last call
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @param backend
+	 *            the backend that reads the status if it is not cached
+	 * @return the status of the repository
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	public GitStatus get(File executionDirectory, GitBackend backend)
+		throws IOException, InterruptedException
+	{
+		File indexFile = indexFile(executionDirectory);
+		if (indexFile == null)
+		{
+			return backend.getStatus(executionDirectory);
+		}
+		CachedStatus cached = statuses.get(indexFile);
+		if (cached != null && cached.isValid(indexFile))
+		{
+			return cached.status;
+		}
+		IndexState indexState = IndexState.of(indexFile);
+		GitStatus status = backend.getStatus(executionDirectory);
+		// the index changed while the status was read, for instance by a concurrent git add or by
+		// the refresh of git status itself, so the status may not match the new index
+		if (indexState.equals(IndexState.of(indexFile)))
+		{
+			statuses.put(indexFile, new CachedStatus(indexState, status));
+		}
+		return status;
+	}
+
+	/**
+	 * Removes the cached status of the repository of the given execution directory
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @throws IOException
+	 *             if an I/O error occurs during resolving the repository
+	 */
+	public void invalidate(File executionDirectory) throws IOException
+	{
+		File indexFile = indexFile(executionDirectory);
+		if (indexFile != null)
+		{
+			statuses.remove(indexFile);
+		}
+	}
+
+	/**
+	 * Removes all cached entries
+	 */
+	public void clear()
+	{
+		statuses.clear();
+		indexFiles.clear();
+	}
+
+	/**
+	 * Resolves the index file of the repository of the given execution directory
+	 *
+	 * @param executionDirectory
+	 *            the directory in the work tree of the repository
+	 * @return the index file or null if the directory is not in a work tree
+	 * @throws IOException
+	 *             if an I/O error occurs during resolving the repository
+	 */
+	private File indexFile(File executionDirectory) throws IOException
+	{
+		File directory = executionDirectory.getCanonicalFile();
+		File indexFile = indexFiles.get(directory);
+		if (indexFile != null)
+		{
+			return indexFile;
+		}
+		File workTree = GitDirectories.findWorkTree(directory);
+		if (workTree == null)
+		{
+			return null;
+		}
+		indexFile = new File(GitDirectories.gitDirectory(workTree), "index");
+		indexFiles.put(directory, indexFile);
+		return indexFile;
+	}
+
+	/**
+	 * A cached status with the state of the index file at the time it was read
+	 */
+	private static final class CachedStatus
+	{
+		/** The state of the index file at the time the status was read. */
+		final IndexState indexState;
+
+		/** The cached status. */
+		final GitStatus status;
+
+		/**
+		 * Instantiates a new {@link CachedStatus}
+		 *
+		 * @param indexState
+		 *            the state of the index file at the time the status was read
+		 * @param status
+		 *            the status
+		 */
+		CachedStatus(IndexState indexState, GitStatus status)
+		{
+			this.indexState = indexState;
+			this.status = status;
+		}
+
+		/**
+		 * Checks if the given index file is unchanged since this status was read
+		 *
+		 * @param indexFile
+		 *            the index file
+		 * @return true if the index file is unchanged, otherwise false
+		 * @throws IOException
+		 *             if an I/O error occurs during reading the attributes of the index file
+		 */
+		boolean isValid(File indexFile) throws IOException
+		{
+			return indexState.equals(IndexState.of(indexFile));
+		}
+	}
+
+	/**
+	 * The record {@link IndexState} is the modification time and the size of an index file
+	 *
+	 * @param lastModifiedTime
+	 *            the modification time of the index file or null if the index file did not exist
+	 * @param size
+	 *            the size of the index file or -1 if the index file did not exist
+	 */
+	private record IndexState(FileTime lastModifiedTime, long size)
+	{
+		/**
+		 * Reads the current state of the given index file
+		 *
+		 * @param indexFile
+		 *            the index file
+		 * @return the state of the index file
+		 * @throws IOException
+		 *             if an I/O error occurs during reading the attributes of the index file
+		 */
+		static IndexState of(File indexFile) throws IOException
+		{
+			try
+			{
+				BasicFileAttributes attributes = Files.readAttributes(indexFile.toPath(),
+					BasicFileAttributes.class);
+				return new IndexState(attributes.lastModifiedTime(), attributes.size());
+			}
+			catch (NoSuchFileException e)
+			{
+				return new IndexState(null, -1);
+			}
+		}
+	}
+}
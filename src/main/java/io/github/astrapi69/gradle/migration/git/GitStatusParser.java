@@ -0,0 +1,223 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.GitStatusEntry;
+
+/**
+ * The class {@link GitStatusParser} parses the output of
+ * <code>git status --porcelain=v2 -z</code>. The output is read record by record from a stream,
+ * so it is never buffered as a whole.
+ */
+final class GitStatusParser
+{
+
+	/** The status code of an unmodified state. */
+	static final char UNMODIFIED = '.';
+
+	/** The staged entries. */
+	private final List<GitStatusEntry> staged = ListFactory.newArrayList();
+
+	/** The unstaged entries. */
+	private final List<GitStatusEntry> unstaged = ListFactory.newArrayList();
+
+	/** The untracked entries. */
+	private final List<GitStatusEntry> untracked = ListFactory.newArrayList();
+
+	/** The conflicted entries. */
+	private final List<GitStatusEntry> conflicted = ListFactory.newArrayList();
+
+	/** The renamed or copied entry that waits for its original path, which is the next record. */
+	private GitStatusEntry renamed;
+
+	/**
+	 * Private constructor, use {@link #parse(InputStream)}
+	 */
+	private GitStatusParser()
+	{
+	}
+
+	/**
+	 * Parses the given output of <code>git status --porcelain=v2 -z</code>
+	 *
+	 * @param input
+	 *            the output of git
+	 * @return the parsed {@link GitStatus}
+	 * @throws IOException
+	 *             if an I/O error occurs or the output contains an invalid record
+	 */
+	static GitStatus parse(InputStream input) throws IOException
+	{
+		GitStatusParser parser = new GitStatusParser();
+		InputStream in = input instanceof BufferedInputStream
+			? input
+			: new BufferedInputStream(input);
+		ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+		int value;
+		while ((value = in.read()) != -1)
+		{
+			if (value != 0)
+			{
+				record.write(value);
+				continue;
+			}
+			parser.accept(record.toString(StandardCharsets.UTF_8));
+			record.reset();
+		}
+		if (record.size() != 0)
+		{
+			parser.accept(record.toString(StandardCharsets.UTF_8));
+		}
+		if (parser.renamed != null)
+		{
+			throw new IOException(
+				"Invalid git status output: missing original path of " + parser.renamed.getPath());
+		}
+		return GitStatus.builder().staged(parser.staged).unstaged(parser.unstaged)
+			.untracked(parser.untracked).conflicted(parser.conflicted).build();
+	}
+
+	/**
+	 * Creates a {@link GitStatus} of the given entries
+	 *
+	 * @param entries
+	 *            the entries with the status codes of the index and the work tree
+	 * @return the {@link GitStatus}
+	 */
+	static GitStatus of(List<GitStatusEntry> entries)
+	{
+		GitStatusParser parser = new GitStatusParser();
+		entries.forEach(parser::add);
+		return GitStatus.builder().staged(parser.staged).unstaged(parser.unstaged)
+			.untracked(parser.untracked).conflicted(parser.conflicted).build();
+	}
+
+	/**
+	 * Parses a single record
+	 *
+	 * @param record
+	 *            the record without its terminating NUL character
+	 * @throws IOException
+	 *             if the record is invalid
+	 */
+	private void accept(String record) throws IOException
+	{
+		if (renamed != null)
+		{
+			renamed.setOriginalPath(record);
+			add(renamed);
+			renamed = null;
+			return;
+		}
+		if (record.isEmpty())
+		{
+			throw new IOException("Invalid git status output: empty record");
+		}
+		switch (record.charAt(0))
+		{
+			case '#' :
+			case '!' :
+				// headers and ignored files are not part of the status
+				break;
+			case '1' :
+				add(entry(record, 9));
+				break;
+			case '2' :
+				renamed = entry(record, 10);
+				break;
+			case 'u' :
+				add(entry(record, 11));
+				break;
+			case '?' :
+				add(GitStatusEntry.builder().path(record.substring(2)).indexStatus('?')
+					.workTreeStatus('?').build());
+				break;
+			default :
+				throw new IOException("Invalid git status record: " + record);
+		}
+	}
+
+	/**
+	 * Creates the entry of a changed, renamed or unmerged record
+	 *
+	 * @param record
+	 *            the record
+	 * @param fields
+	 *            the number of fields of the record, where the path is the last field
+	 * @return the entry
+	 * @throws IOException
+	 *             if the record has less fields
+	 */
+	private static GitStatusEntry entry(String record, int fields) throws IOException
+	{
+		String[] values = record.split(" ", fields);
+		if (values.length != fields || values[1].length() != 2)
+		{
+			throw new IOException("Invalid git status record: " + record);
+		}
+		return GitStatusEntry.builder().path(values[fields - 1])
+			.indexStatus(values[1].charAt(0)).workTreeStatus(values[1].charAt(1)).build();
+	}
+
+	/**
+	 * Adds the given entry to the lists it belongs to
+	 *
+	 * @param entry
+	 *            the entry
+	 */
+	private void add(GitStatusEntry entry)
+	{
+		char index = entry.getIndexStatus();
+		char workTree = entry.getWorkTreeStatus();
+		if (index == '?')
+		{
+			untracked.add(entry);
+			return;
+		}
+		if (index == 'U' || workTree == 'U' || (index == 'A' && workTree == 'A')
+			|| (index == 'D' && workTree == 'D'))
+		{
+			conflicted.add(entry);
+			return;
+		}
+		if (index != UNMODIFIED)
+		{
+			staged.add(entry);
+		}
+		if (workTree != UNMODIFIED)
+		{
+			unstaged.add(entry);
+		}
+	}
+}
@@ -0,0 +1,590 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+import org.eclipse.jgit.api.AddCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEditor.PathEdit;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.GitStatusEntry;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link JGitBackend} executes the git operations in process with JGit, so neither a git
+ * executable nor a shell is required. Each repository is opened once and kept open with its index
+ * until this backend is closed, so all operations of a migration on the same repository share one
+ * handle. The operations on the same repository are serialized, the operations on different
+ * repositories run concurrently.
+ *
+ * <p>
+ * Like <code>git add -f</code>, files that are ignored by a .gitignore file are added as well.
+ * JGit skips them, so they are written directly into the index after the add command. The status
+ * is reported in the short format of <code>git status --short</code>.
+ * </p>
+ */
+@Log
+public final class JGitBackend implements GitBackend
+{
+
+	/** The git directories of the canonical execution directories. */
+	private final Map<File, File> gitDirectories = new ConcurrentHashMap<>();
+
+	/** The open repositories of the git directories. */
+	private final Map<File, RepositoryHandle> repositories = new ConcurrentHashMap<>();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String add(File executionDirectory, List<String> paths) throws IOException
+	{
+		return execute(executionDirectory, paths, (git, patterns) -> {
+			AddCommand add = git.add();
+			patterns.forEach(add::addFilepattern);
+			add.call();
+			// a second pass stages the deletions of the given files like 'git add -A'
+			AddCommand update = git.add().setUpdate(true);
+			patterns.forEach(update::addFilepattern);
+			update.call();
+			addIgnoredFiles(git.getRepository(), patterns);
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String restoreStaged(File executionDirectory, List<String> paths) throws IOException
+	{
+		return execute(executionDirectory, paths, (git, patterns) -> {
+			ResetCommand reset = git.reset();
+			patterns.forEach(reset::addPath);
+			reset.call();
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String status(File executionDirectory) throws IOException
+	{
+		RepositoryHandle handle = open(executionDirectory);
+		if (handle == null)
+		{
+			return notARepository(executionDirectory);
+		}
+		Map<String, char[]> codes;
+		try
+		{
+			codes = readStatusCodes(handle);
+		}
+		catch (GitAPIException e)
+		{
+			log.log(Level.INFO, "git status failed", e);
+			return "fatal: " + e.getMessage() + "\n";
+		}
+		StringBuilder output = new StringBuilder();
+		codes.forEach((path, code) -> {
+			// the short format shows an unmodified state as space
+			String shortCode = new String(code).replace(GitStatusParser.UNMODIFIED, ' ');
+			output.append(shortCode).append(' ').append(path).append('\n');
+		});
+		return output.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitStatus getStatus(File executionDirectory) throws IOException
+	{
+		RepositoryHandle handle = open(executionDirectory);
+		if (handle == null)
+		{
+			throw new IOException(notARepository(executionDirectory).trim());
+		}
+		Map<String, char[]> codes;
+		try
+		{
+			codes = readStatusCodes(handle);
+		}
+		catch (GitAPIException e)
+		{
+			throw new IOException("git status failed in " + executionDirectory, e);
+		}
+		List<GitStatusEntry> entries = ListFactory.newArrayList();
+		codes.forEach((path, code) -> entries.add(GitStatusEntry.builder().path(path)
+			.indexStatus(code[0]).workTreeStatus(code[1]).build()));
+		return GitStatusParser.of(entries);
+	}
+
+	/**
+	 * Closes all open repositories of this backend
+	 */
+	@Override
+	public void close()
+	{
+		repositories.values().forEach(handle -> handle.repository.close());
+		repositories.clear();
+		gitDirectories.clear();
+	}
+
+	/**
+	 * Reads the status codes of all changed and untracked paths of the given repository
+	 *
+	 * @param handle
+	 *            the handle of the repository
+	 * @return the status codes sorted by path, with the index state at the first and the work tree
+	 *         state at the second position
+	 * @throws GitAPIException
+	 *             if the status can not be read
+	 */
+	private static Map<String, char[]> readStatusCodes(RepositoryHandle handle)
+		throws GitAPIException
+	{
+		Status status;
+		handle.lock.lock();
+		try
+		{
+			status = handle.git.status().call();
+		}
+		finally
+		{
+			handle.lock.unlock();
+		}
+		Map<String, char[]> codes = new TreeMap<>();
+		status.getAdded().forEach(path -> code(codes, path)[0] = 'A');
+		status.getChanged().forEach(path -> code(codes, path)[0] = 'M');
+		status.getRemoved().forEach(path -> code(codes, path)[0] = 'D');
+		status.getModified().forEach(path -> code(codes, path)[1] = 'M');
+		status.getMissing().forEach(path -> code(codes, path)[1] = 'D');
+		status.getConflicting().forEach(path -> {
+			char[] code = code(codes, path);
+			code[0] = 'U';
+			code[1] = 'U';
+		});
+		status.getUntracked().forEach(path -> {
+			char[] code = code(codes, path);
+			code[0] = '?';
+			code[1] = '?';
+		});
+		return codes;
+	}
+
+	/**
+	 * Gets the status code of the given path and creates it if it does not exist
+	 *
+	 * @param codes
+	 *            the status codes of the paths
+	 * @param path
+	 *            the path
+	 * @return the status code with the index state at the first and the work tree state at the
+	 *         second position
+	 */
+	private static char[] code(Map<String, char[]> codes, String path)
+	{
+		return codes.computeIfAbsent(path,
+			key -> new char[] { GitStatusParser.UNMODIFIED, GitStatusParser.UNMODIFIED });
+	}
+
+	/**
+	 * Adds the files of the given patterns that are not in the index after the add command,
+	 * because they are ignored by a .gitignore file, directly to the index like
+	 * <code>git add -f</code>. Nested repositories are skipped.
+	 *
+	 * @param repository
+	 *            the repository
+	 * @param patterns
+	 *            the repository relative paths
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files or writing the index
+	 */
+	private static void addIgnoredFiles(Repository repository, List<String> patterns)
+		throws IOException
+	{
+		Path workTree = repository.getWorkTree().getCanonicalFile().toPath();
+		DirCache dirCache = repository.lockDirCache();
+		try
+		{
+			List<Path> ignoredFiles = ListFactory.newArrayList();
+			for (String pattern : patterns)
+			{
+				collectFilesNotInIndex(dirCache, workTree, workTree.resolve(pattern).normalize(),
+					ignoredFiles);
+			}
+			if (ignoredFiles.isEmpty())
+			{
+				return;
+			}
+			DirCacheEditor editor = dirCache.editor();
+			try (ObjectInserter inserter = repository.newObjectInserter())
+			{
+				for (Path file : ignoredFiles)
+				{
+					editor.add(newPathEdit(inserter, workTree, file));
+				}
+				inserter.flush();
+			}
+			editor.commit();
+		}
+		finally
+		{
+			dirCache.unlock();
+		}
+	}
+
+	/**
+	 * Collects the files and symbolic links of the given path that are not in the given index
+	 *
+	 * @param dirCache
+	 *            the index
+	 * @param workTree
+	 *            the canonical work tree
+	 * @param path
+	 *            the file or the directory to collect
+	 * @param files
+	 *            the list to add the files to
+	 * @throws IOException
+	 *             if an I/O error occurs during walking the directory
+	 */
+	private static void collectFilesNotInIndex(DirCache dirCache, Path workTree, Path path,
+		List<Path> files) throws IOException
+	{
+		if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+		{
+			if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+				&& dirCache.findEntry(toIndexPath(workTree, path)) < 0)
+			{
+				files.add(path);
+			}
+			return;
+		}
+		Files.walkFileTree(path, new SimpleFileVisitor<>()
+		{
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory,
+				BasicFileAttributes attributes)
+			{
+				// the git directory and nested repositories are never part of the index
+				if (Constants.DOT_GIT.equals(String.valueOf(directory.getFileName()))
+					|| !directory.equals(workTree)
+						&& Files.exists(directory.resolve(Constants.DOT_GIT)))
+				{
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+			{
+				if ((attributes.isRegularFile() || attributes.isSymbolicLink())
+					&& dirCache.findEntry(toIndexPath(workTree, file)) < 0)
+				{
+					files.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**
+	 * Creates the edit of the index that adds the given file or symbolic link
+	 *
+	 * @param inserter
+	 *            the inserter for the blob of the file
+	 * @param workTree
+	 *            the canonical work tree
+	 * @param file
+	 *            the file or symbolic link
+	 * @return the edit of the index
+	 * @throws IOException
+	 *             if an I/O error occurs during reading or inserting the file
+	 */
+	private static PathEdit newPathEdit(ObjectInserter inserter, Path workTree, Path file)
+		throws IOException
+	{
+		byte[] content;
+		FileMode fileMode;
+		if (Files.isSymbolicLink(file))
+		{
+			content = Files.readSymbolicLink(file).toString().getBytes(StandardCharsets.UTF_8);
+			fileMode = FileMode.SYMLINK;
+		}
+		else
+		{
+			content = Files.readAllBytes(file);
+			fileMode = Files.isExecutable(file) ? FileMode.EXECUTABLE_FILE : FileMode.REGULAR_FILE;
+		}
+		ObjectId objectId = inserter.insert(Constants.OBJ_BLOB, content);
+		Instant lastModified = Files.getLastModifiedTime(file, LinkOption.NOFOLLOW_LINKS)
+			.toInstant();
+		return new PathEdit(toIndexPath(workTree, file))
+		{
+			@Override
+			public void apply(DirCacheEntry entry)
+			{
+				entry.setFileMode(fileMode);
+				entry.setObjectId(objectId);
+				entry.setLength(content.length);
+				entry.setLastModified(lastModified);
+			}
+		};
+	}
+
+	/**
+	 * Converts the given path of the work tree to the path of its index entry
+	 *
+	 * @param workTree
+	 *            the canonical work tree
+	 * @param path
+	 *            the path in the work tree
+	 * @return the repository relative path with forward slashes
+	 */
+	private static String toIndexPath(Path workTree, Path path)
+	{
+		return workTree.relativize(path).toString().replace(File.separatorChar, '/');
+	}
+
+	/**
+	 * Creates the output for an execution directory that is not in a work tree
+	 *
+	 * @param executionDirectory
+	 *            the execution directory
+	 * @return the output
+	 */
+	private static String notARepository(File executionDirectory)
+	{
+		return "fatal: not a git repository: " + executionDirectory + "\n";
+	}
+
+	/**
+	 * Executes the given operation for the given paths in the repository of the given execution
+	 * directory
+	 *
+	 * @param executionDirectory
+	 *            the execution directory
+	 * @param paths
+	 *            the absolute paths or the paths relative to the execution directory
+	 * @param operation
+	 *            the operation
+	 * @return the output of the operation
+	 * @throws IOException
+	 *             if an I/O error occurs during opening the repository
+	 */
+	private String execute(File executionDirectory, List<String> paths, GitOperation operation)
+		throws IOException
+	{
+		if (paths.isEmpty())
+		{
+			return "";
+		}
+		RepositoryHandle handle = open(executionDirectory);
+		if (handle == null)
+		{
+			return notARepository(executionDirectory);
+		}
+		StringBuilder output = new StringBuilder();
+		List<String> patterns = ListFactory.newArrayList();
+		for (String path : paths)
+		{
+			File file = new File(path);
+			if (!file.isAbsolute())
+			{
+				file = new File(executionDirectory, path);
+			}
+			// only the parent is resolved, a symbolic link itself has to be staged as link
+			File parent = file.getAbsoluteFile().getParentFile();
+			Path canonical = parent == null
+				? file.toPath()
+				: parent.getCanonicalFile().toPath().resolve(file.getName()).normalize();
+			if (!canonical.startsWith(handle.workTree))
+			{
+				output.append("fatal: ").append(path).append(": '").append(path)
+					.append("' is outside repository at '").append(handle.workTree).append("'\n");
+				continue;
+			}
+			String pattern = handle.workTree.relativize(canonical).toString()
+				.replace(File.separatorChar, '/');
+			patterns.add(pattern.isEmpty() ? "." : pattern);
+		}
+		if (patterns.isEmpty())
+		{
+			return output.toString();
+		}
+		handle.lock.lock();
+		try
+		{
+			operation.execute(handle.git, patterns);
+		}
+		catch (GitAPIException e)
+		{
+			log.log(Level.INFO, "git operation failed", e);
+			output.append("fatal: ").append(e.getMessage()).append('\n');
+		}
+		finally
+		{
+			handle.lock.unlock();
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Opens the repository of the given execution directory or returns the already open one
+	 *
+	 * @param executionDirectory
+	 *            the execution directory
+	 * @return the handle of the repository or null if the execution directory is not in a work
+	 *         tree
+	 * @throws IOException
+	 *             if an I/O error occurs during opening the repository
+	 */
+	private RepositoryHandle open(File executionDirectory) throws IOException
+	{
+		File directory = executionDirectory.getCanonicalFile();
+		File gitDirectory = gitDirectories.get(directory);
+		if (gitDirectory == null)
+		{
+			FileRepositoryBuilder builder = new FileRepositoryBuilder().findGitDir(directory);
+			if (builder.getGitDir() == null)
+			{
+				return null;
+			}
+			gitDirectory = builder.getGitDir().getCanonicalFile();
+			gitDirectories.put(directory, gitDirectory);
+		}
+		try
+		{
+			return repositories.computeIfAbsent(gitDirectory, key -> {
+				try
+				{
+					return new RepositoryHandle(
+						new FileRepositoryBuilder().setGitDir(key).setMustExist(true).build());
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * The operation on a repository
+	 */
+	@FunctionalInterface
+	private interface GitOperation
+	{
+		/**
+		 * Executes the operation
+		 *
+		 * @param git
+		 *            the git api of the repository
+		 * @param patterns
+		 *            the repository relative paths
+		 * @throws GitAPIException
+		 *             if the operation fails
+		 * @throws IOException
+		 *             if an I/O error occurs
+		 */
+		void execute(Git git, List<String> patterns) throws GitAPIException, IOException;
+	}
+
+	/**
+	 * An open repository with the lock that serializes its operations
+	 */
+	private static final class RepositoryHandle
+	{
+		/** The repository. */
+		final Repository repository;
+
+		/** The git api of the repository. */
+		final Git git;
+
+		/** The canonical work tree of the repository. */
+		final Path workTree;
+
+		/** The lock that serializes the operations on the repository. */
+		final ReentrantLock lock = new ReentrantLock();
+
+		/**
+		 * Instantiates a new {@link RepositoryHandle}
+		 *
+		 * @param repository
+		 *            the repository
+		 * @throws IOException
+		 *             if the repository is bare or its work tree can not be resolved
+		 */
+		RepositoryHandle(Repository repository) throws IOException
+		{
+			this.repository = repository;
+			if (repository.isBare())
+			{
+				repository.close();
+				throw new IOException(
+					"Repository has no work tree: " + repository.getDirectory());
+			}
+			this.git = Git.wrap(repository);
+			this.workTree = repository.getWorkTree().getCanonicalFile().toPath();
+		}
+	}
+}
@@ -0,0 +1,333 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.ProcessCommand;
+import io.github.astrapi69.gradle.migration.info.ProcessResult;
+import io.github.astrapi69.gradle.migration.process.ProcessExecutor;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link ShellGitBackend} executes the git operations with the git executable. All
+ * paths of an operation are written to the standard input of a single git process with the option
+ * '--pathspec-from-file'. If the installed git does not support this option the paths are passed
+ * as arguments to as few git processes as the argument length limit allows. The git processes are
+ * started by a {@link ProcessExecutor} that limits their number and kills them after their
+ * deadline.
+ */
+@Log
+public final class ShellGitBackend implements GitBackend
+{
+
+	/**
+	 * The maximum length in bytes of the arguments of a single git process. It is far below the
+	 * usual ARG_MAX of 2 MiB because the environment shares the same space.
+	 */
+	public static final int MAX_ARGUMENTS_LENGTH = 128 * 1024;
+
+	/** The exit code of git for an invalid usage, for instance an unknown option. */
+	private static final int USAGE_ERROR = 129;
+
+	/** The git command that adds files to the index. */
+	private static final List<String> ADD_COMMAND = List.of("git", "-c", "credential.helper=",
+		"-c", "core.quotepath=false", "-c", "log.showSignature=false", "--literal-pathspecs",
+		"add", "--ignore-errors", "-A", "-f");
+
+	/** The git command that removes files from the index. */
+	private static final List<String> RESTORE_STAGED_COMMAND = List.of("git", "-c",
+		"credential.helper=", "--literal-pathspecs", "restore", "--staged");
+
+	/** The git command that reports the status of the work tree. */
+	private static final List<String> STATUS_COMMAND = List.of("git", "status");
+
+	/** The git command that reports the status of the work tree in a machine readable format. */
+	private static final List<String> PORCELAIN_STATUS_COMMAND = List.of("git", "-c",
+		"core.quotepath=false", "--no-optional-locks", "status", "--porcelain=v2", "-z");
+
+	/** The executor that starts the git processes. */
+	private final ProcessExecutor processExecutor;
+
+	/**
+	 * Instantiates a new {@link ShellGitBackend} that uses the shared {@link ProcessExecutor}
+	 */
+	public ShellGitBackend()
+	{
+		this(ProcessExecutor.getDefault());
+	}
+
+	/**
+	 * Instantiates a new {@link ShellGitBackend} that uses the given {@link ProcessExecutor}
+	 *
+	 * @param processExecutor
+	 *            the executor that starts the git processes
+	 */
+	public ShellGitBackend(@NonNull ProcessExecutor processExecutor)
+	{
+		this.processExecutor = processExecutor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String add(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException
+	{
+		return executeWithPathspecs(ADD_COMMAND, paths, executionDirectory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String restoreStaged(File executionDirectory, List<String> paths)
+		throws IOException, InterruptedException
+	{
+		return executeWithPathspecs(RESTORE_STAGED_COMMAND, paths, executionDirectory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String status(File executionDirectory) throws IOException, InterruptedException
+	{
+		StringBuilder output = new StringBuilder();
+		execute(STATUS_COMMAND, executionDirectory, null, output);
+		return output.toString();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GitStatus getStatus(File executionDirectory) throws IOException, InterruptedException
+	{
+		AtomicReference<GitStatus> status = new AtomicReference<>();
+		ProcessResult result = processExecutor.execute(ProcessCommand.builder()
+			.command(PORCELAIN_STATUS_COMMAND).directory(executionDirectory)
+			.outputHandler(stdout -> status.set(GitStatusParser.parse(stdout))).build());
+		if (!result.isSuccessful())
+		{
+			throw new IOException("git status failed with exit code " + result.getExitCode()
+				+ " in " + executionDirectory + ": " + result.getErrorOutput().trim());
+		}
+		return status.get();
+	}
+
+	/**
+	 * Executes the given git command for the given paths. The paths are written NUL separated to
+	 * the standard input of a single git process. If git exits with the usage error code, the
+	 * option '--pathspec-from-file' is not supported and the paths are passed in chunks as
+	 * arguments instead. If git fails for another reason, the paths are executed one by one, so a
+	 * single bad path does not prevent the others.
+	 *
+	 * @param command
+	 *            the git command without paths
+	 * @param paths
+	 *            the paths
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @return the output of the executed commands
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private String executeWithPathspecs(List<String> command, List<String> paths,
+		File executionDirectory) throws IOException, InterruptedException
+	{
+		if (paths.isEmpty())
+		{
+			return "";
+		}
+		List<String> stdinCommand = new ArrayList<>(command);
+		stdinCommand.add("--pathspec-from-file=-");
+		stdinCommand.add("--pathspec-file-nul");
+		ByteArrayOutputStream input = new ByteArrayOutputStream();
+		for (String path : paths)
+		{
+			input.write(path.getBytes(StandardCharsets.UTF_8));
+			input.write(0);
+		}
+		log.info("Executing command: " + String.join(" ", stdinCommand) + " with " + paths.size()
+			+ " paths");
+		StringBuilder output = new StringBuilder();
+		int exitCode = execute(stdinCommand, executionDirectory, input.toByteArray(), output);
+		if (exitCode == 0)
+		{
+			return output.toString();
+		}
+		output.setLength(0);
+		if (exitCode != USAGE_ERROR)
+		{
+			executeEach(command, paths, executionDirectory, output);
+			return output.toString();
+		}
+		List<String> chunk = new ArrayList<>(command);
+		chunk.add("--");
+		int fixedLength = argumentsLength(chunk);
+		int length = fixedLength;
+		for (String path : paths)
+		{
+			int pathLength = path.getBytes(StandardCharsets.UTF_8).length + 1;
+			if (length + pathLength > MAX_ARGUMENTS_LENGTH && chunk.size() > command.size() + 1)
+			{
+				executeChunk(command, chunk, executionDirectory, output);
+				chunk.subList(command.size() + 1, chunk.size()).clear();
+				length = fixedLength;
+			}
+			chunk.add(path);
+			length += pathLength;
+		}
+		executeChunk(command, chunk, executionDirectory, output);
+		return output.toString();
+	}
+
+	/**
+	 * Executes the given chunk of a git command with its paths as arguments. If git fails, the
+	 * paths of the chunk are executed one by one, like {@link #executeEach(List, List, File,
+	 * StringBuilder)} does.
+	 *
+	 * @param command
+	 *            the git command without paths
+	 * @param chunk
+	 *            the git command with the separator '--' and the paths of the chunk
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @param output
+	 *            the builder that receives the output of the executed commands
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private void executeChunk(List<String> command, List<String> chunk, File executionDirectory,
+		StringBuilder output) throws IOException, InterruptedException
+	{
+		int outputLength = output.length();
+		if (execute(chunk, executionDirectory, null, output) != 0)
+		{
+			output.setLength(outputLength);
+			executeEach(command, chunk.subList(command.size() + 1, chunk.size()),
+				executionDirectory, output);
+		}
+	}
+
+	/**
+	 * Executes the given git command with one git process per path. Git rejects the whole batch if
+	 * a single pathspec does not match, for instance a path that is neither on disk nor in the
+	 * index, so a failed batch is repeated path by path and only the failing paths are left out.
+	 * The failing paths are logged and their error output is part of the returned output.
+	 *
+	 * @param command
+	 *            the git command without paths
+	 * @param paths
+	 *            the paths
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @param output
+	 *            the builder that receives the output of the executed commands
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private void executeEach(List<String> command, List<String> paths, File executionDirectory,
+		StringBuilder output) throws IOException, InterruptedException
+	{
+		List<String> single = new ArrayList<>(command);
+		single.add("--");
+		for (String path : paths)
+		{
+			single.add(path);
+			int exitCode = execute(single, executionDirectory, null, output);
+			if (exitCode != 0)
+			{
+				log.warning("The command " + String.join(" ", command) + " failed with exit code "
+					+ exitCode + " for the path " + path + " in " + executionDirectory);
+			}
+			single.remove(single.size() - 1);
+		}
+	}
+
+	/**
+	 * Computes the length of the given arguments as they are passed to a new process
+	 *
+	 * @param arguments
+	 *            the arguments
+	 * @return the length in bytes including the terminating NUL characters
+	 */
+	private static int argumentsLength(List<String> arguments)
+	{
+		int length = 0;
+		for (String argument : arguments)
+		{
+			length += argument.getBytes(StandardCharsets.UTF_8).length + 1;
+		}
+		return length;
+	}
+
+	/**
+	 * Executes the given command without a shell and appends its output to the given builder
+	 *
+	 * @param command
+	 *            the command and its arguments
+	 * @param executionDirectory
+	 *            the directory where the command should be executed
+	 * @param input
+	 *            the bytes to write to the standard input of the process or null for none
+	 * @param output
+	 *            the builder that receives the standard and error output of the process
+	 * @return the exit code of the process
+	 * @throws IOException
+	 *             if an I/O error occurs or the process misses its deadline
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private int execute(List<String> command, File executionDirectory, byte[] input,
+		StringBuilder output) throws IOException, InterruptedException
+	{
+		ProcessResult result = processExecutor.execute(ProcessCommand.builder().command(command)
+			.directory(executionDirectory).input(input).build());
+		if (result.isTimedOut())
+		{
+			throw new IOException("The command " + String.join(" ", command) + " in "
+				+ executionDirectory + " did not finish after " + result.getDuration());
+		}
+		output.append(result.getOutput()).append(result.getErrorOutput());
+		return result.getExitCode();
+	}
+}
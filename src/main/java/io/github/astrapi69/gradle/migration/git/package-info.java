@@ -0,0 +1,38 @@
+/**
+ * This package provides the backends that execute the git operations of a migration, like adding
+ * files to the index, removing them from the index and reading the status of a work tree.
+ *
+ * The main functionalities include:
+ *
+ * <ul>
+ * <li>Executing the git operations with the git executable, where all paths of an operation are
+ * passed to a single git process.</li>
+ * <li>Executing the git operations in process with JGit, so no git executable and no shell are
+ * required and the repositories stay open for the whole migration.</li>
+ * <li>Executing the git operations of several threads safely, where the operations on the same
+ * repository are queued and merged into batches.</li>
+ * <li>Reading the status of a work tree as structured entries, which are cached until the index of
+ * the repository changes.</li>
+ * </ul>
+ *
+ * The following classes are included in this package:
+ *
+ * <ul>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.ConcurrentGitBackend} - Serializes and
+ * batches the operations on the same repository, while different repositories run in
+ * parallel.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.GitBackend} - The git operations of a
+ * migration.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.GitDirectories} - Resolves the work tree and
+ * the git directory of a repository.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.GitStatusCache} - Caches the status of the
+ * repositories until their index files change.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.GitStatusParser} - Parses the porcelain
+ * version 2 output of git status from a stream.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.JGitBackend} - Executes the git operations
+ * in process with JGit.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.git.ShellGitBackend} - Executes the git
+ * operations with the git executable.</li>
+ * </ul>
+ */
+package io.github.astrapi69.gradle.migration.git;
@@ -31,7 +31,7 @@ import lombok.experimental.FieldDefaults;
 
 /**
  * The class {@link DependencyInfo} represents information about a single dependency in a Gradle
- * project, including its scope, group ID, artifact ID, and version.
+ * project, including its scope, group ID, artifact ID, version and classifier.
  */
 @Data
 @Builder
@@ -52,4 +52,7 @@ public class DependencyInfo
 
 	/** The version of the dependency. */
 	String version;
+
+	/** The classifier of the dependency, e.g. 'sources' or 'jdk8'. */
+	String classifier;
 }
@@ -0,0 +1,65 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link GitStatus} holds the parsed status of a git work tree. A path that has changes
+ * in the index and in the work tree is contained in the staged and in the unstaged entries.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GitStatus
+{
+	/** The entries with changes in the index. */
+	List<GitStatusEntry> staged;
+
+	/** The entries with changes in the work tree that are not staged. */
+	List<GitStatusEntry> unstaged;
+
+	/** The untracked entries. */
+	List<GitStatusEntry> untracked;
+
+	/** The entries with merge conflicts. */
+	List<GitStatusEntry> conflicted;
+
+	/**
+	 * Checks if the work tree is clean, so it contains neither changes nor untracked files
+	 *
+	 * @return true if the work tree is clean, otherwise false
+	 */
+	public boolean isClean()
+	{
+		return staged.isEmpty() && unstaged.isEmpty() && untracked.isEmpty()
+			&& conflicted.isEmpty();
+	}
+}
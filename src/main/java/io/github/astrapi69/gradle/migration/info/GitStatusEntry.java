@@ -0,0 +1,53 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link GitStatusEntry} represents a single path of the status of a git work tree with
+ * the status codes of the index and the work tree as reported by
+ * <code>git status --porcelain=v2</code>, where the character '.' stands for an unmodified state.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GitStatusEntry
+{
+	/** The path relative to the top-level directory of the work tree. */
+	String path;
+
+	/** The original path of a renamed or copied path or null if the path was not renamed. */
+	String originalPath;
+
+	/** The status code of the index, for instance 'A', 'M', 'D', 'R' or '.'. */
+	char indexStatus;
+
+	/** The status code of the work tree, for instance 'M', 'D' or '.'. */
+	char workTreeStatus;
+}
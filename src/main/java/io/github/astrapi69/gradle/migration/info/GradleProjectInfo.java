@@ -50,6 +50,11 @@ public class GradleProjectInfo
 	/** A reference to the libs.versions.toml file used for managing version catalogs. */
 	File libsVersionsTomlFile;
 
-	/** The content of the libs.versions.toml file as a string. */
+	/**
+	 * The planned content of the libs.versions.toml file as a string. The content is planned in
+	 * memory with a {@link io.github.astrapi69.gradle.migration.toml.MigrationPlan} and only kept
+	 * if no file is written, for instance in dry run mode, because a committed plan has already
+	 * written it into the libs.versions.toml file.
+	 */
 	String libsVersionTomlMapAsString;
 }
@@ -26,6 +26,7 @@ package io.github.astrapi69.gradle.migration.info;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Objects;
 
 import io.github.astrapi69.file.create.DirectoryFactory;
 import lombok.AccessLevel;
@@ -35,14 +36,18 @@ import lombok.experimental.FieldDefaults;
 
 /**
  * The class {@link MigrationInfo} holds information related to the migration of a Gradle project,
- * including references to the project directory and the Gradle directory.
+ * including references to the project directory and the Gradle directory.<br>
+ * <br>
+ * An instance that is created with {@link #probe(String)} is read-only, its paths are resolved
+ * lazily and the file system is not touched until a write stage calls
+ * {@link #createDirectories()}.
  */
 @Data
 @Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class MigrationInfo
 {
-	/** The Gradle directory within the project. */
+	/** The Gradle directory within the project, resolved lazily if not set. */
 	File gradleDirectory;
 
 	/** The root directory of the project. */
@@ -66,4 +71,53 @@ public class MigrationInfo
 		return MigrationInfo.builder().projectDirectory(projectDirectory)
 			.gradleDirectory(gradleDirectory).build();
 	}
+
+	/**
+	 * Factory method for create a new read-only {@link MigrationInfo} from the absolute path of a
+	 * project directory. In difference to {@link #fromAbsolutePath(String)} no directories are
+	 * created and the file system is not accessed at all, so this method can be used to analyze
+	 * read-only mirrors or snapshots of projects.
+	 *
+	 * @param projectDirectoryName
+	 *            the absolute path of the project directory
+	 * @return the new read-only {@link MigrationInfo}
+	 */
+	public static MigrationInfo probe(String projectDirectoryName)
+	{
+		Objects.requireNonNull(projectDirectoryName);
+		return MigrationInfo.builder().projectDirectory(new File(projectDirectoryName)).build();
+	}
+
+	/**
+	 * Gets the Gradle directory within the project. If no Gradle directory was set, it is resolved
+	 * from the project directory without accessing the file system.
+	 *
+	 * @return the Gradle directory or null if neither the Gradle directory nor the project
+	 *         directory is set
+	 */
+	public File getGradleDirectory()
+	{
+		if (gradleDirectory == null && projectDirectory != null)
+		{
+			gradleDirectory = new File(projectDirectory,
+				DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		}
+		return gradleDirectory;
+	}
+
+	/**
+	 * Creates the project directory and the Gradle directory if they do not already exist. This
+	 * method is called by the write stages before any file is written.
+	 *
+	 * @return this {@link MigrationInfo} object
+	 * @throws IOException
+	 *             if an I/O error occurs during directory creation
+	 */
+	public MigrationInfo createDirectories() throws IOException
+	{
+		Objects.requireNonNull(projectDirectory);
+		DirectoryFactory.newDirectory(projectDirectory.getAbsolutePath());
+		DirectoryFactory.newDirectory(getGradleDirectory().getAbsolutePath());
+		return this;
+	}
 }
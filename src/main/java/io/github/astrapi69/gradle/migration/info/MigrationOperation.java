@@ -0,0 +1,96 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link MigrationOperation} represents a single planned file system or git operation of
+ * a migration, for instance the write of a libs.versions.toml file. The operations are collected
+ * in memory and only executed when their plan is committed. All paths are kept as absolute path
+ * names, so the operations can be serialized.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MigrationOperation implements Serializable
+{
+	/** The serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The type of the operation. */
+	Type type;
+
+	/** The file to write, move or delete, or the repository directory of a git stage. */
+	String path;
+
+	/** The target file of a move operation. */
+	String targetPath;
+
+	/** The new content of a write operation. */
+	String content;
+
+	/** The files of a git stage operation. */
+	List<String> files;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return switch (type)
+		{
+			case WRITE -> type + " " + path + " (" + content.length() + " characters)";
+			case MOVE -> type + " " + path + " -> " + targetPath;
+			case DELETE -> type + " " + path;
+			case GIT_STAGE -> type + " " + files + " in " + path;
+		};
+	}
+
+	/**
+	 * The enum {@link Type} defines the types of the planned operations
+	 */
+	public enum Type
+	{
+		/** Writes the content into a file and replaces an existing file. */
+		WRITE,
+
+		/** Moves a file to the target file and replaces an existing target file. */
+		MOVE,
+
+		/** Deletes a file if it exists. */
+		DELETE,
+
+		/** Adds files to the git index of a repository. */
+		GIT_STAGE
+	}
+}
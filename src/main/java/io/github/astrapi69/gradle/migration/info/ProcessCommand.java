@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import io.github.astrapi69.gradle.migration.process.OutputHandler;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link ProcessCommand} describes a command that is executed as a child process without
+ * a shell, together with the handling of its input and output.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProcessCommand
+{
+	/** The program and its arguments. */
+	List<String> command;
+
+	/** The working directory of the process or null for the current directory. */
+	File directory;
+
+	/** The bytes for the standard input of the process or null for an empty input. */
+	byte[] input;
+
+	/** The maximum duration of the execution or null for the default of the executor. */
+	Duration timeout;
+
+	/** The callback for each line of the standard output or null for none. */
+	Consumer<String> outputListener;
+
+	/** The callback for each line of the error output or null for none. */
+	Consumer<String> errorListener;
+
+	/** The handler that consumes the standard output as a stream instead of the buffer. */
+	OutputHandler outputHandler;
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.time.Duration;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link ProcessResult} holds the outcome of a child process. The output and the error
+ * output contain only the last bytes of a large output.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProcessResult
+{
+	/** The program and its arguments. */
+	List<String> command;
+
+	/** The exit code of the process or -1 if the process was killed or never started. */
+	int exitCode;
+
+	/** The last bytes of the standard output, empty if an output handler consumed it. */
+	String output;
+
+	/** The last bytes of the error output. */
+	String errorOutput;
+
+	/** Flag that indicates if the output or the error output was truncated. */
+	boolean truncated;
+
+	/** Flag that indicates if the process did not finish before its deadline. */
+	boolean timedOut;
+
+	/** The duration of the execution including the wait for a free process slot. */
+	Duration duration;
+
+	/**
+	 * Checks if the process finished in time with the exit code 0
+	 *
+	 * @return true if the process was successful, otherwise false
+	 */
+	public boolean isSuccessful()
+	{
+		return !timedOut && exitCode == 0;
+	}
+}
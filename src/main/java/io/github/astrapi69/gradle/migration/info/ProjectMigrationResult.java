@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.io.File;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link ProjectMigrationResult} holds the outcome of the migration of a single project
+ * of a fleet migration, either the changed files or the stage that failed with its cause.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ProjectMigrationResult
+{
+	/** The information about the source and target project structure. */
+	ProjectTomlStructureInfo projectTomlStructureInfo;
+
+	/** The migrated project information or null if the migration failed before parsing. */
+	GradleProjectInfo gradleProjectInfo;
+
+	/** The files that were changed by the migration. */
+	List<File> changedFiles;
+
+	/** The name of the stage that failed or null if the migration was successful. */
+	String failedStage;
+
+	/** The cause of the failure or null if the migration was successful. */
+	Throwable failure;
+
+	/** Flag that indicates if the project was already migrated by a previous run and skipped. */
+	boolean skipped;
+
+	/**
+	 * Checks if the migration of the project was successful
+	 *
+	 * @return true if the migration was successful, otherwise false
+	 */
+	public boolean isSuccessful()
+	{
+		return failure == null;
+	}
+}
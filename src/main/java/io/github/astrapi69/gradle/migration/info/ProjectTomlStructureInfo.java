@@ -55,4 +55,7 @@ public class ProjectTomlStructureInfo
 
 	/** The name of the target project. */
 	String targetProjectName;
+
+	/** Flag that indicates if the migration only analyzes the project without writing any file. */
+	boolean dryRun;
 }
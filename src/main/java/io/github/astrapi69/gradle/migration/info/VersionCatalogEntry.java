@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The class {@link VersionCatalogEntry} represents a single entry of one of the tables
+ * '[versions]', '[libraries]', '[bundles]' or '[plugins]' of a libs.versions.toml file, including
+ * the location of the entry inside the content of the file.
+ */
+@Data
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class VersionCatalogEntry
+{
+	/** The alias of the entry, which is the key in its table. */
+	String alias;
+
+	/** The module of a library in the form 'group:name'. */
+	String module;
+
+	/** The id of a plugin. */
+	String id;
+
+	/** The version of a version entry, library or plugin if it is declared directly. */
+	String version;
+
+	/** The alias of the referenced version entry of a library or plugin. */
+	String versionRef;
+
+	/** The aliases of the libraries of a bundle. */
+	List<String> members;
+
+	/** The start offset of the entry, which is the start of its key. */
+	int start;
+
+	/** The end offset of the entry (exclusive), which is the end of its value. */
+	int end;
+}
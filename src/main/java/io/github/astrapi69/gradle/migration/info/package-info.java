@@ -23,13 +23,31 @@
  * <li>{@link io.github.astrapi69.gradle.migration.info.DependencyInfo} - Represents information
  * about a single dependency in a Gradle project, including its scope, group ID, artifact ID, and
  * version.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.GitStatus} - Holds the parsed status of a
+ * git work tree.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.GitStatusEntry} - Represents a single path
+ * of the status of a git work tree.</li>
  * <li>{@link io.github.astrapi69.gradle.migration.info.GradleProjectInfo} - Contains comprehensive
  * information about a Gradle project, including dependencies and migration details.</li>
  * <li>{@link io.github.astrapi69.gradle.migration.info.MigrationInfo} - Provides details about the
  * migration process for a Gradle project, including project and Gradle directory references.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.MigrationOperation} - Represents a single
+ * planned write, move, delete or git stage of a migration plan.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.ProcessCommand} - Describes a command that
+ * is executed as a child process together with its input, deadline and output handling.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.ProcessResult} - Holds the exit code, the
+ * captured output and the duration of an executed child process.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.ProjectMigrationResult} - Holds the outcome
+ * of the migration of a single project of a fleet migration.</li>
  * <li>{@link io.github.astrapi69.gradle.migration.info.ProjectTomlStructureInfo} - Holds
  * information related to the TOML structure of a Gradle project, including source and target
  * project details.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.SectionSpan} - Represents the location of a
+ * named section inside the content of a Gradle build script.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.VersionCatalogEntry} - Represents a single
+ * entry of a table of a libs.versions.toml file.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.info.VersionAssignment} - Represents the
+ * location of the top-level version assignment of a Gradle build script.</li>
  * </ul>
  *
  * These classes collectively support the smooth migration and management of Gradle-based projects
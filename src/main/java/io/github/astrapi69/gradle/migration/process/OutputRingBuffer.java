@@ -0,0 +1,136 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.process;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The class {@link OutputRingBuffer} keeps the last bytes of the output of a process in a buffer
+ * with a fixed capacity, so a process with a huge output can not exhaust the heap. If more bytes
+ * are written than the capacity allows, the oldest bytes are overwritten.
+ */
+final class OutputRingBuffer
+{
+
+	/** The buffer. */
+	private final byte[] buffer;
+
+	/** The position of the next byte to write. */
+	private int position;
+
+	/** The total number of written bytes. */
+	private long written;
+
+	/**
+	 * Instantiates a new {@link OutputRingBuffer}
+	 *
+	 * @param capacity
+	 *            the maximum number of bytes that are kept
+	 */
+	OutputRingBuffer(int capacity)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("The capacity has to be positive");
+		}
+		this.buffer = new byte[capacity];
+	}
+
+	/**
+	 * Writes the given bytes into this buffer
+	 *
+	 * @param bytes
+	 *            the bytes
+	 * @param offset
+	 *            the offset of the first byte to write
+	 * @param length
+	 *            the number of bytes to write
+	 */
+	synchronized void write(byte[] bytes, int offset, int length)
+	{
+		written += length;
+		if (length >= buffer.length)
+		{
+			// only the last bytes fit into the buffer
+			System.arraycopy(bytes, offset + length - buffer.length, buffer, 0, buffer.length);
+			position = 0;
+			return;
+		}
+		int first = Math.min(length, buffer.length - position);
+		System.arraycopy(bytes, offset, buffer, position, first);
+		System.arraycopy(bytes, offset + first, buffer, 0, length - first);
+		position = (position + length) % buffer.length;
+	}
+
+	/**
+	 * Checks if bytes were overwritten
+	 *
+	 * @return true if more bytes were written than this buffer can keep, otherwise false
+	 */
+	synchronized boolean isTruncated()
+	{
+		return written > buffer.length;
+	}
+
+	/**
+	 * Gets the total number of written bytes
+	 *
+	 * @return the total number of written bytes
+	 */
+	synchronized long getWritten()
+	{
+		return written;
+	}
+
+	/**
+	 * Gets the kept bytes in the order they were written
+	 *
+	 * @return the kept bytes
+	 */
+	synchronized byte[] toByteArray()
+	{
+		if (!isTruncated())
+		{
+			byte[] bytes = new byte[(int)written];
+			System.arraycopy(buffer, 0, bytes, 0, bytes.length);
+			return bytes;
+		}
+		byte[] bytes = new byte[buffer.length];
+		System.arraycopy(buffer, position, bytes, 0, buffer.length - position);
+		System.arraycopy(buffer, 0, bytes, buffer.length - position, position);
+		return bytes;
+	}
+
+	/**
+	 * Decodes the kept bytes with UTF-8
+	 *
+	 * @return the kept output
+	 */
+	@Override
+	public String toString()
+	{
+		return new String(toByteArray(), StandardCharsets.UTF_8);
+	}
+}
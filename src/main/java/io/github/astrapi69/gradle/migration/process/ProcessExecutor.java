@@ -0,0 +1,422 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+import io.github.astrapi69.gradle.migration.info.ProcessCommand;
+import io.github.astrapi69.gradle.migration.info.ProcessResult;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link ProcessExecutor} runs commands as child processes without a shell. The standard
+ * and the error output are read on virtual threads into ring buffers with a fixed capacity and can
+ * be observed line by line with callbacks. Each command has a deadline, a process that does not
+ * finish in time is killed together with its descendants. A semaphore limits the number of child
+ * processes that run at the same time, so a large batch can not exhaust the process table.
+ */
+@Log
+public final class ProcessExecutor
+{
+
+	/** The default capacity of the buffers for the standard and the error output. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The default deadline of a command. */
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(5);
+
+	/** The time a process gets to terminate before it is killed forcibly. */
+	private static final Duration DESTROY_GRACE_PERIOD = Duration.ofSeconds(2);
+
+	/** The executor that is shared by all git operations of this module. */
+	private static final ProcessExecutor DEFAULT = new ProcessExecutor(
+		Runtime.getRuntime().availableProcessors() * 2, DEFAULT_TIMEOUT, DEFAULT_BUFFER_SIZE);
+
+	/** The permits for the child processes. */
+	private final Semaphore processPermits;
+
+	/** The deadline of a command that has no own timeout. */
+	private final Duration defaultTimeout;
+
+	/** The capacity of the buffers for the standard and the error output. */
+	private final int bufferSize;
+
+	/**
+	 * Instantiates a new {@link ProcessExecutor}
+	 *
+	 * @param maxProcesses
+	 *            the maximum number of child processes that run at the same time
+	 * @param defaultTimeout
+	 *            the deadline of a command that has no own timeout
+	 * @param bufferSize
+	 *            the capacity of the buffers for the standard and the error output
+	 */
+	public ProcessExecutor(int maxProcesses, @NonNull Duration defaultTimeout, int bufferSize)
+	{
+		if (maxProcesses < 1 || bufferSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"The number of processes and the buffer size have to be positive");
+		}
+		this.processPermits = new Semaphore(maxProcesses, true);
+		this.defaultTimeout = defaultTimeout;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Gets the executor that is shared by all git operations of this module
+	 *
+	 * @return the shared executor
+	 */
+	public static ProcessExecutor getDefault()
+	{
+		return DEFAULT;
+	}
+
+	/**
+	 * Gets the number of child processes that can be started without waiting
+	 *
+	 * @return the number of free process slots
+	 */
+	public int getAvailableProcesses()
+	{
+		return processPermits.availablePermits();
+	}
+
+	/**
+	 * Executes the given command in the given directory with the default deadline
+	 *
+	 * @param command
+	 *            the program and its arguments
+	 * @param directory
+	 *            the working directory of the process
+	 * @return the result of the process
+	 * @throws IOException
+	 *             if the process can not be started or an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting, the process is killed then
+	 */
+	public ProcessResult execute(List<String> command, File directory)
+		throws IOException, InterruptedException
+	{
+		return execute(ProcessCommand.builder().command(command).directory(directory).build());
+	}
+
+	/**
+	 * Executes the given command. The deadline includes the wait for a free process slot. A
+	 * process that misses its deadline is killed and its result is marked as timed out.
+	 *
+	 * @param processCommand
+	 *            the command with the handling of its input and output
+	 * @return the result of the process
+	 * @throws IOException
+	 *             if the process can not be started, an I/O error occurs or the output handler
+	 *             fails with an {@link IOException}, a {@link RuntimeException} of the output
+	 *             handler is thrown as it is, the process is killed in both cases
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting, the process is killed then
+	 */
+	public ProcessResult execute(@NonNull ProcessCommand processCommand)
+		throws IOException, InterruptedException
+	{
+		List<String> command = processCommand.getCommand();
+		Duration timeout = processCommand.getTimeout() != null
+			? processCommand.getTimeout()
+			: defaultTimeout;
+		long start = System.nanoTime();
+		long deadline = start + timeout.toNanos();
+		OutputRingBuffer output = new OutputRingBuffer(bufferSize);
+		OutputRingBuffer errors = new OutputRingBuffer(bufferSize);
+		if (!processPermits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS))
+		{
+			log.warning("No free process slot for " + command + " within " + timeout);
+			return result(command, -1, output, errors, true, start);
+		}
+		try
+		{
+			Process process = new ProcessBuilder(command)
+				.directory(processCommand.getDirectory()).start();
+			AtomicReference<Exception> handlerFailure = new AtomicReference<>();
+			Thread inputWriter = Thread.ofVirtual()
+				.start(() -> writeInput(process, processCommand.getInput()));
+			Thread outputReader = Thread.ofVirtual().start(() -> {
+				try (InputStream stdout = process.getInputStream())
+				{
+					if (processCommand.getOutputHandler() != null)
+					{
+						processCommand.getOutputHandler().handle(stdout);
+					}
+					else
+					{
+						copy(stdout, output, processCommand.getOutputListener());
+					}
+				}
+				catch (IOException | RuntimeException e)
+				{
+					handlerFailure.set(e);
+					// a process that can not write its output any more would hang
+					process.destroy();
+				}
+			});
+			Thread errorReader = Thread.ofVirtual().start(() -> {
+				try (InputStream stderr = process.getErrorStream())
+				{
+					copy(stderr, errors, processCommand.getErrorListener());
+				}
+				catch (IOException e)
+				{
+					log.log(Level.FINE, "Could not read the error output of " + command, e);
+				}
+			});
+			boolean finished;
+			try
+			{
+				finished = process.waitFor(Math.max(0, deadline - System.nanoTime()),
+					TimeUnit.NANOSECONDS);
+				if (!finished)
+				{
+					log.warning("Killing " + command + " after its deadline of " + timeout);
+					destroy(process);
+				}
+				joinReaders(process, inputWriter, outputReader, errorReader);
+			}
+			catch (InterruptedException e)
+			{
+				destroy(process);
+				throw e;
+			}
+			if (handlerFailure.get() instanceof RuntimeException failure)
+			{
+				throw failure;
+			}
+			if (handlerFailure.get() instanceof IOException failure)
+			{
+				throw failure;
+			}
+			return result(command, finished ? process.exitValue() : -1, output, errors,
+				!finished, start);
+		}
+		finally
+		{
+			processPermits.release();
+		}
+	}
+
+	/**
+	 * Creates the result of a process
+	 *
+	 * @param command
+	 *            the program and its arguments
+	 * @param exitCode
+	 *            the exit code
+	 * @param output
+	 *            the buffer of the standard output
+	 * @param errors
+	 *            the buffer of the error output
+	 * @param timedOut
+	 *            flag that indicates if the process missed its deadline
+	 * @param start
+	 *            the start time in nanoseconds
+	 * @return the result
+	 */
+	private static ProcessResult result(List<String> command, int exitCode,
+		OutputRingBuffer output, OutputRingBuffer errors, boolean timedOut, long start)
+	{
+		return ProcessResult.builder().command(command).exitCode(exitCode)
+			.output(output.toString()).errorOutput(errors.toString())
+			.truncated(output.isTruncated() || errors.isTruncated()).timedOut(timedOut)
+			.duration(Duration.ofNanos(System.nanoTime() - start)).build();
+	}
+
+	/**
+	 * Writes the given input to the standard input of the given process and closes it
+	 *
+	 * @param process
+	 *            the process
+	 * @param input
+	 *            the input or null for an empty input
+	 */
+	private static void writeInput(Process process, byte[] input)
+	{
+		try (OutputStream stdin = process.getOutputStream())
+		{
+			if (input != null)
+			{
+				stdin.write(input);
+			}
+		}
+		catch (IOException e)
+		{
+			// the process exited before it read all of its input, its output tells why
+			log.log(Level.FINE, "Could not write the input of the process", e);
+		}
+	}
+
+	/**
+	 * Copies the given output of a process into the given buffer and reports its lines to the
+	 * given listener
+	 *
+	 * @param in
+	 *            the output of the process
+	 * @param buffer
+	 *            the buffer
+	 * @param listener
+	 *            the listener for the lines or null for none
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the output
+	 */
+	private void copy(InputStream in, OutputRingBuffer buffer, Consumer<String> listener)
+		throws IOException
+	{
+		byte[] chunk = new byte[8192];
+		ByteArrayOutputStream line = listener == null ? null : new ByteArrayOutputStream();
+		int read;
+		while ((read = in.read(chunk)) != -1)
+		{
+			buffer.write(chunk, 0, read);
+			if (line == null)
+			{
+				continue;
+			}
+			int lineStart = 0;
+			for (int i = 0; i < read; i++)
+			{
+				if (chunk[i] == '\n')
+				{
+					line.write(chunk, lineStart, i - lineStart);
+					emit(line, listener);
+					lineStart = i + 1;
+				}
+			}
+			line.write(chunk, lineStart, read - lineStart);
+			if (line.size() > bufferSize)
+			{
+				// a line without an end is reported in parts
+				emit(line, listener);
+			}
+		}
+		if (line != null && line.size() > 0)
+		{
+			emit(line, listener);
+		}
+	}
+
+	/**
+	 * Reports the given line without its line break to the given listener and clears it
+	 *
+	 * @param line
+	 *            the bytes of the line
+	 * @param listener
+	 *            the listener
+	 */
+	private static void emit(ByteArrayOutputStream line, Consumer<String> listener)
+	{
+		String text = line.toString(StandardCharsets.UTF_8);
+		line.reset();
+		listener.accept(text.endsWith("\r") ? text.substring(0, text.length() - 1) : text);
+	}
+
+	/**
+	 * Waits for the threads that handle the streams of the given process. A descendant of the
+	 * process can keep a stream open, so the streams are closed after the grace period.
+	 *
+	 * @param process
+	 *            the process
+	 * @param threads
+	 *            the threads that handle the streams
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private static void joinReaders(Process process, Thread... threads)
+		throws InterruptedException
+	{
+		long deadline = System.nanoTime() + DESTROY_GRACE_PERIOD.toNanos();
+		for (Thread thread : threads)
+		{
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0 || !thread.join(Duration.ofNanos(remaining)))
+			{
+				closeQuietly(process.getInputStream());
+				closeQuietly(process.getErrorStream());
+				closeQuietly(process.getOutputStream());
+				thread.join(DESTROY_GRACE_PERIOD);
+			}
+		}
+	}
+
+	/**
+	 * Closes the given stream and ignores any error
+	 *
+	 * @param stream
+	 *            the stream
+	 */
+	private static void closeQuietly(Closeable stream)
+	{
+		try
+		{
+			stream.close();
+		}
+		catch (IOException e)
+		{
+			log.log(Level.FINE, "Could not close a stream of a process", e);
+		}
+	}
+
+	/**
+	 * Kills the given process and its descendants, first gracefully and after the grace period
+	 * forcibly
+	 *
+	 * @param process
+	 *            the process
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting
+	 */
+	private static void destroy(Process process) throws InterruptedException
+	{
+		List<ProcessHandle> descendants = process.descendants().toList();
+		descendants.forEach(ProcessHandle::destroy);
+		process.destroy();
+		if (!process.waitFor(DESTROY_GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS))
+		{
+			descendants.forEach(ProcessHandle::destroyForcibly);
+			process.destroyForcibly();
+			process.waitFor(DESTROY_GRACE_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+}
@@ -0,0 +1,25 @@
+/**
+ * This package provides the execution of external commands as child processes of a migration.
+ *
+ * The main functionalities include:
+ *
+ * <ul>
+ * <li>Starting commands without a shell, so arguments are never interpreted or split.</li>
+ * <li>Reading the standard and the error output on virtual threads into buffers with a fixed
+ * capacity, while the lines can be observed as they arrive.</li>
+ * <li>Killing a process and its descendants when it misses its deadline.</li>
+ * <li>Limiting the number of child processes that run at the same time.</li>
+ * </ul>
+ *
+ * The following classes are included in this package:
+ *
+ * <ul>
+ * <li>{@link io.github.astrapi69.gradle.migration.process.OutputHandler} - Consumes the standard
+ * output of a process as a stream.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.process.OutputRingBuffer} - Keeps the last bytes
+ * of the output of a process.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.process.ProcessExecutor} - Executes commands with
+ * deadlines and a limit of concurrent processes.</li>
+ * </ul>
+ */
+package io.github.astrapi69.gradle.migration.process;
@@ -0,0 +1,47 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+/**
+ * The enum {@link CopyMode} decides how the {@link IdeaDirectoryCopier} copies a file that needs
+ * no replacement of its content.
+ */
+public enum CopyMode
+{
+
+	/**
+	 * The bytes of the file are copied with {@link java.nio.channels.FileChannel#transferTo}
+	 * without decoding them, so the kernel can copy them without passing them through the heap.
+	 */
+	TRANSFER,
+
+	/**
+	 * The target file is created as a hard link to the source file. If the file system does not
+	 * support hard links, for instance because the files are on different devices, the bytes are
+	 * transferred like with {@link #TRANSFER}. Source and target share their content afterwards,
+	 * so this mode fits only for files that are replaced and not modified in place.
+	 */
+	LINK
+}
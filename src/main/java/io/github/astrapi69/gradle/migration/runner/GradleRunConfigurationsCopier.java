@@ -26,9 +26,11 @@ package io.github.astrapi69.gradle.migration.runner;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.logging.Level;
@@ -36,23 +38,22 @@ import java.util.logging.Logger;
 
 import org.apache.commons.lang3.StringUtils;
 
-import io.github.astrapi69.collection.array.ArrayExtensions;
-import io.github.astrapi69.collection.list.ListExtensions;
 import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
 import io.github.astrapi69.collection.properties.PropertiesExtensions;
-import io.github.astrapi69.file.copy.CopyFileExtensions;
 import io.github.astrapi69.file.create.FileFactory;
-import io.github.astrapi69.file.exception.FileDoesNotExistException;
-import io.github.astrapi69.file.exception.FileIsADirectoryException;
-import io.github.astrapi69.file.modify.ModifyFileExtensions;
 import io.github.astrapi69.file.read.ReadFileExtensions;
-import io.github.astrapi69.file.rename.RenameFileExtensions;
-import io.github.astrapi69.file.search.FileSearchExtensions;
-import io.github.astrapi69.file.write.StoreFileExtensions;
 import io.github.astrapi69.gradle.migration.extension.DependenciesExtensions;
 import io.github.astrapi69.gradle.migration.extension.GitExtensions;
 import io.github.astrapi69.gradle.migration.info.CopyGradleRunConfigurations;
 import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+import io.github.astrapi69.gradle.migration.info.VersionAssignment;
+import io.github.astrapi69.gradle.migration.script.BuildScriptEditor;
+import io.github.astrapi69.gradle.migration.script.BuildScriptIndex;
+import io.github.astrapi69.gradle.migration.script.DependencyCoordinateParser;
+import io.github.astrapi69.gradle.migration.script.GradleScriptLexer;
+import io.github.astrapi69.gradle.migration.script.MappedSectionReader;
 import io.github.astrapi69.io.StreamExtensions;
 import io.github.astrapi69.string.StringExtensions;
 
@@ -85,6 +86,32 @@ public class GradleRunConfigurationsCopier
 			targetProjectDirNamePrefix, true, false);
 	}
 
+	/**
+	 * Copies only the run configurations from the source project to the target project without
+	 * adding them to git, so the caller can stage the returned files together with its other
+	 * changes.
+	 *
+	 * @param sourceProjectName
+	 *            the name of the source project
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the source project directory
+	 * @param targetProjectDirNamePrefix
+	 *            the prefix for the target project directory
+	 * @return the copied run configurations of the target project
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static List<Path> copyOnlyRunConfigurationFiles(String sourceProjectName,
+		String targetProjectName, String sourceProjectDirNamePrefix,
+		String targetProjectDirNamePrefix) throws IOException
+	{
+		return copyRunConfigurationFiles(
+			newCopyGradleRunConfigurations(sourceProjectName, targetProjectName,
+				sourceProjectDirNamePrefix, targetProjectDirNamePrefix, true, false));
+	}
+
 	/**
 	 * Copies run configurations and optionally other settings from the source project to the target
 	 * project.
@@ -113,6 +140,61 @@ public class GradleRunConfigurationsCopier
 		GradleRunConfigurationsCopier.of(copyGradleRunConfigurationsData).copy();
 	}
 
+	/**
+	 * Copies the whole '.idea' directory from the source project to the target project. The
+	 * project names are replaced in the names and the content of the files, files without the
+	 * project names are copied without decoding them according to the given {@link CopyMode}.
+	 * User specific files like the workspace.xml are not copied. All copied files are added to
+	 * git with a single git process.
+	 *
+	 * @param sourceProjectName
+	 *            the name of the source project
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the source project directory
+	 * @param targetProjectDirNamePrefix
+	 *            the prefix for the target project directory
+	 * @param copyMode
+	 *            the copy mode for the files without the project names
+	 * @return the copied files of the target project
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public static List<Path> copyIdeaDirectory(String sourceProjectName, String targetProjectName,
+		String sourceProjectDirNamePrefix, String targetProjectDirNamePrefix, CopyMode copyMode)
+		throws IOException
+	{
+		CopyGradleRunConfigurations copyGradleRunConfigurationsData;
+		copyGradleRunConfigurationsData = newCopyGradleRunConfigurations(sourceProjectName,
+			targetProjectName, sourceProjectDirNamePrefix, targetProjectDirNamePrefix, true, false);
+		if (!copyGradleRunConfigurationsData.getIdeaSourceDir().isDirectory())
+		{
+			return ListFactory.newArrayList();
+		}
+		List<Path> targetFiles = IdeaDirectoryCopier
+			.of(newProjectNameReplacer(sourceProjectName, targetProjectName), copyMode)
+			.copyDirectory(copyGradleRunConfigurationsData.getIdeaSourceDir().toPath(),
+				copyGradleRunConfigurationsData.getIdeaTargetDir().toPath());
+		List<String> filesToAdd = ListFactory.newArrayList();
+		for (Path targetFile : targetFiles)
+		{
+			filesToAdd.add(targetFile.toAbsolutePath().toString());
+		}
+		try
+		{
+			GitExtensions.addFilesToGit(filesToAdd,
+				copyGradleRunConfigurationsData.getTargetProjectDir());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			Logger.getLogger(GradleRunConfigurationsCopier.class.getName()).log(Level.INFO,
+				filesToAdd + " not added to git", e);
+		}
+		return targetFiles;
+	}
+
 	/**
 	 * Instantiates a new {@link GradleRunConfigurationsCopier} with the specified configuration.
 	 *
@@ -203,7 +285,7 @@ public class GradleRunConfigurationsCopier
 		{
 			copy(this.copyGradleRunConfigurations);
 		}
-		catch (IOException | FileIsADirectoryException | FileDoesNotExistException e)
+		catch (IOException e)
 		{
 			throw new RuntimeException(e);
 		}
@@ -217,13 +299,9 @@ public class GradleRunConfigurationsCopier
 	 *            the configuration for copying Gradle run configurations
 	 * @throws IOException
 	 *             if an I/O error occurs
-	 * @throws FileIsADirectoryException
-	 *             if the specified file is a directory
-	 * @throws FileDoesNotExistException
-	 *             if the specified file does not exist
 	 */
 	private void copy(CopyGradleRunConfigurations copyGradleRunConfigurationsData)
-		throws IOException, FileIsADirectoryException, FileDoesNotExistException
+		throws IOException
 	{
 		copyRunConfigurations(copyGradleRunConfigurationsData);
 
@@ -235,83 +313,120 @@ public class GradleRunConfigurationsCopier
 	}
 
 	/**
-	 * Copies and renames the run configurations from the source project to the target project.
+	 * Copies and renames the run configurations from the source project to the target project and
+	 * adds them to git with a single git process
 	 *
 	 * @param copyGradleRunConfigurationsData
 	 *            the configuration for copying Gradle run configurations
 	 * @throws IOException
 	 *             if an I/O error occurs
-	 * @throws FileIsADirectoryException
-	 *             if the specified file is a directory
-	 * @throws FileDoesNotExistException
-	 *             if the specified file does not exist
 	 */
 	private void copyRunConfigurations(CopyGradleRunConfigurations copyGradleRunConfigurationsData)
-		throws IOException, FileIsADirectoryException, FileDoesNotExistException
+		throws IOException
 	{
-		List<File> allFiles;
-		if (copyGradleRunConfigurationsData.isRunConfigurationsInSameFolder())
+		List<Path> targetFiles = copyRunConfigurationFiles(copyGradleRunConfigurationsData);
+		if (targetFiles.isEmpty())
 		{
-			// find all run configurations files
-			allFiles = FileSearchExtensions.findAllFiles(
-				copyGradleRunConfigurationsData.getTargetRunConfigDir(),
-				copyGradleRunConfigurationsData.getSourceFilenamePrefix() + ".*");
+			return;
 		}
-		else
+		List<String> filesToAdd = ListFactory.newArrayList();
+		for (Path targetFile : targetFiles)
 		{
-			// find all run configurations files for copy
-			allFiles = FileSearchExtensions.findAllFiles(
-				copyGradleRunConfigurationsData.getSourceRunConfigDir(),
-				copyGradleRunConfigurationsData.getSourceFilenamePrefix() + ".*");
-			// copy found run configurations files to the target directory
-			CopyFileExtensions.copyFiles(allFiles,
-				copyGradleRunConfigurationsData.getTargetRunConfigDir(), StandardCharsets.UTF_8,
-				StandardCharsets.UTF_8, true);
-			// find all run configurations files for rename
-			allFiles = FileSearchExtensions.findAllFiles(
-				copyGradleRunConfigurationsData.getTargetRunConfigDir(),
-				copyGradleRunConfigurationsData.getSourceFilenamePrefix() + ".*");
+			filesToAdd.add(targetFile.toAbsolutePath().toString());
 		}
-		// rename all run configurations files
-		for (File file : allFiles)
+		// add all files to git with a single git process
+		try
 		{
-			String name = file.getName();
-			String newName;
-			newName = name.replace(copyGradleRunConfigurationsData.getSourceFilenamePrefix(),
-				copyGradleRunConfigurationsData.getTargetFilenamePrefix());
-			RenameFileExtensions.renameFile(file, newName);
+			GitExtensions.addFilesToGit(filesToAdd,
+				copyGradleRunConfigurationsData.getTargetProjectDir());
 		}
-		// Find all renamed run configurations files
-		allFiles = FileSearchExtensions.findAllFiles(
-			copyGradleRunConfigurationsData.getTargetRunConfigDir(),
-			copyGradleRunConfigurationsData.getTargetFilenamePrefix() + ".*");
-		// replace content of all run configurations files so they can run appropriate to the new
-		// project
-		for (File file : allFiles)
+		catch (InterruptedException e)
 		{
-			Path inFilePath = file.toPath();
-			ModifyFileExtensions.modifyFile(inFilePath, (count, input) -> {
-				return input.replaceAll(copyGradleRunConfigurationsData.getSourceProjectName(),
-					copyGradleRunConfigurationsData.getTargetProjectName())
-					+ System.lineSeparator();
-			});
+			Thread.currentThread().interrupt();
+			log.log(Level.INFO, filesToAdd + " not added to git", e);
 		}
-		// add all files to git
-		String shellPath;
-		String executionPath;
-		shellPath = "/bin/sh";
-		executionPath = copyGradleRunConfigurationsData.getTargetProjectDir().getAbsolutePath();
-		for (File file : allFiles)
+	}
+
+	/**
+	 * Copies and renames the run configurations from the source project to the target project.
+	 * Every run configuration is read once, its content is rewritten for the target project while
+	 * it is streamed and it is moved atomically to its final name, so the target directory never
+	 * contains a half written or not yet renamed run configuration. If the run configurations are
+	 * in the same folder the source files are replaced by the renamed ones.
+	 *
+	 * @param copyGradleRunConfigurationsData
+	 *            the configuration for copying Gradle run configurations
+	 * @return the copied run configurations of the target project
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static List<Path> copyRunConfigurationFiles(
+		CopyGradleRunConfigurations copyGradleRunConfigurationsData) throws IOException
+	{
+		String sourceFilenamePrefix = copyGradleRunConfigurationsData.getSourceFilenamePrefix();
+		String targetFilenamePrefix = copyGradleRunConfigurationsData.getTargetFilenamePrefix();
+		Path sourceDirectory = copyGradleRunConfigurationsData.isRunConfigurationsInSameFolder()
+			? copyGradleRunConfigurationsData.getTargetRunConfigDir().toPath()
+			: copyGradleRunConfigurationsData.getSourceRunConfigDir().toPath();
+		Path targetDirectory = copyGradleRunConfigurationsData.getTargetRunConfigDir().toPath();
+		List<Path> sourceFiles = ListFactory.newArrayList();
+		if (Files.isDirectory(sourceDirectory))
 		{
-			try
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(sourceDirectory,
+				file -> Files.isRegularFile(file)
+					&& file.getFileName().toString().startsWith(sourceFilenamePrefix)))
 			{
-				GitExtensions.addFileToGit(file.getAbsolutePath(), shellPath, executionPath);
+				stream.forEach(sourceFiles::add);
 			}
-			catch (InterruptedException e)
+		}
+		List<Path> targetFiles = ListFactory.newArrayList();
+		if (sourceFiles.isEmpty())
+		{
+			return targetFiles;
+		}
+		Files.createDirectories(targetDirectory);
+		LiteralReplacer replacer = newProjectNameReplacer(
+			copyGradleRunConfigurationsData.getSourceProjectName(),
+			copyGradleRunConfigurationsData.getTargetProjectName());
+		IdeaDirectoryCopier ideaDirectoryCopier = IdeaDirectoryCopier.of(replacer,
+			CopyMode.TRANSFER);
+		for (Path sourceFile : sourceFiles)
+		{
+			String newName = sourceFile.getFileName().toString().replace(sourceFilenamePrefix,
+				targetFilenamePrefix);
+			Path targetFile = targetDirectory.resolve(newName);
+			ideaDirectoryCopier.copyFile(sourceFile, targetFile);
+			if (copyGradleRunConfigurationsData.isRunConfigurationsInSameFolder()
+				&& !sourceFile.equals(targetFile))
 			{
-				log.log(Level.INFO, file.getAbsolutePath() + " not added to git", e);
+				Files.delete(sourceFile);
 			}
+			targetFiles.add(targetFile);
 		}
+		return targetFiles;
+	}
+
+	/**
+	 * Creates the {@link LiteralReplacer} that rewrites the run configurations of the given source
+	 * project for the given target project. It replaces the project name, the file name prefix
+	 * with underscores and the camel case version key in a single scan.
+	 *
+	 * @param sourceProjectName
+	 *            the name of the source project
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @return the new {@link LiteralReplacer}
+	 */
+	public static LiteralReplacer newProjectNameReplacer(String sourceProjectName,
+		String targetProjectName)
+	{
+		Map<String, String> replacements = MapFactory.newLinkedHashMap();
+		replacements.put(sourceProjectName, targetProjectName);
+		replacements.put(StringUtils.replace(sourceProjectName, "-", "_"),
+			StringUtils.replace(targetProjectName, "-", "_"));
+		replacements.put(DependenciesExtensions.getProjectVersionKeyName(sourceProjectName),
+			DependenciesExtensions.getProjectVersionKeyName(targetProjectName));
+		return LiteralReplacer.of(replacements);
 	}
 
 	/**
@@ -328,102 +443,107 @@ public class GradleRunConfigurationsCopier
 		File gradleProperties = new File(targetProjectDir,
 			DependenciesInfo.GRADLE_PROPERTIES_FILENAME);
 		FileFactory.newFile(gradleProperties);
-		String dependenciesContent = DependenciesExtensions.getDependenciesContent(buildGradle);
-		List<String> stringList = getDependenciesAsStringList(dependenciesContent);
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex.of(buildGradle);
+		String dependenciesContent = DependenciesExtensions
+			.getDependenciesContent(buildScriptIndex);
+		List<String> stringList = DependenciesExtensions
+			.getDependenciesAsStringList(dependenciesContent);
 		DependenciesInfo dependenciesInfo = getGradlePropertiesWithVersions(stringList);
 		String newDependenciesContent = getNewDependenciesContent(dependenciesInfo);
-		replaceDependenciesContent(buildGradle, newDependenciesContent,
-			dependenciesInfo.getProperties());
-		PropertiesExtensions.export(dependenciesInfo.getProperties(),
-			StreamExtensions.getOutputStream(gradleProperties));
-		StoreFileExtensions.toFile(buildGradle, dependenciesContent);
+		BuildScriptEditor buildScriptEditor = newBuildScriptEditor(buildScriptIndex,
+			newDependenciesContent, dependenciesInfo.getProperties());
+		Properties properties = PropertiesExtensions.loadProperties(gradleProperties);
+		properties.putAll(dependenciesInfo.getProperties());
+		PropertiesExtensions.export(properties, StreamExtensions.getOutputStream(gradleProperties));
+		buildScriptEditor.writeTo(buildGradle);
 	}
 
 	/**
-	 * Converts the dependencies content into a list of strings, each representing a dependency.
+	 * Gets the content of a specific section from the build.gradle file.
 	 *
-	 * @param dependenciesContent
-	 *            the dependencies content
-	 * @return the list of dependencies as strings
+	 * @param section
+	 *            the section name
+	 * @param buildGradle
+	 *            the build.gradle file
+	 * @return the content of the section
+	 * @throws IOException
+	 *             if an I/O error occurs
 	 */
-	private List<String> getDependenciesAsStringList(String dependenciesContent)
+	public static String getContentOf(String section, File buildGradle) throws IOException
 	{
-		String[] lines = dependenciesContent.split("\n");
-		List<String> stringList = ArrayExtensions.asList(lines);
-		ListExtensions.removeFirst(stringList);
-		ListExtensions.removeLast(stringList);
-		return stringList;
+		String buildGradleContent = ReadFileExtensions.fromFile(buildGradle);
+		return getContentOf(section, buildGradleContent);
 	}
 
 	/**
-	 * Gets the content of a specific section from the build.gradle file.
+	 * Gets the content of a specific section from the build.gradle file. If the memory mapped mode
+	 * is enabled, the file is mapped into memory and only the found section is decoded into a
+	 * string, which is recommended for very large build scripts.
 	 *
 	 * @param section
 	 *            the section name
 	 * @param buildGradle
 	 *            the build.gradle file
+	 * @param memoryMapped
+	 *            if true the build.gradle file is mapped into memory instead of read into a string
 	 * @return the content of the section
 	 * @throws IOException
 	 *             if an I/O error occurs
 	 */
-	public static String getContentOf(String section, File buildGradle) throws IOException
+	public static String getContentOf(String section, File buildGradle, boolean memoryMapped)
+		throws IOException
 	{
-		String buildGradleContent = ReadFileExtensions.fromFile(buildGradle);
-		return getContentOf(section, buildGradleContent);
+		if (memoryMapped)
+		{
+			return MappedSectionReader.getContentOf(section, buildGradle);
+		}
+		return getContentOf(section, buildGradle);
 	}
 
 	/**
-	 * Gets the content of a specific section from the build.gradle content.
+	 * Gets the content of a specific section from the given {@link BuildScriptIndex}.
 	 *
 	 * @param section
 	 *            the section name
-	 * @param buildGradleContent
-	 *            the build.gradle content as a string
+	 * @param buildScriptIndex
+	 *            the index of the build.gradle file
 	 * @return the content of the section
 	 */
-	public static String getContentOf(String section, String buildGradleContent)
+	public static String getContentOf(String section, BuildScriptIndex buildScriptIndex)
 	{
-		int indexOfStart = buildGradleContent.indexOf(section + " {");
-		if (indexOfStart == -1)
+		CharSequence sectionContent = buildScriptIndex.getSection(section);
+		if (sectionContent == null)
 		{
 			throw new IllegalArgumentException("Section not found: " + section);
 		}
-		int indexOfEnd = findClosingBrace(buildGradleContent, indexOfStart + section.length() + 2);
-		return buildGradleContent.substring(indexOfStart, indexOfEnd + 1);
+		return sectionContent.toString();
 	}
 
 	/**
-	 * Finds the index of the closing brace for a section in the build.gradle content.
+	 * Gets the content of a specific section from the build.gradle content. The section is found
+	 * with the {@link GradleScriptLexer}, so braces in strings, interpolations and comments are
+	 * ignored.
 	 *
-	 * @param content
-	 *            the content of the build.gradle file
-	 * @param start
-	 *            the starting index to search for the closing brace
-	 * @return the index of the closing brace
+	 * @param section
+	 *            the section name
+	 * @param buildGradleContent
+	 *            the build.gradle content as a string
+	 * @return the content of the section
 	 */
-	private static int findClosingBrace(String content, int start)
+	public static String getContentOf(String section, String buildGradleContent)
 	{
-		int braceCount = 1;
-		for (int i = start; i < content.length(); i++)
+		SectionSpan sectionSpan = GradleScriptLexer.findSection(buildGradleContent, section);
+		if (sectionSpan == null)
 		{
-			if (content.charAt(i) == '{')
-			{
-				braceCount++;
-			}
-			else if (content.charAt(i) == '}')
-			{
-				braceCount--;
-				if (braceCount == 0)
-				{
-					return i;
-				}
-			}
+			throw new IllegalArgumentException("Section not found: " + section);
 		}
-		throw new IllegalArgumentException("No matching closing brace found.");
+		return buildGradleContent.substring(sectionSpan.getStart(), sectionSpan.getEnd());
 	}
 
 	/**
 	 * Extracts the version information from dependencies and creates corresponding properties.
+	 * Dependencies with a version that is already a reference to a property, like
+	 * '$fooVersion' or '${fooVersion}', are kept unchanged.
 	 *
 	 * @param stringList
 	 *            the list of dependencies as strings
@@ -433,14 +553,18 @@ public class GradleRunConfigurationsCopier
 	{
 		List<String> versionStrings = ListFactory.newArrayList();
 		Properties properties = new Properties();
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
 		stringList.forEach(entry -> {
-			String dependency = StringUtils.substringBetween(entry, "'");
-			if (dependency != null)
+			boolean parsed = parser.parse(entry);
+			if (parsed && isExternalizedVersion(parser.getVersion()))
+			{
+				versionStrings.add(entry);
+			}
+			else if (parsed && parser.getVersion() != null)
 			{
-				String[] strings = dependency.split(":");
-				String group = strings[0];
-				String artifact = strings[1];
-				String version = strings[2];
+				String group = parser.getGroupId();
+				String artifact = parser.getArtifactId();
+				String version = parser.getVersion();
 				String[] split = artifact.split("-");
 				StringBuilder sb = new StringBuilder();
 				if (1 < split.length)
@@ -465,7 +589,8 @@ public class GradleRunConfigurationsCopier
 				String propertiesKey = sb.toString().trim() + "Version";
 				properties.setProperty(propertiesKey, version);
 				String newDependency = group + ":" + artifact + ":$" + propertiesKey;
-				String newEntry = StringUtils.replace(entry, dependency, newDependency);
+				String newEntry = entry.substring(0, parser.getCoordinateStart()) + newDependency
+					+ entry.substring(parser.getCoordinateEnd());
 				versionStrings.add(newEntry);
 			}
 			else
@@ -478,6 +603,18 @@ public class GradleRunConfigurationsCopier
 			.build();
 	}
 
+	/**
+	 * Checks if the given version is already a reference to a property
+	 *
+	 * @param version
+	 *            the version of a dependency coordinate
+	 * @return true if the given version references a property, otherwise false
+	 */
+	private static boolean isExternalizedVersion(String version)
+	{
+		return version != null && (version.startsWith("$") || version.contains("${"));
+	}
+
 	/**
 	 * Generates the new dependencies content with externalized versions.
 	 *
@@ -495,34 +632,57 @@ public class GradleRunConfigurationsCopier
 	}
 
 	/**
-	 * Extracts and externalizes the project version from the build.gradle content.
+	 * Externalizes the project version of the given top-level version assignment. The version is
+	 * stored in the given properties and only the quoted version value is replaced by a reference
+	 * to it with double quotes, so the form of the assignment is kept.
 	 *
-	 * @param buildGradleContent
-	 *            the build.gradle content as a string
+	 * @param buildScriptEditor
+	 *            the editor of the build.gradle content
+	 * @param versionAssignment
+	 *            the top-level version assignment or null if there is none
 	 * @param gradleProperties
 	 *            the {@link Properties} to store the extracted version
-	 * @return the updated build.gradle content with the externalized version
 	 */
-	private String getVersion(String buildGradleContent, Properties gradleProperties)
+	private static void externalizeVersion(BuildScriptEditor buildScriptEditor,
+		VersionAssignment versionAssignment, Properties gradleProperties)
 	{
+		if (versionAssignment == null)
+		{
+			return;
+		}
 		String projectVersionKey = "projectVersion";
-		String versionPrefix = "version = ";
-		int versionPrefixLength = versionPrefix.length();
-		int indexOfVersionStart = buildGradleContent.indexOf(versionPrefix);
-		String versionQuotationMark = buildGradleContent.substring(
-			indexOfVersionStart + versionPrefixLength,
-			indexOfVersionStart + versionPrefixLength + 1);
-		String substring = buildGradleContent
-			.substring(indexOfVersionStart + versionPrefixLength + 1);
-		int ie = substring.indexOf(versionQuotationMark);
-		int indexOfVersionEnd = ie + indexOfVersionStart + versionPrefixLength + 2;
-		String versionLine = buildGradleContent.substring(indexOfVersionStart, indexOfVersionEnd);
-		String versionValue = StringUtils.substringsBetween(versionLine, versionQuotationMark,
-			versionQuotationMark)[0];
-		gradleProperties.setProperty(projectVersionKey, versionValue);
-		String newVersionLine = StringUtils.replace(versionLine, versionValue,
-			"$" + projectVersionKey);
-		return StringUtils.replace(buildGradleContent, versionLine, newVersionLine);
+		gradleProperties.setProperty(projectVersionKey, versionAssignment.getVersion());
+		buildScriptEditor.replace(versionAssignment.getValueStart(), versionAssignment.getEnd(),
+			"\"$" + projectVersionKey + "\"");
+	}
+
+	/**
+	 * Creates a {@link BuildScriptEditor} for the given {@link BuildScriptIndex} that replaces the
+	 * dependencies section with the new dependencies content and externalizes the project version.
+	 * Single quotes are replaced by double quotes only in the edited spans.
+	 *
+	 * @param buildScriptIndex
+	 *            the index of the build.gradle file
+	 * @param newDependenciesContent
+	 *            the new dependencies content as a string
+	 * @param gradleProperties
+	 *            the {@link Properties} containing externalized versions
+	 * @return the {@link BuildScriptEditor} with the edits
+	 */
+	private static BuildScriptEditor newBuildScriptEditor(BuildScriptIndex buildScriptIndex,
+		String newDependenciesContent, Properties gradleProperties)
+	{
+		SectionSpan dependenciesSpan = buildScriptIndex.getSectionSpan("dependencies");
+		if (dependenciesSpan == null)
+		{
+			throw new IllegalArgumentException("Section not found: dependencies");
+		}
+		BuildScriptEditor buildScriptEditor = BuildScriptEditor.of(buildScriptIndex);
+		buildScriptEditor.replace(dependenciesSpan.getStart(), dependenciesSpan.getEnd(),
+			BuildScriptEditor.normalizeQuotes(newDependenciesContent));
+		externalizeVersion(buildScriptEditor, buildScriptIndex.getVersionAssignment(),
+			gradleProperties);
+		return buildScriptEditor;
 	}
 
 	/**
@@ -541,13 +701,27 @@ public class GradleRunConfigurationsCopier
 	public String replaceDependenciesContent(File buildGradle, String newDependenciesContent,
 		Properties gradleProperties) throws IOException
 	{
-		String buildGradleContent = ReadFileExtensions.fromFile(buildGradle);
-		int indexOfStart = buildGradleContent.indexOf("dependencies {");
-		int indexOfEnd = buildGradleContent.substring(indexOfStart).indexOf("}") + indexOfStart + 1;
-		String dependencies = buildGradleContent.substring(indexOfStart, indexOfEnd);
-		String replacedBuildGradleContent = StringUtils.replace(buildGradleContent, dependencies,
-			newDependenciesContent);
-		replacedBuildGradleContent = getVersion(replacedBuildGradleContent, gradleProperties);
-		return StringUtils.replace(replacedBuildGradleContent, "'", "\"");
+		return replaceDependenciesContent(BuildScriptIndex.of(buildGradle), newDependenciesContent,
+			gradleProperties);
+	}
+
+	/**
+	 * Replaces the dependencies content of the given {@link BuildScriptIndex} with the new
+	 * dependencies content and externalizes the project version. Single quotes are replaced by
+	 * double quotes only in the edited spans, the rest of the content stays untouched.
+	 *
+	 * @param buildScriptIndex
+	 *            the index of the build.gradle file
+	 * @param newDependenciesContent
+	 *            the new dependencies content as a string
+	 * @param gradleProperties
+	 *            the {@link Properties} containing externalized versions
+	 * @return the updated build.gradle content as a string
+	 */
+	public String replaceDependenciesContent(BuildScriptIndex buildScriptIndex,
+		String newDependenciesContent, Properties gradleProperties)
+	{
+		return newBuildScriptEditor(buildScriptIndex, newDependenciesContent, gradleProperties)
+			.toString();
 	}
 }
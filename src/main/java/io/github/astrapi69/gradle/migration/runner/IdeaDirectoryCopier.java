@@ -0,0 +1,362 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import javax.xml.stream.XMLStreamException;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.CopyGradleRunConfigurations;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link IdeaDirectoryCopier} copies the IDE metadata files of a project, like the run
+ * configurations or the whole '.idea' directory, to another project. The bytes of every file are
+ * scanned for the tokens of the source project without decoding them. Only files that contain a
+ * token are decoded and rewritten, all other files are copied with
+ * {@link FileChannel#transferTo} or linked according to the {@link CopyMode}. Every file is
+ * written to a temporary file next to its target and moved atomically to its final name.<br>
+ * <br>
+ * An instance of this class is not thread safe, because the {@link LiteralReplacer} reuses its
+ * buffers.
+ */
+@Log
+public final class IdeaDirectoryCopier
+{
+
+	/** The file extension of the XML files. */
+	private static final String XML_FILE_EXTENSION = ".xml";
+
+	/** The size up to which a file is read into the heap instead of being memory mapped. */
+	private static final int MAPPING_THRESHOLD = 64 * 1024;
+
+	/** The names of the files and directories of the '.idea' directory that are not copied. */
+	public static final Set<String> EXCLUDED_NAMES = Set.of("workspace.xml", "shelf",
+		"usage.statistics.xml", "tasks.xml", "dataSources.local.xml", "httpRequests");
+
+	/** The replacer for the tokens of the source project. */
+	private final LiteralReplacer replacer;
+
+	/** The rewriter for the XML run configurations. */
+	private final RunConfigurationRewriter rewriter;
+
+	/** The copy mode for files without tokens. */
+	private final CopyMode copyMode;
+
+	/**
+	 * Instantiates a new {@link IdeaDirectoryCopier}
+	 *
+	 * @param replacer
+	 *            the replacer for the tokens of the source project
+	 * @param copyMode
+	 *            the copy mode for files without tokens
+	 */
+	private IdeaDirectoryCopier(LiteralReplacer replacer, CopyMode copyMode)
+	{
+		this.replacer = replacer;
+		this.rewriter = RunConfigurationRewriter.of(replacer);
+		this.copyMode = copyMode;
+	}
+
+	/**
+	 * Factory method for create a new {@link IdeaDirectoryCopier}
+	 *
+	 * @param replacer
+	 *            the replacer for the tokens of the source project
+	 * @param copyMode
+	 *            the copy mode for files without tokens
+	 * @return the new {@link IdeaDirectoryCopier}
+	 */
+	public static IdeaDirectoryCopier of(@NonNull LiteralReplacer replacer,
+		@NonNull CopyMode copyMode)
+	{
+		return new IdeaDirectoryCopier(replacer, copyMode);
+	}
+
+	/**
+	 * Copies the given directory tree to the given target directory. The tokens of the source
+	 * project are replaced in the names and the content of the files. The names of
+	 * {@link #EXCLUDED_NAMES} are skipped.
+	 *
+	 * @param sourceDirectory
+	 *            the directory to copy, for instance the '.idea' directory of the source project
+	 * @param targetDirectory
+	 *            the target directory
+	 * @return the copied target files
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public List<Path> copyDirectory(@NonNull Path sourceDirectory, @NonNull Path targetDirectory)
+		throws IOException
+	{
+		List<Path> targetFiles = ListFactory.newArrayList();
+		Files.walkFileTree(sourceDirectory, new SimpleFileVisitor<>()
+		{
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes)
+			{
+				return directory.equals(sourceDirectory)
+					|| !EXCLUDED_NAMES.contains(directory.getFileName().toString())
+						? FileVisitResult.CONTINUE
+						: FileVisitResult.SKIP_SUBTREE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+				throws IOException
+			{
+				if (attributes.isRegularFile()
+					&& !EXCLUDED_NAMES.contains(file.getFileName().toString()))
+				{
+					Path targetFile = targetDirectory;
+					for (Path name : sourceDirectory.relativize(file))
+					{
+						targetFile = targetFile.resolve(replacer.replace(name.toString()));
+					}
+					copyFile(file, targetFile);
+					targetFiles.add(targetFile);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return targetFiles;
+	}
+
+	/**
+	 * Copies the given file to the given target file. If the file contains a token of the source
+	 * project it is rewritten, XML files in a run configurations directory with the
+	 * {@link RunConfigurationRewriter} and all other files as plain text. Otherwise the bytes are
+	 * copied or linked according to the {@link CopyMode}.
+	 *
+	 * @param sourceFile
+	 *            the file to copy
+	 * @param targetFile
+	 *            the target file
+	 * @return true if the content was rewritten, false if it was copied unchanged
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public boolean copyFile(@NonNull Path sourceFile, @NonNull Path targetFile)
+		throws IOException
+	{
+		Path targetDirectory = targetFile.toAbsolutePath().getParent();
+		Files.createDirectories(targetDirectory);
+		boolean rewrite = containsToken(sourceFile);
+		Path temporaryFile = Files.createTempFile(targetDirectory, "." + targetFile.getFileName(),
+			".tmp");
+		try
+		{
+			copyPermissions(sourceFile, temporaryFile);
+			if (!rewrite)
+			{
+				copyBytes(sourceFile, temporaryFile);
+			}
+			else if (!isRunConfiguration(sourceFile) || !rewriteXml(sourceFile, temporaryFile))
+			{
+				try (
+					BufferedReader reader = Files.newBufferedReader(sourceFile,
+						StandardCharsets.UTF_8);
+					BufferedWriter writer = Files.newBufferedWriter(temporaryFile,
+						StandardCharsets.UTF_8))
+				{
+					replacer.replace(reader, writer);
+				}
+			}
+			try
+			{
+				Files.move(temporaryFile, targetFile, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(temporaryFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(temporaryFile);
+		}
+		return rewrite;
+	}
+
+	/**
+	 * Copies the POSIX permissions of the given file to the given target file, because temporary
+	 * files are only readable by their owner
+	 *
+	 * @param sourceFile
+	 *            the file with the permissions
+	 * @param targetFile
+	 *            the target file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static void copyPermissions(Path sourceFile, Path targetFile) throws IOException
+	{
+		try
+		{
+			Files.setPosixFilePermissions(targetFile, Files.getPosixFilePermissions(sourceFile));
+		}
+		catch (UnsupportedOperationException e)
+		{
+			// the file system has no POSIX permissions
+		}
+	}
+
+	/**
+	 * Checks if the given file is an XML run configuration
+	 *
+	 * @param file
+	 *            the file
+	 * @return true if the file is an XML file in a run configurations directory
+	 */
+	private static boolean isRunConfiguration(Path file)
+	{
+		Path parent = file.toAbsolutePath().getParent();
+		return file.getFileName().toString().endsWith(XML_FILE_EXTENSION) && parent != null
+			&& CopyGradleRunConfigurations.RUN_CONFIGURATIONS_DIR_NAME
+				.equals(parent.getFileName().toString());
+	}
+
+	/**
+	 * Rewrites the given XML run configuration into the given target file
+	 *
+	 * @param sourceFile
+	 *            the run configuration
+	 * @param targetFile
+	 *            the target file
+	 * @return true if the run configuration was rewritten, false if it is not well formed
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private boolean rewriteXml(Path sourceFile, Path targetFile) throws IOException
+	{
+		try (
+			BufferedReader reader = Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8);
+			BufferedWriter writer = Files.newBufferedWriter(targetFile, StandardCharsets.UTF_8))
+		{
+			rewriter.rewrite(reader, writer);
+			return true;
+		}
+		catch (XMLStreamException e)
+		{
+			log.log(Level.WARNING,
+				sourceFile + " is not well formed and is rewritten as plain text", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Checks if the given file contains a token of the source project without decoding it
+	 *
+	 * @param file
+	 *            the file
+	 * @return true if the file contains a token, otherwise false
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private boolean containsToken(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			if (size <= MAPPING_THRESHOLD)
+			{
+				ByteBuffer bytes = ByteBuffer.allocate((int)size);
+				while (bytes.hasRemaining() && channel.read(bytes) != -1)
+				{
+					// read until the buffer is full
+				}
+				return replacer.containsToken(bytes.flip());
+			}
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return replacer.containsToken(bytes);
+		}
+	}
+
+	/**
+	 * Copies the bytes of the given file to the given existing target file according to the
+	 * {@link CopyMode}
+	 *
+	 * @param sourceFile
+	 *            the file to copy
+	 * @param targetFile
+	 *            the existing target file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void copyBytes(Path sourceFile, Path targetFile) throws IOException
+	{
+		if (copyMode == CopyMode.LINK)
+		{
+			Files.delete(targetFile);
+			try
+			{
+				Files.createLink(targetFile, sourceFile);
+				return;
+			}
+			catch (UnsupportedOperationException | FileSystemException e)
+			{
+				log.log(Level.FINE, "Could not link " + sourceFile + ", it is copied", e);
+			}
+		}
+		try (FileChannel source = FileChannel.open(sourceFile, StandardOpenOption.READ);
+			FileChannel target = FileChannel.open(targetFile, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			long size = source.size();
+			long position = 0;
+			while (position < size)
+			{
+				long transferred = source.transferTo(position, size - position, target);
+				if (transferred <= 0)
+				{
+					// the source file was truncated concurrently
+					break;
+				}
+				position += transferred;
+			}
+		}
+	}
+}
@@ -0,0 +1,444 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
+import lombok.NonNull;
+
+/**
+ * The class {@link LiteralReplacer} replaces several literal tokens at once in a single scan of a
+ * text. The tokens are compiled into an Aho-Corasick automaton, so the text is read only once
+ * regardless of the number of tokens and no token is interpreted as a regular expression. If
+ * several tokens match at the same position the longest one wins, and matches never overlap.<br>
+ * <br>
+ * The buffers for the pending characters and the output are reused for all texts, so one instance
+ * can rewrite any number of files. An instance of this class is not thread safe.
+ */
+public final class LiteralReplacer
+{
+
+	/** The root state of the automaton. */
+	private static final int ROOT = 0;
+
+	/** The number of characters with a direct transition table at the root state. */
+	private static final int ROOT_TABLE_SIZE = 128;
+
+	/** The size of the buffer for reading a text. */
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	/** The sorted characters of the transitions of each state. */
+	private final char[][] transitionCharacters;
+
+	/** The target states of the transitions of each state. */
+	private final int[][] transitionTargets;
+
+	/** The direct transitions of the root state for ASCII characters or -1 for none. */
+	private final int[] rootTransitions;
+
+	/** The failure state of each state. */
+	private final int[] failures;
+
+	/** The token that ends in each state or -1 for none. */
+	private final int[] tokenOfState;
+
+	/** The nearest failure state of each state where a token ends or -1 for none. */
+	private final int[] dictionaryLinks;
+
+	/** The lengths of the tokens. */
+	private final int[] tokenLengths;
+
+	/** The replacements of the tokens. */
+	private final String[] replacements;
+
+	/**
+	 * The automaton for the UTF-8 bytes of the tokens, where every byte is mapped to the character
+	 * with the same value. It is this replacer itself if all tokens are ASCII.
+	 */
+	private final LiteralReplacer byteMatcher;
+
+	/** The length of the longest token, at least one. */
+	private final int maxTokenLength;
+
+	/** The characters that are read but not yet written, indexed by position. */
+	private final char[] pending;
+
+	/** The longest token that starts at a pending position or -1 for none. */
+	private final int[] matchedTokens;
+
+	/** The buffer for reading a text. */
+	private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+
+	/** The buffer for the rewritten text. */
+	private final StringBuilder output = new StringBuilder();
+
+	/** The current state of the automaton. */
+	private int state;
+
+	/** The number of read characters of the current text. */
+	private long position;
+
+	/** The position of the first character that is not yet written. */
+	private long written;
+
+	/**
+	 * Instantiates a new {@link LiteralReplacer} from the given tokens and their replacements
+	 *
+	 * @param replacements
+	 *            the tokens with their replacements
+	 * @param byteTokens
+	 *            true if the tokens are already mapped from their UTF-8 bytes
+	 */
+	private LiteralReplacer(Map<String, String> replacements, boolean byteTokens)
+	{
+		List<Map<Character, Integer>> transitions = ListFactory.newArrayList();
+		List<Integer> tokens = ListFactory.newArrayList();
+		transitions.add(new TreeMap<>());
+		tokens.add(-1);
+		this.tokenLengths = new int[replacements.size()];
+		this.replacements = new String[replacements.size()];
+		int token = 0;
+		int longest = 0;
+		for (Map.Entry<String, String> entry : replacements.entrySet())
+		{
+			String key = entry.getKey();
+			if (key == null || key.isEmpty() || entry.getValue() == null)
+			{
+				throw new IllegalArgumentException(
+					"The tokens have to be non empty and their replacements non null");
+			}
+			int current = ROOT;
+			for (int i = 0; i < key.length(); i++)
+			{
+				Integer next = transitions.get(current).get(key.charAt(i));
+				if (next == null)
+				{
+					next = transitions.size();
+					transitions.add(new TreeMap<>());
+					tokens.add(-1);
+					transitions.get(current).put(key.charAt(i), next);
+				}
+				current = next;
+			}
+			tokens.set(current, token);
+			this.tokenLengths[token] = key.length();
+			this.replacements[token] = entry.getValue();
+			longest = Math.max(longest, key.length());
+			token++;
+		}
+		int stateCount = transitions.size();
+		this.transitionCharacters = new char[stateCount][];
+		this.transitionTargets = new int[stateCount][];
+		this.tokenOfState = new int[stateCount];
+		for (int i = 0; i < stateCount; i++)
+		{
+			Map<Character, Integer> stateTransitions = transitions.get(i);
+			transitionCharacters[i] = new char[stateTransitions.size()];
+			transitionTargets[i] = new int[stateTransitions.size()];
+			int index = 0;
+			for (Map.Entry<Character, Integer> transition : stateTransitions.entrySet())
+			{
+				transitionCharacters[i][index] = transition.getKey();
+				transitionTargets[i][index] = transition.getValue();
+				index++;
+			}
+			tokenOfState[i] = tokens.get(i);
+		}
+		this.rootTransitions = new int[ROOT_TABLE_SIZE];
+		Arrays.fill(rootTransitions, -1);
+		for (int i = 0; i < transitionCharacters[ROOT].length; i++)
+		{
+			if (transitionCharacters[ROOT][i] < ROOT_TABLE_SIZE)
+			{
+				rootTransitions[transitionCharacters[ROOT][i]] = transitionTargets[ROOT][i];
+			}
+		}
+		this.failures = new int[stateCount];
+		this.dictionaryLinks = new int[stateCount];
+		dictionaryLinks[ROOT] = -1;
+		// the failure states are computed in breadth first order, so the failure state of a
+		// parent is always known before its children
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		queue.add(ROOT);
+		while (!queue.isEmpty())
+		{
+			int parent = queue.poll();
+			for (int i = 0; i < transitionCharacters[parent].length; i++)
+			{
+				int child = transitionTargets[parent][i];
+				int failure = parent == ROOT
+					? ROOT
+					: next(failures[parent], transitionCharacters[parent][i]);
+				failures[child] = failure;
+				dictionaryLinks[child] = tokenOfState[failure] >= 0
+					? failure
+					: dictionaryLinks[failure];
+				queue.add(child);
+			}
+		}
+		this.maxTokenLength = Math.max(1, longest);
+		this.pending = new char[maxTokenLength];
+		this.matchedTokens = new int[maxTokenLength];
+		boolean ascii = replacements.keySet().stream()
+			.allMatch(key -> key.chars().allMatch(character -> character < ROOT_TABLE_SIZE));
+		if (byteTokens || ascii)
+		{
+			this.byteMatcher = this;
+		}
+		else
+		{
+			Map<String, String> byteReplacements = MapFactory.newLinkedHashMap();
+			for (String key : replacements.keySet())
+			{
+				byteReplacements.put(new String(key.getBytes(StandardCharsets.UTF_8),
+					StandardCharsets.ISO_8859_1), "");
+			}
+			this.byteMatcher = new LiteralReplacer(byteReplacements, true);
+		}
+	}
+
+	/**
+	 * Factory method for create a new {@link LiteralReplacer} from the given tokens and their
+	 * replacements
+	 *
+	 * @param replacements
+	 *            the tokens with their replacements
+	 * @return the new {@link LiteralReplacer}
+	 * @throws IllegalArgumentException
+	 *             if a token is empty or a replacement is null
+	 */
+	public static LiteralReplacer of(@NonNull Map<String, String> replacements)
+	{
+		return new LiteralReplacer(replacements, false);
+	}
+
+	/**
+	 * Checks if the given UTF-8 encoded bytes contain at least one of the tokens. The bytes are
+	 * scanned without decoding them, so a file that needs no replacement can be copied as it is.
+	 *
+	 * @param bytes
+	 *            the UTF-8 encoded bytes from their position to their limit, the position is not
+	 *            changed
+	 * @return true if the bytes contain a token, otherwise false
+	 */
+	public boolean containsToken(@NonNull ByteBuffer bytes)
+	{
+		int current = ROOT;
+		for (int i = bytes.position(); i < bytes.limit(); i++)
+		{
+			current = byteMatcher.next(current, (char)(bytes.get(i) & 0xFF));
+			if (byteMatcher.tokenOfState[current] >= 0
+				|| byteMatcher.dictionaryLinks[current] >= 0)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replaces all tokens in the given text
+	 *
+	 * @param text
+	 *            the text
+	 * @return the text with the replaced tokens
+	 */
+	public String replace(@NonNull CharSequence text)
+	{
+		reset();
+		for (int i = 0; i < text.length(); i++)
+		{
+			accept(text.charAt(i));
+		}
+		finish();
+		return output.toString();
+	}
+
+	/**
+	 * Replaces all tokens in the text of the given reader and writes the result to the given
+	 * writer. Neither the reader nor the writer is closed.
+	 *
+	 * @param reader
+	 *            the reader of the text
+	 * @param writer
+	 *            the writer for the text with the replaced tokens
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void replace(@NonNull Reader reader, @NonNull Writer writer) throws IOException
+	{
+		reset();
+		int read;
+		while ((read = reader.read(readBuffer)) != -1)
+		{
+			for (int i = 0; i < read; i++)
+			{
+				accept(readBuffer[i]);
+			}
+			writer.append(output);
+			output.setLength(0);
+		}
+		finish();
+		writer.append(output);
+		output.setLength(0);
+	}
+
+	/**
+	 * Resets the state for a new text
+	 */
+	private void reset()
+	{
+		state = ROOT;
+		position = 0;
+		written = 0;
+		output.setLength(0);
+	}
+
+	/**
+	 * Reads the next character of the current text
+	 *
+	 * @param character
+	 *            the character
+	 */
+	private void accept(char character)
+	{
+		int slot = (int)(position % pending.length);
+		pending[slot] = character;
+		matchedTokens[slot] = -1;
+		state = next(state, character);
+		int match = tokenOfState[state] >= 0 ? state : dictionaryLinks[state];
+		while (match >= 0)
+		{
+			int token = tokenOfState[match];
+			long start = position - tokenLengths[token] + 1;
+			if (start >= written)
+			{
+				int startSlot = (int)(start % pending.length);
+				int matched = matchedTokens[startSlot];
+				if (matched < 0 || tokenLengths[matched] < tokenLengths[token])
+				{
+					matchedTokens[startSlot] = token;
+				}
+			}
+			match = dictionaryLinks[match];
+		}
+		position++;
+		// all tokens that start at a position at least the length of the longest token before
+		// the current position are known, so the leftmost pending position can be decided
+		while (written + maxTokenLength <= position)
+		{
+			decide();
+		}
+	}
+
+	/**
+	 * Writes all pending characters at the end of the current text
+	 */
+	private void finish()
+	{
+		while (written < position)
+		{
+			decide();
+		}
+	}
+
+	/**
+	 * Writes the leftmost pending position either as replacement of the longest token that starts
+	 * there or as the character itself
+	 */
+	private void decide()
+	{
+		int slot = (int)(written % pending.length);
+		int token = matchedTokens[slot];
+		if (token >= 0)
+		{
+			output.append(replacements[token]);
+			written += tokenLengths[token];
+		}
+		else
+		{
+			output.append(pending[slot]);
+			written++;
+		}
+	}
+
+	/**
+	 * Follows the transition for the given character from the given state and falls back to the
+	 * failure states until a transition exists
+	 *
+	 * @param from
+	 *            the state
+	 * @param character
+	 *            the character
+	 * @return the next state
+	 */
+	private int next(int from, char character)
+	{
+		int current = from;
+		while (true)
+		{
+			int target = transition(current, character);
+			if (target >= 0)
+			{
+				return target;
+			}
+			if (current == ROOT)
+			{
+				return ROOT;
+			}
+			current = failures[current];
+		}
+	}
+
+	/**
+	 * Gets the target of the transition for the given character from the given state
+	 *
+	 * @param from
+	 *            the state
+	 * @param character
+	 *            the character
+	 * @return the target state or -1 if the state has no transition for the character
+	 */
+	private int transition(int from, char character)
+	{
+		if (from == ROOT && character < ROOT_TABLE_SIZE)
+		{
+			return rootTransitions[character];
+		}
+		int index = Arrays.binarySearch(transitionCharacters[from], character);
+		return index < 0 ? -1 : transitionTargets[from][index];
+	}
+}
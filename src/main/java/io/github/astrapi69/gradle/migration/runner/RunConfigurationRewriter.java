@@ -0,0 +1,347 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import lombok.NonNull;
+
+/**
+ * The class {@link RunConfigurationRewriter} rewrites IntelliJ run configuration files for a new
+ * project with a streaming StAX parser. Only the attributes that refer to the project are passed
+ * to a {@link LiteralReplacer}, that are the name and the folder of a configuration, the module
+ * name, the project path, the execution name, the script parameters and the task names. All other
+ * content is copied event by event without building a DOM, so a project name in an unrelated
+ * attribute or text stays unchanged and the memory does not grow with the size of a file.<br>
+ * <br>
+ * An instance of this class is not thread safe, because the {@link LiteralReplacer} reuses its
+ * buffers.
+ */
+public final class RunConfigurationRewriter
+{
+
+	/** The element of a run configuration. */
+	private static final String CONFIGURATION_ELEMENT = "configuration";
+
+	/** The element of the module of a run configuration. */
+	private static final String MODULE_ELEMENT = "module";
+
+	/** The element of an option of a run configuration. */
+	private static final String OPTION_ELEMENT = "option";
+
+	/** The attribute with the name of an element. */
+	private static final String NAME_ATTRIBUTE = "name";
+
+	/** The attribute with the folder of a run configuration. */
+	private static final String FOLDER_NAME_ATTRIBUTE = "folderName";
+
+	/** The attribute with the value of an option. */
+	private static final String VALUE_ATTRIBUTE = "value";
+
+	/** The name of the option that holds the task names as nested options. */
+	private static final String TASK_NAMES_OPTION = "taskNames";
+
+	/** The names of the options whose value refers to the project. */
+	private static final Set<String> PROJECT_OPTIONS = Set.of("externalProjectPath",
+		"executionName", "scriptParameters");
+
+	/** The factory for the StAX parsers. */
+	private final XMLInputFactory inputFactory;
+
+	/** The replacer for the tokens of the source project. */
+	private final LiteralReplacer replacer;
+
+	/** The writer of the current file. */
+	private Writer writer;
+
+	/** The depth of the current element. */
+	private int depth;
+
+	/** The depth of the option with the task names or -1 outside of it. */
+	private int taskNamesDepth;
+
+	/** Flag that indicates if the current start tag is not yet closed. */
+	private boolean startTagOpen;
+
+	/**
+	 * Instantiates a new {@link RunConfigurationRewriter}
+	 *
+	 * @param replacer
+	 *            the replacer for the tokens of the source project
+	 */
+	private RunConfigurationRewriter(LiteralReplacer replacer)
+	{
+		this.replacer = replacer;
+		this.inputFactory = XMLInputFactory.newFactory();
+		inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+	}
+
+	/**
+	 * Factory method for create a new {@link RunConfigurationRewriter} with the given replacer
+	 *
+	 * @param replacer
+	 *            the replacer for the tokens of the source project
+	 * @return the new {@link RunConfigurationRewriter}
+	 */
+	public static RunConfigurationRewriter of(@NonNull LiteralReplacer replacer)
+	{
+		return new RunConfigurationRewriter(replacer);
+	}
+
+	/**
+	 * Rewrites the run configuration of the given reader and writes the result to the given
+	 * writer. Neither the reader nor the writer is closed.
+	 *
+	 * @param reader
+	 *            the reader of the run configuration
+	 * @param writer
+	 *            the writer for the rewritten run configuration
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws XMLStreamException
+	 *             if the run configuration is not well formed XML
+	 */
+	public void rewrite(@NonNull Reader reader, @NonNull Writer writer)
+		throws IOException, XMLStreamException
+	{
+		this.writer = writer;
+		this.depth = 0;
+		this.taskNamesDepth = -1;
+		this.startTagOpen = false;
+		XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(reader);
+		try
+		{
+			if (xmlReader.getVersion() != null)
+			{
+				writer.write("<?xml version=\"" + xmlReader.getVersion() + "\"");
+				if (xmlReader.getCharacterEncodingScheme() != null)
+				{
+					writer.write(" encoding=\"" + xmlReader.getCharacterEncodingScheme() + "\"");
+				}
+				if (xmlReader.standaloneSet())
+				{
+					writer.write(xmlReader.isStandalone()
+						? " standalone=\"yes\""
+						: " standalone=\"no\"");
+				}
+				writer.write("?>\n");
+			}
+			while (xmlReader.hasNext())
+			{
+				int event = xmlReader.next();
+				if (event == XMLStreamConstants.END_ELEMENT)
+				{
+					writeEndElement(xmlReader);
+					continue;
+				}
+				closeStartTag();
+				switch (event)
+				{
+					case XMLStreamConstants.START_ELEMENT :
+						writeStartElement(xmlReader);
+						break;
+					case XMLStreamConstants.CHARACTERS :
+					case XMLStreamConstants.SPACE :
+						writeEscaped(xmlReader.getText(), false);
+						break;
+					case XMLStreamConstants.CDATA :
+						writer.write("<![CDATA[" + xmlReader.getText() + "]]>");
+						break;
+					case XMLStreamConstants.COMMENT :
+						writer.write("<!--" + xmlReader.getText() + "-->");
+						break;
+					case XMLStreamConstants.PROCESSING_INSTRUCTION :
+						writer.write("<?" + xmlReader.getPITarget() + " "
+							+ xmlReader.getPIData() + "?>");
+						break;
+					default :
+						break;
+				}
+			}
+		}
+		finally
+		{
+			xmlReader.close();
+			this.writer = null;
+		}
+	}
+
+	/**
+	 * Writes the current start element without closing its tag, so an empty element can be
+	 * written as such
+	 *
+	 * @param xmlReader
+	 *            the parser on the start element
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void writeStartElement(XMLStreamReader xmlReader) throws IOException
+	{
+		depth++;
+		String element = xmlReader.getLocalName();
+		String optionName = xmlReader.getAttributeValue(null, NAME_ATTRIBUTE);
+		boolean projectOption = OPTION_ELEMENT.equals(element) && (taskNamesDepth >= 0
+			|| optionName != null && PROJECT_OPTIONS.contains(optionName));
+		if (OPTION_ELEMENT.equals(element) && TASK_NAMES_OPTION.equals(optionName)
+			&& taskNamesDepth < 0)
+		{
+			taskNamesDepth = depth;
+		}
+		writer.write('<');
+		writer.write(qualifiedName(xmlReader.getPrefix(), element));
+		for (int i = 0; i < xmlReader.getNamespaceCount(); i++)
+		{
+			String prefix = xmlReader.getNamespacePrefix(i);
+			writer.write(prefix == null || prefix.isEmpty() ? " xmlns" : " xmlns:" + prefix);
+			writer.write("=\"");
+			writeEscaped(xmlReader.getNamespaceURI(i), true);
+			writer.write('"');
+		}
+		for (int i = 0; i < xmlReader.getAttributeCount(); i++)
+		{
+			String attribute = xmlReader.getAttributeLocalName(i);
+			String value = xmlReader.getAttributeValue(i);
+			boolean projectAttribute = switch (element)
+			{
+				case CONFIGURATION_ELEMENT -> NAME_ATTRIBUTE.equals(attribute)
+					|| FOLDER_NAME_ATTRIBUTE.equals(attribute);
+				case MODULE_ELEMENT -> NAME_ATTRIBUTE.equals(attribute);
+				case OPTION_ELEMENT -> projectOption && VALUE_ATTRIBUTE.equals(attribute);
+				default -> false;
+			};
+			writer.write(' ');
+			writer.write(qualifiedName(xmlReader.getAttributePrefix(i), attribute));
+			writer.write("=\"");
+			writeEscaped(projectAttribute ? replacer.replace(value) : value, true);
+			writer.write('"');
+		}
+		startTagOpen = true;
+	}
+
+	/**
+	 * Writes the current end element, an element without content is written as empty element
+	 *
+	 * @param xmlReader
+	 *            the parser on the end element
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void writeEndElement(XMLStreamReader xmlReader) throws IOException
+	{
+		if (startTagOpen)
+		{
+			writer.write(" />");
+			startTagOpen = false;
+		}
+		else
+		{
+			writer.write("</");
+			writer.write(qualifiedName(xmlReader.getPrefix(), xmlReader.getLocalName()));
+			writer.write('>');
+		}
+		if (depth == taskNamesDepth)
+		{
+			taskNamesDepth = -1;
+		}
+		depth--;
+	}
+
+	/**
+	 * Closes the current start tag if it is still open
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void closeStartTag() throws IOException
+	{
+		if (startTagOpen)
+		{
+			writer.write('>');
+			startTagOpen = false;
+		}
+	}
+
+	/**
+	 * Creates the qualified name of the given prefix and local name
+	 *
+	 * @param prefix
+	 *            the prefix or null for none
+	 * @param localName
+	 *            the local name
+	 * @return the qualified name
+	 */
+	private static String qualifiedName(String prefix, String localName)
+	{
+		return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+	}
+
+	/**
+	 * Writes the given text with the characters escaped that XML does not allow literally. In
+	 * attributes also quotes and whitespace characters are escaped, so they survive the
+	 * normalization of attribute values.
+	 *
+	 * @param text
+	 *            the text
+	 * @param attribute
+	 *            true if the text is an attribute value
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private void writeEscaped(String text, boolean attribute) throws IOException
+	{
+		int start = 0;
+		for (int i = 0; i < text.length(); i++)
+		{
+			String escaped = switch (text.charAt(i))
+			{
+				case '&' -> "&amp;";
+				case '<' -> "&lt;";
+				case '>' -> "&gt;";
+				case '"' -> attribute ? "&quot;" : null;
+				case '\n' -> attribute ? "&#10;" : null;
+				case '\r' -> "&#13;";
+				case '\t' -> attribute ? "&#9;" : null;
+				default -> null;
+			};
+			if (escaped != null)
+			{
+				writer.write(text, start, i - start);
+				writer.write(escaped);
+				start = i + 1;
+			}
+		}
+		writer.write(text, start, text.length() - start);
+	}
+}
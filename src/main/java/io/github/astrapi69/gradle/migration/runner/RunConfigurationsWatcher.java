@@ -0,0 +1,452 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.gradle.migration.extension.GitExtensions;
+import io.github.astrapi69.gradle.migration.info.CopyGradleRunConfigurations;
+import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+/**
+ * The class {@link RunConfigurationsWatcher} keeps the run configurations of registered target
+ * projects in sync with a template project. It watches the run configurations directory of the
+ * template with a {@link WatchService}. The events are coalesced until the directory stays quiet
+ * for the debounce time, then only the changed run configurations are rewritten for every target
+ * project in parallel and added to git. Deleted run configurations are deleted in the targets as
+ * well.
+ */
+@Log
+public final class RunConfigurationsWatcher implements Closeable
+{
+
+	/** The default time the run configurations directory has to stay quiet before a sync. */
+	public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+
+	/** The configuration of the template project, its target fields are not used. */
+	private final CopyGradleRunConfigurations source;
+
+	/** The prefix for the template project directory. */
+	private final String sourceProjectDirNamePrefix;
+
+	/** The time the run configurations directory has to stay quiet before a sync. */
+	private final Duration debounce;
+
+	/** The configurations of the registered target projects by their names. */
+	private final Map<String, CopyGradleRunConfigurations> targets = new ConcurrentHashMap<>();
+
+	/** The listener that is notified about the synced files of a target project. */
+	private volatile BiConsumer<String, List<Path>> syncListener = (target, files) -> {
+	};
+
+	/** The watch service or null if this watcher is not started. */
+	private WatchService watchService;
+
+	/** The thread that waits for the events. */
+	private Thread watchThread;
+
+	/**
+	 * Instantiates a new {@link RunConfigurationsWatcher}
+	 *
+	 * @param sourceProjectName
+	 *            the name of the template project
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the template project directory
+	 * @param debounce
+	 *            the time the run configurations directory has to stay quiet before a sync
+	 */
+	private RunConfigurationsWatcher(String sourceProjectName, String sourceProjectDirNamePrefix,
+		Duration debounce)
+	{
+		this.source = GradleRunConfigurationsCopier.newCopyGradleRunConfigurations(
+			sourceProjectName, sourceProjectName, sourceProjectDirNamePrefix,
+			sourceProjectDirNamePrefix, true, false);
+		this.sourceProjectDirNamePrefix = sourceProjectDirNamePrefix;
+		this.debounce = debounce;
+	}
+
+	/**
+	 * Factory method for create a new {@link RunConfigurationsWatcher} for the project
+	 * {@link DependenciesInfo#JAVA_LIBRARY_TEMPLATE_NAME} with the default debounce time
+	 *
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the template project directory
+	 * @return the new {@link RunConfigurationsWatcher}
+	 */
+	public static RunConfigurationsWatcher of(@NonNull String sourceProjectDirNamePrefix)
+	{
+		return of(DependenciesInfo.JAVA_LIBRARY_TEMPLATE_NAME, sourceProjectDirNamePrefix,
+			DEFAULT_DEBOUNCE);
+	}
+
+	/**
+	 * Factory method for create a new {@link RunConfigurationsWatcher}
+	 *
+	 * @param sourceProjectName
+	 *            the name of the template project
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the template project directory
+	 * @param debounce
+	 *            the time the run configurations directory has to stay quiet before a sync
+	 * @return the new {@link RunConfigurationsWatcher}
+	 */
+	public static RunConfigurationsWatcher of(@NonNull String sourceProjectName,
+		@NonNull String sourceProjectDirNamePrefix, @NonNull Duration debounce)
+	{
+		return new RunConfigurationsWatcher(sourceProjectName, sourceProjectDirNamePrefix,
+			debounce);
+	}
+
+	/**
+	 * Registers the given target project, so its run configurations are synced with the next
+	 * changes of the template project
+	 *
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @param targetProjectDirNamePrefix
+	 *            the prefix for the target project directory
+	 */
+	public void register(@NonNull String targetProjectName,
+		@NonNull String targetProjectDirNamePrefix)
+	{
+		targets.put(targetProjectName,
+			GradleRunConfigurationsCopier.newCopyGradleRunConfigurations(
+				source.getSourceProjectName(), targetProjectName, sourceProjectDirNamePrefix,
+				targetProjectDirNamePrefix, true, false));
+	}
+
+	/**
+	 * Removes the given target project from the synced projects
+	 *
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @return true if the target project was registered, otherwise false
+	 */
+	public boolean unregister(@NonNull String targetProjectName)
+	{
+		return targets.remove(targetProjectName) != null;
+	}
+
+	/**
+	 * Sets the listener that is notified with the name of a target project and its synced files
+	 * after every sync
+	 *
+	 * @param syncListener
+	 *            the listener
+	 */
+	public void setSyncListener(@NonNull BiConsumer<String, List<Path>> syncListener)
+	{
+		this.syncListener = syncListener;
+	}
+
+	/**
+	 * Starts to watch the run configurations directory of the template project
+	 *
+	 * @throws IOException
+	 *             if the directory can not be watched
+	 */
+	public synchronized void start() throws IOException
+	{
+		if (watchService != null)
+		{
+			throw new IllegalStateException("The watcher is already started");
+		}
+		watchService = source.getSourceRunConfigDir().toPath().getFileSystem().newWatchService();
+		register(watchService);
+		WatchService service = watchService;
+		watchThread = Thread.ofVirtual().name("run-configurations-watcher")
+			.start(() -> watch(service));
+	}
+
+	/**
+	 * Registers the run configurations directory of the template project with the given watch
+	 * service. A missing directory is created.
+	 *
+	 * @param service
+	 *            the watch service
+	 * @throws IOException
+	 *             if the directory can not be created or watched
+	 */
+	private void register(WatchService service) throws IOException
+	{
+		Path directory = source.getSourceRunConfigDir().toPath();
+		Files.createDirectories(directory);
+		directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+			StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+	}
+
+	/**
+	 * Stops to watch the run configurations directory of the template project
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (watchService == null)
+		{
+			return;
+		}
+		watchService.close();
+		watchService = null;
+		try
+		{
+			watchThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Syncs all run configurations of the template project to all registered target projects
+	 *
+	 * @throws IOException
+	 *             if the run configurations directory can not be read
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the sync
+	 */
+	public void syncAll() throws IOException, InterruptedException
+	{
+		Set<String> fileNames = SetFactory.newLinkedHashSet();
+		Path directory = source.getSourceRunConfigDir().toPath();
+		if (Files.isDirectory(directory))
+		{
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+			{
+				files.forEach(file -> fileNames.add(file.getFileName().toString()));
+			}
+		}
+		sync(fileNames);
+	}
+
+	/**
+	 * Waits for the events of the given watch service and syncs the changed files after the
+	 * debounce time. If the run configurations directory is deleted or replaced, for instance by
+	 * a git checkout, the directory is registered again and all run configurations are synced.
+	 *
+	 * @param service
+	 *            the watch service
+	 */
+	private void watch(WatchService service)
+	{
+		try
+		{
+			while (true)
+			{
+				Set<String> fileNames = SetFactory.newLinkedHashSet();
+				WatchKey key = service.take();
+				boolean overflow = collect(key, fileNames);
+				WatchKey next;
+				// all events are coalesced until the directory stays quiet for the debounce time
+				while ((next = service.poll(debounce.toNanos(), TimeUnit.NANOSECONDS)) != null)
+				{
+					key = next;
+					overflow |= collect(key, fileNames);
+				}
+				if (!key.isValid())
+				{
+					try
+					{
+						register(service);
+					}
+					catch (IOException e)
+					{
+						log.log(Level.WARNING, "Stopped to watch " + source.getSourceRunConfigDir()
+							+ ", it can not be registered again", e);
+						return;
+					}
+				}
+				try
+				{
+					if (overflow)
+					{
+						syncAll();
+					}
+					else
+					{
+						sync(fileNames);
+					}
+				}
+				catch (IOException e)
+				{
+					log.log(Level.WARNING, "Could not sync " + source.getSourceRunConfigDir(), e);
+				}
+			}
+		}
+		catch (ClosedWatchServiceException | InterruptedException e)
+		{
+			log.fine("Stopped to watch " + source.getSourceRunConfigDir());
+		}
+	}
+
+	/**
+	 * Collects the names of the changed files of the given key and resets it
+	 *
+	 * @param key
+	 *            the signalled key
+	 * @param fileNames
+	 *            the set that receives the names of the changed files
+	 * @return true if events were lost or the key is no longer valid because the directory was
+	 *         deleted, otherwise false
+	 */
+	private static boolean collect(WatchKey key, Set<String> fileNames)
+	{
+		boolean overflow = false;
+		for (WatchEvent<?> event : key.pollEvents())
+		{
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+			{
+				overflow = true;
+			}
+			else if (event.context() instanceof Path file)
+			{
+				fileNames.add(file.getFileName().toString());
+			}
+		}
+		return !key.reset() || overflow;
+	}
+
+	/**
+	 * Syncs the given run configurations of the template project to all registered target
+	 * projects in parallel
+	 *
+	 * @param fileNames
+	 *            the names of the changed files in the run configurations directory
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the sync
+	 */
+	private void sync(Set<String> fileNames) throws InterruptedException
+	{
+		List<String> runConfigurations = ListFactory.newArrayList();
+		for (String fileName : fileNames)
+		{
+			// temporary files of editors and of this module are ignored
+			if (fileName.startsWith(source.getSourceFilenamePrefix()))
+			{
+				runConfigurations.add(fileName);
+			}
+		}
+		if (runConfigurations.isEmpty() || targets.isEmpty())
+		{
+			return;
+		}
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (Map.Entry<String, CopyGradleRunConfigurations> target : targets.entrySet())
+			{
+				executor.submit(() -> {
+					try
+					{
+						List<Path> files = sync(runConfigurations, target.getValue());
+						syncListener.accept(target.getKey(), files);
+					}
+					catch (IOException | RuntimeException e)
+					{
+						log.log(Level.WARNING, "Could not sync the run configurations of "
+							+ target.getKey(), e);
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * Syncs the given run configurations of the template project to the given target project
+	 *
+	 * @param runConfigurations
+	 *            the names of the changed run configurations
+	 * @param target
+	 *            the configuration of the target project
+	 * @return the synced files of the target project
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private List<Path> sync(List<String> runConfigurations, CopyGradleRunConfigurations target)
+		throws IOException
+	{
+		IdeaDirectoryCopier copier = IdeaDirectoryCopier.of(GradleRunConfigurationsCopier
+			.newProjectNameReplacer(target.getSourceProjectName(), target.getTargetProjectName()),
+			CopyMode.TRANSFER);
+		Path sourceDirectory = target.getSourceRunConfigDir().toPath();
+		Path targetDirectory = target.getTargetRunConfigDir().toPath();
+		List<Path> files = ListFactory.newArrayList();
+		for (String runConfiguration : runConfigurations)
+		{
+			Path sourceFile = sourceDirectory.resolve(runConfiguration);
+			Path targetFile = targetDirectory.resolve(runConfiguration
+				.replace(target.getSourceFilenamePrefix(), target.getTargetFilenamePrefix()));
+			if (Files.isRegularFile(sourceFile))
+			{
+				copier.copyFile(sourceFile, targetFile);
+				files.add(targetFile);
+			}
+			else if (Files.deleteIfExists(targetFile))
+			{
+				files.add(targetFile);
+			}
+		}
+		List<String> filesToAdd = ListFactory.newArrayList();
+		for (Path file : files)
+		{
+			filesToAdd.add(file.toAbsolutePath().toString());
+		}
+		try
+		{
+			GitExtensions.addFilesToGit(filesToAdd, target.getTargetProjectDir());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			log.log(Level.INFO, filesToAdd + " not added to git", e);
+		}
+		return files;
+	}
+}
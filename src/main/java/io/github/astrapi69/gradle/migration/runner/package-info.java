@@ -17,9 +17,21 @@
  * The following classes are included in this package:
  *
  * <ul>
+ * <li>{@link io.github.astrapi69.gradle.migration.runner.CopyMode} - Decides if unchanged files are
+ * copied by the kernel or linked.</li>
  * <li>{@link io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier} -
  * Responsible for copying and modifying Gradle run configurations and externalizing versions from
  * the build.gradle file.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.runner.IdeaDirectoryCopier} - Copies the IDE
+ * metadata files of a project and rewrites only the files that refer to the project.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.runner.LiteralReplacer} - Replaces several
+ * literal tokens at once in a single scan of a text, for instance the project names in run
+ * configurations.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.runner.RunConfigurationRewriter} - Rewrites the
+ * attributes of IntelliJ run configuration files that refer to the project with a streaming XML
+ * parser.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.runner.RunConfigurationsWatcher} - Watches the
+ * run configurations of a template project and syncs their changes to registered projects.</li>
  * </ul>
  *
  * This package is designed to streamline the process of migrating Gradle-based projects, making it
@@ -0,0 +1,285 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.NonNull;
+
+/**
+ * The class {@link BuildScriptEditor} collects several edits of a build script and applies them
+ * in a single pass. It keeps the original content and a piece table, where every edit references
+ * a span of the original content and a span of an append only buffer with its new text. An edit
+ * costs only the length of its new text, the original content is never copied until the result
+ * is written, and the text outside the edited spans stays untouched.<br>
+ * <br>
+ * All offsets refer to the original content, so edits can be added in any order. Edits must not
+ * overlap. An instance of this class is not thread safe.
+ */
+public final class BuildScriptEditor
+{
+
+	/** The original content of the build script. */
+	private final CharSequence original;
+
+	/** The append only buffer with the new texts of the edits. */
+	private final StringBuilder added = new StringBuilder();
+
+	/** The edits by their start offset in the original content. */
+	private final TreeMap<Integer, Edit> edits = new TreeMap<>();
+
+	/**
+	 * The record {@link Edit} is a piece of the table that replaces a span of the original content
+	 * with a span of the added buffer
+	 *
+	 * @param start
+	 *            the start offset of the replaced span in the original content
+	 * @param end
+	 *            the end offset of the replaced span in the original content (exclusive)
+	 * @param addedStart
+	 *            the start offset of the new text in the added buffer
+	 * @param addedEnd
+	 *            the end offset of the new text in the added buffer (exclusive)
+	 */
+	private record Edit(int start, int end, int addedStart, int addedEnd)
+	{
+	}
+
+	/**
+	 * Instantiates a new {@link BuildScriptEditor}
+	 *
+	 * @param original
+	 *            the original content of the build script
+	 */
+	private BuildScriptEditor(CharSequence original)
+	{
+		this.original = original;
+	}
+
+	/**
+	 * Factory method for create a new {@link BuildScriptEditor} for the given content
+	 *
+	 * @param original
+	 *            the original content of the build script
+	 * @return the new {@link BuildScriptEditor}
+	 */
+	public static BuildScriptEditor of(@NonNull CharSequence original)
+	{
+		return new BuildScriptEditor(original);
+	}
+
+	/**
+	 * Factory method for create a new {@link BuildScriptEditor} for the content of the given
+	 * {@link BuildScriptIndex}, so the offsets of its sections can be used for the edits
+	 *
+	 * @param buildScriptIndex
+	 *            the index of the build script
+	 * @return the new {@link BuildScriptEditor}
+	 */
+	public static BuildScriptEditor of(@NonNull BuildScriptIndex buildScriptIndex)
+	{
+		return new BuildScriptEditor(buildScriptIndex.getContent());
+	}
+
+	/**
+	 * Gets the original content of the build script
+	 *
+	 * @return the original content
+	 */
+	public CharSequence getOriginal()
+	{
+		return original;
+	}
+
+	/**
+	 * Checks if this editor has edits
+	 *
+	 * @return true if at least one edit was added, otherwise false
+	 */
+	public boolean isModified()
+	{
+		return !edits.isEmpty();
+	}
+
+	/**
+	 * Replaces the given span of the original content with the given text
+	 *
+	 * @param start
+	 *            the start offset in the original content
+	 * @param end
+	 *            the end offset in the original content (exclusive)
+	 * @param text
+	 *            the new text
+	 * @return this editor
+	 * @throws IllegalArgumentException
+	 *             if the span is out of bounds, overlaps an existing edit or starts at the same
+	 *             offset as an existing edit
+	 */
+	public BuildScriptEditor replace(int start, int end, @NonNull CharSequence text)
+	{
+		if (start < 0 || end < start || original.length() < end)
+		{
+			throw new IllegalArgumentException("The span " + start + ".." + end
+				+ " is out of the bounds of the content with the length " + original.length());
+		}
+		Map.Entry<Integer, Edit> previous = edits.floorEntry(start);
+		Map.Entry<Integer, Edit> next = edits.higherEntry(start);
+		if (previous != null && (previous.getKey() == start || start < previous.getValue().end())
+			|| next != null && next.getKey() < end)
+		{
+			throw new IllegalArgumentException(
+				"The span " + start + ".." + end + " overlaps an existing edit");
+		}
+		int addedStart = added.length();
+		added.append(text);
+		edits.put(start, new Edit(start, end, addedStart, added.length()));
+		return this;
+	}
+
+	/**
+	 * Inserts the given text at the given offset of the original content
+	 *
+	 * @param offset
+	 *            the offset in the original content
+	 * @param text
+	 *            the text to insert
+	 * @return this editor
+	 */
+	public BuildScriptEditor insert(int offset, @NonNull CharSequence text)
+	{
+		return replace(offset, offset, text);
+	}
+
+	/**
+	 * Replaces the given span of the original content with a copy where all single quotes are
+	 * replaced by double quotes. Only the given span is copied.
+	 *
+	 * @param start
+	 *            the start offset in the original content
+	 * @param end
+	 *            the end offset in the original content (exclusive)
+	 * @return this editor
+	 */
+	public BuildScriptEditor normalizeQuotes(int start, int end)
+	{
+		if (start < 0 || end < start || original.length() < end)
+		{
+			throw new IllegalArgumentException("The span " + start + ".." + end
+				+ " is out of the bounds of the content with the length " + original.length());
+		}
+		return replace(start, end, normalizeQuotes(original.subSequence(start, end)));
+	}
+
+	/**
+	 * Replaces all single quotes of the given text by double quotes
+	 *
+	 * @param text
+	 *            the text
+	 * @return the text with double quotes
+	 */
+	public static String normalizeQuotes(@NonNull CharSequence text)
+	{
+		return text.toString().replace('\'', '"');
+	}
+
+	/**
+	 * Writes the edited content to the given {@link Appendable} in a single pass over the pieces
+	 *
+	 * @param appendable
+	 *            the target
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void writeTo(@NonNull Appendable appendable) throws IOException
+	{
+		int position = 0;
+		for (Edit edit : edits.values())
+		{
+			appendable.append(original, position, edit.start());
+			appendable.append(added, edit.addedStart(), edit.addedEnd());
+			position = edit.end();
+		}
+		appendable.append(original, position, original.length());
+	}
+
+	/**
+	 * Writes the edited content to the given file with UTF-8
+	 *
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void writeTo(@NonNull File file) throws IOException
+	{
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+		{
+			writeTo(writer);
+		}
+	}
+
+	/**
+	 * Gets the length of the edited content
+	 *
+	 * @return the length of the edited content
+	 */
+	public int length()
+	{
+		int length = original.length();
+		for (Edit edit : edits.values())
+		{
+			length += edit.addedEnd() - edit.addedStart() - (edit.end() - edit.start());
+		}
+		return length;
+	}
+
+	/**
+	 * Creates the edited content
+	 *
+	 * @return the edited content
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder(length());
+		try
+		{
+			writeTo(result);
+		}
+		catch (IOException e)
+		{
+			// a StringBuilder does not throw
+			throw new UncheckedIOException(e);
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.file.read.ReadFileExtensions;
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+import io.github.astrapi69.gradle.migration.info.VersionAssignment;
+
+/**
+ * The class {@link BuildScriptIndex} scans the content of a Gradle build script once with the
+ * {@link GradleScriptLexer} and records the offsets of its named sections. The top-level sections
+ * like 'plugins', 'dependencies', 'repositories', 'java', 'buildscript', 'ext' or named task
+ * blocks are kept in the order of their occurrence. For every section name the first top-level
+ * occurrence is kept for lookups, so nested blocks like the 'dependencies' block of the
+ * 'buildscript' section are never returned for a lookup. The top-level version assignment is
+ * located in the same scan with a {@link VersionAssignmentExtractor}.<br>
+ * <br>
+ * All lookups after the scan are answered from a map in constant time and return views on the
+ * scanned content, so no substring copies are created.
+ */
+public final class BuildScriptIndex
+{
+	/** The scanned content of the build script. */
+	private final CharSequence content;
+
+	/** The first top-level occurrence of every named section in the order they were opened. */
+	private final Map<String, SectionSpan> sections;
+
+	/** The top-level sections in the order of their occurrence. */
+	private final List<SectionSpan> topLevelSections;
+
+	/** The extractor that locates the top-level version assignment during the scan. */
+	private final VersionAssignmentExtractor versionAssignmentExtractor;
+
+	/**
+	 * Instantiates a new {@link BuildScriptIndex} from the given content
+	 *
+	 * @param content
+	 *            the content of the build script
+	 */
+	private BuildScriptIndex(CharSequence content)
+	{
+		Objects.requireNonNull(content);
+		this.content = content;
+		this.sections = MapFactory.newLinkedHashMap();
+		this.topLevelSections = ListFactory.newArrayList();
+		this.versionAssignmentExtractor = new VersionAssignmentExtractor();
+		GradleScriptLexer.scan(content, new ScriptBlockListener()
+		{
+			@Override
+			public boolean blockOpened(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int depth)
+			{
+				if (nameStart != -1 && depth == 0)
+				{
+					String name = content.subSequence(nameStart, nameEnd).toString();
+					SectionSpan sectionSpan = SectionSpan.builder().name(name).start(nameStart)
+						.openBrace(openBrace).end(-1).depth(depth).build();
+					sections.putIfAbsent(name, sectionSpan);
+					topLevelSections.add(sectionSpan);
+				}
+				return true;
+			}
+
+			@Override
+			public boolean blockClosed(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int closeBrace, int depth)
+			{
+				if (nameStart != -1 && depth == 0)
+				{
+					SectionSpan sectionSpan = topLevelSections.get(topLevelSections.size() - 1);
+					if (sectionSpan.getOpenBrace() == openBrace)
+					{
+						sectionSpan.setEnd(closeBrace + 1);
+					}
+				}
+				return true;
+			}
+
+			@Override
+			public boolean identifierFound(CharSequence content, int start, int end, int depth)
+			{
+				versionAssignmentExtractor.identifierFound(content, start, end, depth);
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Factory method for create a new {@link BuildScriptIndex} from the given content
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @return the new {@link BuildScriptIndex}
+	 */
+	public static BuildScriptIndex of(CharSequence content)
+	{
+		return new BuildScriptIndex(content);
+	}
+
+	/**
+	 * Factory method for create a new {@link BuildScriptIndex} from the given build script file.
+	 * The file is read exactly once.
+	 *
+	 * @param buildGradle
+	 *            the build script file
+	 * @return the new {@link BuildScriptIndex}
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the file
+	 */
+	public static BuildScriptIndex of(File buildGradle) throws IOException
+	{
+		return new BuildScriptIndex(ReadFileExtensions.fromFile(buildGradle));
+	}
+
+	/**
+	 * Gets the scanned content of the build script
+	 *
+	 * @return the scanned content
+	 */
+	public CharSequence getContent()
+	{
+		return content;
+	}
+
+	/**
+	 * Checks if a top-level section with the given name exists
+	 *
+	 * @param section
+	 *            the section name
+	 * @return true if a top-level section with the given name exists, otherwise false
+	 */
+	public boolean contains(String section)
+	{
+		return sections.containsKey(section);
+	}
+
+	/**
+	 * Gets the {@link SectionSpan} of the first top-level section with the given name
+	 *
+	 * @param section
+	 *            the section name
+	 * @return the {@link SectionSpan} of the section or null if no section with the given name
+	 *         exists
+	 * @throws IllegalArgumentException
+	 *             if the section was found but its closing brace is missing
+	 */
+	public SectionSpan getSectionSpan(String section)
+	{
+		SectionSpan sectionSpan = sections.get(section);
+		if (sectionSpan != null && sectionSpan.getEnd() == -1)
+		{
+			throw new IllegalArgumentException("No matching closing brace found.");
+		}
+		return sectionSpan;
+	}
+
+	/**
+	 * Gets a view on the content of the first top-level section with the given name, from the start
+	 * of the section name to the closing brace inclusive. The returned view does not copy the
+	 * content.
+	 *
+	 * @param section
+	 *            the section name
+	 * @return the view on the content of the section or null if no section with the given name
+	 *         exists
+	 * @throws IllegalArgumentException
+	 *             if the section was found but its closing brace is missing
+	 */
+	public CharSequence getSection(String section)
+	{
+		SectionSpan sectionSpan = getSectionSpan(section);
+		if (sectionSpan == null)
+		{
+			return null;
+		}
+		return CharBuffer.wrap(content, sectionSpan.getStart(), sectionSpan.getEnd());
+	}
+
+	/**
+	 * Gets the top-level sections in the order of their occurrence
+	 *
+	 * @return an unmodifiable list with the top-level sections
+	 */
+	public List<SectionSpan> getTopLevelSections()
+	{
+		return Collections.unmodifiableList(topLevelSections);
+	}
+
+	/**
+	 * Gets the location of the top-level version assignment of the build script
+	 *
+	 * @return the {@link VersionAssignment} or null if the build script has no top-level version
+	 *         assignment with a literal value
+	 */
+	public VersionAssignment getVersionAssignment()
+	{
+		return versionAssignmentExtractor.getVersionAssignment();
+	}
+}
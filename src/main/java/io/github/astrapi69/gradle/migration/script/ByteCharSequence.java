@@ -0,0 +1,113 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The class {@link ByteCharSequence} is a read-only {@link CharSequence} view on a
+ * {@link ByteBuffer} where every byte is mapped to the character with the same value. This is
+ * sufficient for the {@link GradleScriptLexer}, because all characters that are relevant for the
+ * structure of a build script are in the ASCII range and in ASCII compatible encodings like UTF-8
+ * multi byte sequences never contain bytes of the ASCII range.
+ */
+final class ByteCharSequence implements CharSequence
+{
+	/** The underlying byte buffer. */
+	private final ByteBuffer buffer;
+
+	/** The absolute offset of the first byte of this view. */
+	private final int offset;
+
+	/** The number of bytes of this view. */
+	private final int length;
+
+	/**
+	 * Instantiates a new {@link ByteCharSequence} over the given range of the given byte buffer
+	 *
+	 * @param buffer
+	 *            the byte buffer
+	 * @param offset
+	 *            the absolute offset of the first byte
+	 * @param length
+	 *            the number of bytes
+	 */
+	ByteCharSequence(ByteBuffer buffer, int offset, int length)
+	{
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int length()
+	{
+		return length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public char charAt(int index)
+	{
+		if (index < 0 || length <= index)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+		}
+		return (char)(buffer.get(offset + index) & 0xFF);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		if (start < 0 || end < start || length < end)
+		{
+			throw new IndexOutOfBoundsException(
+				"start: " + start + ", end: " + end + ", length: " + length);
+		}
+		return new ByteCharSequence(buffer, offset + start, end - start);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		char[] characters = new char[length];
+		for (int i = 0; i < length; i++)
+		{
+			characters[i] = (char)(buffer.get(offset + i) & 0xFF);
+		}
+		return new String(characters);
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+/**
+ * The class {@link ChunkCharSequence} is a reusable view on a chunk of a build script that is
+ * indexed with absolute offsets from the start of the build script. Only the characters of the
+ * wrapped chunk and of an optional carried identifier from a previous chunk are accessible.
+ */
+final class ChunkCharSequence implements CharSequence
+{
+	/** The wrapped chunk. */
+	private CharSequence chunk;
+
+	/** The absolute offset of the first character of the chunk. */
+	private int base;
+
+	/** The carried characters of a previous chunk. */
+	private CharSequence carry;
+
+	/** The absolute offset of the first carried character or -1 if there is none. */
+	private int carryStart;
+
+	/**
+	 * Wraps the given chunk and the given carried characters into this view
+	 *
+	 * @param carry
+	 *            the carried characters of a previous chunk
+	 * @param carryStart
+	 *            the absolute offset of the first carried character or -1 if there is none
+	 * @param chunk
+	 *            the chunk
+	 * @param base
+	 *            the absolute offset of the first character of the chunk
+	 * @return this view
+	 */
+	ChunkCharSequence wrap(CharSequence carry, int carryStart, CharSequence chunk, int base)
+	{
+		this.carry = carry;
+		this.carryStart = carryStart;
+		this.chunk = chunk;
+		this.base = base;
+		return this;
+	}
+
+	/**
+	 * Checks if the given range is located in the carried characters
+	 *
+	 * @param start
+	 *            the absolute start offset
+	 * @param end
+	 *            the absolute end offset
+	 * @return true if the given range is located in the carried characters
+	 */
+	private boolean isCarried(int start, int end)
+	{
+		return 0 <= carryStart && carryStart <= start && end <= carryStart + carry.length();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int length()
+	{
+		return base + chunk.length();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public char charAt(int index)
+	{
+		if (index < base)
+		{
+			if (isCarried(index, index + 1))
+			{
+				return carry.charAt(index - carryStart);
+			}
+			throw new IndexOutOfBoundsException(
+				"Index " + index + " is located before the current chunk at " + base);
+		}
+		return chunk.charAt(index - base);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		if (start < base)
+		{
+			if (isCarried(start, end))
+			{
+				return carry.subSequence(start - carryStart, end - carryStart);
+			}
+			throw new IndexOutOfBoundsException(
+				"Index " + start + " is located before the current chunk at " + base);
+		}
+		return chunk.subSequence(start - base, end - base);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		return chunk.toString();
+	}
+}
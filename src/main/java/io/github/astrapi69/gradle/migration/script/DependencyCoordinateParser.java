@@ -0,0 +1,283 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The class {@link DependencyCoordinateParser} is a cursor based parser for dependency rows of a
+ * Gradle build script like <code>implementation("org.projectlombok:lombok:1.18.34")</code> or
+ * <code>classpath 'group:artifact:version:classifier'</code>. Single and double quoted
+ * coordinates are accepted, with or without parentheses.<br>
+ * <br>
+ * The parser only records the offsets of the scope, the whole quoted coordinate and its group,
+ * artifact, version and classifier parts. Strings are created only for the fields that are
+ * requested, so a parser instance can be reused for many rows. An instance of this class is not
+ * thread safe.
+ */
+public final class DependencyCoordinateParser
+{
+	/** The currently parsed row. */
+	private CharSequence row;
+
+	/** The start offset of the scope. */
+	private int scopeStart;
+
+	/** The end offset of the scope. */
+	private int scopeEnd;
+
+	/** The start offset of the coordinate without the quotes or -1 if there is no coordinate. */
+	private int coordinateStart;
+
+	/** The end offset of the coordinate without the quotes. */
+	private int coordinateEnd;
+
+	/** The number of colon separated parts of the coordinate. */
+	private int partCount;
+
+	/** The start offsets of the group, artifact, version and classifier parts. */
+	private final int[] partStarts = new int[4];
+
+	/** The end offsets of the group, artifact, version and classifier parts. */
+	private final int[] partEnds = new int[4];
+
+	/**
+	 * Parses the given dependency row and creates a new {@link DependencyInfo} from it
+	 *
+	 * @param dependencyRow
+	 *            the dependency row
+	 * @return the {@link DependencyInfo} object or null if the dependency row contains no quoted
+	 *         coordinate
+	 */
+	public static DependencyInfo toDependencyInfo(CharSequence dependencyRow)
+	{
+		return new DependencyCoordinateParser().parseDependencyInfo(dependencyRow);
+	}
+
+	/**
+	 * Parses the given dependency row and creates a new {@link DependencyInfo} from it. If the
+	 * coordinate has not two to four colon separated parts only the scope is set.
+	 *
+	 * @param dependencyRow
+	 *            the dependency row
+	 * @return the {@link DependencyInfo} object or null if the dependency row contains no quoted
+	 *         coordinate
+	 */
+	public DependencyInfo parseDependencyInfo(CharSequence dependencyRow)
+	{
+		if (!parse(dependencyRow))
+		{
+			return null;
+		}
+		if (partCount < 2)
+		{
+			return DependencyInfo.builder().scope(getScope()).build();
+		}
+		return DependencyInfo.builder().scope(getScope()).groupId(getGroupId())
+			.artifactId(getArtifactId()).version(getVersion()).classifier(getClassifier())
+			.build();
+	}
+
+	/**
+	 * Parses the given dependency row. After a successful parse the fields can be retrieved with
+	 * the getter methods of this parser.
+	 *
+	 * @param dependencyRow
+	 *            the dependency row
+	 * @return true if the row starts with a scope and contains a quoted coordinate, otherwise false
+	 */
+	public boolean parse(CharSequence dependencyRow)
+	{
+		this.row = dependencyRow;
+		this.coordinateStart = -1;
+		this.partCount = 0;
+		final int length = dependencyRow.length();
+		int index = 0;
+		while (index < length && Character.isWhitespace(dependencyRow.charAt(index)))
+		{
+			index++;
+		}
+		scopeStart = index;
+		while (index < length && Character.isJavaIdentifierPart(dependencyRow.charAt(index)))
+		{
+			index++;
+		}
+		scopeEnd = index;
+		if (scopeStart == scopeEnd)
+		{
+			return false;
+		}
+		char quote = 0;
+		while (index < length)
+		{
+			char current = dependencyRow.charAt(index++);
+			if (current == '"' || current == '\'')
+			{
+				quote = current;
+				break;
+			}
+		}
+		if (quote == 0)
+		{
+			return false;
+		}
+		int start = index;
+		int partStart = index;
+		while (index < length)
+		{
+			char current = dependencyRow.charAt(index);
+			if (current == quote)
+			{
+				coordinateStart = start;
+				coordinateEnd = index;
+				addPart(partStart, index);
+				return true;
+			}
+			if (current == ':')
+			{
+				addPart(partStart, index);
+				partStart = index + 1;
+			}
+			index++;
+		}
+		partCount = 0;
+		return false;
+	}
+
+	/**
+	 * Records the offsets of a colon separated part of the coordinate
+	 *
+	 * @param start
+	 *            the start offset of the part
+	 * @param end
+	 *            the end offset of the part
+	 */
+	private void addPart(int start, int end)
+	{
+		if (partCount < partStarts.length)
+		{
+			partStarts[partCount] = start;
+			partEnds[partCount] = end;
+		}
+		partCount++;
+	}
+
+	/**
+	 * Gets the string of the part with the given index or null if the coordinate has no such part
+	 * or more than four parts
+	 *
+	 * @param partIndex
+	 *            the index of the part
+	 * @return the string of the part or null
+	 */
+	private String getPart(int partIndex)
+	{
+		if (partCount <= partIndex || partStarts.length < partCount)
+		{
+			return null;
+		}
+		return row.subSequence(partStarts[partIndex], partEnds[partIndex]).toString();
+	}
+
+	/**
+	 * Gets the scope of the last parsed row
+	 *
+	 * @return the scope, e.g. 'implementation'
+	 */
+	public String getScope()
+	{
+		return row.subSequence(scopeStart, scopeEnd).toString();
+	}
+
+	/**
+	 * Gets the group id of the last parsed row
+	 *
+	 * @return the group id or null if not present
+	 */
+	public String getGroupId()
+	{
+		return getPart(0);
+	}
+
+	/**
+	 * Gets the artifact id of the last parsed row
+	 *
+	 * @return the artifact id or null if not present
+	 */
+	public String getArtifactId()
+	{
+		return getPart(1);
+	}
+
+	/**
+	 * Gets the version of the last parsed row
+	 *
+	 * @return the version or null if not present
+	 */
+	public String getVersion()
+	{
+		return getPart(2);
+	}
+
+	/**
+	 * Gets the classifier of the last parsed row
+	 *
+	 * @return the classifier or null if not present
+	 */
+	public String getClassifier()
+	{
+		return getPart(3);
+	}
+
+	/**
+	 * Gets the number of colon separated parts of the coordinate of the last parsed row
+	 *
+	 * @return the number of parts
+	 */
+	public int getPartCount()
+	{
+		return partCount;
+	}
+
+	/**
+	 * Gets the start offset of the coordinate of the last parsed row without the quote
+	 *
+	 * @return the start offset of the coordinate or -1 if the row has no coordinate
+	 */
+	public int getCoordinateStart()
+	{
+		return coordinateStart;
+	}
+
+	/**
+	 * Gets the end offset of the coordinate of the last parsed row without the quote
+	 *
+	 * @return the end offset of the coordinate
+	 */
+	public int getCoordinateEnd()
+	{
+		return coordinateEnd;
+	}
+}
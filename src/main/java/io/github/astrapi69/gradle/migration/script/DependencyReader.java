@@ -0,0 +1,292 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The class {@link DependencyReader} reads the rows of a section, by default the 'dependencies'
+ * section, line by line from a {@link Reader}. The lines are fed to a {@link GradleScriptLexer},
+ * so the section is found with the same rules as
+ * {@link GradleScriptLexer#findSection(CharSequence, String)} and only one line is held in memory
+ * at a time, no matter how large the section is. The header line and the line with the closing
+ * brace of the section are not returned. Line breaks are recognized as '\n', '\r' or '\r\n'.
+ */
+public final class DependencyReader implements Iterator<String>, Closeable
+{
+	/** The name of the 'dependencies' section. */
+	public static final String DEPENDENCIES_SECTION = "dependencies";
+
+	/** The state before the section was found. */
+	private static final int SEARCHING = 0;
+
+	/** The state inside of the section. */
+	private static final int INSIDE = 1;
+
+	/** The state after the section was closed. */
+	private static final int DONE = 2;
+
+	/** The reader of the build script. */
+	private final BufferedReader reader;
+
+	/** The name of the section to read. */
+	private final String section;
+
+	/** The lexer that is fed line by line. */
+	private final GradleScriptLexer lexer = new GradleScriptLexer();
+
+	/** The listener that tracks the state of the section. */
+	private final ScriptBlockListener listener = new ScriptBlockListener()
+	{
+		@Override
+		public boolean blockOpened(CharSequence content, int nameStart, int nameEnd,
+			int openBrace, int depth)
+		{
+			if (state == SEARCHING
+				&& GradleScriptLexer.isName(content, nameStart, nameEnd, section))
+			{
+				state = INSIDE;
+				sectionOpenBrace = openBrace;
+			}
+			return true;
+		}
+
+		@Override
+		public boolean blockClosed(CharSequence content, int nameStart, int nameEnd,
+			int openBrace, int closeBrace, int depth)
+		{
+			if (openBrace == sectionOpenBrace)
+			{
+				state = DONE;
+				return false;
+			}
+			return true;
+		}
+	};
+
+	/** The current state. */
+	private int state = SEARCHING;
+
+	/** The absolute offset of the opening brace of the section. */
+	private int sectionOpenBrace = -1;
+
+	/** The next row or null if it was not read yet. */
+	private String nextRow;
+
+	/**
+	 * Instantiates a new {@link DependencyReader}
+	 *
+	 * @param reader
+	 *            the reader of the build script
+	 * @param section
+	 *            the name of the section to read
+	 */
+	private DependencyReader(Reader reader, String section)
+	{
+		Objects.requireNonNull(reader);
+		Objects.requireNonNull(section);
+		this.reader = reader instanceof BufferedReader bufferedReader
+			? bufferedReader
+			: new BufferedReader(reader);
+		this.section = section;
+	}
+
+	/**
+	 * Factory method for create a new {@link DependencyReader} that reads the rows of the given
+	 * section
+	 *
+	 * @param reader
+	 *            the reader of the build script
+	 * @param section
+	 *            the name of the section to read
+	 * @return the new {@link DependencyReader}
+	 */
+	public static DependencyReader of(Reader reader, String section)
+	{
+		return new DependencyReader(reader, section);
+	}
+
+	/**
+	 * Creates a lazy stream of the rows of the given section. Closing the stream closes the given
+	 * reader.
+	 *
+	 * @param reader
+	 *            the reader of the build script
+	 * @param section
+	 *            the name of the section to read
+	 * @return the lazy stream of the rows
+	 */
+	public static Stream<String> rows(Reader reader, String section)
+	{
+		DependencyReader dependencyReader = of(reader, section);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(dependencyReader,
+				Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(dependencyReader::closeUnchecked);
+	}
+
+	/**
+	 * Creates a lazy stream of the rows of the 'dependencies' section. Closing the stream closes
+	 * the given reader.
+	 *
+	 * @param reader
+	 *            the reader of the build script
+	 * @return the lazy stream of the rows
+	 */
+	public static Stream<String> dependencyRows(Reader reader)
+	{
+		return rows(reader, DEPENDENCIES_SECTION);
+	}
+
+	/**
+	 * Creates a lazy stream of the {@link DependencyInfo} objects of the 'dependencies' section.
+	 * Rows without a quoted coordinate are skipped. Closing the stream closes the given reader.
+	 *
+	 * @param reader
+	 *            the reader of the build script
+	 * @return the lazy stream of the {@link DependencyInfo} objects
+	 */
+	public static Stream<DependencyInfo> dependencyInfos(Reader reader)
+	{
+		return dependencyRows(reader).map(DependencyCoordinateParser::toDependencyInfo)
+			.filter(Objects::nonNull);
+	}
+
+	/**
+	 * Creates a lazy stream of the {@link DependencyInfo} objects of the 'dependencies' section of
+	 * the given UTF-8 encoded build script file. The returned stream has to be closed, so the file
+	 * is closed too.
+	 *
+	 * @param buildGradle
+	 *            the path of the build script file
+	 * @return the lazy stream of the {@link DependencyInfo} objects
+	 * @throws IOException
+	 *             if an I/O error occurs during opening the file
+	 */
+	public static Stream<DependencyInfo> dependencyInfos(Path buildGradle) throws IOException
+	{
+		return dependencyInfos(Files.newBufferedReader(buildGradle, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the section was not found or its closing brace is missing
+	 * @throws UncheckedIOException
+	 *             if an I/O error occurs during reading
+	 */
+	@Override
+	public boolean hasNext()
+	{
+		if (nextRow != null)
+		{
+			return true;
+		}
+		try
+		{
+			while (state != DONE)
+			{
+				String line = reader.readLine();
+				if (line == null)
+				{
+					if (state == SEARCHING)
+					{
+						throw new IllegalArgumentException("Section not found: " + section);
+					}
+					throw new IllegalArgumentException("No matching closing brace found.");
+				}
+				int previousState = state;
+				lexer.feed(line, listener);
+				lexer.feed("\n", listener);
+				if (previousState == INSIDE && state == INSIDE)
+				{
+					nextRow = line;
+					return true;
+				}
+			}
+			return false;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String next()
+	{
+		if (!hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		String row = nextRow;
+		nextRow = null;
+		return row;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+
+	/**
+	 * Closes the underlying reader and wraps a thrown {@link IOException}
+	 */
+	private void closeUnchecked()
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,657 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.util.Arrays;
+
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+
+/**
+ * The class {@link GradleScriptLexer} is a single pass tokenizer for Groovy build scripts. It
+ * recognizes single and double quoted strings, triple quoted strings, slashy and dollar slashy
+ * strings, <code>${...}</code> interpolations and line and block comments, so only the braces
+ * that really open or close a block of code and the identifiers of the code are reported to a
+ * {@link ScriptBlockListener}.<br>
+ * <br>
+ * The scan runs in linear time and does not allocate anything per character. The content can be
+ * scanned at once or fed chunk by chunk, for instance line by line from a reader. The internal
+ * state is reused between scans, so an instance of this class is not thread safe.
+ */
+public final class GradleScriptLexer
+{
+	/** The mode for plain code. */
+	private static final int CODE = 0;
+
+	/** The mode for a line comment. */
+	private static final int LINE_COMMENT = 1;
+
+	/** The mode for a block comment. */
+	private static final int BLOCK_COMMENT = 2;
+
+	/** The mode for a single quoted string. */
+	private static final int SINGLE_QUOTED = 3;
+
+	/** The mode for a triple single quoted string. */
+	private static final int TRIPLE_SINGLE_QUOTED = 4;
+
+	/** The mode for a double quoted string. */
+	private static final int DOUBLE_QUOTED = 5;
+
+	/** The mode for a triple double quoted string. */
+	private static final int TRIPLE_DOUBLE_QUOTED = 6;
+
+	/** The mode for a slashy string. */
+	private static final int SLASHY = 7;
+
+	/** The mode for a dollar slashy string. */
+	private static final int DOLLAR_SLASHY = 8;
+
+	/** The frame kind of a block that was opened with a brace. */
+	private static final int BRACE_FRAME = 0;
+
+	/** The frame kind of a parenthesis. */
+	private static final int PAREN_FRAME = 1;
+
+	/** The frame kind of a square bracket. */
+	private static final int BRACKET_FRAME = 2;
+
+	/** The frame kind of a <code>${...}</code> interpolation inside a string. */
+	private static final int INTERPOLATION_FRAME = 3;
+
+	/** The initial capacity of the nesting stack. */
+	private static final int INITIAL_CAPACITY = 32;
+
+	/** The kinds of the frames on the nesting stack. */
+	private int[] frameKinds = new int[INITIAL_CAPACITY];
+
+	/** The name start offsets of brace frames or the callee start offsets of paren frames. */
+	private int[] frameNameStarts = new int[INITIAL_CAPACITY];
+
+	/** The name end offsets of brace frames or the callee end offsets of paren frames. */
+	private int[] frameNameEnds = new int[INITIAL_CAPACITY];
+
+	/** The open brace offsets of brace frames or the string mode to return to of interpolations. */
+	private int[] frameValues = new int[INITIAL_CAPACITY];
+
+	/** The current size of the nesting stack. */
+	private int stackSize;
+
+	/** The current mode of the lexer. */
+	private int mode;
+
+	/** The current depth of the code-level blocks. */
+	private int braceDepth;
+
+	/** The current depth of the <code>${...}</code> interpolations. */
+	private int interpolationDepth;
+
+	/** The absolute start offset of the last identifier or -1 if there is none. */
+	private int identStart;
+
+	/** The absolute end offset of the last identifier or -1 if there is none. */
+	private int identEnd;
+
+	/** Flag that indicates if the last token was an operand, so a slash is a division. */
+	private boolean afterOperand;
+
+	/** The absolute offset of the current chunk. */
+	private int chunkStart;
+
+	/** The number of characters to skip at the start of the next chunk. */
+	private int pendingSkip;
+
+	/** Flag that indicates if the listener stopped the lexer. */
+	private boolean stopped;
+
+	/** The characters of the last identifier if it is located in a previous chunk. */
+	private final StringBuilder carry = new StringBuilder();
+
+	/** The absolute start offset of the carried identifier or -1 if there is none. */
+	private int carryStart = -1;
+
+	/** The reused view that provides absolute offsets on the current chunk. */
+	private final ChunkCharSequence window = new ChunkCharSequence();
+
+	/**
+	 * Scans the given build script content in a single pass and reports all code-level blocks to
+	 * the given listener
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @param listener
+	 *            the listener that receives the found blocks
+	 */
+	public static void scan(CharSequence content, ScriptBlockListener listener)
+	{
+		new GradleScriptLexer().tokenize(content, listener);
+	}
+
+	/**
+	 * Finds the first block with the given name in the given build script content. Blocks are
+	 * found at any nesting depth, the first opened one wins.
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @param section
+	 *            the name of the section
+	 * @return the {@link SectionSpan} of the found section or null if no section with the given
+	 *         name exists
+	 * @throws IllegalArgumentException
+	 *             if the section was found but its closing brace is missing
+	 */
+	public static SectionSpan findSection(CharSequence content, String section)
+	{
+		int[] found = { -1, -1, -1, -1 };
+		scan(content, new ScriptBlockListener()
+		{
+			@Override
+			public boolean blockOpened(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int depth)
+			{
+				if (found[0] == -1 && isName(content, nameStart, nameEnd, section))
+				{
+					found[0] = nameStart;
+					found[1] = openBrace;
+					found[3] = depth;
+				}
+				return true;
+			}
+
+			@Override
+			public boolean blockClosed(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int closeBrace, int depth)
+			{
+				if (openBrace == found[1])
+				{
+					found[2] = closeBrace + 1;
+					return false;
+				}
+				return true;
+			}
+		});
+		if (found[0] == -1)
+		{
+			return null;
+		}
+		if (found[2] == -1)
+		{
+			throw new IllegalArgumentException("No matching closing brace found.");
+		}
+		return SectionSpan.builder().name(section).start(found[0]).openBrace(found[1])
+			.end(found[2]).depth(found[3]).build();
+	}
+
+	/**
+	 * Checks if the given range of the content is equal to the given name
+	 *
+	 * @param content
+	 *            the content
+	 * @param nameStart
+	 *            the start offset of the range or -1 for no range
+	 * @param nameEnd
+	 *            the end offset of the range
+	 * @param name
+	 *            the name to compare with
+	 * @return true if the given range is equal to the given name, otherwise false
+	 */
+	public static boolean isName(CharSequence content, int nameStart, int nameEnd, String name)
+	{
+		if (nameStart < 0 || nameEnd - nameStart != name.length())
+		{
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++)
+		{
+			if (content.charAt(nameStart + i) != name.charAt(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tokenizes the given build script content in a single pass and reports all code-level blocks
+	 * to the given listener
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @param listener
+	 *            the listener that receives the found blocks
+	 */
+	public void tokenize(CharSequence content, ScriptBlockListener listener)
+	{
+		reset();
+		feed(content, listener);
+	}
+
+	/**
+	 * Resets the state of this lexer, so the next call of
+	 * {@link #feed(CharSequence, ScriptBlockListener)} starts with a new build script
+	 */
+	public void reset()
+	{
+		mode = CODE;
+		braceDepth = 0;
+		interpolationDepth = 0;
+		identStart = -1;
+		identEnd = -1;
+		afterOperand = false;
+		chunkStart = 0;
+		pendingSkip = 0;
+		stopped = false;
+		stackSize = 0;
+		carry.setLength(0);
+		carryStart = -1;
+	}
+
+	/**
+	 * Feeds the next chunk of a build script to this lexer, for instance the next line. The state
+	 * of the lexer is kept between the chunks, so strings, comments and blocks can span several
+	 * chunks. Line breaks have to be fed as well.<br>
+	 * <br>
+	 * All offsets that are reported to the listener are absolute offsets from the start of the
+	 * build script and the content that is given to the listener is indexed with absolute offsets
+	 * too, but only the characters of the current chunk and of the last identifier are accessible,
+	 * so a block name followed by a line break before the opening brace is still reported. Other
+	 * names that are not located in the current chunk are reported as -1.
+	 *
+	 * @param chunk
+	 *            the next chunk of the build script
+	 * @param listener
+	 *            the listener that receives the found blocks
+	 */
+	public void feed(CharSequence chunk, ScriptBlockListener listener)
+	{
+		if (stopped)
+		{
+			return;
+		}
+		final int length = chunk.length();
+		final int base = chunkStart;
+		final CharSequence content = base == 0
+			? chunk
+			: window.wrap(carry, carryStart, chunk, base);
+		int index = pendingSkip;
+		while (index < length)
+		{
+			char current = chunk.charAt(index);
+			char next = index + 1 < length ? chunk.charAt(index + 1) : '\0';
+			switch (mode)
+			{
+				case CODE :
+					if (Character.isWhitespace(current))
+					{
+						index++;
+					}
+					else if (current == '/' && next == '/')
+					{
+						mode = LINE_COMMENT;
+						index += 2;
+					}
+					else if (current == '/' && next == '*')
+					{
+						mode = BLOCK_COMMENT;
+						index += 2;
+					}
+					else if (current == '/')
+					{
+						mode = afterOperand ? CODE : SLASHY;
+						identStart = identEnd = -1;
+						afterOperand = false;
+						index++;
+					}
+					else if (current == '$' && next == '/')
+					{
+						mode = DOLLAR_SLASHY;
+						identStart = identEnd = -1;
+						index += 2;
+					}
+					else if (current == '\'' || current == '"')
+					{
+						boolean triple = next == current && index + 2 < length
+							&& chunk.charAt(index + 2) == current;
+						if (current == '\'')
+						{
+							mode = triple ? TRIPLE_SINGLE_QUOTED : SINGLE_QUOTED;
+						}
+						else
+						{
+							mode = triple ? TRIPLE_DOUBLE_QUOTED : DOUBLE_QUOTED;
+						}
+						identStart = identEnd = -1;
+						index += triple ? 3 : 1;
+					}
+					else if (Character.isJavaIdentifierStart(current))
+					{
+						identStart = base + index;
+						index++;
+						while (index < length
+							&& Character.isJavaIdentifierPart(chunk.charAt(index)))
+						{
+							index++;
+						}
+						identEnd = base + index;
+						afterOperand = true;
+						if (interpolationDepth == 0 && !listener.identifierFound(content,
+							identStart, identEnd, braceDepth))
+						{
+							stop(length);
+							return;
+						}
+					}
+					else if (Character.isDigit(current))
+					{
+						index++;
+						while (index < length
+							&& Character.isJavaIdentifierPart(chunk.charAt(index)))
+						{
+							index++;
+						}
+						identStart = identEnd = -1;
+						afterOperand = true;
+					}
+					else if (current == '(' || current == '[')
+					{
+						push(current == '(' ? PAREN_FRAME : BRACKET_FRAME, identStart, identEnd, 0);
+						identStart = identEnd = -1;
+						afterOperand = false;
+						index++;
+					}
+					else if (current == ')' || current == ']')
+					{
+						int kind = current == ')' ? PAREN_FRAME : BRACKET_FRAME;
+						identStart = identEnd = -1;
+						if (0 < stackSize && frameKinds[stackSize - 1] == kind)
+						{
+							stackSize--;
+							if (kind == PAREN_FRAME)
+							{
+								identStart = frameNameStarts[stackSize];
+								identEnd = frameNameEnds[stackSize];
+							}
+						}
+						afterOperand = true;
+						index++;
+					}
+					else if (current == '{')
+					{
+						push(BRACE_FRAME, identStart, identEnd, base + index);
+						int nameStart = visible(identStart, base);
+						int nameEnd = nameStart == -1 ? -1 : identEnd;
+						if (interpolationDepth == 0 && !listener.blockOpened(content, nameStart,
+							nameEnd, base + index, braceDepth))
+						{
+							stop(length);
+							return;
+						}
+						braceDepth++;
+						identStart = identEnd = -1;
+						afterOperand = false;
+						index++;
+					}
+					else if (current == '}')
+					{
+						while (0 < stackSize && (frameKinds[stackSize - 1] == PAREN_FRAME
+							|| frameKinds[stackSize - 1] == BRACKET_FRAME))
+						{
+							stackSize--;
+						}
+						identStart = identEnd = -1;
+						afterOperand = true;
+						if (0 < stackSize)
+						{
+							stackSize--;
+							if (frameKinds[stackSize] == INTERPOLATION_FRAME)
+							{
+								interpolationDepth--;
+								mode = frameValues[stackSize];
+								afterOperand = false;
+							}
+							else
+							{
+								braceDepth--;
+								int nameStart = visible(frameNameStarts[stackSize], base);
+								int nameEnd = nameStart == -1 ? -1 : frameNameEnds[stackSize];
+								if (interpolationDepth == 0 && !listener.blockClosed(content,
+									nameStart, nameEnd, frameValues[stackSize], base + index,
+									braceDepth))
+								{
+									stop(length);
+									return;
+								}
+							}
+						}
+						index++;
+					}
+					else
+					{
+						if (current != '.')
+						{
+							identStart = identEnd = -1;
+						}
+						afterOperand = false;
+						index++;
+					}
+					break;
+				case LINE_COMMENT :
+					if (current == '\n')
+					{
+						mode = CODE;
+					}
+					index++;
+					break;
+				case BLOCK_COMMENT :
+					if (current == '*' && next == '/')
+					{
+						mode = CODE;
+						index += 2;
+					}
+					else
+					{
+						index++;
+					}
+					break;
+				case SINGLE_QUOTED :
+				case DOUBLE_QUOTED :
+					if (current == '\\')
+					{
+						index += 2;
+					}
+					else if (current == '\n' || current == (mode == SINGLE_QUOTED ? '\'' : '"'))
+					{
+						// single line strings can not span lines, so a line break ends a
+						// malformed string instead of swallowing the rest of the script
+						mode = CODE;
+						afterOperand = true;
+						index++;
+					}
+					else if (mode == DOUBLE_QUOTED && current == '$' && next == '{')
+					{
+						push(INTERPOLATION_FRAME, -1, -1, mode);
+						interpolationDepth++;
+						mode = CODE;
+						afterOperand = false;
+						index += 2;
+					}
+					else
+					{
+						index++;
+					}
+					break;
+				case TRIPLE_SINGLE_QUOTED :
+				case TRIPLE_DOUBLE_QUOTED :
+					char quote = mode == TRIPLE_SINGLE_QUOTED ? '\'' : '"';
+					if (current == '\\')
+					{
+						index += 2;
+					}
+					else if (current == quote && next == quote && index + 2 < length
+						&& chunk.charAt(index + 2) == quote)
+					{
+						mode = CODE;
+						afterOperand = true;
+						index += 3;
+					}
+					else if (mode == TRIPLE_DOUBLE_QUOTED && current == '$' && next == '{')
+					{
+						push(INTERPOLATION_FRAME, -1, -1, mode);
+						interpolationDepth++;
+						mode = CODE;
+						afterOperand = false;
+						index += 2;
+					}
+					else
+					{
+						index++;
+					}
+					break;
+				case SLASHY :
+					if (current == '\\' && next == '/')
+					{
+						index += 2;
+					}
+					else if (current == '/')
+					{
+						mode = CODE;
+						afterOperand = true;
+						index++;
+					}
+					else if (current == '$' && next == '{')
+					{
+						push(INTERPOLATION_FRAME, -1, -1, mode);
+						interpolationDepth++;
+						mode = CODE;
+						afterOperand = false;
+						index += 2;
+					}
+					else
+					{
+						index++;
+					}
+					break;
+				case DOLLAR_SLASHY :
+					if (current == '$' && (next == '$' || next == '/'))
+					{
+						index += 2;
+					}
+					else if (current == '/' && next == '$')
+					{
+						mode = CODE;
+						afterOperand = true;
+						index += 2;
+					}
+					else if (current == '$' && next == '{')
+					{
+						push(INTERPOLATION_FRAME, -1, -1, mode);
+						interpolationDepth++;
+						mode = CODE;
+						afterOperand = false;
+						index += 2;
+					}
+					else
+					{
+						index++;
+					}
+					break;
+				default :
+					throw new IllegalStateException("Unknown lexer mode: " + mode);
+			}
+		}
+		// an escape sequence at the end of the chunk skips the first character of the next chunk
+		pendingSkip = index - length;
+		chunkStart = base + length;
+		// keep the characters of a pending identifier, it can be the name of a block that is opened
+		// in one of the next chunks
+		if (identStart == -1)
+		{
+			carry.setLength(0);
+			carryStart = -1;
+		}
+		else if (base <= identStart)
+		{
+			carry.setLength(0);
+			carry.append(chunk, identStart - base, identEnd - base);
+			carryStart = identStart;
+		}
+	}
+
+	/**
+	 * Stops the lexer after the listener requested it
+	 *
+	 * @param length
+	 *            the length of the current chunk
+	 */
+	private void stop(int length)
+	{
+		stopped = true;
+		pendingSkip = 0;
+		chunkStart += length;
+	}
+
+	/**
+	 * Checks if the given absolute offset is located in the current chunk or is the start of the
+	 * carried identifier
+	 *
+	 * @param offset
+	 *            the absolute offset
+	 * @param base
+	 *            the absolute offset of the current chunk
+	 * @return the given offset if it is accessible, otherwise -1
+	 */
+	private int visible(int offset, int base)
+	{
+		return offset < base && offset != carryStart ? -1 : offset;
+	}
+
+	/**
+	 * Pushes a new frame on the nesting stack
+	 *
+	 * @param kind
+	 *            the kind of the frame
+	 * @param nameStart
+	 *            the name start offset
+	 * @param nameEnd
+	 *            the name end offset
+	 * @param value
+	 *            the open brace offset or the string mode to return to
+	 */
+	private void push(int kind, int nameStart, int nameEnd, int value)
+	{
+		if (stackSize == frameKinds.length)
+		{
+			int newCapacity = frameKinds.length * 2;
+			frameKinds = Arrays.copyOf(frameKinds, newCapacity);
+			frameNameStarts = Arrays.copyOf(frameNameStarts, newCapacity);
+			frameNameEnds = Arrays.copyOf(frameNameEnds, newCapacity);
+			frameValues = Arrays.copyOf(frameValues, newCapacity);
+		}
+		frameKinds[stackSize] = kind;
+		frameNameStarts[stackSize] = nameStart;
+		frameNameEnds[stackSize] = nameEnd;
+		frameValues[stackSize] = value;
+		stackSize++;
+	}
+}
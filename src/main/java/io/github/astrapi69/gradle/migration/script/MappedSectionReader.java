@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+
+/**
+ * The class {@link MappedSectionReader} extracts sections from build scripts that are mapped into
+ * memory with {@link FileChannel#map(FileChannel.MapMode, long, long)}. The bytes of the mapped
+ * file are scanned directly by the {@link GradleScriptLexer} and only the bytes of the matched
+ * section are decoded into a string, so very large build scripts are never loaded completely into
+ * the heap.<br>
+ * <br>
+ * Note: the given charset has to be ASCII compatible, like UTF-8 or ISO-8859-1, which is the case
+ * for all build scripts that Gradle can read without explicit configuration.
+ */
+public final class MappedSectionReader
+{
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private MappedSectionReader()
+	{
+	}
+
+	/**
+	 * Gets the content of a specific section from the given UTF-8 encoded build script file
+	 *
+	 * @param section
+	 *            the section name
+	 * @param buildGradle
+	 *            the build script file
+	 * @return the content of the section
+	 * @throws IOException
+	 *             if an I/O error occurs during mapping the file
+	 */
+	public static String getContentOf(String section, File buildGradle) throws IOException
+	{
+		return getContentOf(section, buildGradle, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Gets the content of a specific section from the given build script file
+	 *
+	 * @param section
+	 *            the section name
+	 * @param buildGradle
+	 *            the build script file
+	 * @param charset
+	 *            the ASCII compatible charset of the build script file
+	 * @return the content of the section
+	 * @throws IOException
+	 *             if an I/O error occurs during mapping the file
+	 */
+	public static String getContentOf(String section, File buildGradle, Charset charset)
+		throws IOException
+	{
+		MappedByteBuffer mappedByteBuffer = map(buildGradle);
+		ByteCharSequence content = new ByteCharSequence(mappedByteBuffer, 0,
+			mappedByteBuffer.limit());
+		// the bytes of the section name are compared one by one with the mapped bytes
+		String encodedSection = new String(section.getBytes(charset),
+			StandardCharsets.ISO_8859_1);
+		SectionSpan sectionSpan = GradleScriptLexer.findSection(content, encodedSection);
+		if (sectionSpan == null)
+		{
+			throw new IllegalArgumentException("Section not found: " + section);
+		}
+		byte[] sectionBytes = new byte[sectionSpan.getEnd() - sectionSpan.getStart()];
+		mappedByteBuffer.get(sectionSpan.getStart(), sectionBytes);
+		return new String(sectionBytes, charset);
+	}
+
+	/**
+	 * Maps the given file read-only into memory. The file channel is closed immediately, the
+	 * mapping stays valid until the returned buffer is garbage collected.
+	 *
+	 * @param file
+	 *            the file to map
+	 * @return the mapped byte buffer
+	 * @throws IOException
+	 *             if an I/O error occurs during mapping the file
+	 */
+	static MappedByteBuffer map(File file) throws IOException
+	{
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = fileChannel.size();
+			if (Integer.MAX_VALUE < size)
+			{
+				throw new IOException("File is too large to be mapped: " + file.getAbsolutePath());
+			}
+			return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+	}
+}
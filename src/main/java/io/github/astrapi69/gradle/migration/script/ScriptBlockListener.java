@@ -0,0 +1,104 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+/**
+ * The interface {@link ScriptBlockListener} receives the code-level blocks found by the
+ * {@link GradleScriptLexer} and optionally the identifiers of the code between them. Braces and
+ * identifiers that occur inside of string literals, comments or <code>${...}</code>
+ * interpolations are never reported.
+ */
+public interface ScriptBlockListener
+{
+
+	/**
+	 * Callback method that is invoked when a block is opened
+	 *
+	 * @param content
+	 *            the scanned content
+	 * @param nameStart
+	 *            the offset of the first character of the block name or -1 if the block has no
+	 *            name
+	 * @param nameEnd
+	 *            the offset after the last character of the block name or -1 if the block has no
+	 *            name
+	 * @param openBrace
+	 *            the offset of the opening brace
+	 * @param depth
+	 *            the nesting depth of the block, where top-level blocks have the depth 0
+	 * @return true if the scan should continue, otherwise false
+	 */
+	default boolean blockOpened(CharSequence content, int nameStart, int nameEnd, int openBrace,
+		int depth)
+	{
+		return true;
+	}
+
+	/**
+	 * Callback method that is invoked when a block is closed
+	 *
+	 * @param content
+	 *            the scanned content
+	 * @param nameStart
+	 *            the offset of the first character of the block name or -1 if the block has no
+	 *            name
+	 * @param nameEnd
+	 *            the offset after the last character of the block name or -1 if the block has no
+	 *            name
+	 * @param openBrace
+	 *            the offset of the opening brace
+	 * @param closeBrace
+	 *            the offset of the closing brace
+	 * @param depth
+	 *            the nesting depth of the block, where top-level blocks have the depth 0
+	 * @return true if the scan should continue, otherwise false
+	 */
+	default boolean blockClosed(CharSequence content, int nameStart, int nameEnd, int openBrace,
+		int closeBrace, int depth)
+	{
+		return true;
+	}
+
+	/**
+	 * Callback method that is invoked when an identifier of the code was found, for instance a
+	 * method name, a property name or a keyword. Qualified names like 'project.version' are
+	 * reported as separate identifiers.
+	 *
+	 * @param content
+	 *            the scanned content
+	 * @param start
+	 *            the offset of the first character of the identifier
+	 * @param end
+	 *            the offset after the last character of the identifier
+	 * @param depth
+	 *            the nesting depth of the enclosing block, where identifiers outside of any block
+	 *            have the depth 0
+	 * @return true if the scan should continue, otherwise false
+	 */
+	default boolean identifierFound(CharSequence content, int start, int end, int depth)
+	{
+		return true;
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import io.github.astrapi69.gradle.migration.info.VersionAssignment;
+
+/**
+ * The class {@link VersionAssignmentExtractor} finds the top-level version assignment of a Gradle
+ * build script structurally from the identifiers reported by the {@link GradleScriptLexer}. The
+ * forms <code>version = '1.0'</code>, <code>version "1.0"</code> and
+ * <code>project.version = '1.0'</code> are recognized, while occurrences in strings, comments,
+ * blocks like 'dependencies' or 'ext' and qualified names like <code>foo.version</code> are
+ * ignored.<br>
+ * <br>
+ * Only the first top-level assignment with a literal version value is kept, so a second
+ * occurrence is never reported. The value of an assignment is read from the identifier to the end
+ * of its line, which keeps the search linear in the size of the build script. An instance of this
+ * class is not thread safe.
+ */
+public final class VersionAssignmentExtractor implements ScriptBlockListener
+{
+	/** The name of the version property. */
+	private static final String VERSION = "version";
+
+	/** The name of the qualifier of the version property. */
+	private static final String PROJECT = "project";
+
+	/** The found version assignment or null if none was found yet. */
+	private VersionAssignment versionAssignment;
+
+	/**
+	 * Instantiates a new {@link VersionAssignmentExtractor}
+	 */
+	VersionAssignmentExtractor()
+	{
+	}
+
+	/**
+	 * Finds the top-level version assignment of the given build script content. The scan stops at
+	 * the first found assignment.
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @return the {@link VersionAssignment} or null if the build script has no top-level version
+	 *         assignment with a literal value
+	 */
+	public static VersionAssignment find(CharSequence content)
+	{
+		VersionAssignmentExtractor versionAssignmentExtractor = new VersionAssignmentExtractor();
+		GradleScriptLexer.scan(content, versionAssignmentExtractor);
+		return versionAssignmentExtractor.getVersionAssignment();
+	}
+
+	/**
+	 * Gets the found version assignment
+	 *
+	 * @return the {@link VersionAssignment} or null if none was found
+	 */
+	public VersionAssignment getVersionAssignment()
+	{
+		return versionAssignment;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean identifierFound(CharSequence content, int start, int end, int depth)
+	{
+		if (versionAssignment == null && depth == 0
+			&& GradleScriptLexer.isName(content, start, end, VERSION))
+		{
+			versionAssignment = extract(content, start, end);
+		}
+		return versionAssignment == null;
+	}
+
+	/**
+	 * Extracts the version assignment that starts with the given version identifier
+	 *
+	 * @param content
+	 *            the content of the build script
+	 * @param start
+	 *            the offset of the version identifier
+	 * @param end
+	 *            the offset after the version identifier
+	 * @return the {@link VersionAssignment} or null if the identifier is not the start of a
+	 *         version assignment with a literal value
+	 */
+	private static VersionAssignment extract(CharSequence content, int start, int end)
+	{
+		int statementStart = start;
+		int previous = skipBlanksBackward(content, start);
+		if (0 <= previous && content.charAt(previous) == '.')
+		{
+			int qualifierEnd = skipBlanksBackward(content, previous) + 1;
+			int qualifierStart = qualifierEnd;
+			while (0 < qualifierStart
+				&& Character.isJavaIdentifierPart(content.charAt(qualifierStart - 1)))
+			{
+				qualifierStart--;
+			}
+			if (!GradleScriptLexer.isName(content, qualifierStart, qualifierEnd, PROJECT))
+			{
+				return null;
+			}
+			statementStart = qualifierStart;
+			previous = skipBlanksBackward(content, qualifierStart);
+		}
+		if (0 <= previous && !isStatementEnd(content.charAt(previous)))
+		{
+			return null;
+		}
+		int length = content.length();
+		int index = skipBlanks(content, end);
+		if (index < length && content.charAt(index) == '=')
+		{
+			index = skipBlanks(content, index + 1);
+		}
+		if (length <= index)
+		{
+			return null;
+		}
+		char quotationMark = content.charAt(index);
+		if ((quotationMark != '\'' && quotationMark != '"') || (index + 2 < length
+			&& content.charAt(index + 1) == quotationMark
+			&& content.charAt(index + 2) == quotationMark))
+		{
+			return null;
+		}
+		int valueStart = index;
+		int valueEnd = -1;
+		for (int i = valueStart + 1; i < length && valueEnd == -1; i++)
+		{
+			char current = content.charAt(i);
+			if (current == '\\' || current == '\n' || current == '\r'
+				|| (quotationMark == '"' && current == '$'))
+			{
+				// escapes and interpolations are no literal version values
+				return null;
+			}
+			if (current == quotationMark)
+			{
+				valueEnd = i;
+			}
+		}
+		if (valueEnd == -1 || !isLineEnd(content, skipBlanks(content, valueEnd + 1)))
+		{
+			return null;
+		}
+		return VersionAssignment.builder().start(statementStart).valueStart(valueStart)
+			.end(valueEnd + 1).quotationMark(quotationMark)
+			.version(content.subSequence(valueStart + 1, valueEnd).toString()).build();
+	}
+
+	/**
+	 * Skips the spaces and tabs from the given offset forward
+	 *
+	 * @param content
+	 *            the content
+	 * @param offset
+	 *            the offset to start from
+	 * @return the offset of the first character that is no space or tab
+	 */
+	private static int skipBlanks(CharSequence content, int offset)
+	{
+		int index = offset;
+		while (index < content.length() && isBlank(content.charAt(index)))
+		{
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Skips the spaces and tabs before the given offset backward
+	 *
+	 * @param content
+	 *            the content
+	 * @param offset
+	 *            the offset to start from, exclusive
+	 * @return the offset of the last character before the given offset that is no space or tab or
+	 *         -1 if there is none
+	 */
+	private static int skipBlanksBackward(CharSequence content, int offset)
+	{
+		int index = offset - 1;
+		while (0 <= index && isBlank(content.charAt(index)))
+		{
+			index--;
+		}
+		return index;
+	}
+
+	/**
+	 * Checks if the given character is a space or a tab
+	 *
+	 * @param current
+	 *            the character
+	 * @return true if the given character is a space or a tab, otherwise false
+	 */
+	private static boolean isBlank(char current)
+	{
+		return current == ' ' || current == '\t';
+	}
+
+	/**
+	 * Checks if the given character ends the previous statement
+	 *
+	 * @param current
+	 *            the character
+	 * @return true if the given character ends the previous statement, otherwise false
+	 */
+	private static boolean isStatementEnd(char current)
+	{
+		return current == '\n' || current == '\r' || current == ';' || current == '}';
+	}
+
+	/**
+	 * Checks if the statement ends at the given offset, so nothing except a comment follows on the
+	 * same line
+	 *
+	 * @param content
+	 *            the content
+	 * @param offset
+	 *            the offset
+	 * @return true if the statement ends at the given offset, otherwise false
+	 */
+	private static boolean isLineEnd(CharSequence content, int offset)
+	{
+		if (content.length() <= offset)
+		{
+			return true;
+		}
+		char current = content.charAt(offset);
+		char next = offset + 1 < content.length() ? content.charAt(offset + 1) : '\0';
+		return current == '\n' || current == '\r' || current == ';'
+			|| (current == '/' && (next == '/' || next == '*'));
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * This package provides classes for reading the structure of Groovy based Gradle build scripts
+ * without loading them into Gradle.
+ *
+ * The main functionalities include:
+ *
+ * <ul>
+ * <li>Tokenizing build scripts in a single pass, while string literals, slashy strings,
+ * interpolations and comments are skipped, so only real code blocks are recognized.</li>
+ * <li>Locating named sections like 'dependencies' or 'repositories' and their exact offsets in the
+ * content of a build script.</li>
+ * <li>Indexing all sections of a build script once, so several sections can be read without
+ * scanning the build script again.</li>
+ * <li>Locating the top-level version assignment of a build script by its exact offsets.</li>
+ * <li>Applying several edits to a build script without copying its content for every edit.</li>
+ * <li>Parsing the scope, group, artifact, version and classifier of dependency rows without
+ * splitting them into temporary strings.</li>
+ * </ul>
+ *
+ * The following classes are included in this package:
+ *
+ * <ul>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.BuildScriptEditor} - Collects several
+ * edits of a build script in a piece table and writes the edited content in a single pass.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.BuildScriptIndex} - Scans a build script
+ * once and provides constant time views on its sections.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.DependencyCoordinateParser} - Cursor
+ * based parser for the scope and the coordinate of dependency rows.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.DependencyReader} - Streams the rows of
+ * a section line by line from a reader.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.GradleScriptLexer} - Single pass tokenizer
+ * that reports the code-level blocks of a build script.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.MappedSectionReader} - Extracts sections
+ * from memory mapped build scripts without loading the whole file into the heap.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.ScriptBlockListener} - Receives the blocks
+ * and identifiers found by the lexer.</li>
+ * <li>{@link io.github.astrapi69.gradle.migration.script.VersionAssignmentExtractor} - Locates the
+ * top-level version assignment of a build script from the identifiers found by the lexer.</li>
+ * </ul>
+ */
+package io.github.astrapi69.gradle.migration.script;
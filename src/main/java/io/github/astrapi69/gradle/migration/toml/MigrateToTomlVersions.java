@@ -24,22 +24,24 @@
  */
 package io.github.astrapi69.gradle.migration.toml;
 
-import static io.github.astrapi69.gradle.migration.extension.DependenciesExtensions.getLibsVersionTomlMapAsString;
-
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import io.github.astrapi69.file.copy.CopyFileExtensions;
 import io.github.astrapi69.file.create.FileFactory;
+import io.github.astrapi69.file.read.ReadFileExtensions;
 import io.github.astrapi69.file.search.PathFinder;
-import io.github.astrapi69.file.write.StoreFileExtensions;
 import io.github.astrapi69.gradle.migration.extension.DependenciesExtensions;
 import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
 import io.github.astrapi69.gradle.migration.info.DependencyInfo;
 import io.github.astrapi69.gradle.migration.info.GradleProjectInfo;
+import io.github.astrapi69.gradle.migration.info.MergedVersionCatalog;
 import io.github.astrapi69.gradle.migration.info.MigrationInfo;
 import io.github.astrapi69.gradle.migration.info.ProjectTomlStructureInfo;
 import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
@@ -61,7 +63,7 @@ public final class MigrateToTomlVersions
 
 	/**
 	 * Creates a new {@link GradleProjectInfo} object containing the libs.versions.toml content as a
-	 * string based on the provided {@link MigrationInfo}.
+	 * string based on the provided {@link MigrationInfo}. No file is written.
 	 *
 	 * @param migrationInfo
 	 *            the migration information containing details about the project directories
@@ -72,64 +74,213 @@ public final class MigrateToTomlVersions
 	public static GradleProjectInfo newLibsVersionsTomlAsString(MigrationInfo migrationInfo)
 		throws IOException
 	{
-		GradleProjectInfo gradleProjectInfo = GradleProjectInfo.builder().build();
-		File dependenciesGradle = PathFinder.getRelativePath(migrationInfo.getGradleDirectory(),
-			DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+		List<DependencyInfo> dependencyInfos = readDependencyInfos(migrationInfo);
+		return GradleProjectInfo.builder().dependencyInfos(dependencyInfos)
+			.libsVersionTomlMapAsString(
+				VersionCatalogRenderer.getLibsVersionsTomlAsString(dependencyInfos))
+			.build();
+	}
 
-		File gradlePropertiesFile = PathFinder.getRelativePath(migrationInfo.getProjectDirectory(),
-			DependenciesInfo.GRADLE_PROPERTIES_FILENAME);
-		// 1. Load all version from gradle.properties
-		Map<String, String> versionMap = DependenciesExtensions.getVersionMap(gradlePropertiesFile,
-			"Version");
-		if (!dependenciesGradle.exists())
+	/**
+	 * Creates a new {@link GradleProjectInfo} object and generates a libs.versions.toml file based
+	 * on the provided {@link MigrationInfo}. If the libs.versions.toml file already exists, the
+	 * dependencies are merged into it with the minimal edits of the {@link VersionCatalogMerger}.
+	 * Both files are only written if their content changed and a project without any dependency
+	 * coordinate, like an already migrated one, is left untouched.
+	 *
+	 * @param migrationInfo
+	 *            the migration information containing details about the project directories
+	 * @return a {@link GradleProjectInfo} object with the TOML file
+	 * @throws IOException
+	 *             if an I/O error occurs during file operations
+	 */
+	public static GradleProjectInfo newLibsVersionsTomlFile(MigrationInfo migrationInfo)
+		throws IOException
+	{
+		return newLibsVersionsTomlFile(migrationInfo, false);
+	}
+
+	/**
+	 * Creates a new {@link GradleProjectInfo} object and generates a libs.versions.toml file based
+	 * on the provided {@link MigrationInfo}. The files are written with a committed
+	 * {@link MigrationPlan}. In dry run mode no file and no directory is written, instead the
+	 * content that the libs.versions.toml file would have is kept in the returned
+	 * {@link GradleProjectInfo} object, so read-only projects can be analyzed.
+	 *
+	 * @param migrationInfo
+	 *            the migration information containing details about the project directories
+	 * @param dryRun
+	 *            the flag that indicates if the project is only analyzed without writing any file
+	 * @return a {@link GradleProjectInfo} object with the TOML file and in dry run mode the TOML
+	 *         content
+	 * @throws IOException
+	 *             if an I/O error occurs during file operations
+	 */
+	public static GradleProjectInfo newLibsVersionsTomlFile(MigrationInfo migrationInfo,
+		boolean dryRun) throws IOException
+	{
+		GradleProjectInfo gradleProjectInfo = GradleProjectInfo.builder().build();
+		MigrationPlan migrationPlan = newMigrationPlan(migrationInfo, gradleProjectInfo);
+		if (dryRun)
 		{
-			throw new RuntimeException("Could not find file dependencies.gradle");
+			return gradleProjectInfo;
 		}
-		String dependenciesContent = DependenciesExtensions
-			.getDependenciesContent(dependenciesGradle);
-		List<String> dependenciesAsStringList = DependenciesExtensions
-			.getDependenciesAsStringList(dependenciesContent);
-
-		List<DependencyInfo> dependencyInfos = DependenciesExtensions
-			.getDependencyInfos(dependenciesAsStringList, versionMap);
-		gradleProjectInfo.setDependencyInfos(dependencyInfos);
-
-		String newDependenciesStructure = DependenciesExtensions
-			.getNewDependenciesStructure(dependencyInfos);
+		gradleProjectInfo.setLibsVersionTomlMapAsString(null);
+		if (migrationPlan.isEmpty())
+		{
+			return gradleProjectInfo;
+		}
+		migrationInfo.createDirectories();
+		try
+		{
+			migrationPlan.commit();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+		return gradleProjectInfo;
+	}
 
-		System.out.println(newDependenciesStructure);
+	/**
+	 * Plans the migration of the project of the provided {@link MigrationInfo} to the version
+	 * catalog without writing any file. The returned {@link MigrationPlan} contains the writes of
+	 * the new dependencies.gradle file and of the libs.versions.toml file if their content changes.
+	 * A project without any dependency coordinate, like an already migrated one, gets an empty
+	 * plan. The plan can be inspected, serialized or merged with the plans of other projects and
+	 * is applied with {@link MigrationPlan#commit()}.
+	 *
+	 * @param migrationInfo
+	 *            the migration information containing details about the project directories
+	 * @return the {@link MigrationPlan} of the project
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	public static MigrationPlan newMigrationPlan(MigrationInfo migrationInfo) throws IOException
+	{
+		return newMigrationPlan(migrationInfo, GradleProjectInfo.builder().build());
+	}
 
-		String libsVersionTomlMapAsString = getLibsVersionTomlMapAsString(dependencyInfos);
-		StoreFileExtensions.toFile(dependenciesGradle, newDependenciesStructure,
-			StandardCharsets.UTF_8);
-		gradleProjectInfo.setLibsVersionTomlMapAsString(libsVersionTomlMapAsString);
-		return gradleProjectInfo;
+	/**
+	 * Plans the migration of the project of the provided {@link MigrationInfo} and stores the
+	 * dependencies, the libs.versions.toml file and its planned content in the given
+	 * {@link GradleProjectInfo} object
+	 *
+	 * @param migrationInfo
+	 *            the migration information containing details about the project directories
+	 * @param gradleProjectInfo
+	 *            the {@link GradleProjectInfo} object to fill
+	 * @return the {@link MigrationPlan} of the project
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	private static MigrationPlan newMigrationPlan(MigrationInfo migrationInfo,
+		GradleProjectInfo gradleProjectInfo) throws IOException
+	{
+		return newMigrationPlan(migrationInfo, readDependencyInfos(migrationInfo),
+			gradleProjectInfo);
 	}
 
 	/**
-	 * Creates a new {@link GradleProjectInfo} object and generates a libs.versions.toml file based
-	 * on the provided {@link MigrationInfo}.
+	 * Plans the migration of the project of the provided {@link MigrationInfo} with the already
+	 * read dependencies and stores the dependencies, the libs.versions.toml file and its planned
+	 * content in the given {@link GradleProjectInfo} object
 	 *
 	 * @param migrationInfo
 	 *            the migration information containing details about the project directories
-	 * @return a {@link GradleProjectInfo} object with the TOML file and content
+	 * @param dependencyInfos
+	 *            the dependencies of the project, read with
+	 *            {@link #readDependencyInfos(MigrationInfo)}
+	 * @param gradleProjectInfo
+	 *            the {@link GradleProjectInfo} object to fill
+	 * @return the {@link MigrationPlan} of the project
 	 * @throws IOException
-	 *             if an I/O error occurs during file operations
+	 *             if an I/O error occurs during reading the files
 	 */
-	public static GradleProjectInfo newLibsVersionsTomlFile(MigrationInfo migrationInfo)
+	static MigrationPlan newMigrationPlan(MigrationInfo migrationInfo,
+		List<DependencyInfo> dependencyInfos, GradleProjectInfo gradleProjectInfo)
 		throws IOException
 	{
-		GradleProjectInfo gradleProjectInfo = newLibsVersionsTomlAsString(migrationInfo);
-		String libsVersionTomlMapAsString = gradleProjectInfo.getLibsVersionTomlMapAsString();
-		// 2. store all version to libs.versions.toml
+		File dependenciesGradle = PathFinder.getRelativePath(migrationInfo.getGradleDirectory(),
+			DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
 		File libsVersionsToml = PathFinder.getRelativePath(migrationInfo.getGradleDirectory(),
 			DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME);
+		gradleProjectInfo.setDependencyInfos(dependencyInfos);
 		gradleProjectInfo.setLibsVersionsTomlFile(libsVersionsToml);
-		if (!libsVersionsToml.exists())
+		MigrationPlan migrationPlan = MigrationPlan.of();
+		if (dependencyInfos.isEmpty())
 		{
-			StoreFileExtensions.toFile(libsVersionsToml, libsVersionTomlMapAsString);
+			// an already migrated project has no coordinates left, so nothing is planned
+			if (libsVersionsToml.exists())
+			{
+				gradleProjectInfo
+					.setLibsVersionTomlMapAsString(ReadFileExtensions.fromFile(libsVersionsToml));
+			}
+			return migrationPlan;
+		}
+		// 2. store all version to libs.versions.toml, which is written before the dependencies
+		Map<String, String> libraryAliases;
+		if (libsVersionsToml.exists())
+		{
+			VersionCatalog catalog = VersionCatalog.of(libsVersionsToml);
+			MergedVersionCatalog mergedVersionCatalog = VersionCatalogMerger.mergeCatalog(catalog,
+				dependencyInfos);
+			String merged = mergedVersionCatalog.getContent();
+			gradleProjectInfo.setLibsVersionTomlMapAsString(merged);
+			if (!merged.equals(catalog.getContent()))
+			{
+				migrationPlan.write(libsVersionsToml, merged);
+			}
+			libraryAliases = mergedVersionCatalog.getLibraryAliases();
+		}
+		else
+		{
+			String rendered = VersionCatalogRenderer.getLibsVersionsTomlAsString(dependencyInfos);
+			gradleProjectInfo.setLibsVersionTomlMapAsString(rendered);
+			migrationPlan.write(libsVersionsToml, rendered);
+			libraryAliases = VersionCatalogRenderer.getLibraryAliases(dependencyInfos);
+		}
+		// 3. reference the libraries with the aliases of the catalog
+		String dependenciesStructure = VersionCatalogRenderer
+			.getDependenciesStructureAsString(dependencyInfos, libraryAliases);
+		if (!dependenciesStructure.equals(ReadFileExtensions.fromFile(dependenciesGradle)))
+		{
+			migrationPlan.write(dependenciesGradle, dependenciesStructure);
+		}
+		return migrationPlan;
+	}
+
+	/**
+	 * Reads the dependencies of the dependencies.gradle file of the project and resolves their
+	 * versions with the version properties of the gradle.properties file
+	 *
+	 * @param migrationInfo
+	 *            the migration information containing details about the project directories
+	 * @return the list of {@link DependencyInfo} objects
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	public static List<DependencyInfo> readDependencyInfos(MigrationInfo migrationInfo)
+		throws IOException
+	{
+		File dependenciesGradle = PathFinder.getRelativePath(migrationInfo.getGradleDirectory(),
+			DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+
+		File gradlePropertiesFile = PathFinder.getRelativePath(migrationInfo.getProjectDirectory(),
+			DependenciesInfo.GRADLE_PROPERTIES_FILENAME);
+		// 1. Load all version from gradle.properties
+		Map<String, String> versionMap = DependenciesExtensions.getVersionMap(gradlePropertiesFile,
+			"Version");
+		if (!dependenciesGradle.exists())
+		{
+			throw new RuntimeException("Could not find file dependencies.gradle");
+		}
+		try (Stream<DependencyInfo> stream = DependenciesExtensions
+			.getDependencyInfos(dependenciesGradle.toPath(), versionMap))
+		{
+			return stream.collect(Collectors.toList());
 		}
-		return gradleProjectInfo;
 	}
 
 	/**
@@ -145,8 +296,27 @@ public final class MigrateToTomlVersions
 	public static GradleProjectInfo newLibsVersionsTomlFile(String projectDirectoryName)
 		throws IOException
 	{
-		MigrationInfo migrationInfo = MigrationInfo.fromAbsolutePath(projectDirectoryName);
-		return newLibsVersionsTomlFile(migrationInfo);
+		return newLibsVersionsTomlFile(projectDirectoryName, false);
+	}
+
+	/**
+	 * Creates a new {@link GradleProjectInfo} object and generates a libs.versions.toml file for
+	 * the project located at the specified directory. The directories of the project are resolved
+	 * with a read-only {@link MigrationInfo} and are only created if the file is really written.
+	 *
+	 * @param projectDirectoryName
+	 *            the absolute path to the project directory
+	 * @param dryRun
+	 *            the flag that indicates if the project is only analyzed without writing any file
+	 * @return a {@link GradleProjectInfo} object with the TOML file and in dry run mode the TOML
+	 *         content
+	 * @throws IOException
+	 *             if an I/O error occurs during file operations
+	 */
+	public static GradleProjectInfo newLibsVersionsTomlFile(String projectDirectoryName,
+		boolean dryRun) throws IOException
+	{
+		return newLibsVersionsTomlFile(MigrationInfo.probe(projectDirectoryName), dryRun);
 	}
 
 	/**
@@ -165,14 +335,43 @@ public final class MigrateToTomlVersions
 	 */
 	public static GradleProjectInfo migrateToTomlVersions(File gradleDirectory,
 		String targetProjectName, String targetProjectDirNamePrefix) throws IOException
+	{
+		return migrateToTomlVersions(gradleDirectory, targetProjectName,
+			targetProjectDirNamePrefix, false);
+	}
+
+	/**
+	 * Migrates a Gradle project to use TOML for version management by generating a
+	 * libs.versions.toml file and copying necessary configuration files. In dry run mode the
+	 * project is only analyzed and neither files nor directories are written.
+	 *
+	 * @param gradleDirectory
+	 *            the directory containing the Gradle files
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @param targetProjectDirNamePrefix
+	 *            the prefix for the target project directory
+	 * @param dryRun
+	 *            the flag that indicates if the project is only analyzed without writing any file
+	 * @return a {@link GradleProjectInfo} object with the migrated project information
+	 * @throws IOException
+	 *             if an I/O error occurs during file operations
+	 */
+	public static GradleProjectInfo migrateToTomlVersions(File gradleDirectory,
+		String targetProjectName, String targetProjectDirNamePrefix, boolean dryRun)
+		throws IOException
 	{
 		String versionCatalogUpdateFileName = DependenciesInfo.VERSION_CATALOG_UPDATE_GRADLE_FILENAME;
+		MigrationInfo migrationInfo = MigrationInfo
+			.probe(targetProjectDirNamePrefix + targetProjectName);
+		GradleProjectInfo gradleProjectInfo = newLibsVersionsTomlFile(migrationInfo, dryRun);
+		gradleProjectInfo.setMigrationInfo(migrationInfo);
+		if (dryRun)
+		{
+			return gradleProjectInfo;
+		}
 		File sourceVersionCatalogUpdateFile = PathFinder.getRelativePath(gradleDirectory,
 			versionCatalogUpdateFileName);
-		String projectDirectoryName = targetProjectDirNamePrefix + targetProjectName;
-		GradleProjectInfo gradleProjectInfo = newLibsVersionsTomlFile(projectDirectoryName);
-		MigrationInfo migrationInfo = MigrationInfo.fromAbsolutePath(projectDirectoryName);
-		gradleProjectInfo.setMigrationInfo(migrationInfo);
 		File destinationVersionCatalogUpdateFile = FileFactory
 			.newFile(migrationInfo.getGradleDirectory(), versionCatalogUpdateFileName);
 		CopyFileExtensions.copyFile(sourceVersionCatalogUpdateFile,
@@ -198,7 +397,8 @@ public final class MigrateToTomlVersions
 			projectTomlStructureInfo.getSourceProjectName(),
 			projectTomlStructureInfo.getTargetProjectName(),
 			projectTomlStructureInfo.getSourceProjectDirNamePrefix(),
-			projectTomlStructureInfo.getTargetProjectDirNamePrefix());
+			projectTomlStructureInfo.getTargetProjectDirNamePrefix(),
+			projectTomlStructureInfo.isDryRun());
 	}
 
 	/**
@@ -222,11 +422,42 @@ public final class MigrateToTomlVersions
 		String sourceProjectName, String targetProjectName, String sourceProjectDirNamePrefix,
 		String targetProjectDirNamePrefix) throws IOException
 	{
-		GradleProjectInfo gradleProjectInfo = migrateToTomlVersions(gradleDirectory,
-			targetProjectName, targetProjectDirNamePrefix);
+		return migrateToNewProjectStructure(gradleDirectory, sourceProjectName, targetProjectName,
+			sourceProjectDirNamePrefix, targetProjectDirNamePrefix, false);
+	}
 
-		GradleRunConfigurationsCopier.copyOnlyRunConfigurations(sourceProjectName,
-			targetProjectName, sourceProjectDirNamePrefix, targetProjectDirNamePrefix);
+	/**
+	 * Migrates a Gradle project to a new TOML-based project structure. In dry run mode the project
+	 * is only analyzed and neither files nor directories are written and no run configurations are
+	 * copied.
+	 *
+	 * @param gradleDirectory
+	 *            the directory containing the Gradle files
+	 * @param sourceProjectName
+	 *            the name of the source project
+	 * @param targetProjectName
+	 *            the name of the target project
+	 * @param sourceProjectDirNamePrefix
+	 *            the prefix for the source project directory
+	 * @param targetProjectDirNamePrefix
+	 *            the prefix for the target project directory
+	 * @param dryRun
+	 *            the flag that indicates if the project is only analyzed without writing any file
+	 * @return a {@link GradleProjectInfo} object with the migrated project information
+	 * @throws IOException
+	 *             if an I/O error occurs during file operations
+	 */
+	public static GradleProjectInfo migrateToNewProjectStructure(File gradleDirectory,
+		String sourceProjectName, String targetProjectName, String sourceProjectDirNamePrefix,
+		String targetProjectDirNamePrefix, boolean dryRun) throws IOException
+	{
+		GradleProjectInfo gradleProjectInfo = migrateToTomlVersions(gradleDirectory,
+			targetProjectName, targetProjectDirNamePrefix, dryRun);
+		if (!dryRun)
+		{
+			GradleRunConfigurationsCopier.copyOnlyRunConfigurations(sourceProjectName,
+				targetProjectName, sourceProjectDirNamePrefix, targetProjectDirNamePrefix);
+		}
 		return gradleProjectInfo;
 	}
 
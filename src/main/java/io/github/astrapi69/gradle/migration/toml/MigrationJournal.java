@@ -0,0 +1,422 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import io.github.astrapi69.collection.map.MapFactory;
+import lombok.NonNull;
+
+/**
+ * The class {@link MigrationJournal} is an append-only journal that records the completed stages
+ * of the projects of a fleet migration together with a content hash, so an aborted migration can
+ * be resumed with {@link MigrationPipeline#resume(java.util.List, Path)} instead of being
+ * restarted from scratch.<br>
+ * <br>
+ * Every record is a single line that ends with a CRC32 checksum and is written to the journal
+ * file immediately, so it survives the crash of the process. The journal file is flushed to the
+ * storage device only after a number of records and on close, so the flushes are batched. When a
+ * journal is opened, a torn or corrupted tail of a previous crash is cut off and the remaining
+ * records are replayed, where the latest record of a stage wins and a
+ * {@link MigrationPipeline#DISCOVER_STAGE} record starts the project from scratch. Besides the
+ * completed stages, the journal holds the {@link MigrationPipeline#WRITE_INTENT} records that are
+ * flushed before the files of a project are written. All methods of this class are thread safe.
+ */
+public final class MigrationJournal implements Closeable
+{
+
+	/** The default number of records after which the journal file is flushed. */
+	public static final int DEFAULT_SYNC_INTERVAL = 64;
+
+	/** The hash of a stage that has no content. */
+	public static final String NO_HASH = "-";
+
+	/** The separator of the fields of a record. */
+	private static final char SEPARATOR = '\t';
+
+	/** The channel of the journal file. */
+	private final FileChannel channel;
+
+	/** The number of records after which the journal file is flushed. */
+	private final int syncInterval;
+
+	/** The hashes of the completed stages per project. */
+	private final Map<String, Map<String, String>> completedStages;
+
+	/** The lock that serializes the access to the journal. */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** The number of records that were written since the last flush. */
+	private int unsyncedRecords;
+
+	/**
+	 * Instantiates a new {@link MigrationJournal}
+	 *
+	 * @param channel
+	 *            the channel of the journal file positioned after the last valid record
+	 * @param syncInterval
+	 *            the number of records after which the journal file is flushed
+	 * @param completedStages
+	 *            the replayed completed stages per project
+	 */
+	private MigrationJournal(FileChannel channel, int syncInterval,
+		Map<String, Map<String, String>> completedStages)
+	{
+		this.channel = channel;
+		this.syncInterval = syncInterval;
+		this.completedStages = completedStages;
+	}
+
+	/**
+	 * Factory method for create a new {@link MigrationJournal} with the default sync interval. An
+	 * existing journal file is replayed and continued.
+	 *
+	 * @param journalFile
+	 *            the journal file
+	 * @return the new {@link MigrationJournal}
+	 * @throws IOException
+	 *             if an I/O error occurs during reading or opening the journal file
+	 */
+	public static MigrationJournal open(Path journalFile) throws IOException
+	{
+		return open(journalFile, DEFAULT_SYNC_INTERVAL);
+	}
+
+	/**
+	 * Factory method for create a new {@link MigrationJournal}. An existing journal file is
+	 * replayed and continued.
+	 *
+	 * @param journalFile
+	 *            the journal file
+	 * @param syncInterval
+	 *            the number of records after which the journal file is flushed
+	 * @return the new {@link MigrationJournal}
+	 * @throws IOException
+	 *             if an I/O error occurs during reading or opening the journal file
+	 */
+	public static MigrationJournal open(@NonNull Path journalFile, int syncInterval)
+		throws IOException
+	{
+		if (syncInterval < 1)
+		{
+			throw new IllegalArgumentException("The sync interval has to be positive");
+		}
+		Path parent = journalFile.toAbsolutePath().getParent();
+		if (parent != null)
+		{
+			Files.createDirectories(parent);
+		}
+		Map<String, Map<String, String>> completedStages = MapFactory.newHashMap();
+		FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+			StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try
+		{
+			long validLength = replay(channel, completedStages);
+			if (validLength < channel.size())
+			{
+				// cut off the torn tail of a crash, so new records follow a complete record
+				channel.truncate(validLength);
+				channel.force(true);
+			}
+			channel.position(validLength);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+		return new MigrationJournal(channel, syncInterval, completedStages);
+	}
+
+	/**
+	 * Computes the SHA-256 hash of the given contents. The length of every content is included,
+	 * so the hash of the contents 'ab' and 'c' differs from the hash of 'a' and 'bc'.
+	 *
+	 * @param contents
+	 *            the contents
+	 * @return the hash as a lower case hex string
+	 */
+	public static String hash(CharSequence... contents)
+	{
+		MessageDigest messageDigest = newMessageDigest();
+		for (CharSequence content : contents)
+		{
+			byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+			messageDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+			messageDigest.update(bytes);
+		}
+		return HexFormat.of().formatHex(messageDigest.digest());
+	}
+
+	/**
+	 * Records the completion of the given stage of the given project. The record is written to
+	 * the journal file immediately and flushed with the next batch.
+	 *
+	 * @param project
+	 *            the key of the project, for instance the absolute path of its directory
+	 * @param stage
+	 *            the name of the completed stage
+	 * @param hash
+	 *            the content hash of the stage or {@link #NO_HASH}
+	 * @throws IOException
+	 *             if an I/O error occurs during writing the record
+	 */
+	public void record(@NonNull String project, @NonNull String stage, @NonNull String hash)
+		throws IOException
+	{
+		if (!isValidField(project) || !isValidField(stage) || !isValidField(hash))
+		{
+			throw new IllegalArgumentException(
+				"The fields of a record must not contain tabs or line breaks");
+		}
+		String fields = stage + SEPARATOR + hash + SEPARATOR + project;
+		ByteBuffer record = StandardCharsets.UTF_8
+			.encode(fields + SEPARATOR + checksum(fields) + '\n');
+		lock.lock();
+		try
+		{
+			while (record.hasRemaining())
+			{
+				channel.write(record);
+			}
+			apply(completedStages, project, stage, hash);
+			if (syncInterval <= ++unsyncedRecords)
+			{
+				sync();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the content hash of the given completed stage of the given project
+	 *
+	 * @param project
+	 *            the key of the project
+	 * @param stage
+	 *            the name of the stage
+	 * @return the content hash or null if the stage is not completed
+	 */
+	public String getHash(String project, String stage)
+	{
+		lock.lock();
+		try
+		{
+			Map<String, String> stages = completedStages.get(project);
+			return stages == null ? null : stages.get(stage);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Checks if the given stage of the given project is completed
+	 *
+	 * @param project
+	 *            the key of the project
+	 * @param stage
+	 *            the name of the stage
+	 * @return true if the stage is completed, otherwise false
+	 */
+	public boolean isCompleted(String project, String stage)
+	{
+		return getHash(project, stage) != null;
+	}
+
+	/**
+	 * Flushes all written records to the storage device
+	 *
+	 * @throws IOException
+	 *             if an I/O error occurs during the flush
+	 */
+	public void sync() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (0 < unsyncedRecords)
+			{
+				channel.force(false);
+				unsyncedRecords = 0;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (channel.isOpen())
+			{
+				sync();
+				channel.close();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replays the records of the given journal channel
+	 *
+	 * @param channel
+	 *            the channel of the journal file
+	 * @param completedStages
+	 *            the map to replay the records into
+	 * @return the length of the valid records at the start of the journal file
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the journal file
+	 */
+	private static long replay(FileChannel channel,
+		Map<String, Map<String, String>> completedStages) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate((int)channel.size());
+		int read = 0;
+		while (buffer.hasRemaining() && read != -1)
+		{
+			read = channel.read(buffer, buffer.position());
+		}
+		byte[] bytes = buffer.array();
+		int start = 0;
+		for (int end = 0; end < bytes.length; end++)
+		{
+			if (bytes[end] != '\n')
+			{
+				continue;
+			}
+			String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+			int checksumStart = line.lastIndexOf(SEPARATOR);
+			int hashStart = line.indexOf(SEPARATOR) + 1;
+			int projectStart = line.indexOf(SEPARATOR, hashStart) + 1;
+			if (checksumStart < 0 || hashStart == 0 || projectStart == 0
+				|| checksumStart < projectStart || !checksum(line.substring(0, checksumStart))
+					.equals(line.substring(checksumStart + 1)))
+			{
+				break;
+			}
+			apply(completedStages, line.substring(projectStart, checksumStart),
+				line.substring(0, hashStart - 1), line.substring(hashStart, projectStart - 1));
+			start = end + 1;
+		}
+		return start;
+	}
+
+	/**
+	 * Applies a record to the given completed stages
+	 *
+	 * @param completedStages
+	 *            the completed stages per project
+	 * @param project
+	 *            the key of the project
+	 * @param stage
+	 *            the name of the completed stage
+	 * @param hash
+	 *            the content hash of the stage
+	 */
+	private static void apply(Map<String, Map<String, String>> completedStages, String project,
+		String stage, String hash)
+	{
+		Map<String, String> stages = completedStages.computeIfAbsent(project,
+			key -> MapFactory.newHashMap());
+		if (MigrationPipeline.DISCOVER_STAGE.equals(stage))
+		{
+			stages.clear();
+		}
+		stages.put(stage, hash);
+	}
+
+	/**
+	 * Computes the checksum of the given fields of a record
+	 *
+	 * @param fields
+	 *            the fields of the record
+	 * @return the checksum as a hex string
+	 */
+	private static String checksum(String fields)
+	{
+		CRC32 crc32 = new CRC32();
+		crc32.update(fields.getBytes(StandardCharsets.UTF_8));
+		return Long.toHexString(crc32.getValue());
+	}
+
+	/**
+	 * Checks if the given field of a record contains no separator and no line break
+	 *
+	 * @param field
+	 *            the field
+	 * @return true if the field is valid, otherwise false
+	 */
+	private static boolean isValidField(String field)
+	{
+		return field.indexOf(SEPARATOR) < 0 && field.indexOf('\n') < 0
+			&& field.indexOf('\r') < 0;
+	}
+
+	/**
+	 * Creates a new SHA-256 message digest
+	 *
+	 * @return the new message digest
+	 */
+	private static MessageDigest newMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
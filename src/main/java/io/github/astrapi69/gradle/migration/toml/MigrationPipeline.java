@@ -0,0 +1,948 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.extension.GitExtensions;
+import io.github.astrapi69.gradle.migration.extension.ProjectDiscoveryExtensions;
+import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+import io.github.astrapi69.gradle.migration.info.GradleProjectInfo;
+import io.github.astrapi69.gradle.migration.info.MigrationInfo;
+import io.github.astrapi69.gradle.migration.info.MigrationOperation;
+import io.github.astrapi69.gradle.migration.info.ProjectMigrationResult;
+import io.github.astrapi69.gradle.migration.info.ProjectTomlStructureInfo;
+import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
+
+/**
+ * The class {@link MigrationPipeline} migrates a whole fleet of Gradle projects to TOML-based
+ * version management. The migration of each project runs through the stages discover, parse,
+ * render, write and git-stage, which are connected with bounded queues, so a fast stage can not
+ * run ahead of a slow one and only a bounded number of projects is held in memory. The I/O-bound
+ * stages run on virtual threads and the CPU-bound render stage on a platform thread pool with one
+ * thread per processor. The failure of a project does not affect the other projects, it is
+ * reported with the failed stage in the {@link ProjectMigrationResult} of the project.<br>
+ * <br>
+ * With {@link #resume(List, Path)} the completed stages of every project are recorded in a
+ * {@link MigrationJournal}, so a run that was aborted halfway can be continued where it stopped.
+ */
+public final class MigrationPipeline
+{
+
+	/** The name of the stage that resolves the project directories. */
+	public static final String DISCOVER_STAGE = "discover";
+
+	/** The name of the stage that reads the dependencies and the existing catalog. */
+	public static final String PARSE_STAGE = "parse";
+
+	/** The name of the stage that renders the new file contents. */
+	public static final String RENDER_STAGE = "render";
+
+	/** The name of the stage that writes the changed files. */
+	public static final String WRITE_STAGE = "write";
+
+	/** The name of the stage that adds the changed files to git. */
+	public static final String GIT_STAGE = "git-stage";
+
+	/**
+	 * The name of the journal record that is flushed before the files of a project are written. It
+	 * holds the hash of the planned contents, so a run that was aborted between the writes can be
+	 * detected on resume.
+	 */
+	public static final String WRITE_INTENT = "write-intent";
+
+	/** The default capacity of the queues between the stages. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+	/** The default number of workers of an I/O-bound stage. */
+	public static final int DEFAULT_IO_PARALLELISM = 32;
+
+	/** The stages that run per project in their order. */
+	private static final List<String> STAGES = List.of(PARSE_STAGE, RENDER_STAGE, WRITE_STAGE,
+		GIT_STAGE);
+
+	/** The marker that signals the end of the projects. */
+	private static final ProjectMigration END = new ProjectMigration(-1, null);
+
+	/** Flag that indicates if the changed files are added to git. */
+	private final boolean gitStage;
+
+	/** The capacity of the queues between the stages. */
+	private final int queueCapacity;
+
+	/** The number of workers of an I/O-bound stage. */
+	private final int ioParallelism;
+
+	/**
+	 * Instantiates a new {@link MigrationPipeline}
+	 *
+	 * @param gitStage
+	 *            flag that indicates if the changed files are added to git
+	 * @param queueCapacity
+	 *            the capacity of the queues between the stages
+	 * @param ioParallelism
+	 *            the number of workers of an I/O-bound stage
+	 */
+	private MigrationPipeline(boolean gitStage, int queueCapacity, int ioParallelism)
+	{
+		if (queueCapacity < 1 || ioParallelism < 1)
+		{
+			throw new IllegalArgumentException(
+				"The queue capacity and the parallelism have to be positive");
+		}
+		this.gitStage = gitStage;
+		this.queueCapacity = queueCapacity;
+		this.ioParallelism = ioParallelism;
+	}
+
+	/**
+	 * Factory method for create a new {@link MigrationPipeline} with the default queue capacity and
+	 * parallelism
+	 *
+	 * @param gitStage
+	 *            flag that indicates if the changed files are added to git
+	 * @return the new {@link MigrationPipeline}
+	 */
+	public static MigrationPipeline of(boolean gitStage)
+	{
+		return of(gitStage, DEFAULT_QUEUE_CAPACITY, DEFAULT_IO_PARALLELISM);
+	}
+
+	/**
+	 * Factory method for create a new {@link MigrationPipeline}
+	 *
+	 * @param gitStage
+	 *            flag that indicates if the changed files are added to git
+	 * @param queueCapacity
+	 *            the capacity of the queues between the stages
+	 * @param ioParallelism
+	 *            the number of workers of an I/O-bound stage
+	 * @return the new {@link MigrationPipeline}
+	 */
+	public static MigrationPipeline of(boolean gitStage, int queueCapacity, int ioParallelism)
+	{
+		return new MigrationPipeline(gitStage, queueCapacity, ioParallelism);
+	}
+
+	/**
+	 * Migrates all given projects
+	 *
+	 * @param projects
+	 *            the information about the source and target project structures
+	 * @return the results of the projects in the order of the given list
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the results
+	 */
+	public List<ProjectMigrationResult> migrate(List<ProjectTomlStructureInfo> projects)
+		throws InterruptedException
+	{
+		return run(projects.iterator(), null);
+	}
+
+	/**
+	 * Migrates all given projects and records the completed stages of every project in the given
+	 * journal file. If the journal file already exists, for instance after a crash of a previous
+	 * run, the projects that are already migrated are skipped and the projects whose files were
+	 * already written consistently only run the git-stage stage again. All other projects are
+	 * migrated from the beginning.
+	 *
+	 * @param projects
+	 *            the information about the source and target project structures
+	 * @param journalFile
+	 *            the journal file
+	 * @return the results of the projects in the order of the given list
+	 * @throws IOException
+	 *             if an I/O error occurs during reading or writing the journal file
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the results
+	 */
+	public List<ProjectMigrationResult> resume(List<ProjectTomlStructureInfo> projects,
+		Path journalFile) throws IOException, InterruptedException
+	{
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			return run(projects.iterator(), journal);
+		}
+	}
+
+	/**
+	 * Migrates all Gradle projects in the directory tree of the given workspace directory that
+	 * contain the file 'gradle/dependencies.gradle'. The projects are found with
+	 * {@link ProjectDiscoveryExtensions#discover(File)}. Each project is migrated in place, so its
+	 * run configurations are not copied.
+	 *
+	 * @param workspaceDirectory
+	 *            the workspace directory
+	 * @param gradleDirectory
+	 *            the Gradle directory that contains the template files, for instance the
+	 *            version-catalog-update.gradle file
+	 * @return the results of the projects sorted by their project directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the workspace directory
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the results
+	 */
+	public List<ProjectMigrationResult> migrateWorkspace(File workspaceDirectory,
+		File gradleDirectory) throws IOException, InterruptedException
+	{
+		return migrate(discoverProjects(workspaceDirectory, gradleDirectory));
+	}
+
+	/**
+	 * Migrates all Gradle projects in the directory tree of the given workspace directory like
+	 * {@link #migrateWorkspace(File, File)} and resumes an aborted run with the given journal file
+	 * like {@link #resume(List, Path)}
+	 *
+	 * @param workspaceDirectory
+	 *            the workspace directory
+	 * @param gradleDirectory
+	 *            the Gradle directory that contains the template files, for instance the
+	 *            version-catalog-update.gradle file
+	 * @param journalFile
+	 *            the journal file
+	 * @return the results of the projects sorted by their project directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the workspace directory or the journal file
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the results
+	 */
+	public List<ProjectMigrationResult> resumeWorkspace(File workspaceDirectory,
+		File gradleDirectory, Path journalFile) throws IOException, InterruptedException
+	{
+		return resume(discoverProjects(workspaceDirectory, gradleDirectory), journalFile);
+	}
+
+	/**
+	 * Finds all Gradle projects in the directory tree of the given workspace directory that
+	 * contain the file 'gradle/dependencies.gradle'
+	 *
+	 * @param workspaceDirectory
+	 *            the workspace directory
+	 * @param gradleDirectory
+	 *            the Gradle directory that contains the template files
+	 * @return the information about the found projects sorted by their project directory
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the workspace directory
+	 */
+	private static List<ProjectTomlStructureInfo> discoverProjects(File workspaceDirectory,
+		File gradleDirectory) throws IOException
+	{
+		List<ProjectTomlStructureInfo> projects = ListFactory.newArrayList();
+		for (MigrationInfo migrationInfo : ProjectDiscoveryExtensions.discover(workspaceDirectory))
+		{
+			if (new File(migrationInfo.getGradleDirectory(),
+				DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME).isFile())
+			{
+				File projectDirectory = migrationInfo.getProjectDirectory();
+				String projectDirNamePrefix = projectDirectory.getParent() + File.separator;
+				projects.add(ProjectTomlStructureInfo.builder().gradleDirectory(gradleDirectory)
+					.sourceProjectName(projectDirectory.getName())
+					.targetProjectName(projectDirectory.getName())
+					.sourceProjectDirNamePrefix(projectDirNamePrefix)
+					.targetProjectDirNamePrefix(projectDirNamePrefix).build());
+			}
+		}
+		return projects;
+	}
+
+	/**
+	 * Runs the pipeline for the given projects
+	 *
+	 * @param projects
+	 *            the iterator of the projects
+	 * @param journal
+	 *            the journal of the completed stages or null if no journal is kept
+	 * @return the results of the projects in the order of the iterator
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the results
+	 */
+	private List<ProjectMigrationResult> run(Iterator<ProjectTomlStructureInfo> projects,
+		MigrationJournal journal) throws InterruptedException
+	{
+		BlockingQueue<ProjectMigration> discovered = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ProjectMigration> parsed = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ProjectMigration> rendered = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ProjectMigration> written = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<ProjectMigration> done = new ArrayBlockingQueue<>(queueCapacity);
+		int processors = Runtime.getRuntime().availableProcessors();
+		try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+			ExecutorService platformThreads = Executors.newFixedThreadPool(processors))
+		{
+			try
+			{
+				virtualThreads.execute(() -> discover(projects, discovered));
+				startStage(virtualThreads, ioParallelism, PARSE_STAGE, discovered, parsed,
+					journaled(journal, PARSE_STAGE, migration -> parse(migration, journal)));
+				startStage(platformThreads, processors, RENDER_STAGE, parsed, rendered,
+					journaled(journal, RENDER_STAGE, this::render));
+				startStage(virtualThreads, ioParallelism, WRITE_STAGE, rendered, written,
+					journaled(journal, WRITE_STAGE, migration -> write(migration, journal)));
+				startStage(virtualThreads, ioParallelism, GIT_STAGE, written, done,
+					journaled(journal, GIT_STAGE, this::stage));
+				List<ProjectMigration> migrations = ListFactory.newArrayList();
+				for (ProjectMigration migration = done.take(); migration != END; migration = done
+					.take())
+				{
+					migrations.add(migration);
+				}
+				migrations.sort(Comparator.comparingInt(migration -> migration.index));
+				List<ProjectMigrationResult> results = new ArrayList<>(migrations.size());
+				migrations.forEach(migration -> results.add(migration.toResult()));
+				return results;
+			}
+			catch (InterruptedException e)
+			{
+				virtualThreads.shutdownNow();
+				platformThreads.shutdownNow();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Feeds the given projects into the first queue of the pipeline
+	 *
+	 * @param projects
+	 *            the iterator of the projects
+	 * @param out
+	 *            the first queue of the pipeline
+	 */
+	private void discover(Iterator<ProjectTomlStructureInfo> projects,
+		BlockingQueue<ProjectMigration> out)
+	{
+		int index = 0;
+		try
+		{
+			try
+			{
+				while (projects.hasNext())
+				{
+					ProjectMigration migration = new ProjectMigration(index++, projects.next());
+					try
+					{
+						migration.migrationInfo = newMigrationInfo(migration.info);
+					}
+					catch (Throwable e)
+					{
+						migration.fail(DISCOVER_STAGE, e);
+					}
+					out.put(migration);
+				}
+			}
+			catch (Throwable e)
+			{
+				// the iteration itself failed, for instance on reading a directory
+				ProjectMigration migration = new ProjectMigration(index, null);
+				migration.fail(DISCOVER_STAGE, e);
+				out.put(migration);
+			}
+			out.put(END);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Starts the workers of a stage
+	 *
+	 * @param executor
+	 *            the executor of the workers
+	 * @param workers
+	 *            the number of workers
+	 * @param stage
+	 *            the name of the stage
+	 * @param in
+	 *            the input queue of the stage
+	 * @param out
+	 *            the output queue of the stage
+	 * @param task
+	 *            the task of the stage
+	 */
+	private static void startStage(ExecutorService executor, int workers, String stage,
+		BlockingQueue<ProjectMigration> in, BlockingQueue<ProjectMigration> out, StageTask task)
+	{
+		AtomicInteger activeWorkers = new AtomicInteger(workers);
+		for (int i = 0; i < workers; i++)
+		{
+			executor.execute(() -> work(executor, stage, in, out, activeWorkers, task));
+		}
+	}
+
+	/**
+	 * Wraps the task of a stage, so the stage is skipped for projects that are resumed after this
+	 * stage and its completion is recorded in the given journal
+	 *
+	 * @param journal
+	 *            the journal of the completed stages or null if no journal is kept
+	 * @param stage
+	 *            the name of the stage
+	 * @param task
+	 *            the task of the stage
+	 * @return the wrapped task
+	 */
+	private static StageTask journaled(MigrationJournal journal, String stage, StageTask task)
+	{
+		return migration -> {
+			if (migration.skips(stage))
+			{
+				return;
+			}
+			task.run(migration);
+			if (journal != null && !migration.skips(stage))
+			{
+				journal.record(migration.getKey(), stage,
+					WRITE_STAGE.equals(stage) ? hashFiles(migration) : MigrationJournal.NO_HASH);
+			}
+		};
+	}
+
+	/**
+	 * Processes the projects of the input queue until the end marker is reached. Every failure of
+	 * a task, including errors and interruptions, is recorded on its project, so a worker only
+	 * stops early if the pipeline is shut down. The last worker of a stage always passes the end
+	 * marker on to the next stage.
+	 *
+	 * @param executor
+	 *            the executor of the workers
+	 * @param stage
+	 *            the name of the stage
+	 * @param in
+	 *            the input queue of the stage
+	 * @param out
+	 *            the output queue of the stage
+	 * @param activeWorkers
+	 *            the number of workers of the stage that did not reach the end marker
+	 * @param task
+	 *            the task of the stage
+	 */
+	private static void work(ExecutorService executor, String stage,
+		BlockingQueue<ProjectMigration> in, BlockingQueue<ProjectMigration> out,
+		AtomicInteger activeWorkers, StageTask task)
+	{
+		boolean cancelled = false;
+		try
+		{
+			for (ProjectMigration migration = in.take(); migration != END; migration = in.take())
+			{
+				if (migration.failure == null)
+				{
+					try
+					{
+						task.run(migration);
+					}
+					catch (Throwable e)
+					{
+						migration.fail(stage, e);
+					}
+				}
+				// a task can leave the interrupt flag behind, only a shutdown ends the worker
+				if (Thread.interrupted() && executor.isShutdown())
+				{
+					cancelled = true;
+					return;
+				}
+				out.put(migration);
+			}
+			// the other workers of this stage have to see the end marker too
+			in.put(END);
+		}
+		catch (InterruptedException e)
+		{
+			cancelled = true;
+		}
+		finally
+		{
+			if (activeWorkers.decrementAndGet() == 0)
+			{
+				forwardEnd(out, cancelled);
+			}
+			if (cancelled)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Passes the end marker on to the given output queue. If the pipeline is cancelled, the end
+	 * marker is only offered, because the next stage may already be gone.
+	 *
+	 * @param out
+	 *            the output queue of the stage
+	 * @param cancelled
+	 *            flag that indicates if the pipeline is cancelled
+	 */
+	private static void forwardEnd(BlockingQueue<ProjectMigration> out, boolean cancelled)
+	{
+		if (out.offer(END) || cancelled)
+		{
+			return;
+		}
+		try
+		{
+			out.put(END);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Creates the {@link MigrationInfo} of the target project without creating any directories
+	 *
+	 * @param info
+	 *            the information about the source and target project structure
+	 * @return the {@link MigrationInfo} of the target project
+	 */
+	private static MigrationInfo newMigrationInfo(ProjectTomlStructureInfo info)
+	{
+		Objects.requireNonNull(info);
+		File projectDirectory = new File(
+			info.getTargetProjectDirNamePrefix() + info.getTargetProjectName());
+		if (!projectDirectory.isDirectory())
+		{
+			throw new IllegalArgumentException("Project directory not found: " + projectDirectory);
+		}
+		File gradleDirectory = new File(projectDirectory,
+			DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		return MigrationInfo.builder().projectDirectory(projectDirectory)
+			.gradleDirectory(gradleDirectory).build();
+	}
+
+	/**
+	 * The parse stage, reads the dependencies of the project. If
+	 * a journal is kept, the stage first checks if the project can be resumed from a later stage
+	 * and otherwise records that the project starts from the beginning.
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @param journal
+	 *            the journal of the completed stages or null if no journal is kept
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	private void parse(ProjectMigration migration, MigrationJournal journal) throws IOException
+	{
+		if (journal != null)
+		{
+			migration.firstStage = getFirstPendingStage(migration, journal);
+			if (0 < migration.firstStage)
+			{
+				return;
+			}
+			journal.record(migration.getKey(), DISCOVER_STAGE, MigrationJournal.NO_HASH);
+		}
+		migration.dependencyInfos = MigrateToTomlVersions
+			.readDependencyInfos(migration.migrationInfo);
+	}
+
+	/**
+	 * Gets the index of the first stage that has to run for the given project according to the
+	 * journal. A project is only completed if the current content of the written files has the
+	 * recorded hash. If a previous run was aborted after it started to write the files, the hash of
+	 * the write stage or of the {@link #WRITE_INTENT} record tells if all planned files were
+	 * written. In this case the project is resumed with the write stage, which only collects the
+	 * written files and repeats the copies for the git-stage stage. Otherwise the project is
+	 * migrated from the beginning and the files of the aborted run are added to git as well.
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @param journal
+	 *            the journal of the completed stages
+	 * @return the index of the first pending stage or the number of stages if the project is
+	 *         already migrated
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the written files
+	 */
+	private static int getFirstPendingStage(ProjectMigration migration, MigrationJournal journal)
+		throws IOException
+	{
+		String key = migration.getKey();
+		String writeHash = journal.getHash(key, WRITE_STAGE);
+		String currentHash = hashFiles(migration);
+		if (writeHash != null && journal.isCompleted(key, GIT_STAGE))
+		{
+			return writeHash.equals(currentHash) ? STAGES.size() : 0;
+		}
+		String plannedHash = writeHash == null ? journal.getHash(key, WRITE_INTENT) : writeHash;
+		if (plannedHash == null)
+		{
+			return 0;
+		}
+		migration.writeAborted = true;
+		if (plannedHash.equals(currentHash))
+		{
+			migration.filesWritten = true;
+			return STAGES.indexOf(WRITE_STAGE);
+		}
+		return 0;
+	}
+
+	/**
+	 * Computes the hash of the current content of the dependencies.gradle and the
+	 * libs.versions.toml file of the given project, where a missing file has an empty content
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @return the hash of the files
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	private static String hashFiles(ProjectMigration migration) throws IOException
+	{
+		Path dependenciesGradle = new File(migration.migrationInfo.getGradleDirectory(),
+			DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME).toPath();
+		Path libsVersionsToml = migration.getLibsVersionsToml().toPath();
+		return MigrationJournal.hash(readIfExists(dependenciesGradle),
+			readIfExists(libsVersionsToml));
+	}
+
+	/**
+	 * Reads the content of the given file if it exists
+	 *
+	 * @param path
+	 *            the file
+	 * @return the content of the file or an empty string if the file does not exist
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the file
+	 */
+	private static String readIfExists(Path path) throws IOException
+	{
+		return Files.exists(path) ? Files.readString(path, StandardCharsets.UTF_8) : "";
+	}
+
+	/**
+	 * The render stage, plans the new content of the dependencies.gradle and the
+	 * libs.versions.toml file with {@link MigrateToTomlVersions}. A project without any dependency
+	 * coordinates is already migrated and gets an empty plan.
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the files
+	 */
+	private void render(ProjectMigration migration) throws IOException
+	{
+		migration.migrationPlan = MigrateToTomlVersions.newMigrationPlan(migration.migrationInfo,
+			migration.dependencyInfos, GradleProjectInfo.builder().build());
+	}
+
+	/**
+	 * The write stage, commits the planned writes of the render stage and copies the
+	 * version-catalog-update.gradle file and the run configurations. The copied files are not
+	 * added to git here, but collected for the git-stage stage. If a journal is kept and the plan
+	 * is not empty, a {@link #WRITE_INTENT} record with the hash of the planned contents is
+	 * flushed first. The {@link MigrationPlan} writes the files through temporary files and
+	 * atomic moves, where the libs.versions.toml file is written before the dependencies.gradle
+	 * file, so the dependencies never reference a catalog that is not written yet.
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @param journal
+	 *            the journal of the completed stages or null if no journal is kept
+	 * @throws IOException
+	 *             if an I/O error occurs during writing the files
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the writes
+	 */
+	private void write(ProjectMigration migration, MigrationJournal journal)
+		throws IOException, InterruptedException
+	{
+		File gradleDirectory = migration.migrationInfo.getGradleDirectory();
+		File dependenciesGradle = new File(gradleDirectory,
+			DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+		File libsVersionsToml = migration.getLibsVersionsToml();
+		MigrationPlan migrationPlan = migration.migrationPlan;
+		if (!migration.filesWritten && migrationPlan != null && !migrationPlan.isEmpty())
+		{
+			if (journal != null)
+			{
+				journal.record(migration.getKey(), WRITE_INTENT,
+					MigrationJournal.hash(getPlannedContent(migrationPlan, dependenciesGradle),
+						getPlannedContent(migrationPlan, libsVersionsToml)));
+				journal.sync();
+			}
+			migrationPlan.commit().forEach(file -> addChangedFile(migration, file));
+		}
+		if (migration.writeAborted)
+		{
+			// the files of an aborted run may already have the new content, but are not staged
+			addChangedFile(migration, dependenciesGradle);
+			addChangedFile(migration, libsVersionsToml);
+		}
+		ProjectTomlStructureInfo info = migration.info;
+		if (info.getGradleDirectory() != null)
+		{
+			String fileName = DependenciesInfo.VERSION_CATALOG_UPDATE_GRADLE_FILENAME;
+			Path source = new File(info.getGradleDirectory(), fileName).toPath();
+			Path target = new File(gradleDirectory, fileName).toPath();
+			if (!Files.exists(target) || Files.mismatch(source, target) != -1)
+			{
+				Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+				addChangedFile(migration, target.toFile());
+			}
+			else if (migration.writeAborted)
+			{
+				addChangedFile(migration, target.toFile());
+			}
+		}
+		File sourceProjectDirectory = new File(
+			info.getSourceProjectDirNamePrefix() + info.getSourceProjectName());
+		if (!sourceProjectDirectory.getCanonicalFile()
+			.equals(migration.migrationInfo.getProjectDirectory().getCanonicalFile()))
+		{
+			GradleRunConfigurationsCopier
+				.copyOnlyRunConfigurationFiles(info.getSourceProjectName(),
+					info.getTargetProjectName(), info.getSourceProjectDirNamePrefix(),
+					info.getTargetProjectDirNamePrefix())
+				.forEach(file -> addChangedFile(migration, file.toFile()));
+		}
+	}
+
+	/**
+	 * The git-stage stage, adds the changed files to git
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @throws IOException
+	 *             if an I/O error occurs during the execution of git
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for git
+	 */
+	private void stage(ProjectMigration migration) throws IOException, InterruptedException
+	{
+		if (!gitStage || migration.changedFiles.isEmpty())
+		{
+			return;
+		}
+		List<String> files = ListFactory.newArrayList();
+		migration.changedFiles.forEach(file -> files.add(file.getAbsolutePath()));
+		GitExtensions.addFilesToGit(files, migration.migrationInfo.getProjectDirectory());
+	}
+
+	/**
+	 * Gets the content that the given file has after the given plan is committed, which is the
+	 * planned content if the file is written and otherwise its current content
+	 *
+	 * @param migrationPlan
+	 *            the plan
+	 * @param file
+	 *            the file
+	 * @return the content of the file after the commit, where a missing file has an empty content
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the file
+	 */
+	private static String getPlannedContent(MigrationPlan migrationPlan, File file)
+		throws IOException
+	{
+		String path = file.getAbsolutePath();
+		for (MigrationOperation operation : migrationPlan.getOperations())
+		{
+			if (operation.getType() == MigrationOperation.Type.WRITE
+				&& path.equals(operation.getPath()))
+			{
+				return operation.getContent();
+			}
+		}
+		return readIfExists(file.toPath());
+	}
+
+	/**
+	 * Adds the given file to the changed files of the given project if it exists and is not
+	 * already added
+	 *
+	 * @param migration
+	 *            the migration of the project
+	 * @param file
+	 *            the file
+	 */
+	private static void addChangedFile(ProjectMigration migration, File file)
+	{
+		if (file.exists() && !migration.changedFiles.contains(file))
+		{
+			migration.changedFiles.add(file);
+		}
+	}
+
+	/**
+	 * The task of a stage
+	 */
+	@FunctionalInterface
+	private interface StageTask
+	{
+		/**
+		 * Runs the task for the given project
+		 *
+		 * @param migration
+		 *            the migration of the project
+		 * @throws Exception
+		 *             if the task fails
+		 */
+		void run(ProjectMigration migration) throws Exception;
+	}
+
+	/**
+	 * The state of the migration of a single project while it runs through the stages. Each
+	 * instance is only processed by one worker at a time and handed over through the queues.
+	 */
+	private static final class ProjectMigration
+	{
+		/** The position of the project in the input. */
+		final int index;
+
+		/** The information about the source and target project structure. */
+		final ProjectTomlStructureInfo info;
+
+		/** The files that were changed. */
+		final List<File> changedFiles = ListFactory.newArrayList();
+
+		/** The directories of the target project. */
+		MigrationInfo migrationInfo;
+
+		/** The parsed dependencies. */
+		List<DependencyInfo> dependencyInfos;
+
+		/** The planned writes of the dependencies.gradle and the libs.versions.toml file. */
+		MigrationPlan migrationPlan;
+
+		/** The index of the first stage that runs, greater than zero for resumed projects. */
+		int firstStage;
+
+		/**
+		 * Flag that indicates if a previous run was aborted after it started to write the files,
+		 * so they may be written but not added to git.
+		 */
+		boolean writeAborted;
+
+		/** Flag that indicates if the aborted run already wrote all planned files. */
+		boolean filesWritten;
+
+		/** The name of the failed stage. */
+		String failedStage;
+
+		/** The cause of the failure. */
+		Throwable failure;
+
+		/**
+		 * Instantiates a new {@link ProjectMigration}
+		 *
+		 * @param index
+		 *            the position of the project in the input
+		 * @param info
+		 *            the information about the source and target project structure
+		 */
+		ProjectMigration(int index, ProjectTomlStructureInfo info)
+		{
+			this.index = index;
+			this.info = info;
+		}
+
+		/**
+		 * Gets the libs.versions.toml file of the target project
+		 *
+		 * @return the libs.versions.toml file
+		 */
+		File getLibsVersionsToml()
+		{
+			return new File(migrationInfo.getGradleDirectory(),
+				DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME);
+		}
+
+		/**
+		 * Gets the key of the project in the journal, which is the absolute path of the target
+		 * project directory
+		 *
+		 * @return the key of the project
+		 */
+		String getKey()
+		{
+			return migrationInfo.getProjectDirectory().getAbsolutePath();
+		}
+
+		/**
+		 * Checks if the given stage is skipped, because the project was resumed after it
+		 *
+		 * @param stage
+		 *            the name of the stage
+		 * @return true if the given stage is skipped, otherwise false
+		 */
+		boolean skips(String stage)
+		{
+			return STAGES.indexOf(stage) < firstStage;
+		}
+
+		/**
+		 * Marks this migration as failed
+		 *
+		 * @param stage
+		 *            the name of the failed stage
+		 * @param cause
+		 *            the cause of the failure
+		 */
+		void fail(String stage, Throwable cause)
+		{
+			this.failedStage = stage;
+			this.failure = cause;
+		}
+
+		/**
+		 * Creates the result of this migration
+		 *
+		 * @return the result
+		 */
+		ProjectMigrationResult toResult()
+		{
+			GradleProjectInfo gradleProjectInfo = dependencyInfos == null
+				? null
+				: GradleProjectInfo.builder().dependencyInfos(dependencyInfos)
+					.migrationInfo(migrationInfo).libsVersionsTomlFile(getLibsVersionsToml())
+					.build();
+			return ProjectMigrationResult.builder().projectTomlStructureInfo(info)
+				.gradleProjectInfo(gradleProjectInfo).changedFiles(List.copyOf(changedFiles))
+				.failedStage(failedStage).failure(failure).skipped(firstStage == STAGES.size())
+				.build();
+		}
+	}
+}
@@ -0,0 +1,587 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.gradle.migration.extension.GitExtensions;
+import io.github.astrapi69.gradle.migration.info.MigrationOperation;
+import lombok.NonNull;
+
+/**
+ * The class {@link MigrationPlan} collects all writes, moves, deletes and git stages of a migration
+ * as in-memory {@link MigrationOperation} objects, so a migration can be planned without any write
+ * I/O. A plan can be inspected, serialized and merged with the plans of other projects, and is
+ * then committed in one batch.<br>
+ * <br>
+ * The commit writes the contents of all planned writes into temporary files next to their target
+ * files in parallel, flushes all temporary files to the storage device in one phase and only then
+ * applies the operations in the planned order, where every write is an atomic move of its
+ * temporary file. If a temporary file can not be written or flushed, no operation is applied at
+ * all. An instance of this class is not thread safe.
+ */
+public final class MigrationPlan implements Serializable
+{
+
+	/** The serial version UID. */
+	private static final long serialVersionUID = 1L;
+
+	/** The default number of files that are written or flushed concurrently during a commit. */
+	public static final int DEFAULT_IO_PARALLELISM = 32;
+
+	/** The planned operations in the order they are applied. */
+	private final List<MigrationOperation> operations;
+
+	/**
+	 * Instantiates a new empty {@link MigrationPlan}
+	 */
+	private MigrationPlan()
+	{
+		this.operations = ListFactory.newArrayList();
+	}
+
+	/**
+	 * Factory method for create a new empty {@link MigrationPlan}
+	 *
+	 * @return the new {@link MigrationPlan}
+	 */
+	public static MigrationPlan of()
+	{
+		return new MigrationPlan();
+	}
+
+	/**
+	 * Plans the write of the given content into the given file. An existing file is replaced.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param content
+	 *            the new content of the file
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan write(@NonNull File file, @NonNull CharSequence content)
+	{
+		return add(MigrationOperation.builder().type(MigrationOperation.Type.WRITE)
+			.path(file.getAbsolutePath()).content(content.toString()).build());
+	}
+
+	/**
+	 * Plans the move of the given file to the given target file. An existing target file is
+	 * replaced.
+	 *
+	 * @param file
+	 *            the file to move
+	 * @param targetFile
+	 *            the target file
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan move(@NonNull File file, @NonNull File targetFile)
+	{
+		return add(MigrationOperation.builder().type(MigrationOperation.Type.MOVE)
+			.path(file.getAbsolutePath()).targetPath(targetFile.getAbsolutePath()).build());
+	}
+
+	/**
+	 * Plans the delete of the given file if it exists
+	 *
+	 * @param file
+	 *            the file to delete
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan delete(@NonNull File file)
+	{
+		return add(MigrationOperation.builder().type(MigrationOperation.Type.DELETE)
+			.path(file.getAbsolutePath()).build());
+	}
+
+	/**
+	 * Plans to add the given files to the git index of the given repository directory. All git
+	 * stages of the same repository are executed with a single git process after all files are
+	 * written.
+	 *
+	 * @param repositoryDirectory
+	 *            the directory of the git repository
+	 * @param files
+	 *            the files to add
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan gitStage(@NonNull File repositoryDirectory, @NonNull List<File> files)
+	{
+		List<String> paths = ListFactory.newArrayList();
+		files.forEach(file -> paths.add(file.getAbsolutePath()));
+		return add(MigrationOperation.builder().type(MigrationOperation.Type.GIT_STAGE)
+			.path(repositoryDirectory.getAbsolutePath()).files(paths).build());
+	}
+
+	/**
+	 * Appends the given operation to this plan
+	 *
+	 * @param operation
+	 *            the operation to append
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan add(@NonNull MigrationOperation operation)
+	{
+		operations.add(operation);
+		return this;
+	}
+
+	/**
+	 * Appends all operations of the given plan to this plan, so the plans of several projects can
+	 * be committed in one batch
+	 *
+	 * @param migrationPlan
+	 *            the plan to append
+	 * @return this {@link MigrationPlan} object
+	 */
+	public MigrationPlan addAll(@NonNull MigrationPlan migrationPlan)
+	{
+		operations.addAll(migrationPlan.operations);
+		return this;
+	}
+
+	/**
+	 * Gets the planned operations in the order they are applied
+	 *
+	 * @return an unmodifiable list with the planned operations
+	 */
+	public List<MigrationOperation> getOperations()
+	{
+		return Collections.unmodifiableList(operations);
+	}
+
+	/**
+	 * Checks if no operation is planned
+	 *
+	 * @return true if no operation is planned, otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return operations.isEmpty();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+		operations.forEach(operation -> sb.append(operation).append('\n'));
+		return sb.toString();
+	}
+
+	/**
+	 * Commits this plan with the default parallelism
+	 *
+	 * @return the written and moved files in the planned order
+	 * @throws IOException
+	 *             if an I/O error occurs during the commit
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the writes or for git
+	 */
+	public List<File> commit() throws IOException, InterruptedException
+	{
+		return commit(DEFAULT_IO_PARALLELISM);
+	}
+
+	/**
+	 * Commits this plan. The temporary files of all writes are written in parallel and flushed in
+	 * a single phase before the operations are applied in the planned order. At last the parent
+	 * directories of the changed files are flushed and the planned git stages are executed.
+	 *
+	 * @param ioParallelism
+	 *            the number of files that are written or flushed concurrently
+	 * @return the written and moved files in the planned order
+	 * @throws IOException
+	 *             if an I/O error occurs during the commit
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the writes or for git
+	 */
+	public List<File> commit(int ioParallelism) throws IOException, InterruptedException
+	{
+		if (ioParallelism < 1)
+		{
+			throw new IllegalArgumentException("The parallelism has to be positive");
+		}
+		Path[] temporaryFiles = new Path[operations.size()];
+		try
+		{
+			List<Callable<Void>> writes = ListFactory.newArrayList();
+			List<Callable<Void>> flushes = ListFactory.newArrayList();
+			for (int i = 0; i < operations.size(); i++)
+			{
+				MigrationOperation operation = operations.get(i);
+				if (operation.getType() == MigrationOperation.Type.WRITE)
+				{
+					final int index = i;
+					writes.add(() -> {
+						temporaryFiles[index] = writeTemporaryFile(operation);
+						return null;
+					});
+					flushes.add(() -> {
+						flush(temporaryFiles[index], false);
+						return null;
+					});
+				}
+			}
+			invokeAll(writes, ioParallelism);
+			invokeAll(flushes, ioParallelism);
+			return apply(temporaryFiles, ioParallelism);
+		}
+		finally
+		{
+			for (Path temporaryFile : temporaryFiles)
+			{
+				if (temporaryFile != null)
+				{
+					Files.deleteIfExists(temporaryFile);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies the planned operations in their order with the already flushed temporary files of
+	 * the writes
+	 *
+	 * @param temporaryFiles
+	 *            the temporary files of the writes indexed like the operations, the moved files are
+	 *            set to null
+	 * @param ioParallelism
+	 *            the number of directories that are flushed concurrently
+	 * @return the written and moved files in the planned order
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted
+	 */
+	private List<File> apply(Path[] temporaryFiles, int ioParallelism)
+		throws IOException, InterruptedException
+	{
+		List<File> changedFiles = ListFactory.newArrayList();
+		Set<Path> changedDirectories = SetFactory.newLinkedHashSet();
+		Map<String, List<String>> gitStages = MapFactory.newLinkedHashMap();
+		for (int i = 0; i < operations.size(); i++)
+		{
+			MigrationOperation operation = operations.get(i);
+			Path path = Path.of(operation.getPath());
+			switch (operation.getType())
+			{
+				case WRITE :
+					move(temporaryFiles[i], path);
+					temporaryFiles[i] = null;
+					changedFiles.add(path.toFile());
+					changedDirectories.add(path.getParent());
+					break;
+				case MOVE :
+					Path targetPath = Path.of(operation.getTargetPath());
+					Files.createDirectories(targetPath.getParent());
+					move(path, targetPath);
+					changedFiles.add(targetPath.toFile());
+					changedDirectories.add(path.getParent());
+					changedDirectories.add(targetPath.getParent());
+					break;
+				case DELETE :
+					if (Files.deleteIfExists(path))
+					{
+						changedDirectories.add(path.getParent());
+					}
+					break;
+				case GIT_STAGE :
+					gitStages
+						.computeIfAbsent(operation.getPath(), key -> ListFactory.newArrayList())
+						.addAll(operation.getFiles());
+					break;
+			}
+		}
+		List<Callable<Void>> flushes = ListFactory.newArrayList();
+		changedDirectories.forEach(directory -> flushes.add(() -> {
+			flush(directory, true);
+			return null;
+		}));
+		invokeAll(flushes, ioParallelism);
+		for (Map.Entry<String, List<String>> gitStage : gitStages.entrySet())
+		{
+			GitExtensions.addFilesToGit(gitStage.getValue(), new File(gitStage.getKey()));
+		}
+		return changedFiles;
+	}
+
+	/**
+	 * Writes the content of the given write operation into a new temporary file in the directory
+	 * of its target file. The temporary file gets the permissions of an existing target file,
+	 * otherwise the default permissions of a new file, so the move does not change them.
+	 *
+	 * @param operation
+	 *            the write operation
+	 * @return the temporary file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static Path writeTemporaryFile(MigrationOperation operation) throws IOException
+	{
+		Path path = Path.of(operation.getPath());
+		Path directory = path.getParent();
+		Files.createDirectories(directory);
+		Path temporaryFile = newTemporaryFile(directory, "." + path.getFileName());
+		try
+		{
+			if (Files.exists(path))
+			{
+				copyPermissions(path, temporaryFile);
+			}
+			Files.writeString(temporaryFile, operation.getContent(), StandardCharsets.UTF_8);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(temporaryFile);
+			throw e;
+		}
+		return temporaryFile;
+	}
+
+	/**
+	 * Creates a new empty temporary file in the given directory. Unlike
+	 * {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute...)}
+	 * the file is created with the default permissions of a new file and not only readable by its
+	 * owner.
+	 *
+	 * @param directory
+	 *            the directory
+	 * @param prefix
+	 *            the prefix of the file name
+	 * @return the new temporary file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static Path newTemporaryFile(Path directory, String prefix) throws IOException
+	{
+		while (true)
+		{
+			Path temporaryFile = directory.resolve(prefix + "."
+				+ Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try
+			{
+				return Files.createFile(temporaryFile);
+			}
+			catch (FileAlreadyExistsException e)
+			{
+				// another name is tried
+			}
+		}
+	}
+
+	/**
+	 * Copies the POSIX permissions of the given source file to the given target file if the file
+	 * system supports them
+	 *
+	 * @param sourceFile
+	 *            the source file
+	 * @param targetFile
+	 *            the target file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static void copyPermissions(Path sourceFile, Path targetFile) throws IOException
+	{
+		try
+		{
+			Files.setPosixFilePermissions(targetFile, Files.getPosixFilePermissions(sourceFile));
+		}
+		catch (UnsupportedOperationException e)
+		{
+			// the file system has no POSIX permissions
+		}
+	}
+
+	/**
+	 * Flushes the given file or directory to the storage device
+	 *
+	 * @param path
+	 *            the file or directory to flush
+	 * @param directory
+	 *            flag that indicates if the given path is a directory, which can not be flushed on
+	 *            every platform, so a failure is ignored
+	 * @throws IOException
+	 *             if the given file could not be flushed
+	 */
+	private static void flush(Path path, boolean directory) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(path,
+			directory ? StandardOpenOption.READ : StandardOpenOption.WRITE))
+		{
+			channel.force(true);
+		}
+		catch (IOException e)
+		{
+			if (!directory)
+			{
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Moves the given file atomically to the given target file if the file system supports it
+	 *
+	 * @param source
+	 *            the file to move
+	 * @param target
+	 *            the target file
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static void move(Path source, Path target) throws IOException
+	{
+		try
+		{
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Executes the given tasks on virtual threads, where at most the given number of tasks run
+	 * concurrently, and waits until all tasks are done
+	 *
+	 * @param tasks
+	 *            the tasks to execute
+	 * @param parallelism
+	 *            the maximum number of concurrently running tasks
+	 * @throws IOException
+	 *             the first I/O error of the tasks, the errors of the other tasks are suppressed
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the tasks
+	 */
+	private static void invokeAll(List<Callable<Void>> tasks, int parallelism)
+		throws IOException, InterruptedException
+	{
+		if (tasks.isEmpty())
+		{
+			return;
+		}
+		Semaphore permits = new Semaphore(parallelism);
+		List<Callable<Void>> boundedTasks = ListFactory.newArrayList();
+		for (Callable<Void> task : tasks)
+		{
+			boundedTasks.add(() -> {
+				permits.acquire();
+				try
+				{
+					return task.call();
+				}
+				finally
+				{
+					permits.release();
+				}
+			});
+		}
+		List<Future<Void>> futures;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			futures = executor.invokeAll(boundedTasks);
+		}
+		IOException failure = null;
+		for (Future<Void> future : futures)
+		{
+			try
+			{
+				future.get();
+			}
+			catch (ExecutionException e)
+			{
+				IOException exception = toIOException(e.getCause());
+				if (failure == null)
+				{
+					failure = exception;
+				}
+				else
+				{
+					failure.addSuppressed(exception);
+				}
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	/**
+	 * Converts the given failure of a task to an {@link IOException}
+	 *
+	 * @param cause
+	 *            the failure of the task
+	 * @return the {@link IOException}
+	 */
+	private static IOException toIOException(Throwable cause)
+	{
+		if (cause instanceof IOException exception)
+		{
+			return exception;
+		}
+		if (cause instanceof UncheckedIOException exception)
+		{
+			return exception.getCause();
+		}
+		if (cause instanceof InterruptedException)
+		{
+			Thread.currentThread().interrupt();
+			return new InterruptedIOException(cause.getMessage());
+		}
+		return new IOException(cause);
+	}
+}
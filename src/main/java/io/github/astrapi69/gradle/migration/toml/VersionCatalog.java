@@ -0,0 +1,423 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.file.read.ReadFileExtensions;
+import io.github.astrapi69.gradle.migration.info.VersionCatalogEntry;
+
+/**
+ * The class {@link VersionCatalog} is the in-memory model of a libs.versions.toml file with the
+ * tables '[versions]', '[libraries]', '[bundles]' and '[plugins]'. The entries of each table are
+ * kept in the order of the file. Additionally the catalog maintains indexes from the alias of a
+ * library to its module, from a module to the alias of its library and from a version alias to
+ * the libraries that reference it, so queries do not have to scan the tables.
+ */
+public final class VersionCatalog
+{
+
+	/** The name of the versions table. */
+	public static final String VERSIONS = "versions";
+
+	/** The name of the libraries table. */
+	public static final String LIBRARIES = "libraries";
+
+	/** The name of the bundles table. */
+	public static final String BUNDLES = "bundles";
+
+	/** The name of the plugins table. */
+	public static final String PLUGINS = "plugins";
+
+	/** The parsed content or null if the catalog was not parsed. */
+	private final String content;
+
+	/** The tables of this catalog in the order versions, libraries, bundles and plugins. */
+	private final Map<String, Map<String, VersionCatalogEntry>> tables;
+
+	/** The offsets after the header lines of the tables that are declared in the content. */
+	private final Map<String, Integer> tableStarts = MapFactory.newLinkedHashMap();
+
+	/** The index from a module to the alias of its first library. */
+	private final Map<String, String> moduleToAlias = MapFactory.newLinkedHashMap();
+
+	/** The index from a version alias to the libraries that reference it. */
+	private final Map<String, List<VersionCatalogEntry>> librariesByVersionRef = MapFactory
+		.newLinkedHashMap();
+
+	/**
+	 * Instantiates a new empty {@link VersionCatalog}
+	 *
+	 * @param content
+	 *            the parsed content or null if the catalog was not parsed
+	 */
+	VersionCatalog(String content)
+	{
+		this.content = content;
+		this.tables = MapFactory.newLinkedHashMap();
+		tables.put(VERSIONS, MapFactory.newLinkedHashMap());
+		tables.put(LIBRARIES, MapFactory.newLinkedHashMap());
+		tables.put(BUNDLES, MapFactory.newLinkedHashMap());
+		tables.put(PLUGINS, MapFactory.newLinkedHashMap());
+	}
+
+	/**
+	 * Factory method for create a new empty {@link VersionCatalog}
+	 *
+	 * @return the new empty {@link VersionCatalog}
+	 */
+	public static VersionCatalog empty()
+	{
+		return new VersionCatalog(null);
+	}
+
+	/**
+	 * Factory method for create a new {@link VersionCatalog} from the given content of a
+	 * libs.versions.toml file
+	 *
+	 * @param content
+	 *            the content of the libs.versions.toml file
+	 * @return the new {@link VersionCatalog}
+	 * @throws IllegalArgumentException
+	 *             if the content is not a valid version catalog
+	 */
+	public static VersionCatalog of(CharSequence content)
+	{
+		return VersionCatalogParser.parse(content);
+	}
+
+	/**
+	 * Factory method for create a new {@link VersionCatalog} from the given libs.versions.toml
+	 * file
+	 *
+	 * @param libsVersionsToml
+	 *            the libs.versions.toml file
+	 * @return the new {@link VersionCatalog}
+	 * @throws IOException
+	 *             if an I/O error occurs during reading the file
+	 * @throws IllegalArgumentException
+	 *             if the content is not a valid version catalog
+	 */
+	public static VersionCatalog of(File libsVersionsToml) throws IOException
+	{
+		return of(ReadFileExtensions.fromFile(libsVersionsToml));
+	}
+
+	/**
+	 * Gets the parsed content of this catalog
+	 *
+	 * @return the parsed content or null if the catalog was not parsed
+	 */
+	public String getContent()
+	{
+		return content;
+	}
+
+	/**
+	 * Gets the offset after the header line of the given table in the parsed content
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @return the offset after the header line or -1 if the table is not declared in the content
+	 */
+	public int getTableStart(String table)
+	{
+		// validates the name of the table
+		table(table);
+		return tableStarts.getOrDefault(table, -1);
+	}
+
+	/**
+	 * Sets the offset after the header line of the given table in the parsed content
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @param offset
+	 *            the offset after the header line
+	 */
+	void setTableStart(String table, int offset)
+	{
+		tableStarts.put(table, offset);
+	}
+
+	/**
+	 * Gets the entries of the given table in the order of the catalog
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @return an unmodifiable view of the entries of the given table by their alias
+	 * @throws IllegalArgumentException
+	 *             if the given table is not a table of a version catalog
+	 */
+	public Map<String, VersionCatalogEntry> getTable(String table)
+	{
+		return Collections.unmodifiableMap(table(table));
+	}
+
+	/**
+	 * Gets the entries of the '[versions]' table
+	 *
+	 * @return an unmodifiable view of the versions by their alias
+	 */
+	public Map<String, VersionCatalogEntry> getVersions()
+	{
+		return getTable(VERSIONS);
+	}
+
+	/**
+	 * Gets the entries of the '[libraries]' table
+	 *
+	 * @return an unmodifiable view of the libraries by their alias
+	 */
+	public Map<String, VersionCatalogEntry> getLibraries()
+	{
+		return getTable(LIBRARIES);
+	}
+
+	/**
+	 * Gets the entries of the '[bundles]' table
+	 *
+	 * @return an unmodifiable view of the bundles by their alias
+	 */
+	public Map<String, VersionCatalogEntry> getBundles()
+	{
+		return getTable(BUNDLES);
+	}
+
+	/**
+	 * Gets the entries of the '[plugins]' table
+	 *
+	 * @return an unmodifiable view of the plugins by their alias
+	 */
+	public Map<String, VersionCatalogEntry> getPlugins()
+	{
+		return getTable(PLUGINS);
+	}
+
+	/**
+	 * Gets the entry with the given alias from the given table
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @param alias
+	 *            the alias of the entry
+	 * @return the entry or null if the table contains no entry with the given alias
+	 */
+	public VersionCatalogEntry get(String table, String alias)
+	{
+		return table(table).get(alias);
+	}
+
+	/**
+	 * Gets the version that is declared with the given alias in the '[versions]' table
+	 *
+	 * @param versionAlias
+	 *            the alias of the version
+	 * @return the version or null if there is no version with the given alias
+	 */
+	public String getVersion(String versionAlias)
+	{
+		VersionCatalogEntry entry = table(VERSIONS).get(versionAlias);
+		return entry == null ? null : entry.getVersion();
+	}
+
+	/**
+	 * Gets the module of the library with the given alias
+	 *
+	 * @param libraryAlias
+	 *            the alias of the library
+	 * @return the module in the form 'group:name' or null if there is no library with the given
+	 *         alias
+	 */
+	public String getModule(String libraryAlias)
+	{
+		VersionCatalogEntry entry = table(LIBRARIES).get(libraryAlias);
+		return entry == null ? null : entry.getModule();
+	}
+
+	/**
+	 * Gets the alias of the first library with the given module
+	 *
+	 * @param module
+	 *            the module in the form 'group:name'
+	 * @return the alias or null if there is no library with the given module
+	 */
+	public String getLibraryAlias(String module)
+	{
+		return moduleToAlias.get(module);
+	}
+
+	/**
+	 * Gets the libraries that reference the version with the given alias
+	 *
+	 * @param versionAlias
+	 *            the alias of the version
+	 * @return an unmodifiable list of the libraries in the order of the catalog
+	 */
+	public List<VersionCatalogEntry> getLibrariesByVersionRef(String versionAlias)
+	{
+		List<VersionCatalogEntry> libraries = librariesByVersionRef.get(versionAlias);
+		return libraries == null ? List.of() : Collections.unmodifiableList(libraries);
+	}
+
+	/**
+	 * Resolves the version of the given library or plugin entry, either the directly declared
+	 * version or the version of the referenced version entry
+	 *
+	 * @param entry
+	 *            the library or plugin entry
+	 * @return the resolved version or null if the entry has no version
+	 */
+	public String resolveVersion(VersionCatalogEntry entry)
+	{
+		if (entry.getVersion() != null)
+		{
+			return entry.getVersion();
+		}
+		return entry.getVersionRef() == null ? null : getVersion(entry.getVersionRef());
+	}
+
+	/**
+	 * Puts the given entry into the given table and updates the indexes. An existing entry with
+	 * the same alias is replaced at its position, otherwise the entry is appended to the table.
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @param entry
+	 *            the entry to put
+	 * @return the replaced entry or null if the table contained no entry with the same alias
+	 */
+	public VersionCatalogEntry put(String table, VersionCatalogEntry entry)
+	{
+		VersionCatalogEntry previous = table(table).put(entry.getAlias(), entry);
+		if (LIBRARIES.equals(table))
+		{
+			if (previous != null)
+			{
+				unindex(previous);
+			}
+			index(entry);
+		}
+		return previous;
+	}
+
+	/**
+	 * Removes the entry with the given alias from the given table and updates the indexes
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @param alias
+	 *            the alias of the entry
+	 * @return the removed entry or null if the table contained no entry with the given alias
+	 */
+	public VersionCatalogEntry remove(String table, String alias)
+	{
+		VersionCatalogEntry removed = table(table).remove(alias);
+		if (removed != null && LIBRARIES.equals(table))
+		{
+			unindex(removed);
+		}
+		return removed;
+	}
+
+	/**
+	 * Gets the modifiable map of the given table
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @return the modifiable map of the given table
+	 */
+	private Map<String, VersionCatalogEntry> table(String table)
+	{
+		Map<String, VersionCatalogEntry> entries = tables.get(table);
+		if (entries == null)
+		{
+			throw new IllegalArgumentException("Unknown version catalog table: " + table);
+		}
+		return entries;
+	}
+
+	/**
+	 * Adds the given library to the indexes
+	 *
+	 * @param library
+	 *            the library
+	 */
+	private void index(VersionCatalogEntry library)
+	{
+		if (library.getModule() != null)
+		{
+			moduleToAlias.putIfAbsent(library.getModule(), library.getAlias());
+		}
+		if (library.getVersionRef() != null)
+		{
+			librariesByVersionRef.computeIfAbsent(library.getVersionRef(), key -> new ArrayList<>())
+				.add(library);
+		}
+	}
+
+	/**
+	 * Removes the given library from the indexes
+	 *
+	 * @param library
+	 *            the library
+	 */
+	private void unindex(VersionCatalogEntry library)
+	{
+		if (library.getModule() != null
+			&& library.getAlias().equals(moduleToAlias.get(library.getModule())))
+		{
+			moduleToAlias.remove(library.getModule());
+			// another library with the same module takes over the index entry
+			for (VersionCatalogEntry other : table(LIBRARIES).values())
+			{
+				if (library.getModule().equals(other.getModule()))
+				{
+					moduleToAlias.put(other.getModule(), other.getAlias());
+					break;
+				}
+			}
+		}
+		if (library.getVersionRef() != null)
+		{
+			List<VersionCatalogEntry> libraries = librariesByVersionRef
+				.get(library.getVersionRef());
+			if (libraries != null)
+			{
+				libraries.remove(library);
+				if (libraries.isEmpty())
+				{
+					librariesByVersionRef.remove(library.getVersionRef());
+				}
+			}
+		}
+	}
+}
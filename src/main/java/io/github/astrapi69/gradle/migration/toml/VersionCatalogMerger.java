@@ -0,0 +1,460 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.file.write.StoreFileExtensions;
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+import io.github.astrapi69.gradle.migration.info.MergedVersionCatalog;
+import io.github.astrapi69.gradle.migration.info.VersionCatalogEntry;
+
+/**
+ * The class {@link VersionCatalogMerger} merges a list of {@link DependencyInfo} objects into an
+ * existing libs.versions.toml file. Only the minimal set of edits is applied to the content of the
+ * file:
+ * <ul>
+ * <li>a changed version of a known library is written into the version value it references or
+ * declares</li>
+ * <li>an unknown library is appended to the end of the '[libraries]' table, together with its
+ * version in the '[versions]' table. Its alias is the artifact id, or the group and the artifact
+ * id if the artifact id is already taken, with a numeric suffix if that alias is taken as
+ * well</li>
+ * </ul>
+ * All other text, including comments, formatting and the order of the entries, is kept and
+ * entries that have no matching dependency are never removed. If nothing changed the file is not
+ * written at all, so its modification time stays the same.
+ */
+public final class VersionCatalogMerger
+{
+
+	/** The pattern of a version entry with a plain string value. */
+	private static final Pattern PLAIN_VERSION = Pattern
+		.compile("^[^=\\n]+?=\\s*([\"'])([^\"'\\n]*)\\1$");
+
+	/** The pattern of a directly declared version in an inline table. */
+	private static final Pattern INLINE_VERSION = Pattern
+		.compile("\\bversion\\s*=\\s*([\"'])([^\"'\\n]*)\\1");
+
+	/** The pattern of a library in the string notation 'group:name:version'. */
+	private static final Pattern STRING_NOTATION_VERSION = Pattern
+		.compile("([\"'])[^:\"'\\n]+:[^:\"'\\n]+:([^\"'\\n]*)\\1");
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private VersionCatalogMerger()
+	{
+	}
+
+	/**
+	 * Merges the given {@link DependencyInfo} objects into the given libs.versions.toml file. The
+	 * file is only written if its content changed.
+	 *
+	 * @param libsVersionsToml
+	 *            the libs.versions.toml file
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return true if the file was changed, otherwise false
+	 * @throws IOException
+	 *             if an I/O error occurs during reading or writing the file
+	 */
+	public static boolean merge(File libsVersionsToml, List<DependencyInfo> dependencyInfos)
+		throws IOException
+	{
+		VersionCatalog catalog = VersionCatalog.of(libsVersionsToml);
+		String merged = merge(catalog, dependencyInfos);
+		if (merged.equals(catalog.getContent()))
+		{
+			return false;
+		}
+		StoreFileExtensions.toFile(libsVersionsToml, merged);
+		return true;
+	}
+
+	/**
+	 * Merges the given {@link DependencyInfo} objects into the content of the given parsed
+	 * {@link VersionCatalog}
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return the merged content, which is the unchanged content of the catalog if there are no
+	 *         edits
+	 */
+	public static String merge(VersionCatalog catalog, List<DependencyInfo> dependencyInfos)
+	{
+		return mergeCatalog(catalog, dependencyInfos).getContent();
+	}
+
+	/**
+	 * Merges the given {@link DependencyInfo} objects into the content of the given parsed
+	 * {@link VersionCatalog} and keeps the aliases of the libraries, which are either the existing
+	 * aliases of the catalog or the aliases of the appended libraries. The dependencies block has
+	 * to reference the libraries with these aliases, for instance with
+	 * {@link VersionCatalogRenderer#getDependenciesStructureAsString(List, Map)}.
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return the merged content and the aliases of the libraries with the module as key
+	 */
+	public static MergedVersionCatalog mergeCatalog(VersionCatalog catalog,
+		List<DependencyInfo> dependencyInfos)
+	{
+		String content = catalog.getContent();
+		if (content == null)
+		{
+			throw new IllegalArgumentException("The version catalog has no parsed content");
+		}
+		Map<String, String> libraryAliases = MapFactory.newLinkedHashMap();
+		List<Edit> edits = diff(catalog, dependencyInfos, libraryAliases);
+		MergedVersionCatalog mergedVersionCatalog = MergedVersionCatalog.builder()
+			.content(content).libraryAliases(libraryAliases).build();
+		if (edits.isEmpty())
+		{
+			return mergedVersionCatalog;
+		}
+		// a stable sort keeps appended entries in the order of the dependencies
+		edits.sort(Comparator.comparingInt(edit -> edit.start));
+		StringBuilder sb = new StringBuilder(content.length() + 64 * edits.size());
+		int position = 0;
+		for (Edit edit : edits)
+		{
+			sb.append(content, position, edit.start).append(edit.replacement);
+			position = edit.end;
+		}
+		mergedVersionCatalog.setContent(sb.append(content, position, content.length()).toString());
+		return mergedVersionCatalog;
+	}
+
+	/**
+	 * Computes the minimal edits to merge the given {@link DependencyInfo} objects into the given
+	 * catalog
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param libraryAliases
+	 *            the map to put the alias of every merged library into
+	 * @return the edits in the order of their creation
+	 */
+	private static List<Edit> diff(VersionCatalog catalog, List<DependencyInfo> dependencyInfos,
+		Map<String, String> libraryAliases)
+	{
+		String content = catalog.getContent();
+		String lineSeparator = content.contains("\r\n") ? "\r\n" : "\n";
+		List<Edit> edits = ListFactory.newArrayList();
+		Set<String> modules = SetFactory.newLinkedHashSet();
+		Set<String> updatedVersions = SetFactory.newLinkedHashSet();
+		StringBuilder newVersions = new StringBuilder();
+		StringBuilder newLibraries = new StringBuilder();
+		Set<String> newVersionAliases = SetFactory.newLinkedHashSet();
+		Set<String> newLibraryAliases = SetFactory.newLinkedHashSet();
+		for (DependencyInfo dependencyInfo : dependencyInfos)
+		{
+			String groupId = dependencyInfo.getGroupId();
+			String artifactId = dependencyInfo.getArtifactId();
+			String version = dependencyInfo.getVersion();
+			if (groupId == null || artifactId == null)
+			{
+				continue;
+			}
+			String module = groupId + ":" + artifactId;
+			if (!modules.add(module))
+			{
+				continue;
+			}
+			String libraryAlias = catalog.getLibraryAlias(module);
+			if (libraryAlias != null)
+			{
+				libraryAliases.put(module, libraryAlias);
+				if (version != null)
+				{
+					updateVersion(catalog, catalog.get(VersionCatalog.LIBRARIES, libraryAlias),
+						version, updatedVersions, edits);
+				}
+				continue;
+			}
+			// a new library, the aliases follow the VersionCatalogRenderer
+			libraryAlias = newLibraryAlias(catalog, groupId, artifactId, newLibraryAliases);
+			libraryAliases.put(module, libraryAlias);
+			newLibraries.append(libraryAlias).append(" = { module = \"").append(module)
+				.append('"');
+			if (version != null)
+			{
+				String versionAlias = artifactId + "-version";
+				String existingVersion = catalog.getVersion(versionAlias);
+				if (existingVersion == null && newVersionAliases.add(versionAlias))
+				{
+					newVersions.append(versionAlias).append(" = \"").append(escape(version))
+						.append('"').append(lineSeparator);
+					newLibraries.append(", version.ref = \"").append(versionAlias).append('"');
+				}
+				else if (version.equals(existingVersion))
+				{
+					newLibraries.append(", version.ref = \"").append(versionAlias).append('"');
+				}
+				else
+				{
+					// the version alias is already used with another version
+					newLibraries.append(", version = \"").append(escape(version)).append('"');
+				}
+			}
+			newLibraries.append(" }").append(lineSeparator);
+		}
+		appendToTable(catalog, VersionCatalog.VERSIONS, newVersions, lineSeparator, edits);
+		appendToTable(catalog, VersionCatalog.LIBRARIES, newLibraries, lineSeparator, edits);
+		return edits;
+	}
+
+	/**
+	 * Creates the alias of a new library that is neither declared in the given catalog nor used
+	 * by another new library. The alias is the artifact id, or the group and the artifact id if
+	 * the artifact id is taken, with a numeric suffix if that alias is taken as well.
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param groupId
+	 *            the group id of the library
+	 * @param artifactId
+	 *            the artifact id of the library
+	 * @param newLibraryAliases
+	 *            the aliases of the already appended libraries, the new alias is added to it
+	 * @return the alias of the new library
+	 */
+	private static String newLibraryAlias(VersionCatalog catalog, String groupId,
+		String artifactId, Set<String> newLibraryAliases)
+	{
+		String libraryAlias = artifactId;
+		if (isLibraryAliasTaken(catalog, libraryAlias, newLibraryAliases))
+		{
+			String groupAlias = groupId.replace('.', '-') + "-" + artifactId;
+			libraryAlias = groupAlias;
+			int suffix = 2;
+			while (isLibraryAliasTaken(catalog, libraryAlias, newLibraryAliases))
+			{
+				libraryAlias = groupAlias + "-" + suffix++;
+			}
+		}
+		newLibraryAliases.add(libraryAlias);
+		return libraryAlias;
+	}
+
+	/**
+	 * Checks if the given alias is declared in the '[libraries]' table of the given catalog or used
+	 * by one of the new libraries
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param libraryAlias
+	 *            the alias
+	 * @param newLibraryAliases
+	 *            the aliases of the already appended libraries
+	 * @return true if the alias is taken, otherwise false
+	 */
+	private static boolean isLibraryAliasTaken(VersionCatalog catalog, String libraryAlias,
+		Set<String> newLibraryAliases)
+	{
+		return catalog.get(VersionCatalog.LIBRARIES, libraryAlias) != null
+			|| newLibraryAliases.contains(libraryAlias);
+	}
+
+	/**
+	 * Creates an edit for the version of the given library if it differs from the given version
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param library
+	 *            the library entry
+	 * @param version
+	 *            the new version
+	 * @param updatedVersions
+	 *            the aliases of the already updated version entries
+	 * @param edits
+	 *            the edits to add to
+	 */
+	private static void updateVersion(VersionCatalog catalog, VersionCatalogEntry library,
+		String version, Set<String> updatedVersions, List<Edit> edits)
+	{
+		if (version.equals(catalog.resolveVersion(library)))
+		{
+			return;
+		}
+		String content = catalog.getContent();
+		if (library.getVersionRef() != null)
+		{
+			VersionCatalogEntry versionEntry = catalog.get(VersionCatalog.VERSIONS,
+				library.getVersionRef());
+			// a shared version is only updated once and rich versions are kept
+			if (versionEntry != null && updatedVersions.add(versionEntry.getAlias()))
+			{
+				replaceGroup(content, versionEntry, PLAIN_VERSION, version, edits);
+			}
+		}
+		else if (library.getVersion() != null
+			&& !replaceGroup(content, library, INLINE_VERSION, version, edits))
+		{
+			replaceGroup(content, library, STRING_NOTATION_VERSION, version, edits);
+		}
+	}
+
+	/**
+	 * Creates an edit that replaces the second group of the first match of the given pattern in
+	 * the text of the given entry
+	 *
+	 * @param content
+	 *            the content of the catalog
+	 * @param entry
+	 *            the entry
+	 * @param pattern
+	 *            the pattern with the quote as first and the version as second group
+	 * @param version
+	 *            the new version
+	 * @param edits
+	 *            the edits to add to
+	 * @return true if an edit was created, otherwise false
+	 */
+	private static boolean replaceGroup(String content, VersionCatalogEntry entry,
+		Pattern pattern, String version, List<Edit> edits)
+	{
+		Matcher matcher = pattern.matcher(content).region(entry.getStart(), entry.getEnd());
+		if (!matcher.find())
+		{
+			return false;
+		}
+		String replacement = "\"".equals(matcher.group(1)) ? escape(version) : version;
+		edits.add(new Edit(matcher.start(2), matcher.end(2), replacement));
+		return true;
+	}
+
+	/**
+	 * Creates an edit that appends the given lines to the end of the given table. If the table is
+	 * not declared, it is appended to the end of the content.
+	 *
+	 * @param catalog
+	 *            the parsed version catalog
+	 * @param table
+	 *            the name of the table
+	 * @param lines
+	 *            the lines to append
+	 * @param lineSeparator
+	 *            the line separator of the content
+	 * @param edits
+	 *            the edits to add to
+	 */
+	private static void appendToTable(VersionCatalog catalog, String table, CharSequence lines,
+		String lineSeparator, List<Edit> edits)
+	{
+		if (lines.isEmpty())
+		{
+			return;
+		}
+		String content = catalog.getContent();
+		int tableStart = catalog.getTableStart(table);
+		if (tableStart == -1)
+		{
+			String prefix = content.isEmpty() || content.endsWith("\n")
+				? lineSeparator
+				: lineSeparator + lineSeparator;
+			edits.add(new Edit(content.length(), content.length(),
+				prefix + "[" + table + "]" + lineSeparator + lines));
+			return;
+		}
+		int lastEnd = tableStart;
+		for (VersionCatalogEntry entry : catalog.getTable(table).values())
+		{
+			lastEnd = Math.max(lastEnd, entry.getEnd());
+		}
+		int position = lastEnd;
+		if (tableStart < lastEnd)
+		{
+			// skip the rest of the line of the last entry, which may contain a comment
+			int lineEnd = content.indexOf('\n', lastEnd);
+			position = lineEnd == -1 ? content.length() : lineEnd + 1;
+		}
+		String prefix = position == content.length() && !content.endsWith("\n")
+			? lineSeparator
+			: "";
+		edits.add(new Edit(position, position, prefix + lines));
+	}
+
+	/**
+	 * Escapes the given value for a basic string
+	 *
+	 * @param value
+	 *            the value
+	 * @return the escaped value
+	 */
+	private static String escape(String value)
+	{
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	/**
+	 * An edit that replaces a range of the content, an insertion if the range is empty
+	 */
+	private static final class Edit
+	{
+		/** The start offset of the replaced range. */
+		final int start;
+
+		/** The end offset of the replaced range (exclusive). */
+		final int end;
+
+		/** The replacement. */
+		final String replacement;
+
+		/**
+		 * Instantiates a new {@link Edit}
+		 *
+		 * @param start
+		 *            the start offset of the replaced range
+		 * @param end
+		 *            the end offset of the replaced range
+		 * @param replacement
+		 *            the replacement
+		 */
+		Edit(int start, int end, String replacement)
+		{
+			this.start = start;
+			this.end = end;
+			this.replacement = replacement;
+		}
+	}
+}
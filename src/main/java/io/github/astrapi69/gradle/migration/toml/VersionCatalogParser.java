@@ -0,0 +1,941 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.gradle.migration.info.VersionCatalogEntry;
+
+/**
+ * The class {@link VersionCatalogParser} is a dedicated single pass parser for the subset of TOML
+ * that is used by Gradle version catalogs. It supports comments, bare, quoted and dotted keys,
+ * basic and literal strings including their multi-line forms, inline tables, arrays and plain
+ * scalars. Other tables than '[versions]', '[libraries]', '[bundles]' and '[plugins]', for
+ * instance '[metadata]', are skipped. Arrays of tables are not supported, because they are not
+ * used by version catalogs.
+ */
+final class VersionCatalogParser
+{
+
+	/** The content to parse. */
+	private final String content;
+
+	/** The length of the content. */
+	private final int length;
+
+	/** The values of the catalog tables by alias in the order of the content. */
+	private final Map<String, Map<String, RawEntry>> rawTables = MapFactory.newLinkedHashMap();
+
+	/** The current offset. */
+	private int index;
+
+	/** The offsets after the header lines of the catalog tables. */
+	private final Map<String, Integer> tableStarts = MapFactory.newLinkedHashMap();
+
+	/** The values of the current table or null if the current table is skipped. */
+	private Map<String, RawEntry> currentTable;
+
+	/**
+	 * Instantiates a new {@link VersionCatalogParser}
+	 *
+	 * @param content
+	 *            the content to parse
+	 */
+	private VersionCatalogParser(String content)
+	{
+		this.content = content;
+		this.length = content.length();
+		rawTables.put(VersionCatalog.VERSIONS, MapFactory.newLinkedHashMap());
+		rawTables.put(VersionCatalog.LIBRARIES, MapFactory.newLinkedHashMap());
+		rawTables.put(VersionCatalog.BUNDLES, MapFactory.newLinkedHashMap());
+		rawTables.put(VersionCatalog.PLUGINS, MapFactory.newLinkedHashMap());
+	}
+
+	/**
+	 * Parses the given content of a libs.versions.toml file
+	 *
+	 * @param content
+	 *            the content of the libs.versions.toml file
+	 * @return the parsed {@link VersionCatalog}
+	 * @throws IllegalArgumentException
+	 *             if the content is not a valid version catalog
+	 */
+	static VersionCatalog parse(CharSequence content)
+	{
+		return new VersionCatalogParser(content.toString()).parse();
+	}
+
+	/**
+	 * Parses the content
+	 *
+	 * @return the parsed {@link VersionCatalog}
+	 */
+	private VersionCatalog parse()
+	{
+		skipBlank();
+		while (index < length)
+		{
+			if (content.charAt(index) == '[')
+			{
+				parseTableHeader();
+			}
+			else
+			{
+				parseKeyValue();
+			}
+			skipBlank();
+		}
+		VersionCatalog catalog = new VersionCatalog(content);
+		tableStarts.forEach(catalog::setTableStart);
+		rawTables.forEach((table, rawEntries) -> rawEntries
+			.forEach((alias, rawEntry) -> catalog.put(table, toEntry(table, alias, rawEntry))));
+		return catalog;
+	}
+
+	/**
+	 * Parses a table header like '[libraries]'
+	 */
+	private void parseTableHeader()
+	{
+		index++;
+		if (peek() == '[')
+		{
+			throw error("Arrays of tables are not supported");
+		}
+		skipSpaces();
+		String table = String.join(".", parseKey());
+		expect(']');
+		currentTable = rawTables.get(table);
+		endOfLine();
+		if (currentTable != null)
+		{
+			tableStarts.putIfAbsent(table, index);
+		}
+	}
+
+	/**
+	 * Parses a key value pair and records it if it belongs to a catalog table
+	 */
+	private void parseKeyValue()
+	{
+		int start = index;
+		List<String> key = parseKey();
+		expect('=');
+		skipSpaces();
+		Object value = parseValue();
+		int end = index;
+		endOfLine();
+		if (currentTable == null)
+		{
+			return;
+		}
+		String alias = key.get(0);
+		RawEntry rawEntry = currentTable.get(alias);
+		if (key.size() == 1)
+		{
+			if (rawEntry != null)
+			{
+				throw error("Duplicate key '" + alias + "'", start);
+			}
+			currentTable.put(alias, new RawEntry(value, start, end));
+			return;
+		}
+		// a dotted key like 'groovy.module = "..."' declares a part of an inline table
+		if (rawEntry == null)
+		{
+			rawEntry = new RawEntry(MapFactory.newLinkedHashMap(), start, end);
+			currentTable.put(alias, rawEntry);
+		}
+		else if (!(rawEntry.value instanceof Map))
+		{
+			throw error("Duplicate key '" + alias + "'", start);
+		}
+		putDotted(asMap(rawEntry.value), key.subList(1, key.size()), value, start);
+		rawEntry.end = end;
+	}
+
+	/**
+	 * Parses a bare, quoted or dotted key and skips the following spaces
+	 *
+	 * @return the parts of the key
+	 */
+	private List<String> parseKey()
+	{
+		List<String> parts = ListFactory.newArrayList();
+		while (true)
+		{
+			char current = peek();
+			if (current == '"')
+			{
+				parts.add(parseBasicString());
+			}
+			else if (current == '\'')
+			{
+				parts.add(parseLiteralString());
+			}
+			else
+			{
+				int start = index;
+				while (index < length && isBareKeyChar(content.charAt(index)))
+				{
+					index++;
+				}
+				if (start == index)
+				{
+					throw error("Expected a key");
+				}
+				parts.add(content.substring(start, index));
+			}
+			skipSpaces();
+			if (peek() != '.')
+			{
+				return parts;
+			}
+			index++;
+			skipSpaces();
+		}
+	}
+
+	/**
+	 * Parses a value
+	 *
+	 * @return the value as {@link String}, {@link List} or {@link Map}
+	 */
+	private Object parseValue()
+	{
+		char current = peek();
+		if (current == '"')
+		{
+			return content.startsWith("\"\"\"", index)
+				? parseMultiLineString('"')
+				: parseBasicString();
+		}
+		if (current == '\'')
+		{
+			return content.startsWith("'''", index)
+				? parseMultiLineString('\'')
+				: parseLiteralString();
+		}
+		if (current == '{')
+		{
+			return parseInlineTable();
+		}
+		if (current == '[')
+		{
+			return parseArray();
+		}
+		// numbers, booleans and dates are kept as plain text
+		int start = index;
+		while (index < length && !isValueEnd(content.charAt(index)))
+		{
+			index++;
+		}
+		if (start == index)
+		{
+			throw error("Expected a value");
+		}
+		return content.substring(start, index);
+	}
+
+	/**
+	 * Parses a single-line basic string in double quotes
+	 *
+	 * @return the value of the string
+	 */
+	private String parseBasicString()
+	{
+		int start = index;
+		index++;
+		int chunkStart = index;
+		StringBuilder sb = null;
+		while (index < length)
+		{
+			char current = content.charAt(index);
+			if (current == '"')
+			{
+				String value = sb == null
+					? content.substring(chunkStart, index)
+					: sb.append(content, chunkStart, index).toString();
+				index++;
+				return value;
+			}
+			if (current == '\n')
+			{
+				break;
+			}
+			if (current == '\\')
+			{
+				if (sb == null)
+				{
+					sb = new StringBuilder();
+				}
+				sb.append(content, chunkStart, index);
+				index = appendEscape(sb, index + 1);
+				chunkStart = index;
+			}
+			else
+			{
+				index++;
+			}
+		}
+		throw error("Unterminated string", start);
+	}
+
+	/**
+	 * Parses a single-line literal string in single quotes
+	 *
+	 * @return the value of the string
+	 */
+	private String parseLiteralString()
+	{
+		int start = index;
+		int close = index + 1;
+		while (close < length && content.charAt(close) != '\'' && content.charAt(close) != '\n')
+		{
+			close++;
+		}
+		if (close == length || content.charAt(close) != '\'')
+		{
+			throw error("Unterminated string", start);
+		}
+		index = close + 1;
+		return content.substring(start + 1, close);
+	}
+
+	/**
+	 * Parses a multi-line basic or literal string
+	 *
+	 * @param quote
+	 *            the quote character of the string
+	 * @return the value of the string
+	 */
+	private String parseMultiLineString(char quote)
+	{
+		int start = index;
+		String delimiter = String.valueOf(quote).repeat(3);
+		index += 3;
+		// a line break directly after the opening delimiter is trimmed
+		if (content.startsWith("\r\n", index))
+		{
+			index += 2;
+		}
+		else if (peek() == '\n')
+		{
+			index++;
+		}
+		StringBuilder sb = new StringBuilder();
+		while (index < length)
+		{
+			if (content.startsWith(delimiter, index))
+			{
+				// up to two additional quotes before the delimiter belong to the string
+				int run = 3;
+				while (run < 5 && index + run < length && content.charAt(index + run) == quote)
+				{
+					run++;
+				}
+				sb.append(String.valueOf(quote).repeat(run - 3));
+				index += run;
+				return sb.toString();
+			}
+			char current = content.charAt(index);
+			if (quote == '"' && current == '\\')
+			{
+				int next = index + 1;
+				while (next < length && (content.charAt(next) == ' '
+					|| content.charAt(next) == '\t'))
+				{
+					next++;
+				}
+				if (next < length && (content.charAt(next) == '\n' || content.charAt(next) == '\r'))
+				{
+					// a line ending backslash trims all following whitespace
+					index = next;
+					while (index < length && Character.isWhitespace(content.charAt(index)))
+					{
+						index++;
+					}
+				}
+				else
+				{
+					index = appendEscape(sb, index + 1);
+				}
+			}
+			else
+			{
+				sb.append(current);
+				index++;
+			}
+		}
+		throw error("Unterminated string", start);
+	}
+
+	/**
+	 * Appends the escape sequence that starts at the given offset
+	 *
+	 * @param sb
+	 *            the target of the unescaped character
+	 * @param offset
+	 *            the offset of the character after the backslash
+	 * @return the offset after the escape sequence
+	 */
+	private int appendEscape(StringBuilder sb, int offset)
+	{
+		if (length <= offset)
+		{
+			throw error("Invalid escape sequence", offset - 1);
+		}
+		char escaped = content.charAt(offset);
+		switch (escaped)
+		{
+			case 'b' :
+				sb.append('\b');
+				return offset + 1;
+			case 't' :
+				sb.append('\t');
+				return offset + 1;
+			case 'n' :
+				sb.append('\n');
+				return offset + 1;
+			case 'f' :
+				sb.append('\f');
+				return offset + 1;
+			case 'r' :
+				sb.append('\r');
+				return offset + 1;
+			case '"' :
+			case '\\' :
+				sb.append(escaped);
+				return offset + 1;
+			case 'u' :
+			case 'U' :
+				int digits = escaped == 'u' ? 4 : 8;
+				if (length < offset + 1 + digits)
+				{
+					throw error("Invalid escape sequence", offset - 1);
+				}
+				try
+				{
+					sb.appendCodePoint(Integer
+						.parseInt(content.substring(offset + 1, offset + 1 + digits), 16));
+				}
+				catch (IllegalArgumentException e)
+				{
+					throw error("Invalid escape sequence", offset - 1);
+				}
+				return offset + 1 + digits;
+			default :
+				throw error("Invalid escape sequence", offset - 1);
+		}
+	}
+
+	/**
+	 * Parses an inline table
+	 *
+	 * @return the inline table as {@link Map}
+	 */
+	private Map<String, Object> parseInlineTable()
+	{
+		int start = index;
+		index++;
+		Map<String, Object> table = MapFactory.newLinkedHashMap();
+		skipBlank();
+		if (peek() == '}')
+		{
+			index++;
+			return table;
+		}
+		while (true)
+		{
+			int keyStart = index;
+			List<String> key = parseKey();
+			expect('=');
+			skipSpaces();
+			putDotted(table, key, parseValue(), keyStart);
+			skipBlank();
+			if (peek() == ',')
+			{
+				index++;
+				skipBlank();
+				continue;
+			}
+			if (peek() == '}')
+			{
+				index++;
+				return table;
+			}
+			throw error("Unterminated inline table", start);
+		}
+	}
+
+	/**
+	 * Parses an array
+	 *
+	 * @return the array as {@link List}
+	 */
+	private List<Object> parseArray()
+	{
+		int start = index;
+		index++;
+		List<Object> array = ListFactory.newArrayList();
+		while (true)
+		{
+			skipBlank();
+			if (peek() == ']')
+			{
+				index++;
+				return array;
+			}
+			array.add(parseValue());
+			skipBlank();
+			if (peek() == ',')
+			{
+				index++;
+			}
+			else if (peek() != ']')
+			{
+				throw error("Unterminated array", start);
+			}
+		}
+	}
+
+	/**
+	 * Puts the given value with the given dotted key into the given table
+	 *
+	 * @param table
+	 *            the table
+	 * @param key
+	 *            the parts of the key
+	 * @param value
+	 *            the value
+	 * @param keyStart
+	 *            the offset of the key for error messages
+	 */
+	private void putDotted(Map<String, Object> table, List<String> key, Object value,
+		int keyStart)
+	{
+		Map<String, Object> target = table;
+		for (int i = 0; i < key.size() - 1; i++)
+		{
+			Object child = target.computeIfAbsent(key.get(i), k -> MapFactory.newLinkedHashMap());
+			if (!(child instanceof Map))
+			{
+				throw error("Duplicate key '" + key.get(i) + "'", keyStart);
+			}
+			target = asMap(child);
+		}
+		if (target.putIfAbsent(key.get(key.size() - 1), value) != null)
+		{
+			throw error("Duplicate key '" + String.join(".", key) + "'", keyStart);
+		}
+	}
+
+	/**
+	 * Converts the given raw entry into a {@link VersionCatalogEntry}
+	 *
+	 * @param table
+	 *            the name of the table
+	 * @param alias
+	 *            the alias of the entry
+	 * @param rawEntry
+	 *            the raw entry
+	 * @return the {@link VersionCatalogEntry}
+	 */
+	private VersionCatalogEntry toEntry(String table, String alias, RawEntry rawEntry)
+	{
+		VersionCatalogEntry.VersionCatalogEntryBuilder builder = VersionCatalogEntry.builder()
+			.alias(alias).start(rawEntry.start).end(rawEntry.end);
+		Object value = rawEntry.value;
+		switch (table)
+		{
+			case VersionCatalog.VERSIONS :
+				if (value instanceof Map)
+				{
+					builder.version(getRichVersion(asMap(value)));
+				}
+				else
+				{
+					builder.version(asString(value, alias, rawEntry));
+				}
+				break;
+			case VersionCatalog.LIBRARIES :
+				if (value instanceof Map)
+				{
+					Map<String, Object> library = asMap(value);
+					String module = getString(library, "module", alias, rawEntry);
+					if (module == null)
+					{
+						String group = getString(library, "group", alias, rawEntry);
+						String name = getString(library, "name", alias, rawEntry);
+						if (group == null || name == null)
+						{
+							throw error("Library '" + alias + "' has no module", rawEntry.start);
+						}
+						module = group + ":" + name;
+					}
+					builder.module(module);
+					setVersion(builder, library.get("version"), alias, rawEntry);
+				}
+				else
+				{
+					String[] parts = asString(value, alias, rawEntry).split(":");
+					if (parts.length < 2 || 3 < parts.length)
+					{
+						throw error("Library '" + alias + "' has an invalid notation",
+							rawEntry.start);
+					}
+					builder.module(parts[0] + ":" + parts[1]);
+					builder.version(parts.length == 3 ? parts[2] : null);
+				}
+				break;
+			case VersionCatalog.BUNDLES :
+				if (!(value instanceof List<?> list))
+				{
+					throw error("Bundle '" + alias + "' is not an array", rawEntry.start);
+				}
+				List<String> members = new ArrayList<>(list.size());
+				for (Object member : list)
+				{
+					members.add(asString(member, alias, rawEntry));
+				}
+				builder.members(members);
+				break;
+			default :
+				if (value instanceof Map)
+				{
+					Map<String, Object> plugin = asMap(value);
+					builder.id(getString(plugin, "id", alias, rawEntry));
+					setVersion(builder, plugin.get("version"), alias, rawEntry);
+				}
+				else
+				{
+					String notation = asString(value, alias, rawEntry);
+					int separator = notation.lastIndexOf(':');
+					builder.id(separator == -1 ? notation : notation.substring(0, separator));
+					builder.version(separator == -1 ? null : notation.substring(separator + 1));
+				}
+				break;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Sets the version or the version reference of a library or plugin
+	 *
+	 * @param builder
+	 *            the builder of the entry
+	 * @param version
+	 *            the value of the version key or null
+	 * @param alias
+	 *            the alias of the entry
+	 * @param rawEntry
+	 *            the raw entry
+	 */
+	private void setVersion(VersionCatalogEntry.VersionCatalogEntryBuilder builder, Object version,
+		String alias, RawEntry rawEntry)
+	{
+		if (version instanceof Map)
+		{
+			Map<String, Object> richVersion = asMap(version);
+			String versionRef = getString(richVersion, "ref", alias, rawEntry);
+			if (versionRef != null)
+			{
+				builder.versionRef(versionRef);
+			}
+			else
+			{
+				builder.version(getRichVersion(richVersion));
+			}
+		}
+		else if (version != null)
+		{
+			builder.version(asString(version, alias, rawEntry));
+		}
+	}
+
+	/**
+	 * Gets the most significant version of a rich version
+	 *
+	 * @param richVersion
+	 *            the rich version
+	 * @return the strict, required or preferred version or null if there is none
+	 */
+	private static String getRichVersion(Map<String, Object> richVersion)
+	{
+		for (String key : new String[] { "strictly", "require", "prefer" })
+		{
+			if (richVersion.get(key) instanceof String version)
+			{
+				return version;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets a string value of the given table
+	 *
+	 * @param table
+	 *            the table
+	 * @param key
+	 *            the key
+	 * @param alias
+	 *            the alias of the entry
+	 * @param rawEntry
+	 *            the raw entry
+	 * @return the string value or null if there is no value with the given key
+	 */
+	private String getString(Map<String, Object> table, String key, String alias,
+		RawEntry rawEntry)
+	{
+		Object value = table.get(key);
+		return value == null ? null : asString(value, alias, rawEntry);
+	}
+
+	/**
+	 * Casts the given value to a string
+	 *
+	 * @param value
+	 *            the value
+	 * @param alias
+	 *            the alias of the entry
+	 * @param rawEntry
+	 *            the raw entry
+	 * @return the string value
+	 */
+	private String asString(Object value, String alias, RawEntry rawEntry)
+	{
+		if (value instanceof String string)
+		{
+			return string;
+		}
+		throw error("Entry '" + alias + "' has an unexpected value", rawEntry.start);
+	}
+
+	/**
+	 * Casts the given value to a table
+	 *
+	 * @param value
+	 *            the value
+	 * @return the table
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> asMap(Object value)
+	{
+		return (Map<String, Object>)value;
+	}
+
+	/**
+	 * Expects the given character at the current offset and skips it and the following spaces
+	 *
+	 * @param expected
+	 *            the expected character
+	 */
+	private void expect(char expected)
+	{
+		if (peek() != expected)
+		{
+			throw error("Expected '" + expected + "'");
+		}
+		index++;
+		skipSpaces();
+	}
+
+	/**
+	 * Skips the rest of the current line, which may only contain spaces and a comment
+	 */
+	private void endOfLine()
+	{
+		skipSpaces();
+		if (peek() == '#')
+		{
+			skipComment();
+		}
+		if (content.startsWith("\r\n", index))
+		{
+			index += 2;
+		}
+		else if (peek() == '\n')
+		{
+			index++;
+		}
+		else if (index < length)
+		{
+			throw error("Expected a line break");
+		}
+	}
+
+	/**
+	 * Skips spaces and tabs
+	 */
+	private void skipSpaces()
+	{
+		while (index < length && (content.charAt(index) == ' ' || content.charAt(index) == '\t'))
+		{
+			index++;
+		}
+	}
+
+	/**
+	 * Skips whitespace, line breaks and comments
+	 */
+	private void skipBlank()
+	{
+		while (index < length)
+		{
+			char current = content.charAt(index);
+			if (current == '#')
+			{
+				skipComment();
+			}
+			else if (Character.isWhitespace(current))
+			{
+				index++;
+			}
+			else
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Skips a comment up to the line break
+	 */
+	private void skipComment()
+	{
+		while (index < length && content.charAt(index) != '\n' && content.charAt(index) != '\r')
+		{
+			index++;
+		}
+	}
+
+	/**
+	 * Gets the character at the current offset
+	 *
+	 * @return the character at the current offset or '\0' at the end of the content
+	 */
+	private char peek()
+	{
+		return index < length ? content.charAt(index) : '\0';
+	}
+
+	/**
+	 * Checks if the given character can be part of a bare key
+	 *
+	 * @param current
+	 *            the character
+	 * @return true if the given character can be part of a bare key
+	 */
+	private static boolean isBareKeyChar(char current)
+	{
+		return (current >= 'a' && current <= 'z') || (current >= 'A' && current <= 'Z')
+			|| (current >= '0' && current <= '9') || current == '-' || current == '_';
+	}
+
+	/**
+	 * Checks if the given character ends a plain scalar value
+	 *
+	 * @param current
+	 *            the character
+	 * @return true if the given character ends a plain scalar value
+	 */
+	private static boolean isValueEnd(char current)
+	{
+		return current == ',' || current == ']' || current == '}' || current == '#'
+			|| Character.isWhitespace(current);
+	}
+
+	/**
+	 * Creates an exception for the current offset
+	 *
+	 * @param message
+	 *            the message
+	 * @return the exception
+	 */
+	private IllegalArgumentException error(String message)
+	{
+		return error(message, index);
+	}
+
+	/**
+	 * Creates an exception for the given offset
+	 *
+	 * @param message
+	 *            the message
+	 * @param offset
+	 *            the offset of the error
+	 * @return the exception
+	 */
+	private IllegalArgumentException error(String message, int offset)
+	{
+		int line = 1;
+		for (int i = 0; i < offset && i < length; i++)
+		{
+			if (content.charAt(i) == '\n')
+			{
+				line++;
+			}
+		}
+		return new IllegalArgumentException(
+			"Invalid version catalog at line " + line + ": " + message);
+	}
+
+	/**
+	 * The raw value of a catalog entry with its location
+	 */
+	private static final class RawEntry
+	{
+		/** The raw value. */
+		final Object value;
+
+		/** The start offset of the entry. */
+		final int start;
+
+		/** The end offset of the entry. */
+		int end;
+
+		/**
+		 * Instantiates a new {@link RawEntry}
+		 *
+		 * @param value
+		 *            the raw value
+		 * @param start
+		 *            the start offset of the entry
+		 * @param end
+		 *            the end offset of the entry
+		 */
+		RawEntry(Object value, int start, int end)
+		{
+			this.value = value;
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
@@ -0,0 +1,362 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.astrapi69.collection.map.MapFactory;
+import io.github.astrapi69.collection.set.SetFactory;
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The class {@link VersionCatalogRenderer} renders the libs.versions.toml content and the new
+ * dependencies block from a list of {@link DependencyInfo} objects directly into an
+ * {@link Appendable}, for instance a {@link Writer} of the target file. Duplicate version and
+ * library keys are detected with insertion ordered hash sets, so the rendering takes linear time
+ * and no copy of the whole document has to be held in memory.
+ */
+public final class VersionCatalogRenderer
+{
+
+	/** The line separator of the rendered content. */
+	private static final String NEW_LINE = System.lineSeparator();
+
+	/** The default bundles if junit is used. */
+	private static final String JUNIT_DEFAULT_BUNDLES = """
+		unit-testing = [
+		    "junit-jupiter",
+		    "meanbean",
+		    "test-object",
+		]
+		""";
+
+	/** The default bundles if junit is not used. */
+	private static final String TESTNG_DEFAULT_BUNDLES = """
+		unit-testing = [
+		    "meanbean",
+		    "test-object",
+		    "testng",
+		]
+		""";
+
+	/** The default plugins if lombok is used. */
+	private static final String WITH_LOMBOK_PLUGINS = """
+		gradle-versions-plugin = { id = "com.github.ben-manes.versions", version.ref = "gradle-plugin-versions-version" }
+		grgit-gradle = { id = "org.ajoberstar.grgit", version.ref = "gradle-plugin-grgit-version" }
+		license-gradle-plugin = { id = "com.github.hierynomus.license", version.ref = "gradle-plugin-license-version" }
+		lombok-plugin = { id = "io.freefair.lombok", version.ref = "gradle-plugin-lombok-version" }
+		spotless-plugin-gradle = { id = "com.diffplug.spotless", version.ref = "gradle-plugin-spotless-version" }
+		version-catalog-update = { id = "nl.littlerobots.version-catalog-update", version.ref = "gradle-plugin-version-catalog-update-version" }
+		""";
+
+	/** The default plugins if lombok is not used. */
+	private static final String DEFAULT_PLUGINS = """
+		gradle-versions-plugin = { id = "com.github.ben-manes.versions", version.ref = "gradle-plugin-versions-version" }
+		grgit-gradle = { id = "org.ajoberstar.grgit", version.ref = "gradle-plugin-grgit-version" }
+		license-gradle-plugin = { id = "com.github.hierynomus.license", version.ref = "gradle-plugin-license-version" }
+		spotless-plugin-gradle = { id = "com.diffplug.spotless", version.ref = "gradle-plugin-spotless-version" }
+		version-catalog-update = { id = "nl.littlerobots.version-catalog-update", version.ref = "gradle-plugin-version-catalog-update-version" }
+		""";
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private VersionCatalogRenderer()
+	{
+	}
+
+	/**
+	 * Renders the content for a libs.versions.toml file from a list of {@link DependencyInfo}
+	 * objects, including sections for versions, libraries, bundles and plugins, into the given
+	 * {@link Appendable}
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param out
+	 *            the target to append the content to
+	 * @throws IOException
+	 *             if an I/O error occurs during appending
+	 */
+	public static void renderLibsVersionsToml(List<DependencyInfo> dependencyInfos,
+		Appendable out) throws IOException
+	{
+		boolean withLombok = false;
+		boolean withJunit = false;
+		Set<String> versionKeys = SetFactory.newLinkedHashSet();
+		out.append("[versions]").append(NEW_LINE);
+		for (DependencyInfo dependencyInfo : dependencyInfos)
+		{
+			if (dependencyInfo.getVersion() != null)
+			{
+				String dependencyInfoVersionKey = dependencyInfo.getArtifactId() + "-version";
+				if (versionKeys.add(dependencyInfoVersionKey))
+				{
+					appendVersion(out, dependencyInfoVersionKey, dependencyInfo.getVersion());
+				}
+			}
+			String groupId = dependencyInfo.getGroupId();
+			withLombok |= "org.projectlombok".equals(groupId);
+			withJunit |= "org.junit.jupiter".equals(groupId);
+		}
+		// add plugin versions
+		appendVersion(out, "gradle-plugin-grgit-version", "5.2.2");
+		appendVersion(out, "gradle-plugin-license-version", "0.16.1");
+		if (withLombok)
+		{
+			appendVersion(out, "gradle-plugin-lombok-version", "8.6");
+		}
+		appendVersion(out, "gradle-plugin-spotless-version", "7.0.0.BETA1");
+		appendVersion(out, "gradle-plugin-version-catalog-update-version", "0.8.4");
+		appendVersion(out, "gradle-plugin-versions-version", "0.51.0");
+
+		out.append(NEW_LINE);
+		Set<String> libraryKeys = SetFactory.newLinkedHashSet();
+		out.append("[libraries]").append(NEW_LINE);
+		for (DependencyInfo dependencyInfo : dependencyInfos)
+		{
+			String libraryKey = dependencyInfo.getArtifactId();
+			if (libraryKeys.add(libraryKey))
+			{
+				out.append(libraryKey).append(" = { module = \"")
+					.append(dependencyInfo.getGroupId()).append(":")
+					.append(dependencyInfo.getArtifactId());
+				if (dependencyInfo.getVersion() != null)
+				{
+					out.append("\", version.ref = \"").append(libraryKey).append("-version\"}")
+						.append(NEW_LINE);
+				}
+				else
+				{
+					out.append("\"}").append(NEW_LINE);
+				}
+			}
+		}
+		// add default bundles section ...
+		out.append(NEW_LINE).append("[bundles]").append(NEW_LINE);
+		out.append(withJunit ? JUNIT_DEFAULT_BUNDLES : TESTNG_DEFAULT_BUNDLES).append(NEW_LINE);
+		// add default plugins section ...
+		out.append("[plugins]").append(NEW_LINE);
+		out.append(withLombok ? WITH_LOMBOK_PLUGINS : DEFAULT_PLUGINS).append(NEW_LINE);
+	}
+
+	/**
+	 * Renders the content for a libs.versions.toml file from a list of {@link DependencyInfo}
+	 * objects into the given file. The content is written directly into the file in the UTF-8
+	 * encoding.
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param libsVersionsToml
+	 *            the path of the libs.versions.toml file
+	 * @throws IOException
+	 *             if an I/O error occurs during writing
+	 */
+	public static void renderLibsVersionsToml(List<DependencyInfo> dependencyInfos,
+		Path libsVersionsToml) throws IOException
+	{
+		try (BufferedWriter writer = Files.newBufferedWriter(libsVersionsToml,
+			StandardCharsets.UTF_8))
+		{
+			renderLibsVersionsToml(dependencyInfos, writer);
+		}
+	}
+
+	/**
+	 * Renders the content for a libs.versions.toml file from a list of {@link DependencyInfo}
+	 * objects as a string
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return the content for a libs.versions.toml file as a string
+	 */
+	public static String getLibsVersionsTomlAsString(List<DependencyInfo> dependencyInfos)
+	{
+		StringBuilder sb = new StringBuilder();
+		try
+		{
+			renderLibsVersionsToml(dependencyInfos, sb);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the aliases of the libraries that {@link #renderLibsVersionsToml(List, Appendable)}
+	 * renders, which is the artifact id of the first library with this artifact id
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return the aliases of the libraries with the module in the form 'group:name' as key
+	 */
+	public static Map<String, String> getLibraryAliases(List<DependencyInfo> dependencyInfos)
+	{
+		Map<String, String> libraryAliases = MapFactory.newLinkedHashMap();
+		Set<String> libraryKeys = SetFactory.newLinkedHashSet();
+		for (DependencyInfo dependencyInfo : dependencyInfos)
+		{
+			String libraryKey = dependencyInfo.getArtifactId();
+			if (libraryKey != null && libraryKeys.add(libraryKey))
+			{
+				libraryAliases.put(getModule(dependencyInfo), libraryKey);
+			}
+		}
+		return libraryAliases;
+	}
+
+	/**
+	 * Renders a new dependencies block in the build.gradle format from a list of
+	 * {@link DependencyInfo} objects into the given {@link Appendable}. The libraries are
+	 * referenced with the aliases of {@link #getLibraryAliases(List)}.
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param out
+	 *            the target to append the content to
+	 * @throws IOException
+	 *             if an I/O error occurs during appending
+	 */
+	public static void renderDependenciesStructure(List<DependencyInfo> dependencyInfos,
+		Appendable out) throws IOException
+	{
+		renderDependenciesStructure(dependencyInfos, getLibraryAliases(dependencyInfos), out);
+	}
+
+	/**
+	 * Renders a new dependencies block in the build.gradle format from a list of
+	 * {@link DependencyInfo} objects into the given {@link Appendable}. Every library is
+	 * referenced with its alias in the given map, so the block matches the catalog that declares
+	 * these aliases. A library without an alias is not declared in the catalog and is left out.
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param libraryAliases
+	 *            the aliases of the libraries with the module in the form 'group:name' as key
+	 * @param out
+	 *            the target to append the content to
+	 * @throws IOException
+	 *             if an I/O error occurs during appending
+	 */
+	public static void renderDependenciesStructure(List<DependencyInfo> dependencyInfos,
+		Map<String, String> libraryAliases, Appendable out) throws IOException
+	{
+		Set<String> referencedAliases = SetFactory.newLinkedHashSet();
+		out.append("dependencies {").append(NEW_LINE);
+		for (DependencyInfo dependencyInfo : dependencyInfos)
+		{
+			String libraryAlias = libraryAliases.get(getModule(dependencyInfo));
+			if (libraryAlias != null && referencedAliases.add(libraryAlias))
+			{
+				// gradle maps the separators of an alias to the dots of the accessor
+				String accessor = libraryAlias.replace('-', '.').replace('_', '.');
+				out.append(dependencyInfo.getScope()).append(" libs.").append(accessor)
+					.append(NEW_LINE);
+			}
+		}
+		out.append("}").append(NEW_LINE);
+	}
+
+	/**
+	 * Renders a new dependencies block in the build.gradle format from a list of
+	 * {@link DependencyInfo} objects as a string. The libraries are referenced with the aliases of
+	 * {@link #getLibraryAliases(List)}.
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @return the new dependencies block as a string
+	 */
+	public static String getDependenciesStructureAsString(List<DependencyInfo> dependencyInfos)
+	{
+		return getDependenciesStructureAsString(dependencyInfos,
+			getLibraryAliases(dependencyInfos));
+	}
+
+	/**
+	 * Renders a new dependencies block in the build.gradle format from a list of
+	 * {@link DependencyInfo} objects as a string, where every library is referenced with its alias
+	 * in the given map
+	 *
+	 * @param dependencyInfos
+	 *            the list of {@link DependencyInfo} objects
+	 * @param libraryAliases
+	 *            the aliases of the libraries with the module in the form 'group:name' as key
+	 * @return the new dependencies block as a string
+	 */
+	public static String getDependenciesStructureAsString(List<DependencyInfo> dependencyInfos,
+		Map<String, String> libraryAliases)
+	{
+		StringBuilder sb = new StringBuilder();
+		try
+		{
+			renderDependenciesStructure(dependencyInfos, libraryAliases, sb);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the module of the given {@link DependencyInfo} object in the form 'group:name'
+	 *
+	 * @param dependencyInfo
+	 *            the {@link DependencyInfo} object
+	 * @return the module
+	 */
+	private static String getModule(DependencyInfo dependencyInfo)
+	{
+		return dependencyInfo.getGroupId() + ":" + dependencyInfo.getArtifactId();
+	}
+
+	/**
+	 * Appends a version entry of the [versions] table
+	 *
+	 * @param out
+	 *            the target to append the entry to
+	 * @param key
+	 *            the version key
+	 * @param version
+	 *            the version
+	 * @throws IOException
+	 *             if an I/O error occurs during appending
+	 */
+	private static void appendVersion(Appendable out, String key, String version)
+		throws IOException
+	{
+		out.append(key).append(" = \"").append(version).append("\"").append(NEW_LINE);
+	}
+}
@@ -15,6 +15,10 @@
  * structure, ensuring compatibility with modern Gradle practices.</li>
  * <li>Copying and modifying project configuration files, including Gradle's run configurations and
  * dependency files, to support the new project structure.</li>
+ * <li>Planning all file operations of a migration in memory and committing them in one batch with
+ * atomic moves.</li>
+ * <li>Recording the completed stages of a fleet migration in a crash-safe journal, so an aborted
+ * migration can be resumed.</li>
  * </ul>
  *
  * The classes in this package are intended to streamline the process of updating and maintaining
@@ -28,9 +28,14 @@ module io.github.astrapisixtynine.gradle.migration.data
 	requires io.github.astrapisixtynine.silly.io;
 	requires io.github.astrapisixtynine.silly.strings;
 	requires java.logging;
+	requires java.xml;
+	requires org.eclipse.jgit;
 
 	exports io.github.astrapi69.gradle.migration.extension;
+	exports io.github.astrapi69.gradle.migration.git;
 	exports io.github.astrapi69.gradle.migration.info;
+	exports io.github.astrapi69.gradle.migration.process;
 	exports io.github.astrapi69.gradle.migration.runner;
+	exports io.github.astrapi69.gradle.migration.script;
 	exports io.github.astrapi69.gradle.migration.toml;
 }
\ No newline at end of file
@@ -25,17 +25,29 @@
 package io.github.astrapi69.gradle.migration.extension;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import io.github.astrapi69.gradle.migration.git.GitBackend;
+import io.github.astrapi69.gradle.migration.git.JGitBackend;
+
 /**
  * Test class for {@link GitExtensions}
  */
@@ -94,6 +106,104 @@ public class GitExtensionsTest
 			() -> GitExtensions.unstageFiles(Arrays.asList(fileToAdd), shellPath, executionPath));
 	}
 
+	/**
+	 * Executes a git command in the temporary directory
+	 *
+	 * @param arguments
+	 *            the arguments of the git command
+	 * @return the output of the command
+	 */
+	private String git(String... arguments) throws IOException, InterruptedException
+	{
+		List<String> command = new ArrayList<>(List.of("git", "-c", "user.name=test", "-c",
+			"user.email=test@example.com", "-c", "commit.gpgsign=false"));
+		command.addAll(Arrays.asList(arguments));
+		Process process = new ProcessBuilder(command).directory(tempDir.toFile())
+			.redirectErrorStream(true).start();
+		String output = new String(process.getInputStream().readAllBytes(),
+			StandardCharsets.UTF_8);
+		assertEquals(0, process.waitFor(), output);
+		return output;
+	}
+
+	/**
+	 * Test method for {@link GitExtensions#addFilesToGit(List, File)} and
+	 * {@link GitExtensions#unstageFiles(List, File)} with file names that contain spaces and
+	 * wildcards
+	 */
+	@Test
+	void testAddFilesToGitInBatch() throws IOException, InterruptedException
+	{
+		git("init", "-q");
+		git("commit", "-q", "--allow-empty", "-m", "initial");
+		List<String> filesToAdd = new ArrayList<>();
+		for (String name : List.of("file1.txt", "file 2.txt", "file*.txt"))
+		{
+			filesToAdd.add(Files.createFile(tempDir.resolve(name)).toString());
+		}
+		Files.createFile(tempDir.resolve("untracked.txt"));
+
+		GitExtensions.addFilesToGit(filesToAdd, tempDir.toFile());
+		assertEquals(List.of("file 2.txt", "file*.txt", "file1.txt"),
+			Arrays.stream(git("diff", "--cached", "--name-only", "-z").split("\0")).sorted()
+				.toList());
+
+		GitExtensions.unstageFiles(filesToAdd, tempDir.toFile());
+		assertEquals("", git("diff", "--cached", "--name-only"));
+		assertEquals("", GitExtensions.addFilesToGit(List.of(), tempDir.toFile()));
+	}
+
+	/**
+	 * Test method for {@link GitExtensions#addFilesToGit(List, File)} from several threads on the
+	 * same repository
+	 */
+	@Test
+	void testAddFilesToGitConcurrently() throws Exception
+	{
+		git("init", "-q");
+		List<Future<String>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (int i = 0; i < 20; i++)
+			{
+				String name = "concurrent" + i + ".txt";
+				Files.createFile(tempDir.resolve(name));
+				results.add(executor
+					.submit(() -> GitExtensions.addFilesToGit(List.of(name), tempDir.toFile())));
+			}
+			for (Future<String> result : results)
+			{
+				assertFalse(result.get().contains("index.lock"), result.get());
+			}
+		}
+		assertEquals(20, git("diff", "--cached", "--name-only").lines().count());
+	}
+
+	/**
+	 * Test method for {@link GitExtensions#setBackend(GitBackend)} with a {@link JGitBackend}
+	 */
+	@Test
+	void testSetBackend() throws IOException, InterruptedException
+	{
+		git("init", "-q");
+		git("commit", "-q", "--allow-empty", "-m", "initial");
+		Files.createFile(tempDir.resolve("file1.txt"));
+		try (JGitBackend backend = new JGitBackend())
+		{
+			GitBackend previous = GitExtensions.setBackend(backend);
+			try
+			{
+				assertSame(backend, GitExtensions.getBackend());
+				GitExtensions.addFilesToGit(List.of("file1.txt"), tempDir.toFile());
+				assertEquals("file1.txt\n", git("diff", "--cached", "--name-only"));
+			}
+			finally
+			{
+				GitExtensions.setBackend(previous);
+			}
+		}
+	}
+
 	/**
 	 * Clean up after each test by unstaging all files that may have been added during the test
 	 */
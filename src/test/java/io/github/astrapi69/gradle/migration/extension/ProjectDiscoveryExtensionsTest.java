@@ -0,0 +1,127 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.extension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.MigrationInfo;
+
+/**
+ * The unit test class for the class {@link ProjectDiscoveryExtensions}
+ */
+public class ProjectDiscoveryExtensionsTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates an empty file and its parent directories
+	 *
+	 * @param relativePath
+	 *            the path of the file relative to the temporary directory
+	 * @throws IOException
+	 *             if an I/O error occurs during creating the file
+	 */
+	private void newFile(String relativePath) throws IOException
+	{
+		Path file = tempDir.resolve(relativePath);
+		Files.createDirectories(file.getParent());
+		Files.createFile(file);
+	}
+
+	/**
+	 * Test method for {@link ProjectDiscoveryExtensions#discover(File)}
+	 */
+	@Test
+	public void testDiscover() throws IOException
+	{
+		newFile("app/build.gradle");
+		newFile("app/module/build.gradle");
+		newFile("app/build/generated/build.gradle");
+		newFile("multi/settings.gradle");
+		newFile("legacy/gradle/dependencies.gradle");
+		newFile("legacy/gradle/wrapper/gradle-wrapper.properties");
+		newFile("group/nested/deep/build.gradle");
+		newFile("web/node_modules/lib/build.gradle");
+		newFile("web/.git/build.gradle");
+		newFile("web/out/build.gradle");
+		newFile("web/.gradle/build.gradle");
+		newFile("docs/README.md");
+
+		List<MigrationInfo> projects = ProjectDiscoveryExtensions.discover(tempDir.toFile());
+		List<Path> expected = List.of(tempDir.resolve("app"), tempDir.resolve("app/module"),
+			tempDir.resolve("group/nested/deep"), tempDir.resolve("legacy"),
+			tempDir.resolve("multi"));
+		assertEquals(expected,
+			projects.stream().map(project -> project.getProjectDirectory().toPath()).toList());
+		MigrationInfo legacy = projects.get(3);
+		assertEquals(tempDir.resolve("legacy/gradle").toFile(), legacy.getGradleDirectory());
+
+		// the gradle directories of the found projects are not created
+		assertFalse(projects.get(4).getGradleDirectory().exists());
+		assertEquals(projects, ProjectDiscoveryExtensions.discover(tempDir.toFile(),
+			new ForkJoinPool(1)));
+	}
+
+	/**
+	 * Test method for {@link ProjectDiscoveryExtensions#isProjectRoot(Path)}
+	 */
+	@Test
+	public void testIsProjectRoot() throws IOException
+	{
+		newFile("app/build.gradle");
+		newFile("legacy/gradle/dependencies.gradle");
+		newFile("docs/README.md");
+		assertTrue(ProjectDiscoveryExtensions.isProjectRoot(tempDir.resolve("app")));
+		assertTrue(ProjectDiscoveryExtensions.isProjectRoot(tempDir.resolve("legacy")));
+		assertFalse(ProjectDiscoveryExtensions.isProjectRoot(tempDir.resolve("docs")));
+		assertFalse(ProjectDiscoveryExtensions.isProjectRoot(tempDir));
+	}
+
+	/**
+	 * Test method for {@link ProjectDiscoveryExtensions#discover(File)} with a file as root
+	 */
+	@Test
+	public void testDiscoverWithFile() throws IOException
+	{
+		newFile("build.gradle");
+		assertThrows(IllegalArgumentException.class, () -> ProjectDiscoveryExtensions
+			.discover(tempDir.resolve("build.gradle").toFile()));
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+
+/**
+ * The unit test class for the class {@link ConcurrentGitBackend}
+ */
+public class ConcurrentGitBackendTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * A backend that records its calls and fails if two calls on the same repository overlap
+	 */
+	private static final class RecordingBackend implements GitBackend
+	{
+		/** The number of running calls per repository. */
+		final Map<File, AtomicInteger> running = new ConcurrentHashMap<>();
+
+		/** The number of calls. */
+		final AtomicInteger calls = new AtomicInteger();
+
+		/** The number of overlapping calls on the same repository. */
+		final AtomicInteger overlaps = new AtomicInteger();
+
+		/** The added paths. */
+		final Set<String> added = ConcurrentHashMap.newKeySet();
+
+		/** The latch that is released when both repositories are in a call at the same time. */
+		final CountDownLatch parallel = new CountDownLatch(2);
+
+		@Override
+		public String add(File executionDirectory, List<String> paths)
+			throws InterruptedException
+		{
+			AtomicInteger counter = running.computeIfAbsent(executionDirectory,
+				key -> new AtomicInteger());
+			if (counter.incrementAndGet() > 1)
+			{
+				overlaps.incrementAndGet();
+			}
+			calls.incrementAndGet();
+			parallel.countDown();
+			parallel.await(5, TimeUnit.SECONDS);
+			Thread.sleep(20);
+			added.addAll(paths);
+			counter.decrementAndGet();
+			return "added " + paths.size();
+		}
+
+		@Override
+		public String restoreStaged(File executionDirectory, List<String> paths)
+		{
+			added.removeAll(paths);
+			return "";
+		}
+
+		@Override
+		public String status(File executionDirectory)
+		{
+			return String.join("\n", added);
+		}
+
+		@Override
+		public GitStatus getStatus(File executionDirectory)
+		{
+			return GitStatusParser.of(List.of());
+		}
+	}
+
+	/**
+	 * Test method for {@link ConcurrentGitBackend#add(File, List)} from several threads
+	 */
+	@Test
+	public void testAddConcurrently() throws Exception
+	{
+		Path first = Files.createDirectories(tempDir.resolve("first/.git")).getParent();
+		Path second = Files.createDirectories(tempDir.resolve("second/.git")).getParent();
+		Files.createDirectories(first.resolve("sub"));
+		RecordingBackend recording = new RecordingBackend();
+		List<Future<String>> results = ListFactory.newArrayList();
+		try (ConcurrentGitBackend backend = new ConcurrentGitBackend(recording);
+			ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (int i = 0; i < 50; i++)
+			{
+				String name = "file" + i + ".txt";
+				results.add(executor.submit(
+					() -> backend.add(first.resolve("sub").toFile(), List.of(name))));
+				results.add(executor.submit(
+					() -> backend.add(second.toFile(), List.of(second.resolve(name).toString()))));
+			}
+			for (Future<String> result : results)
+			{
+				assertTrue(result.get().startsWith("added "));
+			}
+			assertEquals(0, recording.overlaps.get());
+			assertEquals(0, recording.parallel.getCount());
+			assertEquals(100, recording.added.size());
+			assertTrue(recording.added.contains(first.resolve("sub/file7.txt").toString()));
+			assertTrue(recording.calls.get() < 100, "calls: " + recording.calls.get());
+			assertEquals(Set.of(first.toRealPath().toFile(), second.toRealPath().toFile()),
+				recording.running.keySet());
+
+			backend.restoreStaged(second.toFile(), List.of("file7.txt"));
+			assertEquals(99, recording.added.size());
+			assertEquals("", backend.add(second.toFile(), List.of()));
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+
+/**
+ * The unit test class for the class {@link GitStatusCache}
+ */
+public class GitStatusCacheTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link GitStatusCache#get(File, GitBackend)}
+	 */
+	@Test
+	public void testGet() throws IOException, GitAPIException, InterruptedException
+	{
+		AtomicInteger calls = new AtomicInteger();
+		ShellGitBackend shell = new ShellGitBackend();
+		GitBackend backend = new GitBackend()
+		{
+			@Override
+			public String add(File executionDirectory, List<String> paths)
+				throws IOException, InterruptedException
+			{
+				return shell.add(executionDirectory, paths);
+			}
+
+			@Override
+			public String restoreStaged(File executionDirectory, List<String> paths)
+				throws IOException, InterruptedException
+			{
+				return shell.restoreStaged(executionDirectory, paths);
+			}
+
+			@Override
+			public String status(File executionDirectory)
+				throws IOException, InterruptedException
+			{
+				return shell.status(executionDirectory);
+			}
+
+			@Override
+			public GitStatus getStatus(File executionDirectory)
+				throws IOException, InterruptedException
+			{
+				calls.incrementAndGet();
+				return shell.getStatus(executionDirectory);
+			}
+		};
+		try (Git git = Git.init().setDirectory(tempDir.toFile()).call())
+		{
+			Path subdirectory = Files.createDirectories(tempDir.resolve("sub"));
+			Files.writeString(subdirectory.resolve("file.txt"), "1");
+			GitStatusCache cache = new GitStatusCache();
+
+			GitStatus status = cache.get(tempDir.toFile(), backend);
+			assertEquals(1, calls.get());
+			assertEquals(1, status.getUntracked().size());
+			// the same repository from a subdirectory is served from the cache
+			assertSame(status, cache.get(subdirectory.toFile(), backend));
+			assertEquals(1, calls.get());
+
+			// staging changes the index, so the status is read again
+			backend.add(tempDir.toFile(), List.of("sub/file.txt"));
+			status = cache.get(tempDir.toFile(), backend);
+			assertEquals(2, calls.get());
+			assertEquals("sub/file.txt", status.getStaged().get(0).getPath());
+
+			// a change of the work tree only has to be announced
+			Files.writeString(tempDir.resolve("other.txt"), "2");
+			assertSame(status, cache.get(tempDir.toFile(), backend));
+			cache.invalidate(subdirectory.toFile());
+			assertEquals(1, cache.get(tempDir.toFile(), backend).getUntracked().size());
+			assertEquals(3, calls.get());
+			cache.clear();
+			assertTrue(cache.get(tempDir.toFile(), backend).getUnstaged().isEmpty());
+			assertEquals(4, calls.get());
+		}
+	}
+
+	/**
+	 * Test method for {@link GitStatusCache#get(File, GitBackend)} with an index that changes
+	 * while the status is read
+	 */
+	@Test
+	public void testGetWithConcurrentIndexChange()
+		throws IOException, GitAPIException, InterruptedException
+	{
+		AtomicInteger calls = new AtomicInteger();
+		ShellGitBackend shell = new ShellGitBackend();
+		GitBackend backend = new GitBackend()
+		{
+			@Override
+			public String add(File executionDirectory, List<String> paths)
+				throws IOException, InterruptedException
+			{
+				return shell.add(executionDirectory, paths);
+			}
+
+			@Override
+			public String restoreStaged(File executionDirectory, List<String> paths)
+				throws IOException, InterruptedException
+			{
+				return shell.restoreStaged(executionDirectory, paths);
+			}
+
+			@Override
+			public String status(File executionDirectory)
+				throws IOException, InterruptedException
+			{
+				return shell.status(executionDirectory);
+			}
+
+			@Override
+			public GitStatus getStatus(File executionDirectory)
+				throws IOException, InterruptedException
+			{
+				GitStatus status = shell.getStatus(executionDirectory);
+				if (calls.incrementAndGet() == 1)
+				{
+					// another thread stages a file after the status was read
+					shell.add(executionDirectory, List.of("file.txt"));
+				}
+				return status;
+			}
+		};
+		try (Git git = Git.init().setDirectory(tempDir.toFile()).call())
+		{
+			Files.writeString(tempDir.resolve("file.txt"), "1");
+			GitStatusCache cache = new GitStatusCache();
+
+			GitStatus status = cache.get(tempDir.toFile(), backend);
+			assertEquals(1, status.getUntracked().size());
+			// the outdated status is not cached, so the status is read again
+			status = cache.get(tempDir.toFile(), backend);
+			assertEquals(2, calls.get());
+			assertEquals("file.txt", status.getStaged().get(0).getPath());
+			assertSame(status, cache.get(tempDir.toFile(), backend));
+			assertEquals(2, calls.get());
+		}
+	}
+}
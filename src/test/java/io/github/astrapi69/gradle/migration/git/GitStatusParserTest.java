@@ -0,0 +1,115 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.GitStatusEntry;
+
+/**
+ * The unit test class for the class {@link GitStatusParser}
+ */
+public class GitStatusParserTest
+{
+
+	/**
+	 * Parses the given output
+	 *
+	 * @param output
+	 *            the output of git status
+	 * @return the parsed status
+	 */
+	private static GitStatus parse(String output) throws IOException
+	{
+		return GitStatusParser
+			.parse(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Gets the paths of the given entries
+	 *
+	 * @param entries
+	 *            the entries
+	 * @return the paths
+	 */
+	private static List<String> paths(List<GitStatusEntry> entries)
+	{
+		return entries.stream().map(GitStatusEntry::getPath).toList();
+	}
+
+	/**
+	 * Test method for {@link GitStatusParser#parse(java.io.InputStream)}
+	 */
+	@Test
+	public void testParse() throws IOException
+	{
+		String output = "# branch.oid 1234\0"
+			+ "1 A. N... 000000 100644 100644 0000 1111 src/new file.txt\0"
+			+ "1 .M N... 100644 100644 100644 1111 1111 build.gradle\0"
+			+ "1 MM N... 100644 100644 100644 1111 2222 gradle/dependencies.gradle\0"
+			+ "2 R. N... 100644 100644 100644 1111 1111 R100 gradle/libs.versions.toml\0"
+			+ "old.toml\0"
+			+ "u UU N... 100644 100644 100644 100644 1111 2222 3333 settings.gradle\0"
+			+ "? untracked dir/\0" + "! ignored.log\0";
+		GitStatus status = parse(output);
+		assertEquals(
+			List.of("src/new file.txt", "gradle/dependencies.gradle", "gradle/libs.versions.toml"),
+			paths(status.getStaged()));
+		assertEquals(List.of("build.gradle", "gradle/dependencies.gradle"),
+			paths(status.getUnstaged()));
+		assertEquals(List.of("untracked dir/"), paths(status.getUntracked()));
+		assertEquals(List.of("settings.gradle"), paths(status.getConflicted()));
+		GitStatusEntry renamed = status.getStaged().get(2);
+		assertEquals("old.toml", renamed.getOriginalPath());
+		assertEquals('R', renamed.getIndexStatus());
+		assertEquals('.', renamed.getWorkTreeStatus());
+		assertFalse(status.isClean());
+		assertTrue(parse("").isClean());
+		assertTrue(parse("# branch.head main\0").isClean());
+	}
+
+	/**
+	 * Test method for {@link GitStatusParser#parse(java.io.InputStream)} with invalid records
+	 */
+	@Test
+	public void testParseInvalid()
+	{
+		assertThrows(IOException.class, () -> parse("x something\0"));
+		assertThrows(IOException.class, () -> parse("1 A. N...\0"));
+		assertThrows(IOException.class,
+			() -> parse("2 R. N... 100644 100644 100644 1111 1111 R100 new.txt\0"));
+	}
+}
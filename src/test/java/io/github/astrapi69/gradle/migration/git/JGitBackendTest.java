@@ -0,0 +1,158 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.GitStatusEntry;
+
+/**
+ * The unit test class for the class {@link JGitBackend}
+ */
+public class JGitBackendTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates a repository with a committed file in the temporary directory
+	 *
+	 * @return the git api of the repository
+	 */
+	private Git newRepository() throws IOException, GitAPIException
+	{
+		Git git = Git.init().setDirectory(tempDir.toFile()).setInitialBranch("main").call();
+		Files.writeString(tempDir.resolve("committed.txt"), "committed");
+		git.add().addFilepattern("committed.txt").call();
+		git.commit().setMessage("initial").setAuthor("test", "test@example.com")
+			.setCommitter("test", "test@example.com").setSign(false).call();
+		return git;
+	}
+
+	/**
+	 * Test method for {@link JGitBackend#add(File, List)} and
+	 * {@link JGitBackend#restoreStaged(File, List)}
+	 */
+	@Test
+	public void testAddAndRestoreStaged()
+		throws IOException, GitAPIException, InterruptedException
+	{
+		try (Git git = newRepository(); JGitBackend backend = new JGitBackend())
+		{
+			Files.createDirectories(tempDir.resolve("sub"));
+			Files.writeString(tempDir.resolve("sub/file 1.txt"), "1");
+			Files.writeString(tempDir.resolve("file*.txt"), "2");
+			Files.writeString(tempDir.resolve("untracked.txt"), "3");
+			Files.delete(tempDir.resolve("committed.txt"));
+
+			String output = backend.add(tempDir.resolve("sub").toFile(),
+				List.of("file 1.txt", tempDir.resolve("file*.txt").toString(),
+					"../committed.txt"));
+			assertEquals("", output);
+			assertEquals(Set.of("sub/file 1.txt", "file*.txt"), git.status().call().getAdded());
+			assertEquals(Set.of("committed.txt"), git.status().call().getRemoved());
+			assertEquals(Set.of("untracked.txt"), git.status().call().getUntracked());
+			assertEquals("D  committed.txt\nA  file*.txt\nA  sub/file 1.txt\n?? untracked.txt\n",
+				backend.status(tempDir.toFile()));
+
+			GitStatus status = backend.getStatus(tempDir.resolve("sub").toFile());
+			assertEquals(List.of("committed.txt", "file*.txt", "sub/file 1.txt"),
+				status.getStaged().stream().map(GitStatusEntry::getPath).sorted().toList());
+			assertEquals(List.of(), status.getUnstaged());
+			assertEquals(List.of(), status.getConflicted());
+
+			backend.restoreStaged(tempDir.toFile(),
+				List.of("sub/file 1.txt", "file*.txt", "committed.txt"));
+			assertEquals(Set.of(), git.status().call().getAdded());
+			assertEquals(Set.of(), git.status().call().getRemoved());
+			assertEquals(Set.of("committed.txt"), git.status().call().getMissing());
+		}
+	}
+
+	/**
+	 * Test method for {@link JGitBackend#add(File, List)} with files that are ignored by a
+	 * .gitignore file, that are added like with <code>git add -f</code>
+	 */
+	@Test
+	public void testAddIgnoredFiles() throws IOException, GitAPIException, InterruptedException
+	{
+		try (Git git = newRepository(); JGitBackend backend = new JGitBackend())
+		{
+			Files.writeString(tempDir.resolve(".gitignore"), "*.log\nbuild/\n");
+			Files.writeString(tempDir.resolve("debug.log"), "1");
+			Files.createDirectories(tempDir.resolve("build/libs"));
+			Files.writeString(tempDir.resolve("build/libs/out.txt"), "2");
+			Files.writeString(tempDir.resolve("build/libs/other.log"), "3");
+			Files.writeString(tempDir.resolve("other.log"), "4");
+
+			assertEquals("", backend.add(tempDir.toFile(), List.of("debug.log", "build")));
+			assertEquals(Set.of("debug.log", "build/libs/out.txt", "build/libs/other.log"),
+				git.status().call().getAdded());
+			assertEquals(Set.of(".gitignore"), git.status().call().getUntracked());
+			assertEquals(Set.of(), git.status().call().getModified());
+
+			backend.restoreStaged(tempDir.toFile(), List.of("debug.log", "build"));
+			assertEquals(Set.of(), git.status().call().getAdded());
+		}
+	}
+
+	/**
+	 * Test method for {@link JGitBackend#add(File, List)} with paths outside of the repository and
+	 * a directory that is not in a repository
+	 */
+	@Test
+	public void testAddOutsideOfRepository() throws IOException, GitAPIException
+	{
+		Path repository = Files.createDirectories(tempDir.resolve("repository"));
+		Path other = Files.createDirectories(tempDir.resolve("other"));
+		Files.writeString(other.resolve("file.txt"), "1");
+		try (Git git = Git.init().setDirectory(repository.toFile()).call();
+			JGitBackend backend = new JGitBackend())
+		{
+			String output = backend.add(repository.toFile(),
+				List.of(other.resolve("file.txt").toString()));
+			assertTrue(output.startsWith("fatal: "), output);
+			assertEquals(Set.of(), git.status().call().getAdded());
+			assertTrue(backend.add(other.toFile(), List.of("file.txt"))
+				.startsWith("fatal: not a git repository"));
+			assertEquals("", backend.add(repository.toFile(), List.of()));
+		}
+	}
+}
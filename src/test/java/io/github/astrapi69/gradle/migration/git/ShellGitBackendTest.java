@@ -0,0 +1,120 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.git;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.GitStatusEntry;
+
+/**
+ * The unit test class for the class {@link ShellGitBackend}
+ */
+public class ShellGitBackendTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link ShellGitBackend#add(File, List)},
+	 * {@link ShellGitBackend#restoreStaged(File, List)} and {@link ShellGitBackend#status(File)}
+	 */
+	@Test
+	public void testAddAndRestoreStaged()
+		throws IOException, GitAPIException, InterruptedException
+	{
+		try (Git git = Git.init().setDirectory(tempDir.toFile()).call())
+		{
+			Files.writeString(tempDir.resolve("committed.txt"), "committed");
+			git.add().addFilepattern("committed.txt").call();
+			git.commit().setMessage("initial").setAuthor("test", "test@example.com")
+				.setCommitter("test", "test@example.com").setSign(false).call();
+			Files.createDirectories(tempDir.resolve("sub"));
+			Files.writeString(tempDir.resolve("sub/file 1.txt"), "1");
+			Files.writeString(tempDir.resolve("file*.txt"), "2");
+			Files.delete(tempDir.resolve("committed.txt"));
+
+			ShellGitBackend backend = new ShellGitBackend();
+			backend.add(tempDir.resolve("sub").toFile(),
+				List.of("file 1.txt", tempDir.resolve("file*.txt").toString(),
+					"../committed.txt"));
+			assertEquals(Set.of("sub/file 1.txt", "file*.txt"), git.status().call().getAdded());
+			assertEquals(Set.of("committed.txt"), git.status().call().getRemoved());
+			assertTrue(backend.status(tempDir.toFile()).contains("committed.txt"));
+
+			GitStatus status = backend.getStatus(tempDir.resolve("sub").toFile());
+			assertEquals(List.of("committed.txt", "file*.txt", "sub/file 1.txt"),
+				status.getStaged().stream().map(GitStatusEntry::getPath).sorted().toList());
+			assertEquals(List.of(), status.getUnstaged());
+			assertEquals(List.of(), status.getConflicted());
+
+			backend.restoreStaged(tempDir.toFile(),
+				List.of("sub/file 1.txt", "file*.txt", "committed.txt"));
+			assertEquals(Set.of(), git.status().call().getAdded());
+			assertEquals(Set.of("committed.txt"), git.status().call().getMissing());
+		}
+	}
+
+	/**
+	 * Test method for {@link ShellGitBackend#add(File, List)} and
+	 * {@link ShellGitBackend#restoreStaged(File, List)} with a missing path among valid paths
+	 */
+	@Test
+	public void testAddWithMissingPath() throws IOException, GitAPIException, InterruptedException
+	{
+		try (Git git = Git.init().setDirectory(tempDir.toFile()).call())
+		{
+			git.commit().setMessage("initial").setAuthor("test", "test@example.com")
+				.setCommitter("test", "test@example.com").setSign(false).call();
+			Files.writeString(tempDir.resolve("file1.txt"), "1");
+			Files.writeString(tempDir.resolve("file2.txt"), "2");
+
+			ShellGitBackend backend = new ShellGitBackend();
+			String output = backend.add(tempDir.toFile(),
+				List.of("file1.txt", "missing.txt", "file2.txt"));
+			assertEquals(Set.of("file1.txt", "file2.txt"), git.status().call().getAdded());
+			assertTrue(output.contains("missing.txt"));
+
+			backend.restoreStaged(tempDir.toFile(),
+				List.of("file1.txt", "missing.txt", "file2.txt"));
+			assertEquals(Set.of(), git.status().call().getAdded());
+			assertEquals(Set.of("file1.txt", "file2.txt"), git.status().call().getUntracked());
+		}
+	}
+}
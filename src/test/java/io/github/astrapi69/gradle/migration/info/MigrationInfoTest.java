@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.info;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link MigrationInfo}
+ */
+public class MigrationInfoTest
+{
+
+	/** The temporary directory for the tests. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link MigrationInfo#probe(String)}
+	 */
+	@Test
+	public void testProbe() throws IOException
+	{
+		Path projectDirectory = tempDir.resolve("read-only-project");
+		MigrationInfo migrationInfo = MigrationInfo.probe(projectDirectory.toString());
+
+		assertEquals(projectDirectory.toFile(), migrationInfo.getProjectDirectory());
+		assertEquals(projectDirectory.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME)
+			.toFile(), migrationInfo.getGradleDirectory());
+		assertFalse(migrationInfo.getProjectDirectory().exists());
+		assertFalse(migrationInfo.getGradleDirectory().exists());
+
+		assertSame(migrationInfo, migrationInfo.createDirectories());
+		assertTrue(migrationInfo.getProjectDirectory().isDirectory());
+		assertTrue(migrationInfo.getGradleDirectory().isDirectory());
+	}
+}
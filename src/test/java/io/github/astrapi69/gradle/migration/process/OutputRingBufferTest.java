@@ -0,0 +1,91 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.process;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link OutputRingBuffer}
+ */
+public class OutputRingBufferTest
+{
+
+	/**
+	 * Writes the given text into the given buffer
+	 *
+	 * @param buffer
+	 *            the buffer
+	 * @param text
+	 *            the text
+	 */
+	private static void write(OutputRingBuffer buffer, String text)
+	{
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		buffer.write(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Test method for {@link OutputRingBuffer#write(byte[], int, int)}
+	 */
+	@Test
+	public void testWrite()
+	{
+		OutputRingBuffer buffer = new OutputRingBuffer(8);
+		write(buffer, "abc");
+		write(buffer, "def");
+		assertEquals("abcdef", buffer.toString());
+		assertFalse(buffer.isTruncated());
+
+		write(buffer, "ghij");
+		assertEquals("cdefghij", buffer.toString());
+		assertTrue(buffer.isTruncated());
+		assertEquals(10, buffer.getWritten());
+
+		write(buffer, "0123456789");
+		assertArrayEquals("23456789".getBytes(StandardCharsets.UTF_8), buffer.toByteArray());
+
+		byte[] bytes = "xyz".getBytes(StandardCharsets.UTF_8);
+		buffer.write(bytes, 1, 1);
+		assertEquals("3456789y", buffer.toString());
+	}
+
+	/**
+	 * Test method for {@link OutputRingBuffer#OutputRingBuffer(int)}
+	 */
+	@Test
+	public void testOutputRingBuffer()
+	{
+		assertEquals("", new OutputRingBuffer(4).toString());
+		assertThrows(IllegalArgumentException.class, () -> new OutputRingBuffer(0));
+	}
+}
@@ -0,0 +1,222 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.process;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.ProcessCommand;
+import io.github.astrapi69.gradle.migration.info.ProcessResult;
+
+/**
+ * The unit test class for the class {@link ProcessExecutor}
+ */
+public class ProcessExecutorTest
+{
+
+	/** The temporary directory for the processes. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates the command that runs the given script with sh
+	 *
+	 * @param script
+	 *            the script
+	 * @return the command
+	 */
+	private static List<String> sh(String script)
+	{
+		return List.of("sh", "-c", script);
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(List, File)}
+	 */
+	@Test
+	public void testExecute() throws IOException, InterruptedException
+	{
+		ProcessResult result = ProcessExecutor.getDefault()
+			.execute(sh("pwd; echo failure >&2; exit 3"), tempDir.toFile());
+		assertEquals(3, result.getExitCode());
+		assertEquals(tempDir.toFile().getCanonicalPath(), result.getOutput().trim());
+		assertEquals("failure", result.getErrorOutput().trim());
+		assertFalse(result.isTimedOut());
+		assertFalse(result.isTruncated());
+		assertFalse(result.isSuccessful());
+
+		// the arguments are passed without a shell
+		result = ProcessExecutor.getDefault().execute(List.of("echo", "$HOME;", "*"),
+			tempDir.toFile());
+		assertTrue(result.isSuccessful());
+		assertEquals("$HOME; *", result.getOutput().trim());
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(ProcessCommand)} with an output that is larger
+	 * than the buffer and with line listeners
+	 */
+	@Test
+	public void testExecuteStreamingOutput() throws IOException, InterruptedException
+	{
+		ProcessExecutor executor = new ProcessExecutor(1, Duration.ofSeconds(30), 16);
+		List<String> lines = new ArrayList<>();
+		List<String> errorLines = new ArrayList<>();
+		ProcessResult result = executor.execute(ProcessCommand.builder()
+			.command(sh("for i in 1 2 3 4 5 6 7 8 9 10; do echo line$i; done; echo oops >&2"))
+			.directory(tempDir.toFile()).outputListener(lines::add).errorListener(errorLines::add)
+			.build());
+		assertTrue(result.isSuccessful());
+		assertTrue(result.isTruncated());
+		assertEquals("ne9\nline10\n", result.getOutput().substring(5));
+		assertEquals(16, result.getOutput().length());
+		assertEquals(10, lines.size());
+		assertEquals("line1", lines.get(0));
+		assertEquals("line10", lines.get(9));
+		assertEquals(List.of("oops"), errorLines);
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(ProcessCommand)} with an input and an output
+	 * handler
+	 */
+	@Test
+	public void testExecuteWithInputAndOutputHandler() throws IOException, InterruptedException
+	{
+		StringBuilder handled = new StringBuilder();
+		ProcessResult result = ProcessExecutor.getDefault()
+			.execute(ProcessCommand.builder().command(List.of("cat")).directory(tempDir.toFile())
+				.input("first\0second".getBytes(StandardCharsets.UTF_8))
+				.outputHandler(stdout -> handled
+					.append(new String(stdout.readAllBytes(), StandardCharsets.UTF_8)))
+				.build());
+		assertTrue(result.isSuccessful());
+		assertEquals("first\0second", handled.toString());
+		assertEquals("", result.getOutput());
+
+		assertThrows(IOException.class,
+			() -> ProcessExecutor.getDefault()
+				.execute(ProcessCommand.builder().command(sh("echo text"))
+					.directory(tempDir.toFile())
+					.outputHandler(stdout -> {
+						throw new IOException("invalid output");
+					}).build()));
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(ProcessCommand)} with an output handler that
+	 * throws a {@link RuntimeException} while the process still writes its output
+	 */
+	@Test
+	public void testExecuteWithFailingOutputHandler()
+	{
+		long start = System.nanoTime();
+		IllegalStateException exception = assertThrows(IllegalStateException.class,
+			() -> ProcessExecutor.getDefault()
+				.execute(ProcessCommand.builder().command(List.of("yes"))
+					.directory(tempDir.toFile()).timeout(Duration.ofSeconds(30))
+					.outputHandler(stdout -> {
+						stdout.read();
+						throw new IllegalStateException("malformed output");
+					}).build()));
+		assertEquals("malformed output", exception.getMessage());
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 8);
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(ProcessCommand)} with a process that misses
+	 * its deadline
+	 */
+	@Test
+	public void testExecuteTimeout() throws IOException, InterruptedException
+	{
+		long start = System.nanoTime();
+		ProcessResult result = ProcessExecutor.getDefault()
+			.execute(ProcessCommand.builder().command(sh("echo started; sleep 10"))
+				.directory(tempDir.toFile()).timeout(Duration.ofMillis(300)).build());
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 8);
+		assertTrue(result.isTimedOut());
+		assertFalse(result.isSuccessful());
+		assertEquals(-1, result.getExitCode());
+		assertEquals("started", result.getOutput().trim());
+	}
+
+	/**
+	 * Test method for {@link ProcessExecutor#execute(ProcessCommand)} with more commands than
+	 * allowed concurrent processes
+	 */
+	@Test
+	public void testExecuteProcessLimit() throws Exception
+	{
+		ProcessExecutor executor = new ProcessExecutor(2, Duration.ofSeconds(30), 1024);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<Future<ProcessResult>> futures = new ArrayList<>();
+		try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for (int i = 0; i < 6; i++)
+			{
+				futures.add(threads.submit(() -> executor.execute(ProcessCommand.builder()
+					.command(sh("echo start; sleep 0.2; echo end")).directory(tempDir.toFile())
+					.outputListener(line -> {
+						if (line.equals("start"))
+						{
+							maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+						}
+						else
+						{
+							running.decrementAndGet();
+						}
+					}).build())));
+			}
+			for (Future<ProcessResult> future : futures)
+			{
+				assertTrue(future.get().isSuccessful());
+			}
+		}
+		assertEquals(2, maxRunning.get());
+		assertEquals(0, running.get());
+		assertEquals(2, executor.getAvailableProcesses());
+		assertThrows(IllegalArgumentException.class,
+			() -> new ProcessExecutor(0, Duration.ofSeconds(1), 1024));
+	}
+}
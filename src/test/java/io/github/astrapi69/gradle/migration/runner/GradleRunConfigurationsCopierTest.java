@@ -25,16 +25,27 @@
 package io.github.astrapi69.gradle.migration.runner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.gradle.migration.extension.GitExtensions;
+import io.github.astrapi69.gradle.migration.git.GitBackend;
 import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
 
 /**
  * The unit test class for the class {@link GradleRunConfigurationsCopier}
@@ -42,6 +53,228 @@ import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
 public class GradleRunConfigurationsCopierTest
 {
 
+	/** The temporary directory for the projects. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates a run configuration in the given run configurations directory
+	 *
+	 * @param runConfigDir
+	 *            the run configurations directory
+	 * @param name
+	 *            the file name of the run configuration
+	 * @param projectName
+	 *            the name of the project of the run configuration
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static void newRunConfiguration(Path runConfigDir, String name, String projectName)
+		throws IOException
+	{
+		Files.createDirectories(runConfigDir);
+		Files.writeString(runConfigDir.resolve(name),
+			"<component name=\"ProjectRunConfigurationManager\">\n"
+				+ "  <configuration name=\"" + projectName
+				+ " [build]\" type=\"GradleRunConfiguration\">\n"
+				+ "    <option name=\"externalProjectPath\" value=\"$PROJECT_DIR$\" />\n"
+				+ "  </configuration>\n" + "</component>",
+			StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Lists the file names of the given directory
+	 *
+	 * @param directory
+	 *            the directory
+	 * @return the sorted file names
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static List<String> fileNames(Path directory) throws IOException
+	{
+		try (Stream<Path> files = Files.list(directory))
+		{
+			return files.map(file -> file.getFileName().toString()).sorted().toList();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link GradleRunConfigurationsCopier#copyOnlyRunConfigurations(String, String, String, String)}
+	 */
+	@Test
+	public void testCopyOnlyRunConfigurations() throws IOException
+	{
+		Path sourceRunConfigDir = tempDir.resolve("source/java-library/.idea/runConfigurations");
+		Path targetRunConfigDir = tempDir.resolve("target/crypt-data/.idea/runConfigurations");
+		newRunConfiguration(sourceRunConfigDir, "java_library__build_.xml", "java-library");
+		newRunConfiguration(sourceRunConfigDir, "java_library__test_.xml", "java-library");
+		newRunConfiguration(sourceRunConfigDir, "other__build_.xml", "other");
+
+		GradleRunConfigurationsCopier.copyOnlyRunConfigurations("java-library", "crypt-data",
+			tempDir.resolve("source") + File.separator, tempDir.resolve("target") + File.separator);
+
+		assertEquals(List.of("crypt_data__build_.xml", "crypt_data__test_.xml"),
+			fileNames(targetRunConfigDir));
+		assertEquals(3, fileNames(sourceRunConfigDir).size());
+		String content = Files.readString(targetRunConfigDir.resolve("crypt_data__build_.xml"),
+			StandardCharsets.UTF_8);
+		assertEquals(5, content.split(System.lineSeparator()).length);
+		assertFalse(content.contains("java-library"));
+		assertTrue(content.contains("name=\"crypt-data [build]\""));
+	}
+
+	/**
+	 * Test method for
+	 * {@link GradleRunConfigurationsCopier#copyOnlyRunConfigurations(String, String, String, String)}
+	 * that is interrupted while the copied run configurations are added to git
+	 */
+	@Test
+	public void testCopyOnlyRunConfigurationsInterrupted() throws IOException
+	{
+		Path targetRunConfigDir = tempDir.resolve("target/crypt-data/.idea/runConfigurations");
+		newRunConfiguration(tempDir.resolve("source/java-library/.idea/runConfigurations"),
+			"java_library__build_.xml", "java-library");
+		GitBackend previous = GitExtensions.setBackend(new GitBackend()
+		{
+			@Override
+			public String add(File executionDirectory, List<String> paths)
+				throws InterruptedException
+			{
+				throw new InterruptedException();
+			}
+
+			@Override
+			public String restoreStaged(File executionDirectory, List<String> paths)
+			{
+				return "";
+			}
+
+			@Override
+			public String status(File executionDirectory)
+			{
+				return "";
+			}
+
+			@Override
+			public GitStatus getStatus(File executionDirectory)
+			{
+				return null;
+			}
+		});
+		try
+		{
+			GradleRunConfigurationsCopier.copyOnlyRunConfigurations("java-library", "crypt-data",
+				tempDir.resolve("source") + File.separator,
+				tempDir.resolve("target") + File.separator);
+
+			assertEquals(List.of("crypt_data__build_.xml"), fileNames(targetRunConfigDir));
+			// the interrupt is kept for the caller, Thread.interrupted also clears it
+			assertTrue(Thread.interrupted());
+		}
+		finally
+		{
+			GitExtensions.setBackend(previous);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link GradleRunConfigurationsCopier#copyRunConfigurations(String, String, String, String, boolean, boolean)}
+	 * that externalizes the versions of the build.gradle file
+	 */
+	@Test
+	public void testCopyRunConfigurationsExternalizeVersions() throws IOException
+	{
+		Path targetProjectDir = tempDir.resolve("crypt-data");
+		newRunConfiguration(tempDir.resolve("java-library/.idea/runConfigurations"),
+			"java_library__build_.xml", "java-library");
+		Files.createDirectories(targetProjectDir);
+		Files.writeString(targetProjectDir.resolve("build.gradle"),
+			"plugins {\n    id 'java-library'\n}\n" + "version = '1.2'\n" + "dependencies {\n"
+				+ "    implementation 'io.github.astrapi69:silly-io:3.1'\n"
+				+ "    testImplementation(\"org.junit.jupiter:junit-jupiter-api:5.11.2\")\n"
+				+ "}\n" + "description = 'it's a library'\n",
+			StandardCharsets.UTF_8);
+
+		GradleRunConfigurationsCopier.copyRunConfigurations("java-library", "crypt-data",
+			tempDir + File.separator, tempDir + File.separator, false, false);
+
+		assertEquals(
+			"plugins {\n    id 'java-library'\n}\n" + "version = \"$projectVersion\"\n"
+				+ "dependencies {\n"
+				+ "    implementation \"io.github.astrapi69:silly-io:$sillyIoVersion\"\n"
+				+ "    testImplementation(\"org.junit.jupiter:junit-jupiter-api:$junitJupiterApiVersion\")\n"
+				+ "}\n" + "description = 'it's a library'\n",
+			Files.readString(targetProjectDir.resolve("build.gradle"), StandardCharsets.UTF_8));
+		String gradleProperties = Files.readString(targetProjectDir.resolve("gradle.properties"),
+			StandardCharsets.ISO_8859_1);
+		assertTrue(gradleProperties.contains("projectVersion=1.2"));
+		assertTrue(gradleProperties.contains("sillyIoVersion=3.1"));
+		assertTrue(gradleProperties.contains("junitJupiterApiVersion=5.11.2"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link GradleRunConfigurationsCopier#copyRunConfigurations(String, String, String, String, boolean, boolean)}
+	 * that runs twice over a build.gradle file with already externalized versions
+	 */
+	@Test
+	public void testCopyRunConfigurationsExternalizeVersionsTwice() throws IOException
+	{
+		Path targetProjectDir = tempDir.resolve("crypt-data");
+		newRunConfiguration(tempDir.resolve("java-library/.idea/runConfigurations"),
+			"java_library__build_.xml", "java-library");
+		Files.createDirectories(targetProjectDir);
+		Files.writeString(targetProjectDir.resolve("build.gradle"),
+			"version = '1.2'\n" + "dependencies {\n"
+				+ "    implementation 'io.github.astrapi69:silly-io:3.1'\n"
+				+ "    implementation \"org.projectlombok:lombok:${lombokVersion}\"\n" + "}\n",
+			StandardCharsets.UTF_8);
+
+		GradleRunConfigurationsCopier.copyRunConfigurations("java-library", "crypt-data",
+			tempDir + File.separator, tempDir + File.separator, false, false);
+		String firstRun = Files.readString(targetProjectDir.resolve("build.gradle"),
+			StandardCharsets.UTF_8);
+		GradleRunConfigurationsCopier.copyRunConfigurations("java-library", "crypt-data",
+			tempDir + File.separator, tempDir + File.separator, false, false);
+
+		assertEquals("version = \"$projectVersion\"\n" + "dependencies {\n"
+			+ "    implementation \"io.github.astrapi69:silly-io:$sillyIoVersion\"\n"
+			+ "    implementation \"org.projectlombok:lombok:${lombokVersion}\"\n" + "}\n",
+			firstRun);
+		assertEquals(firstRun, Files.readString(targetProjectDir.resolve("build.gradle"),
+			StandardCharsets.UTF_8));
+		String gradleProperties = Files.readString(targetProjectDir.resolve("gradle.properties"),
+			StandardCharsets.ISO_8859_1);
+		assertTrue(gradleProperties.contains("projectVersion=1.2"));
+		assertTrue(gradleProperties.contains("sillyIoVersion=3.1"));
+		assertFalse(gradleProperties.contains("$"));
+		assertFalse(gradleProperties.contains("lombokVersion"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link GradleRunConfigurationsCopier#copyRunConfigurations(String, String, String, String, boolean, boolean)}
+	 * with run configurations in the same folder
+	 */
+	@Test
+	public void testCopyRunConfigurationsInSameFolder() throws IOException
+	{
+		Path runConfigDir = tempDir.resolve("crypt-data/.idea/runConfigurations");
+		newRunConfiguration(runConfigDir, "java_library__build_.xml", "java-library");
+		newRunConfiguration(runConfigDir, "crypt_data__test_.xml", "crypt-data");
+
+		GradleRunConfigurationsCopier.copyRunConfigurations("java-library", "crypt-data",
+			tempDir + File.separator, tempDir + File.separator, true, true);
+
+		assertEquals(List.of("crypt_data__build_.xml", "crypt_data__test_.xml"),
+			fileNames(runConfigDir));
+		assertFalse(Files.readString(runConfigDir.resolve("crypt_data__build_.xml"),
+			StandardCharsets.UTF_8).contains("java-library"));
+	}
+
 	@Test
 	public void testGetContentOfNonExistingSection()
 	{
@@ -0,0 +1,165 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link IdeaDirectoryCopier}
+ */
+public class IdeaDirectoryCopierTest
+{
+
+	/** The temporary directory for the projects. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates a file with the given content
+	 *
+	 * @param file
+	 *            the file
+	 * @param content
+	 *            the content
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static void write(Path file, String content) throws IOException
+	{
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates a '.idea' directory of the project 'java-library'
+	 *
+	 * @return the '.idea' directory
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private Path newIdeaDirectory() throws IOException
+	{
+		Path ideaDirectory = tempDir.resolve("java-library/.idea");
+		write(ideaDirectory.resolve(".name"), "java-library");
+		write(ideaDirectory.resolve("misc.xml"), "<project version=\"4\" />");
+		write(ideaDirectory.resolve("workspace.xml"), "<project name=\"java-library\" />");
+		write(ideaDirectory.resolve("shelf/change.xml"), "<changelist />");
+		write(ideaDirectory.resolve("modules/java-library.main.iml"), "<module />");
+		write(ideaDirectory.resolve("runConfigurations/java_library__build_.xml"),
+			"<component><configuration name=\"java-library [build]\">"
+				+ "<option name=\"vmOptions\" value=\"java-library\" /></configuration>"
+				+ "</component>");
+		return ideaDirectory;
+	}
+
+	/**
+	 * Lists the files of the given directory tree
+	 *
+	 * @param directory
+	 *            the directory
+	 * @return the sorted relative paths of the files
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	private static List<String> files(Path directory) throws IOException
+	{
+		try (Stream<Path> files = Files.walk(directory))
+		{
+			return files.filter(Files::isRegularFile)
+				.map(file -> directory.relativize(file).toString().replace('\\', '/')).sorted()
+				.toList();
+		}
+	}
+
+	/**
+	 * Test method for {@link IdeaDirectoryCopier#copyDirectory(Path, Path)}
+	 */
+	@Test
+	public void testCopyDirectory() throws IOException
+	{
+		Path sourceDirectory = newIdeaDirectory();
+		Path targetDirectory = tempDir.resolve("crypt-data/.idea");
+		IdeaDirectoryCopier copier = IdeaDirectoryCopier.of(
+			GradleRunConfigurationsCopier.newProjectNameReplacer("java-library", "crypt-data"),
+			CopyMode.TRANSFER);
+
+		List<Path> copied = copier.copyDirectory(sourceDirectory, targetDirectory);
+
+		assertEquals(4, copied.size());
+		assertEquals(List.of(".name", "misc.xml", "modules/crypt-data.main.iml",
+			"runConfigurations/crypt_data__build_.xml"), files(targetDirectory));
+		assertEquals("crypt-data",
+			Files.readString(targetDirectory.resolve(".name"), StandardCharsets.UTF_8));
+		assertEquals("<project version=\"4\" />",
+			Files.readString(targetDirectory.resolve("misc.xml"), StandardCharsets.UTF_8));
+		assertFalse(Files.isSameFile(sourceDirectory.resolve("misc.xml"),
+			targetDirectory.resolve("misc.xml")));
+		// only the project related attributes of a run configuration are rewritten
+		assertEquals(
+			"<component><configuration name=\"crypt-data [build]\">"
+				+ "<option name=\"vmOptions\" value=\"java-library\" /></configuration>"
+				+ "</component>",
+			Files.readString(targetDirectory.resolve("runConfigurations/crypt_data__build_.xml"),
+				StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for {@link IdeaDirectoryCopier#copyFile(Path, Path)} with the copy mode
+	 * {@link CopyMode#LINK}
+	 */
+	@Test
+	public void testCopyFileLink() throws IOException
+	{
+		Path sourceDirectory = newIdeaDirectory();
+		Path targetDirectory = tempDir.resolve("crypt-data/.idea");
+		IdeaDirectoryCopier copier = IdeaDirectoryCopier.of(
+			GradleRunConfigurationsCopier.newProjectNameReplacer("java-library", "crypt-data"),
+			CopyMode.LINK);
+
+		assertFalse(copier.copyFile(sourceDirectory.resolve("misc.xml"),
+			targetDirectory.resolve("misc.xml")));
+		assertTrue(Files.isSameFile(sourceDirectory.resolve("misc.xml"),
+			targetDirectory.resolve("misc.xml")));
+
+		assertTrue(copier.copyFile(sourceDirectory.resolve(".name"),
+			targetDirectory.resolve(".name")));
+		assertFalse(Files.isSameFile(sourceDirectory.resolve(".name"),
+			targetDirectory.resolve(".name")));
+		assertEquals("java-library",
+			Files.readString(sourceDirectory.resolve(".name"), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,239 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link LiteralReplacer}
+ */
+public class LiteralReplacerTest
+{
+
+	/**
+	 * Replaces the given tokens by scanning every position for the longest token that starts
+	 * there
+	 *
+	 * @param text
+	 *            the text
+	 * @param replacements
+	 *            the tokens with their replacements
+	 * @return the text with the replaced tokens
+	 */
+	private static String replaceNaive(String text, Map<String, String> replacements)
+	{
+		StringBuilder result = new StringBuilder();
+		int position = 0;
+		while (position < text.length())
+		{
+			String longest = null;
+			for (String token : replacements.keySet())
+			{
+				if (text.startsWith(token, position)
+					&& (longest == null || longest.length() < token.length()))
+				{
+					longest = token;
+				}
+			}
+			if (longest == null)
+			{
+				result.append(text.charAt(position));
+				position++;
+			}
+			else
+			{
+				result.append(replacements.get(longest));
+				position += longest.length();
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#replace(CharSequence)}
+	 */
+	@Test
+	public void testReplace()
+	{
+		Map<String, String> replacements = new LinkedHashMap<>();
+		replacements.put("java-library", "crypt-data");
+		replacements.put("java_library", "crypt_data");
+		replacements.put("javaLibraryVersion", "cryptDataVersion");
+		replacements.put("a.b", "x");
+		LiteralReplacer replacer = LiteralReplacer.of(replacements);
+
+		assertEquals("<configuration name=\"crypt-data [build]\" file=\"crypt_data.xml\" />",
+			replacer.replace(
+				"<configuration name=\"java-library [build]\" file=\"java_library.xml\" />"));
+		assertEquals("cryptDataVersion=1.0", replacer.replace("javaLibraryVersion=1.0"));
+		// tokens are literals and no regular expressions
+		assertEquals("x axb", replacer.replace("a.b axb"));
+		assertEquals("", replacer.replace(""));
+		assertEquals("java-librar", replacer.replace("java-librar"));
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#replace(CharSequence)} with overlapping tokens
+	 */
+	@Test
+	public void testReplaceOverlappingTokens()
+	{
+		Map<String, String> replacements = new LinkedHashMap<>();
+		replacements.put("he", "1");
+		replacements.put("she", "2");
+		replacements.put("hers", "3");
+		replacements.put("his", "4");
+		replacements.put("crypt", "5");
+		replacements.put("cryptVersion", "6");
+		LiteralReplacer replacer = LiteralReplacer.of(replacements);
+
+		assertEquals("2rs", replacer.replace("shers"));
+		assertEquals("u3", replacer.replace("uhers"));
+		assertEquals("4 1", replacer.replace("his he"));
+		assertEquals("6 5Versio", replacer.replace("cryptVersion cryptVersio"));
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#replace(CharSequence)} compared to a naive
+	 * implementation on random texts
+	 */
+	@Test
+	public void testReplaceRandom()
+	{
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++)
+		{
+			Map<String, String> replacements = new LinkedHashMap<>();
+			int tokenCount = 1 + random.nextInt(6);
+			for (int i = 0; i < tokenCount; i++)
+			{
+				replacements.put(randomText(random, 1 + random.nextInt(5)),
+					"<" + i + ">");
+			}
+			LiteralReplacer replacer = LiteralReplacer.of(replacements);
+			String text = randomText(random, random.nextInt(200));
+			assertEquals(replaceNaive(text, replacements), replacer.replace(text), text);
+		}
+	}
+
+	/**
+	 * Creates a random text of the characters a, b and c
+	 *
+	 * @param random
+	 *            the random generator
+	 * @param length
+	 *            the length of the text
+	 * @return the random text
+	 */
+	private static String randomText(Random random, int length)
+	{
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++)
+		{
+			text.append((char)('a' + random.nextInt(3)));
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#replace(Reader, java.io.Writer)}
+	 */
+	@Test
+	public void testReplaceReader() throws IOException
+	{
+		LiteralReplacer replacer = LiteralReplacer.of(Map.of("java-library", "crypt-data"));
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+		{
+			text.append("<option name=\"java-library\" value=\"").append(i).append("\" />\r\n");
+		}
+		StringWriter writer = new StringWriter();
+		replacer.replace(new StringReader(text.toString()), writer);
+		assertEquals(text.toString().replace("java-library", "crypt-data"), writer.toString());
+
+		// the buffers are reused for the next text
+		writer = new StringWriter();
+		replacer.replace(new StringReader("java-library"), writer);
+		assertEquals("crypt-data", writer.toString());
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#containsToken(ByteBuffer)}
+	 */
+	@Test
+	public void testContainsToken()
+	{
+		LiteralReplacer ascii = LiteralReplacer.of(Map.of("java-library", "crypt-data"));
+		assertTrue(ascii.containsToken(utf8("<name>java-library</name>")));
+		assertFalse(ascii.containsToken(utf8("<name>java-librar</name>")));
+		assertFalse(ascii.containsToken(utf8("")));
+
+		LiteralReplacer umlauts = LiteralReplacer.of(Map.of("größe", "size"));
+		assertTrue(umlauts.containsToken(utf8("die größe")));
+		assertFalse(umlauts.containsToken(utf8("die grösse")));
+
+		ByteBuffer bytes = utf8("java-library");
+		bytes.position(1);
+		assertFalse(ascii.containsToken(bytes));
+		assertEquals(1, bytes.position());
+	}
+
+	/**
+	 * Encodes the given text with UTF-8
+	 *
+	 * @param text
+	 *            the text
+	 * @return the encoded bytes
+	 */
+	private static ByteBuffer utf8(String text)
+	{
+		return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for {@link LiteralReplacer#of(Map)} with invalid tokens
+	 */
+	@Test
+	public void testOfInvalidTokens()
+	{
+		assertThrows(IllegalArgumentException.class, () -> LiteralReplacer.of(Map.of("", "x")));
+		assertEquals("text", LiteralReplacer.of(Map.of()).replace("text"));
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link RunConfigurationRewriter}
+ */
+public class RunConfigurationRewriterTest
+{
+
+	/**
+	 * Rewrites the given run configuration from the project 'java-library' to 'crypt-data'
+	 *
+	 * @param runConfiguration
+	 *            the run configuration
+	 * @return the rewritten run configuration
+	 */
+	private static String rewrite(String runConfiguration) throws IOException, XMLStreamException
+	{
+		RunConfigurationRewriter rewriter = RunConfigurationRewriter.of(
+			GradleRunConfigurationsCopier.newProjectNameReplacer("java-library", "crypt-data"));
+		StringWriter writer = new StringWriter();
+		rewriter.rewrite(new StringReader(runConfiguration), writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationRewriter#rewrite(java.io.Reader, java.io.Writer)}
+	 */
+	@Test
+	public void testRewrite() throws IOException, XMLStreamException
+	{
+		String runConfiguration = """
+			<component name="ProjectRunConfigurationManager">
+			  <configuration default="false" name="java-library [build]" type="GradleRunConfiguration" factoryName="Gradle">
+			    <!-- copied from java-library -->
+			    <ExternalSystemSettings>
+			      <option name="executionName" />
+			      <option name="externalProjectPath" value="$PROJECT_DIR$/../java-library" />
+			      <option name="scriptParameters" value="-PjavaLibraryVersion=1.0&#10;--info" />
+			      <option name="taskNames">
+			        <list>
+			          <option value="java-library:build" />
+			        </list>
+			      </option>
+			      <option name="vmOptions" value="-Dorigin=java-library &quot;x&quot; &lt;y&gt;" />
+			    </ExternalSystemSettings>
+			    <module name="java_library.main" />
+			    <description>Builds java-library &amp; more</description>
+			    <method v="2" />
+			  </configuration>
+			</component>""";
+		String expected = """
+			<component name="ProjectRunConfigurationManager">
+			  <configuration default="false" name="crypt-data [build]" type="GradleRunConfiguration" factoryName="Gradle">
+			    <!-- copied from java-library -->
+			    <ExternalSystemSettings>
+			      <option name="executionName" />
+			      <option name="externalProjectPath" value="$PROJECT_DIR$/../crypt-data" />
+			      <option name="scriptParameters" value="-PcryptDataVersion=1.0&#10;--info" />
+			      <option name="taskNames">
+			        <list>
+			          <option value="crypt-data:build" />
+			        </list>
+			      </option>
+			      <option name="vmOptions" value="-Dorigin=java-library &quot;x&quot; &lt;y&gt;" />
+			    </ExternalSystemSettings>
+			    <module name="crypt_data.main" />
+			    <description>Builds java-library &amp; more</description>
+			    <method v="2" />
+			  </configuration>
+			</component>""";
+		assertEquals(expected, rewrite(runConfiguration));
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationRewriter#rewrite(java.io.Reader, java.io.Writer)}
+	 * with a declaration and an empty element with end tag
+	 */
+	@Test
+	public void testRewriteWithDeclaration() throws IOException, XMLStreamException
+	{
+		assertEquals(
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<configuration name=\"crypt-data\"><option /></configuration>",
+			rewrite("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<configuration name=\"java-library\"><option></option></configuration>"));
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationRewriter#rewrite(java.io.Reader, java.io.Writer)}
+	 * with a run configuration that is not well formed
+	 */
+	@Test
+	public void testRewriteNotWellFormed()
+	{
+		assertThrows(XMLStreamException.class,
+			() -> rewrite("<configuration name=\"java-library\">"));
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link RunConfigurationsWatcher}
+ */
+public class RunConfigurationsWatcherTest
+{
+
+	/** The temporary directory for the projects. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Gets the run configurations directory of the given project
+	 *
+	 * @param projectName
+	 *            the name of the project
+	 * @return the run configurations directory
+	 */
+	private Path runConfigDir(String projectName)
+	{
+		return tempDir.resolve(projectName).resolve(".idea").resolve("runConfigurations");
+	}
+
+	/**
+	 * Creates a new watcher for the template project 'java-library' with the targets
+	 * 'crypt-data' and 'file-worker'
+	 *
+	 * @param syncs
+	 *            the queue that receives the names of the synced target projects
+	 * @return the new watcher
+	 */
+	private RunConfigurationsWatcher newWatcher(BlockingQueue<String> syncs)
+	{
+		String prefix = tempDir.toString() + File.separator;
+		RunConfigurationsWatcher watcher = RunConfigurationsWatcher.of("java-library", prefix,
+			Duration.ofMillis(300));
+		watcher.register("crypt-data", prefix);
+		watcher.register("file-worker", prefix);
+		watcher.setSyncListener((target, files) -> syncs.add(target + ":" + files.size()));
+		return watcher;
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationsWatcher#start()}
+	 */
+	@Test
+	public void testStart() throws IOException, InterruptedException
+	{
+		Files.createDirectories(runConfigDir("java-library"));
+		BlockingQueue<String> syncs = new LinkedBlockingQueue<>();
+		try (RunConfigurationsWatcher watcher = newWatcher(syncs))
+		{
+			watcher.start();
+			Path runConfiguration = runConfigDir("java-library")
+				.resolve("java_library__build_.xml");
+			for (int i = 0; i < 5; i++)
+			{
+				// the events of the repeated writes are coalesced into one sync
+				Files.writeString(runConfiguration,
+					"<configuration name=\"java-library [build]\" index=\"" + i + "\" />",
+					StandardCharsets.UTF_8);
+			}
+			assertEquals(List.of("crypt-data:1", "file-worker:1"), List
+				.of(syncs.poll(30, TimeUnit.SECONDS), syncs.poll(30, TimeUnit.SECONDS)).stream()
+				.sorted().toList());
+			assertEquals("<configuration name=\"crypt-data [build]\" index=\"4\" />",
+				Files.readString(runConfigDir("crypt-data").resolve("crypt_data__build_.xml"),
+					StandardCharsets.UTF_8));
+
+			assertTrue(watcher.unregister("file-worker"));
+			Files.delete(runConfiguration);
+			assertEquals("crypt-data:1", syncs.poll(30, TimeUnit.SECONDS));
+			assertFalse(Files.exists(runConfigDir("crypt-data").resolve("crypt_data__build_.xml")));
+			assertTrue(
+				Files.exists(runConfigDir("file-worker").resolve("file_worker__build_.xml")));
+		}
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationsWatcher#start()} with a run configurations directory
+	 * that is deleted and created again
+	 */
+	@Test
+	public void testStartWithRecreatedDirectory() throws IOException, InterruptedException
+	{
+		Path runConfigDir = Files.createDirectories(runConfigDir("java-library"));
+		BlockingQueue<String> syncs = new LinkedBlockingQueue<>();
+		try (RunConfigurationsWatcher watcher = newWatcher(syncs))
+		{
+			watcher.start();
+			Files.delete(runConfigDir);
+			Files.delete(runConfigDir.getParent());
+			Files.createDirectories(runConfigDir);
+			Files.writeString(runConfigDir.resolve("java_library__build_.xml"),
+				"<configuration name=\"java-library [build]\" />", StandardCharsets.UTF_8);
+
+			Path synced = runConfigDir("crypt-data").resolve("crypt_data__build_.xml");
+			while (!Files.exists(synced) && syncs.poll(30, TimeUnit.SECONDS) != null)
+			{
+				// the events of the recreated directory may be synced in several steps
+			}
+			assertEquals("<configuration name=\"crypt-data [build]\" />",
+				Files.readString(synced, StandardCharsets.UTF_8));
+
+			Files.writeString(runConfigDir.resolve("java_library__test_.xml"),
+				"<configuration name=\"java-library [test]\" />", StandardCharsets.UTF_8);
+			Path test = runConfigDir("file-worker").resolve("file_worker__test_.xml");
+			while (!Files.exists(test) && syncs.poll(30, TimeUnit.SECONDS) != null)
+			{
+				// the directory is watched again after it was recreated
+			}
+			assertTrue(Files.exists(test));
+		}
+	}
+
+	/**
+	 * Test method for {@link RunConfigurationsWatcher#syncAll()}
+	 */
+	@Test
+	public void testSyncAll() throws IOException, InterruptedException
+	{
+		Files.createDirectories(runConfigDir("java-library"));
+		Files.writeString(runConfigDir("java-library").resolve("java_library__test_.xml"),
+			"<configuration name=\"java-library [test]\" />", StandardCharsets.UTF_8);
+		Files.writeString(runConfigDir("java-library").resolve("other__test_.xml"),
+			"<configuration name=\"other [test]\" />", StandardCharsets.UTF_8);
+		BlockingQueue<String> syncs = new LinkedBlockingQueue<>();
+		RunConfigurationsWatcher watcher = newWatcher(syncs);
+
+		watcher.syncAll();
+
+		assertEquals(2, syncs.size());
+		try (Stream<Path> files = Files.list(runConfigDir("file-worker")))
+		{
+			assertEquals(List.of("file_worker__test_.xml"),
+				files.map(file -> file.getFileName().toString()).toList());
+		}
+	}
+}
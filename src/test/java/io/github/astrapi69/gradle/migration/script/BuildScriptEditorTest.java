@@ -0,0 +1,115 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link BuildScriptEditor}
+ */
+public class BuildScriptEditorTest
+{
+
+	/** The temporary directory for the written build scripts. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link BuildScriptEditor#replace(int, int, CharSequence)}
+	 */
+	@Test
+	public void testReplace()
+	{
+		String original = "version = '1.0'\ndependencies {\n}\ndescription = 'library'\n";
+		BuildScriptEditor editor = BuildScriptEditor.of(original);
+		assertFalse(editor.isModified());
+		assertEquals(original, editor.toString());
+
+		int dependenciesStart = original.indexOf("dependencies");
+		int dependenciesEnd = original.indexOf('}') + 1;
+		// the edits can be added in any order, the offsets refer to the original content
+		editor.replace(dependenciesStart, dependenciesEnd,
+			"dependencies {\n    implementation(\"a:b:$bVersion\")\n}");
+		editor.normalizeQuotes(0, original.indexOf('\n'));
+		editor.insert(original.length(), "// end\n");
+
+		String expected = "version = \"1.0\"\ndependencies {\n"
+			+ "    implementation(\"a:b:$bVersion\")\n}\ndescription = 'library'\n// end\n";
+		assertTrue(editor.isModified());
+		assertEquals(expected, editor.toString());
+		assertEquals(expected.length(), editor.length());
+		assertEquals(original, editor.getOriginal());
+	}
+
+	/**
+	 * Test method for {@link BuildScriptEditor#replace(int, int, CharSequence)} with invalid spans
+	 */
+	@Test
+	public void testReplaceInvalidSpans()
+	{
+		BuildScriptEditor editor = BuildScriptEditor.of("0123456789");
+		editor.replace(2, 5, "x");
+		editor.insert(7, "y");
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(4, 6, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(0, 3, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(2, 2, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(6, 8, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.insert(7, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(8, 11, "z"));
+		assertThrows(IllegalArgumentException.class, () -> editor.replace(3, 1, "z"));
+
+		editor.insert(5, "|").replace(0, 2, "");
+		assertEquals("x|56y789", editor.toString());
+	}
+
+	/**
+	 * Test method for {@link BuildScriptEditor#writeTo(File)}
+	 */
+	@Test
+	public void testWriteTo() throws IOException
+	{
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex
+			.of("plugins {\n}\ndependencies {\n    implementation 'a:b:1.0'\n}\n");
+		File buildGradle = tempDir.resolve("build.gradle").toFile();
+		BuildScriptEditor editor = BuildScriptEditor.of(buildScriptIndex);
+		int start = buildScriptIndex.getSectionSpan("dependencies").getStart();
+		int end = buildScriptIndex.getSectionSpan("dependencies").getEnd();
+		editor.normalizeQuotes(start, end).writeTo(buildGradle);
+		assertEquals("plugins {\n}\ndependencies {\n    implementation \"a:b:1.0\"\n}\n",
+			Files.readString(buildGradle.toPath(), StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+
+/**
+ * The unit test class for the class {@link BuildScriptIndex}
+ */
+public class BuildScriptIndexTest
+{
+
+	/**
+	 * Test method for {@link BuildScriptIndex#of(File)}
+	 */
+	@Test
+	public void testOf() throws IOException
+	{
+		File srcTestResourcesTest = PathFinder.getRelativePath(PathFinder.getSrcTestResourcesDir(),
+			"test");
+		File buildGradle = new File(srcTestResourcesTest, "/build-with-lombok.gradle");
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex.of(buildGradle);
+
+		List<String> topLevelSectionNames = buildScriptIndex.getTopLevelSections().stream()
+			.map(SectionSpan::getName).collect(Collectors.toList());
+		assertEquals(List.of("buildscript", "plugins", "java", "configureEach", "named"),
+			topLevelSectionNames);
+
+		assertTrue(buildScriptIndex.contains("buildscript"));
+		assertFalse(buildScriptIndex.contains("repositories"));
+		assertNull(buildScriptIndex.getSection("repositories"));
+		assertFalse(buildScriptIndex.contains("dependencies"));
+		assertNull(buildScriptIndex.getSection("dependencies"));
+		assertEquals(0, buildScriptIndex.getSectionSpan("buildscript").getDepth());
+	}
+
+	/**
+	 * Test method for {@link BuildScriptIndex#getSectionSpan(String)} with a nested section of the
+	 * same name before the top-level section
+	 */
+	@Test
+	public void testGetSectionSpanIgnoresNestedSections()
+	{
+		String content = "buildscript {\n    dependencies {\n"
+			+ "        classpath 'a:b:1.0'\n    }\n}\n" + "dependencies {\n    implementation 'c:d:2.0'\n}\n";
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex.of(content);
+		SectionSpan dependencies = buildScriptIndex.getSectionSpan("dependencies");
+		assertEquals(0, dependencies.getDepth());
+		assertEquals(content.lastIndexOf("dependencies"), dependencies.getStart());
+		assertEquals("dependencies {\n    implementation 'c:d:2.0'\n}",
+			buildScriptIndex.getSection("dependencies").toString());
+		assertEquals(List.of("buildscript", "dependencies"), buildScriptIndex.getTopLevelSections()
+			.stream().map(SectionSpan::getName).collect(Collectors.toList()));
+	}
+
+	/**
+	 * Test method for {@link BuildScriptIndex#getSection(String)}
+	 */
+	@Test
+	public void testGetSection()
+	{
+		String content = "ext {\n    braces = '{{'\n}\ndependencies {\n    implementation \"a:b:${v}\"\n}\n";
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex.of(content);
+		assertEquals("ext {\n    braces = '{{'\n}", buildScriptIndex.getSection("ext").toString());
+		assertEquals("dependencies {\n    implementation \"a:b:${v}\"\n}",
+			buildScriptIndex.getSection("dependencies").toString());
+		SectionSpan dependencies = buildScriptIndex.getSectionSpan("dependencies");
+		assertEquals(content.indexOf("dependencies"), dependencies.getStart());
+		assertEquals(content.lastIndexOf('}') + 1, dependencies.getEnd());
+	}
+
+	/**
+	 * Test method for {@link BuildScriptIndex#getVersionAssignment()}
+	 */
+	@Test
+	public void testGetVersionAssignment()
+	{
+		String content = "ext {\n    version = '0.1'\n}\nversion = '1.0'\ndependencies {\n}\n";
+		BuildScriptIndex buildScriptIndex = BuildScriptIndex.of(content);
+		assertEquals("1.0", buildScriptIndex.getVersionAssignment().getVersion());
+		assertEquals(content.indexOf("version = '1.0'"),
+			buildScriptIndex.getVersionAssignment().getStart());
+		assertTrue(buildScriptIndex.contains("dependencies"));
+
+		assertNull(BuildScriptIndex.of("version = \"$projectVersion\" as Object\n")
+			.getVersionAssignment());
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The unit test class for the class {@link DependencyCoordinateParser}
+ */
+public class DependencyCoordinateParserTest
+{
+
+	/**
+	 * Test method for {@link DependencyCoordinateParser#parseDependencyInfo(CharSequence)}
+	 */
+	@Test
+	public void testParseDependencyInfo()
+	{
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
+		DependencyInfo actual;
+		DependencyInfo expected;
+
+		actual = parser
+			.parseDependencyInfo("    compileOnly(\"org.projectlombok:lombok:$lombokVersion\")");
+		expected = DependencyInfo.builder().scope("compileOnly").groupId("org.projectlombok")
+			.artifactId("lombok").version("$lombokVersion").build();
+		assertEquals(expected, actual);
+
+		actual = parser
+			.parseDependencyInfo("    classpath 'org.ajoberstar.grgit:grgit-gradle:5.3.0'");
+		expected = DependencyInfo.builder().scope("classpath").groupId("org.ajoberstar.grgit")
+			.artifactId("grgit-gradle").version("5.3.0").build();
+		assertEquals(expected, actual);
+
+		actual = parser
+			.parseDependencyInfo("\ttestImplementation(\"org.junit.jupiter:junit-jupiter\")");
+		expected = DependencyInfo.builder().scope("testImplementation")
+			.groupId("org.junit.jupiter").artifactId("junit-jupiter").build();
+		assertEquals(expected, actual);
+
+		actual = parser
+			.parseDependencyInfo("    implementation \"net.sf.json-lib:json-lib:2.4:jdk15\"");
+		expected = DependencyInfo.builder().scope("implementation").groupId("net.sf.json-lib")
+			.artifactId("json-lib").version("2.4").classifier("jdk15").build();
+		assertEquals(expected, actual);
+
+		actual = parser.parseDependencyInfo("    implementation(\"invalid\")");
+		expected = DependencyInfo.builder().scope("implementation").build();
+		assertEquals(expected, actual);
+
+		assertNull(parser.parseDependencyInfo("    implementation libs.bundles.core.dependencies"));
+		assertNull(parser.parseDependencyInfo("    testImplementation gradleTestKit()"));
+		assertNull(
+			parser.parseDependencyInfo("    // compileOnly(\"org.projectlombok:lombok:1\")"));
+		assertNull(parser.parseDependencyInfo("}"));
+	}
+
+	/**
+	 * Test method for {@link DependencyCoordinateParser#parse(CharSequence)}
+	 */
+	@Test
+	public void testParse()
+	{
+		DependencyCoordinateParser parser = new DependencyCoordinateParser();
+		String row = "    implementation 'io.github.astrapi69:file-worker:18.0'";
+		assertTrue(parser.parse(row));
+		assertEquals(3, parser.getPartCount());
+		assertEquals("io.github.astrapi69:file-worker:18.0",
+			row.substring(parser.getCoordinateStart(), parser.getCoordinateEnd()));
+		assertNull(parser.getClassifier());
+		assertFalse(parser.parse("    implementation 'unterminated:coordinate"));
+	}
+}
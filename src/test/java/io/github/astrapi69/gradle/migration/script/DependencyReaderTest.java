@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.gradle.migration.extension.DependenciesExtensions;
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
+
+/**
+ * The unit test class for the class {@link DependencyReader}
+ */
+public class DependencyReaderTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link DependencyReader#dependencyRows(java.io.Reader)}
+	 */
+	@Test
+	public void testDependencyRows() throws IOException
+	{
+		File srcTestResourcesTest = PathFinder.getRelativePath(PathFinder.getSrcTestResourcesDir(),
+			"test");
+		File buildGradle = new File(srcTestResourcesTest, "/test-build.gradle");
+		List<String> expected = DependenciesExtensions.getDependenciesAsStringList(
+			GradleRunConfigurationsCopier.getContentOf("dependencies", buildGradle));
+		try (Stream<String> rows = DependencyReader
+			.dependencyRows(Files.newBufferedReader(buildGradle.toPath())))
+		{
+			assertEquals(expected, rows.toList());
+		}
+	}
+
+	/**
+	 * Test method for {@link DependencyReader#rows(java.io.Reader, String)} with windows line
+	 * breaks and an opening brace on the next line
+	 */
+	@Test
+	public void testRowsWithWindowsLineBreaks()
+	{
+		String content = "plugins {\r\n    id 'java'\r\n}\r\ndependencies\r\n{\r\n"
+			+ "    implementation \"a:b:1\"\r\n    testImplementation('c:d:2')\r\n}\r\n"
+			+ "java {\r\n}\r\n";
+		List<String> rows = DependencyReader.rows(new StringReader(content), "dependencies")
+			.toList();
+		assertEquals(List.of("    implementation \"a:b:1\"", "    testImplementation('c:d:2')"),
+			rows);
+		assertEquals(List.of("    id 'java'"),
+			DependencyReader.rows(new StringReader(content), "plugins").toList());
+		assertEquals(List.of(), DependencyReader.rows(new StringReader(content), "java").toList());
+	}
+
+	/**
+	 * Test method for {@link DependencyReader#rows(java.io.Reader, String)} with a missing section
+	 * or a missing closing brace
+	 */
+	@Test
+	public void testRowsWithInvalidSection()
+	{
+		String content = "plugins {\n    id 'java'\n}\n"
+			+ "dependencies {\n    implementation \"a:b:1\"\n";
+		assertThrows(IllegalArgumentException.class,
+			() -> DependencyReader.rows(new StringReader(content), "repositories").toList());
+		assertThrows(IllegalArgumentException.class,
+			() -> DependencyReader.dependencyRows(new StringReader(content)).toList());
+	}
+
+	/**
+	 * Test method for {@link DependencyReader#dependencyInfos(Path)}
+	 */
+	@Test
+	public void testDependencyInfos() throws IOException
+	{
+		String content = "dependencies {\r\n    // a comment\r\n"
+			+ "    implementation \"org.projectlombok:lombok:$lombokVersion\"\r\n\r\n"
+			+ "    testImplementation('org.junit.jupiter:junit-jupiter:5.10.0')\r\n}\r\n";
+		Path buildGradle = tempDir.resolve("build.gradle");
+		Files.writeString(buildGradle, content, StandardCharsets.UTF_8);
+		List<DependencyInfo> dependencyInfos;
+		try (Stream<DependencyInfo> stream = DependencyReader
+			.dependencyInfos(buildGradle))
+		{
+			dependencyInfos = stream.toList();
+		}
+		assertEquals(2, dependencyInfos.size());
+		assertEquals("implementation", dependencyInfos.get(0).getScope());
+		assertEquals("lombok", dependencyInfos.get(0).getArtifactId());
+		assertEquals("$lombokVersion", dependencyInfos.get(0).getVersion());
+		assertEquals("testImplementation", dependencyInfos.get(1).getScope());
+		assertEquals("5.10.0", dependencyInfos.get(1).getVersion());
+	}
+}
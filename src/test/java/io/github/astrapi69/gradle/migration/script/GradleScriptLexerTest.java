@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.info.SectionSpan;
+
+/**
+ * The unit test class for the class {@link GradleScriptLexer}
+ */
+public class GradleScriptLexerTest
+{
+
+	/**
+	 * Test method for {@link GradleScriptLexer#findSection(CharSequence, String)}
+	 */
+	@Test
+	public void testFindSection()
+	{
+		String content = "plugins {\n    id 'java'\n}\ndependencies {\n    implementation \"a:b:1\"\n}\n";
+		SectionSpan sectionSpan = GradleScriptLexer.findSection(content, "dependencies");
+		assertEquals("dependencies {\n    implementation \"a:b:1\"\n}",
+			content.substring(sectionSpan.getStart(), sectionSpan.getEnd()));
+		assertEquals(0, sectionSpan.getDepth());
+		assertNull(GradleScriptLexer.findSection(content, "repositories"));
+	}
+
+	/**
+	 * Test method for {@link GradleScriptLexer#findSection(CharSequence, String)} with braces
+	 * inside of strings, interpolations and comments
+	 */
+	@Test
+	public void testFindSectionIgnoresBracesInStringsAndComments()
+	{
+		String content = "task tagRelease {\n" + "    // a comment with a brace }\n"
+			+ "    /* a block comment with a brace } */\n"
+			+ "    def name = \"RELEASE-${project.version.toString()}\"\n"
+			+ "    def map = \"${[a: 1].collect { it.key }}\"\n"
+			+ "    def single = 'a single quoted } string'\n"
+			+ "    def triple = \"\"\"a triple } quoted string\"\"\"\n"
+			+ "    def slashy = /a slashy } string/\n"
+			+ "    def dollarSlashy = $/a dollar slashy } string/$\n" + "}\n"
+			+ "dependencies {\n}\n";
+		SectionSpan sectionSpan = GradleScriptLexer.findSection(content, "tagRelease");
+		assertEquals(content.indexOf("task tagRelease") + "task ".length(),
+			sectionSpan.getStart());
+		assertEquals(content.indexOf("}\ndependencies") + 1, sectionSpan.getEnd());
+	}
+
+	/**
+	 * Test method for {@link GradleScriptLexer#findSection(CharSequence, String)} with a missing
+	 * closing brace
+	 */
+	@Test
+	public void testFindSectionWithoutClosingBrace()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> GradleScriptLexer.findSection("dependencies {\n    implementation 'a:b:1'\n",
+				"dependencies"));
+	}
+
+	/**
+	 * Test method for {@link GradleScriptLexer#scan(CharSequence, ScriptBlockListener)}
+	 */
+	@Test
+	public void testScan()
+	{
+		String content = "tasks.named(\"test\") {\n    it.mustRunAfter(tasks.named(\"jar\"))\n}\n"
+			+ "task sourcesJar(type: Jar) {\n    from(sourceSets.main.allJava)\n}\n"
+			+ "publishing {\n    publications {\n    }\n}\n";
+		List<String> names = ListFactory.newArrayList();
+		GradleScriptLexer.scan(content, new ScriptBlockListener()
+		{
+			@Override
+			public boolean blockOpened(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int depth)
+			{
+				names.add(depth + ":" + content.subSequence(nameStart, nameEnd));
+				return true;
+			}
+		});
+		assertEquals(List.of("0:named", "0:sourcesJar", "0:publishing", "1:publications"), names);
+	}
+
+	/**
+	 * Test method for {@link GradleScriptLexer#feed(CharSequence, ScriptBlockListener)}
+	 */
+	@Test
+	public void testFeed()
+	{
+		String[] lines = { "dependencies", "{", "    implementation \"a:b:1\" /* a {", "    } */",
+				"    test { }", "}" };
+		List<String> events = ListFactory.newArrayList();
+		ScriptBlockListener listener = new ScriptBlockListener()
+		{
+			@Override
+			public boolean blockOpened(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int depth)
+			{
+				events.add("open " + depth + ":" + content.subSequence(nameStart, nameEnd) + "@"
+					+ openBrace);
+				return true;
+			}
+
+			@Override
+			public boolean blockClosed(CharSequence content, int nameStart, int nameEnd,
+				int openBrace, int closeBrace, int depth)
+			{
+				events.add("close " + depth + ":" + openBrace + "-" + closeBrace);
+				return true;
+			}
+		};
+		GradleScriptLexer lexer = new GradleScriptLexer();
+		for (String line : lines)
+		{
+			lexer.feed(line, listener);
+			lexer.feed("\n", listener);
+		}
+		assertEquals(List.of("open 0:dependencies@13", "open 1:test@67", "close 1:67-69",
+			"close 0:13-71"), events);
+		events.clear();
+		lexer.tokenize(String.join("\n", lines) + "\n", listener);
+		assertEquals(List.of("open 0:dependencies@13", "open 1:test@67", "close 1:67-69",
+			"close 0:13-71"), events);
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
+
+/**
+ * The unit test class for the class {@link MappedSectionReader}
+ */
+public class MappedSectionReaderTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link MappedSectionReader#getContentOf(String, File)}
+	 */
+	@Test
+	public void testGetContentOf() throws IOException
+	{
+		File srcTestResourcesTest = PathFinder.getRelativePath(PathFinder.getSrcTestResourcesDir(),
+			"test");
+		File buildGradle = new File(srcTestResourcesTest, "/test-build.gradle");
+		for (String section : new String[] { "buildscript", "dependencies", "repositories",
+				"java" })
+		{
+			assertEquals(GradleRunConfigurationsCopier.getContentOf(section, buildGradle),
+				MappedSectionReader.getContentOf(section, buildGradle));
+		}
+		assertThrows(IllegalArgumentException.class,
+			() -> MappedSectionReader.getContentOf("nonExistingSection", buildGradle));
+	}
+
+	/**
+	 * Test method for {@link MappedSectionReader#getContentOf(String, File)} with multi byte
+	 * characters in the build script
+	 */
+	@Test
+	public void testGetContentOfWithMultiByteCharacters() throws IOException
+	{
+		String content = "description = \"Überprüfung {\"\n"
+			+ "dependencies {\n    // Abhängigkeiten }\n    implementation \"a:b:1\"\n}\n";
+		Path buildGradle = tempDir.resolve("build.gradle");
+		Files.writeString(buildGradle, content, StandardCharsets.UTF_8);
+		assertEquals("dependencies {\n    // Abhängigkeiten }\n    implementation \"a:b:1\"\n}",
+			GradleRunConfigurationsCopier.getContentOf("dependencies", buildGradle.toFile(),
+				true));
+	}
+}
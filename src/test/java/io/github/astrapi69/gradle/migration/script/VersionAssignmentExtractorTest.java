@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.script;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.gradle.migration.info.VersionAssignment;
+
+/**
+ * The unit test class for the class {@link VersionAssignmentExtractor}
+ */
+public class VersionAssignmentExtractorTest
+{
+
+	/**
+	 * Test method for {@link VersionAssignmentExtractor#find(CharSequence)}
+	 */
+	@Test
+	public void testFind()
+	{
+		String content = "plugins {\n    id 'java'\n}\n" + "group = 'io.github.astrapi69'\n"
+			+ "version = '1.2'\n";
+		VersionAssignment versionAssignment = VersionAssignmentExtractor.find(content);
+		assertEquals("1.2", versionAssignment.getVersion());
+		assertEquals('\'', versionAssignment.getQuotationMark());
+		assertEquals(content.indexOf("version"), versionAssignment.getStart());
+		assertEquals("'1.2'", content.substring(versionAssignment.getValueStart(),
+			versionAssignment.getEnd()));
+
+		content = "version \"2.0.0-SNAPSHOT\" // the version\n";
+		versionAssignment = VersionAssignmentExtractor.find(content);
+		assertEquals("2.0.0-SNAPSHOT", versionAssignment.getVersion());
+		assertEquals('"', versionAssignment.getQuotationMark());
+		assertEquals(0, versionAssignment.getStart());
+		assertEquals(content.indexOf(" //"), versionAssignment.getEnd());
+
+		content = "group = 'x'; project.version = '3.1'\n";
+		versionAssignment = VersionAssignmentExtractor.find(content);
+		assertEquals("3.1", versionAssignment.getVersion());
+		assertEquals(content.indexOf("project"), versionAssignment.getStart());
+	}
+
+	/**
+	 * Test method for {@link VersionAssignmentExtractor#find(CharSequence)} with occurrences that
+	 * are no top-level version assignments
+	 */
+	@Test
+	public void testFindIgnoresNestedAndQuotedOccurrences()
+	{
+		String content = "// version = '0.1'\n" + "description = 'version = \"0.2\"'\n"
+			+ "dependencies {\n    version = '0.3'\n}\n" + "ext {\n    version = '0.4'\n}\n"
+			+ "java.version = '0.5'\n" + "subproject.version = '0.6'\n"
+			+ "version = \"$rootVersion\"\n" + "version = '1.0' + suffix\n"
+			+ "version = '1.1'\n" + "version = '1.2'\n";
+		VersionAssignment versionAssignment = VersionAssignmentExtractor.find(content);
+		assertEquals("1.1", versionAssignment.getVersion());
+		assertEquals(content.indexOf("version = '1.1'"), versionAssignment.getStart());
+
+		assertNull(VersionAssignmentExtractor.find("dependencies {\n    version = '1.0'\n}\n"));
+		assertNull(VersionAssignmentExtractor.find("version = '''1.0'''\n"));
+		assertNull(VersionAssignmentExtractor.find("version = '1.0\n"));
+		assertNull(VersionAssignmentExtractor.find("version ="));
+	}
+}
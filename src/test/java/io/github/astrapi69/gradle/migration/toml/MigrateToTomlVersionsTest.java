@@ -24,8 +24,16 @@
  */
 package io.github.astrapi69.gradle.migration.toml;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -36,6 +44,7 @@ import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import io.github.astrapi69.collection.list.ListFactory;
 import io.github.astrapi69.file.copy.CopyFileExtensions;
@@ -45,6 +54,7 @@ import io.github.astrapi69.gradle.migration.extension.GitExtensions;
 import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
 import io.github.astrapi69.gradle.migration.info.DependencyInfo;
 import io.github.astrapi69.gradle.migration.info.GradleProjectInfo;
+import io.github.astrapi69.gradle.migration.info.MigrationInfo;
 import io.github.astrapi69.gradle.migration.info.ProjectTomlStructureInfo;
 import io.github.astrapi69.gradle.migration.runner.GradleRunConfigurationsCopier;
 import io.github.astrapi69.string.CaseExtensions;
@@ -53,6 +63,10 @@ import io.github.astrapi69.string.CaseExtensions;
 public class MigrateToTomlVersionsTest
 {
 
+	/** The temporary directory for the tests. */
+	@TempDir
+	Path tempDir;
+
 	public static File getGradleDirectory()
 	{
 		File projectDirectory = PathFinder.getProjectDirectory();
@@ -286,4 +300,153 @@ public class MigrateToTomlVersionsTest
 		GradleRunConfigurationsCopier.copyOnlyRunConfigurations(sourceProjectName,
 			targetProjectName, sourceProjectDirNamePrefix, targetProjectDirNamePrefix);
 	}
+
+	/**
+	 * Test method for {@link MigrateToTomlVersions#newLibsVersionsTomlFile(String, boolean)} in
+	 * dry run mode
+	 */
+	@Test
+	public void testNewLibsVersionsTomlFileDryRun() throws IOException
+	{
+		Path projectDirectory = tempDir.resolve("analyzed-project");
+		Path gradleDirectory = projectDirectory
+			.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		Files.createDirectories(gradleDirectory);
+		String dependenciesGradleContent = "dependencies {\n"
+			+ "    implementation(\"io.github.astrapi69:silly-io:$sillyIoVersion\")\n" + "}\n";
+		Path dependenciesGradle = gradleDirectory
+			.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+		Files.writeString(dependenciesGradle, dependenciesGradleContent, StandardCharsets.UTF_8);
+		Files.writeString(projectDirectory.resolve(DependenciesInfo.GRADLE_PROPERTIES_FILENAME),
+			"sillyIoVersion=3.2\n", StandardCharsets.UTF_8);
+
+		GradleProjectInfo gradleProjectInfo = MigrateToTomlVersions
+			.newLibsVersionsTomlFile(projectDirectory.toString(), true);
+
+		assertEquals(1, gradleProjectInfo.getDependencyInfos().size());
+		assertTrue(gradleProjectInfo.getLibsVersionTomlMapAsString().contains("3.2"));
+		assertFalse(gradleProjectInfo.getLibsVersionsTomlFile().exists());
+		assertEquals(dependenciesGradleContent,
+			Files.readString(dependenciesGradle, StandardCharsets.UTF_8));
+
+		gradleProjectInfo = MigrateToTomlVersions
+			.newLibsVersionsTomlFile(projectDirectory.toString(), false);
+
+		assertTrue(gradleProjectInfo.getLibsVersionsTomlFile().exists());
+		assertFalse(dependenciesGradleContent
+			.equals(Files.readString(dependenciesGradle, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Test method for {@link MigrateToTomlVersions#newLibsVersionsTomlFile(String)} that runs twice
+	 * over the same project
+	 */
+	@Test
+	public void testNewLibsVersionsTomlFileTwice() throws IOException
+	{
+		Path projectDirectory = tempDir.resolve("migrated-project");
+		Path gradleDirectory = projectDirectory
+			.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		Files.createDirectories(gradleDirectory);
+		Path dependenciesGradle = gradleDirectory
+			.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+		Files.writeString(dependenciesGradle,
+			"dependencies {\n"
+				+ "    implementation(\"io.github.astrapi69:silly-io:$sillyIoVersion\")\n" + "}\n",
+			StandardCharsets.UTF_8);
+		Files.writeString(projectDirectory.resolve(DependenciesInfo.GRADLE_PROPERTIES_FILENAME),
+			"sillyIoVersion=3.2\n", StandardCharsets.UTF_8);
+		MigrateToTomlVersions.newLibsVersionsTomlFile(projectDirectory.toString());
+		Path libsVersionsToml = gradleDirectory
+			.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME);
+		String migratedDependencies = Files.readString(dependenciesGradle, StandardCharsets.UTF_8);
+		String migratedCatalog = Files.readString(libsVersionsToml, StandardCharsets.UTF_8);
+		FileTime lastModified = FileTime.fromMillis(1_000_000L);
+		Files.setLastModifiedTime(dependenciesGradle, lastModified);
+		Files.setLastModifiedTime(libsVersionsToml, lastModified);
+
+		assertTrue(MigrateToTomlVersions
+			.newMigrationPlan(MigrationInfo.probe(projectDirectory.toString())).isEmpty());
+		GradleProjectInfo gradleProjectInfo = MigrateToTomlVersions
+			.newLibsVersionsTomlFile(projectDirectory.toString());
+
+		assertTrue(gradleProjectInfo.getDependencyInfos().isEmpty());
+		assertEquals(migratedDependencies,
+			Files.readString(dependenciesGradle, StandardCharsets.UTF_8));
+		assertEquals(migratedCatalog, Files.readString(libsVersionsToml, StandardCharsets.UTF_8));
+		assertEquals(lastModified, Files.getLastModifiedTime(dependenciesGradle));
+		assertEquals(lastModified, Files.getLastModifiedTime(libsVersionsToml));
+	}
+
+	/**
+	 * Test method for {@link MigrateToTomlVersions#newMigrationPlan(MigrationInfo)}
+	 */
+	@Test
+	public void testNewMigrationPlan() throws IOException
+	{
+		Path projectDirectory = tempDir.resolve("planned-project");
+		Path gradleDirectory = projectDirectory
+			.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		Files.createDirectories(gradleDirectory);
+		Files.writeString(gradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME),
+			"dependencies {\n"
+				+ "    implementation(\"io.github.astrapi69:silly-io:$sillyIoVersion\")\n" + "}\n",
+			StandardCharsets.UTF_8);
+		Files.writeString(projectDirectory.resolve(DependenciesInfo.GRADLE_PROPERTIES_FILENAME),
+			"sillyIoVersion=3.2\n", StandardCharsets.UTF_8);
+
+		MigrationPlan migrationPlan = MigrateToTomlVersions
+			.newMigrationPlan(MigrationInfo.probe(projectDirectory.toString()));
+
+		assertEquals(2, migrationPlan.getOperations().size());
+		// the catalog is written before the dependencies that reference it
+		assertEquals(
+			gradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME).toString(),
+			migrationPlan.getOperations().get(0).getPath());
+		assertFalse(
+			Files.exists(gradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME)));
+	}
+
+	/**
+	 * Test method for {@link MigrateToTomlVersions#newLibsVersionsTomlFile(String)} with an
+	 * existing catalog that declares a custom alias and a library with the same artifact id
+	 */
+	@Test
+	public void testNewLibsVersionsTomlFileWithExistingAliases() throws IOException
+	{
+		Path projectDirectory = tempDir.resolve("aliased-project");
+		Path gradleDirectory = projectDirectory
+			.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		Files.createDirectories(gradleDirectory);
+		Path dependenciesGradle = gradleDirectory
+			.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME);
+		Files.writeString(dependenciesGradle, """
+			dependencies {
+			    implementation("io.github.astrapi69:silly-io:$sillyIoVersion")
+			    implementation("com.example:silly-io")
+			}
+			""", StandardCharsets.UTF_8);
+		Files.writeString(projectDirectory.resolve(DependenciesInfo.GRADLE_PROPERTIES_FILENAME),
+			"sillyIoVersion=3.2\n", StandardCharsets.UTF_8);
+		Path libsVersionsToml = gradleDirectory
+			.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME);
+		Files.writeString(libsVersionsToml, """
+			[libraries]
+			astrapi69-silly-io = { module = "io.github.astrapi69:silly-io", version = "3.1" }
+			silly-io = "org.example:silly-io:2.0"
+			""", StandardCharsets.UTF_8);
+
+		MigrateToTomlVersions.newLibsVersionsTomlFile(projectDirectory.toString());
+
+		String catalog = Files.readString(libsVersionsToml, StandardCharsets.UTF_8);
+		assertTrue(catalog.contains("astrapi69-silly-io = { "
+			+ "module = \"io.github.astrapi69:silly-io\", version = \"3.2\" }"));
+		assertTrue(
+			catalog.contains("com-example-silly-io = { module = \"com.example:silly-io\" }"));
+		String dependencies = Files.readString(dependenciesGradle, StandardCharsets.UTF_8);
+		String separator = System.lineSeparator();
+		assertEquals("dependencies {" + separator + "implementation libs.astrapi69.silly.io"
+			+ separator + "implementation libs.com.example.silly.io" + separator + "}"
+			+ separator, dependencies);
+	}
 }
@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The unit test class for the class {@link MigrationJournal}
+ */
+public class MigrationJournalTest
+{
+
+	/** The temporary directory for the tests. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link MigrationJournal#record(String, String, String)} and the replay of an
+	 * existing journal file
+	 */
+	@Test
+	public void testRecordAndReplay() throws IOException
+	{
+		Path journalFile = tempDir.resolve("logs").resolve("migration.journal");
+		try (MigrationJournal journal = MigrationJournal.open(journalFile, 2))
+		{
+			journal.record("/projects/a", MigrationPipeline.PARSE_STAGE, MigrationJournal.NO_HASH);
+			journal.record("/projects/a", MigrationPipeline.WRITE_STAGE, "hash-1");
+			journal.record("/projects/b", MigrationPipeline.WRITE_STAGE, "hash-2");
+			journal.record("/projects/b", MigrationPipeline.WRITE_STAGE, "hash-3");
+			assertEquals("hash-1", journal.getHash("/projects/a", MigrationPipeline.WRITE_STAGE));
+			assertEquals("hash-3", journal.getHash("/projects/b", MigrationPipeline.WRITE_STAGE));
+		}
+
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			assertTrue(journal.isCompleted("/projects/a", MigrationPipeline.PARSE_STAGE));
+			assertEquals("hash-1", journal.getHash("/projects/a", MigrationPipeline.WRITE_STAGE));
+			assertEquals("hash-3", journal.getHash("/projects/b", MigrationPipeline.WRITE_STAGE));
+			assertFalse(journal.isCompleted("/projects/b", MigrationPipeline.GIT_STAGE));
+			assertNull(journal.getHash("/projects/c", MigrationPipeline.WRITE_STAGE));
+
+			// a restart of the project discards its previous stages
+			journal.record("/projects/a", MigrationPipeline.DISCOVER_STAGE,
+				MigrationJournal.NO_HASH);
+			assertFalse(journal.isCompleted("/projects/a", MigrationPipeline.WRITE_STAGE));
+		}
+
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			assertFalse(journal.isCompleted("/projects/a", MigrationPipeline.WRITE_STAGE));
+			assertTrue(journal.isCompleted("/projects/a", MigrationPipeline.DISCOVER_STAGE));
+		}
+	}
+
+	/**
+	 * Test method for {@link MigrationJournal#open(Path)} with a torn and a corrupted record
+	 */
+	@Test
+	public void testOpenWithTornTail() throws IOException
+	{
+		Path journalFile = tempDir.resolve("migration.journal");
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			journal.record("/projects/a", MigrationPipeline.WRITE_STAGE, "hash-1");
+		}
+		long validLength = Files.size(journalFile);
+		Files.writeString(journalFile, "write\thash-2\t/projects/b\t0\n", StandardCharsets.UTF_8,
+			StandardOpenOption.APPEND);
+		Files.writeString(journalFile, "git-stage\t-\t/projects/a", StandardCharsets.UTF_8,
+			StandardOpenOption.APPEND);
+
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			assertEquals(validLength, Files.size(journalFile));
+			assertEquals("hash-1", journal.getHash("/projects/a", MigrationPipeline.WRITE_STAGE));
+			assertFalse(journal.isCompleted("/projects/b", MigrationPipeline.WRITE_STAGE));
+			assertFalse(journal.isCompleted("/projects/a", MigrationPipeline.GIT_STAGE));
+			journal.record("/projects/a", MigrationPipeline.GIT_STAGE, MigrationJournal.NO_HASH);
+		}
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			assertTrue(journal.isCompleted("/projects/a", MigrationPipeline.GIT_STAGE));
+		}
+	}
+
+	/**
+	 * Test method for {@link MigrationJournal#hash(CharSequence...)}
+	 */
+	@Test
+	public void testHash()
+	{
+		assertEquals(64, MigrationJournal.hash("a").length());
+		assertEquals(MigrationJournal.hash("ab", "c"), MigrationJournal.hash("ab", "c"));
+		assertNotEquals(MigrationJournal.hash("ab", "c"), MigrationJournal.hash("a", "bc"));
+	}
+
+	/**
+	 * Test method for {@link MigrationJournal#record(String, String, String)} with invalid fields
+	 */
+	@Test
+	public void testRecordWithInvalidFields() throws IOException
+	{
+		try (MigrationJournal journal = MigrationJournal.open(tempDir.resolve("migration.journal")))
+		{
+			assertThrows(IllegalArgumentException.class, () -> journal
+				.record("/projects/a\nwrite", MigrationPipeline.WRITE_STAGE, "hash-1"));
+			assertThrows(IllegalArgumentException.class,
+				() -> journal.record("/projects/a", MigrationPipeline.WRITE_STAGE, "hash\t1"));
+		}
+	}
+}
@@ -0,0 +1,483 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.collection.list.ListFactory;
+import io.github.astrapi69.gradle.migration.extension.GitExtensions;
+import io.github.astrapi69.gradle.migration.git.GitBackend;
+import io.github.astrapi69.gradle.migration.info.CopyGradleRunConfigurations;
+import io.github.astrapi69.gradle.migration.info.DependenciesInfo;
+import io.github.astrapi69.gradle.migration.info.GitStatus;
+import io.github.astrapi69.gradle.migration.info.ProjectMigrationResult;
+import io.github.astrapi69.gradle.migration.info.ProjectTomlStructureInfo;
+
+/**
+ * The unit test class for the class {@link MigrationPipeline}
+ */
+public class MigrationPipelineTest
+{
+
+	/** The content of the dependencies.gradle files for the tests. */
+	private static final String DEPENDENCIES_GRADLE = """
+		dependencies {
+		    implementation("io.github.astrapi69:silly-io:$sillyIoVersion")
+		    testImplementation("org.junit.jupiter:junit-jupiter:5.11.3")
+		}
+		""";
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates a project with the given name in the temporary directory
+	 *
+	 * @param name
+	 *            the name of the project
+	 * @return the project directory
+	 * @throws IOException
+	 *             if an I/O error occurs during writing the files
+	 */
+	private Path newProject(String name) throws IOException
+	{
+		Path projectDirectory = tempDir.resolve(name);
+		Path gradleDirectory = projectDirectory
+			.resolve(DependenciesInfo.PROJECT_GRADLE_DIRECTORY_NAME);
+		Files.createDirectories(gradleDirectory);
+		Files.writeString(gradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME),
+			DEPENDENCIES_GRADLE, StandardCharsets.UTF_8);
+		Files.writeString(projectDirectory.resolve(DependenciesInfo.GRADLE_PROPERTIES_FILENAME),
+			"sillyIoVersion=3.2\n", StandardCharsets.UTF_8);
+		return projectDirectory;
+	}
+
+	/**
+	 * Creates the template gradle directory with the version-catalog-update.gradle file
+	 *
+	 * @return the template gradle directory
+	 * @throws IOException
+	 *             if an I/O error occurs during writing the files
+	 */
+	private File newTemplateGradleDirectory() throws IOException
+	{
+		Path gradleDirectory = Files.createDirectories(tempDir.resolve("template"));
+		Files.writeString(
+			gradleDirectory.resolve(DependenciesInfo.VERSION_CATALOG_UPDATE_GRADLE_FILENAME),
+			"versionCatalogUpdate {\n}\n", StandardCharsets.UTF_8);
+		return gradleDirectory.toFile();
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#migrateWorkspace(File, File)}
+	 */
+	@Test
+	public void testMigrateWorkspace() throws IOException, InterruptedException
+	{
+		Path workspace = Files.createDirectories(tempDir.resolve("workspace"));
+		File templateGradleDirectory = newTemplateGradleDirectory();
+		for (int i = 0; i < 20; i++)
+		{
+			Path projectDirectory = newProject("workspace/project-" + i);
+			Files.writeString(projectDirectory.resolve("gradle").resolve("libs.versions.toml"),
+				"[versions]\nsilly-io-version = \"3.1\"\n", StandardCharsets.UTF_8);
+		}
+		Files.createDirectories(workspace.resolve("no-gradle-project"));
+
+		List<ProjectMigrationResult> results = MigrationPipeline.of(false, 2, 3)
+			.migrateWorkspace(workspace.toFile(), templateGradleDirectory);
+		assertEquals(20, results.size());
+		for (ProjectMigrationResult result : results)
+		{
+			assertTrue(result.isSuccessful());
+			assertNull(result.getFailedStage());
+			assertEquals(3, result.getChangedFiles().size());
+			assertEquals(2, result.getGradleProjectInfo().getDependencyInfos().size());
+			File gradleDirectory = result.getGradleProjectInfo().getMigrationInfo()
+				.getGradleDirectory();
+			String dependencies = Files.readString(
+				new File(gradleDirectory, DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME).toPath());
+			assertTrue(dependencies.contains("implementation libs.silly.io"));
+			String libsVersionsToml = Files
+				.readString(result.getGradleProjectInfo().getLibsVersionsTomlFile().toPath());
+			// the existing version alias is kept, so the new version is declared inline
+			assertTrue(libsVersionsToml.contains("silly-io-version = \"3.1\""));
+			assertTrue(libsVersionsToml
+				.contains("module = \"io.github.astrapi69:silly-io\", version = \"3.2\""));
+			assertTrue(libsVersionsToml.contains("junit-jupiter"));
+			assertTrue(new File(gradleDirectory,
+				DependenciesInfo.VERSION_CATALOG_UPDATE_GRADLE_FILENAME).exists());
+		}
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#migrate(List)} with failing projects
+	 */
+	@Test
+	public void testMigrateWithFailingProjects() throws IOException, InterruptedException
+	{
+		newProject("valid");
+		Path withoutDependencies = newProject("without-dependencies");
+		Files.delete(withoutDependencies.resolve("gradle")
+			.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME));
+		String prefix = tempDir.toAbsolutePath() + File.separator;
+		List<ProjectTomlStructureInfo> projects = List
+			.of("missing", "without-dependencies", "valid").stream()
+			.map(name -> ProjectTomlStructureInfo.builder().sourceProjectName(name)
+				.targetProjectName(name).sourceProjectDirNamePrefix(prefix)
+				.targetProjectDirNamePrefix(prefix).build())
+			.toList();
+
+		List<ProjectMigrationResult> results = MigrationPipeline.of(false).migrate(projects);
+		assertEquals(3, results.size());
+		assertEquals(MigrationPipeline.DISCOVER_STAGE, results.get(0).getFailedStage());
+		assertFalse(results.get(0).isSuccessful());
+		assertEquals(MigrationPipeline.PARSE_STAGE, results.get(1).getFailedStage());
+		assertFalse(results.get(1).isSuccessful());
+		assertTrue(results.get(2).isSuccessful());
+		assertEquals("valid", results.get(2).getProjectTomlStructureInfo().getTargetProjectName());
+		assertEquals(2, results.get(2).getChangedFiles().size());
+
+		// a second run finds no dependency coordinates and changes nothing
+		results = MigrationPipeline.of(false).migrate(projects.subList(2, 3));
+		assertTrue(results.get(0).isSuccessful());
+		assertEquals(List.of(), results.get(0).getChangedFiles());
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#migrate(List)} with an already migrated project
+	 * whose run configurations and version-catalog-update.gradle file are still copied, but only
+	 * added to git by the git-stage stage
+	 */
+	@Test
+	public void testMigrateWithoutDependencyCoordinates() throws IOException, InterruptedException
+	{
+		Path runConfigurations = Files
+			.createDirectories(tempDir.resolve("source-project").resolve(".idea")
+				.resolve(CopyGradleRunConfigurations.RUN_CONFIGURATIONS_DIR_NAME));
+		Files.writeString(runConfigurations.resolve("source_project__build_.xml"),
+			"<configuration name=\"source-project [build]\" />\n", StandardCharsets.UTF_8);
+		Path projectDirectory = newProject("target-project");
+		Path gradleDirectory = projectDirectory.resolve("gradle");
+		String dependencies = "dependencies {\n    implementation libs.silly.io\n}\n";
+		Files.writeString(gradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME),
+			dependencies, StandardCharsets.UTF_8);
+		String prefix = tempDir.toAbsolutePath() + File.separator;
+		List<ProjectTomlStructureInfo> projects = List.of(ProjectTomlStructureInfo.builder()
+			.gradleDirectory(newTemplateGradleDirectory()).sourceProjectName("source-project")
+			.targetProjectName("target-project").sourceProjectDirNamePrefix(prefix)
+			.targetProjectDirNamePrefix(prefix).build());
+		File runConfiguration = projectDirectory.resolve(".idea")
+			.resolve(CopyGradleRunConfigurations.RUN_CONFIGURATIONS_DIR_NAME)
+			.resolve("target_project__build_.xml").toFile();
+		List<List<String>> addedPaths = ListFactory.newArrayList();
+		GitBackend previous = GitExtensions.setBackend(new GitBackend()
+		{
+			@Override
+			public String add(File executionDirectory, List<String> paths)
+			{
+				addedPaths.add(List.copyOf(paths));
+				return "";
+			}
+
+			@Override
+			public String restoreStaged(File executionDirectory, List<String> paths)
+			{
+				return "";
+			}
+
+			@Override
+			public String status(File executionDirectory)
+			{
+				return "";
+			}
+
+			@Override
+			public GitStatus getStatus(File executionDirectory)
+			{
+				return null;
+			}
+		});
+		try
+		{
+			List<ProjectMigrationResult> results = MigrationPipeline.of(false).migrate(projects);
+			assertTrue(results.get(0).isSuccessful());
+			assertEquals(List.of(
+				gradleDirectory.resolve(DependenciesInfo.VERSION_CATALOG_UPDATE_GRADLE_FILENAME)
+					.toFile(),
+				runConfiguration), results.get(0).getChangedFiles());
+			assertTrue(Files.readString(runConfiguration.toPath(), StandardCharsets.UTF_8)
+				.contains("<configuration name=\"target-project [build]\" />"));
+			assertEquals(dependencies, Files.readString(
+				gradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME)));
+			// without the git-stage stage nothing is added to git
+			assertEquals(List.of(), addedPaths);
+
+			results = MigrationPipeline.of(true).migrate(projects);
+			assertTrue(results.get(0).isSuccessful());
+			assertEquals(List.of(List.of(runConfiguration.getAbsolutePath())), addedPaths);
+		}
+		finally
+		{
+			GitExtensions.setBackend(previous);
+		}
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#migrate(List)} with a git-stage stage that throws an
+	 * error and an {@link InterruptedException}
+	 */
+	@Test
+	public void testMigrateWithThrowingTask() throws IOException
+	{
+		String prefix = tempDir.toAbsolutePath() + File.separator;
+		List<ProjectTomlStructureInfo> projects = ListFactory.newArrayList();
+		for (String name : List.of("error", "interrupted", "valid"))
+		{
+			newProject(name);
+			projects.add(ProjectTomlStructureInfo.builder().sourceProjectName(name)
+				.targetProjectName(name).sourceProjectDirNamePrefix(prefix)
+				.targetProjectDirNamePrefix(prefix).build());
+		}
+		GitBackend previous = GitExtensions.setBackend(new GitBackend()
+		{
+			@Override
+			public String add(File executionDirectory, List<String> paths)
+				throws InterruptedException
+			{
+				switch (executionDirectory.getName())
+				{
+					case "error" :
+						throw new AssertionError("git crashed");
+					case "interrupted" :
+						throw new InterruptedException("git interrupted");
+					default :
+						return "";
+				}
+			}
+
+			@Override
+			public String restoreStaged(File executionDirectory, List<String> paths)
+			{
+				return "";
+			}
+
+			@Override
+			public String status(File executionDirectory)
+			{
+				return "";
+			}
+
+			@Override
+			public GitStatus getStatus(File executionDirectory)
+			{
+				return null;
+			}
+		});
+		try
+		{
+			List<ProjectMigrationResult> results = assertTimeoutPreemptively(
+				Duration.ofSeconds(30), () -> MigrationPipeline.of(true, 1, 2).migrate(projects));
+			assertEquals(3, results.size());
+			assertEquals(MigrationPipeline.GIT_STAGE, results.get(0).getFailedStage());
+			assertTrue(results.get(0).getFailure() instanceof AssertionError);
+			assertEquals(MigrationPipeline.GIT_STAGE, results.get(1).getFailedStage());
+			assertTrue(results.get(1).getFailure() instanceof InterruptedException);
+			assertTrue(results.get(2).isSuccessful());
+			assertFalse(Thread.currentThread().isInterrupted());
+		}
+		finally
+		{
+			GitExtensions.setBackend(previous);
+		}
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#resume(List, Path)}
+	 */
+	@Test
+	public void testResume() throws IOException, InterruptedException
+	{
+		String prefix = tempDir.toAbsolutePath() + File.separator;
+		List<ProjectTomlStructureInfo> projects = List.of("done", "written", "pending").stream()
+			.map(name -> ProjectTomlStructureInfo.builder().sourceProjectName(name)
+				.targetProjectName(name).sourceProjectDirNamePrefix(prefix)
+				.targetProjectDirNamePrefix(prefix).build())
+			.toList();
+		for (ProjectTomlStructureInfo project : projects)
+		{
+			newProject(project.getTargetProjectName());
+		}
+		Path journalFile = tempDir.resolve("migration.journal");
+
+		// the first run migrates only the first project completely
+		List<ProjectMigrationResult> results = MigrationPipeline.of(false)
+			.resume(projects.subList(0, 1), journalFile);
+		assertTrue(results.get(0).isSuccessful());
+		assertFalse(results.get(0).isSkipped());
+		assertEquals(2, results.get(0).getChangedFiles().size());
+
+		// the second project crashed after its files were written and before the git stage
+		MigrationPipeline.of(false).migrate(projects.subList(1, 2));
+		Path writtenGradleDirectory = tempDir.resolve("written").resolve("gradle");
+		String writtenHash = MigrationJournal.hash(
+			Files.readString(
+				writtenGradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME)),
+			Files.readString(
+				writtenGradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME)));
+		String writtenKey = tempDir.resolve("written").toFile().getAbsolutePath();
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			journal.record(writtenKey, MigrationPipeline.DISCOVER_STAGE, MigrationJournal.NO_HASH);
+			journal.record(writtenKey, MigrationPipeline.WRITE_STAGE, writtenHash);
+		}
+		// a torn record of the crash
+		Files.writeString(journalFile, "parse\t-\t" + prefix + "pending",
+			StandardOpenOption.APPEND);
+
+		results = MigrationPipeline.of(false).resume(projects, journalFile);
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).isSkipped());
+		assertEquals(List.of(), results.get(0).getChangedFiles());
+		assertFalse(results.get(1).isSkipped());
+		assertTrue(results.get(1).isSuccessful());
+		assertNull(results.get(1).getGradleProjectInfo());
+		assertEquals(2, results.get(1).getChangedFiles().size());
+		assertFalse(results.get(2).isSkipped());
+		assertTrue(results.get(2).isSuccessful());
+		assertEquals(2, results.get(2).getChangedFiles().size());
+
+		// a changed file invalidates the write stage, so the project is migrated again
+		Files.writeString(tempDir.resolve("done").resolve("gradle")
+			.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME), "[versions]\n");
+		results = MigrationPipeline.of(false).resume(projects, journalFile);
+		assertFalse(results.get(0).isSkipped());
+		assertTrue(results.get(0).isSuccessful());
+		assertTrue(results.get(1).isSkipped());
+		assertTrue(results.get(2).isSkipped());
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#resume(List, Path)} with projects whose run was
+	 * killed during the write stage
+	 */
+	@Test
+	public void testResumeAfterKilledWrite() throws IOException, InterruptedException
+	{
+		String prefix = tempDir.toAbsolutePath() + File.separator;
+		List<ProjectTomlStructureInfo> projects = List.of("twin", "killed", "written").stream()
+			.map(name -> ProjectTomlStructureInfo.builder().sourceProjectName(name)
+				.targetProjectName(name).sourceProjectDirNamePrefix(prefix)
+				.targetProjectDirNamePrefix(prefix).build())
+			.toList();
+		for (ProjectTomlStructureInfo project : projects)
+		{
+			newProject(project.getTargetProjectName());
+		}
+		Path journalFile = tempDir.resolve("migration.journal");
+
+		// the twin project has the same files, so its migration yields the planned contents
+		MigrationPipeline.of(false).migrate(projects.subList(0, 1));
+		Path twinGradleDirectory = tempDir.resolve("twin").resolve("gradle");
+		String dependencies = Files.readString(
+			twinGradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME));
+		String libsVersionsToml = Files.readString(
+			twinGradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME));
+		String intentHash = MigrationJournal.hash(dependencies, libsVersionsToml);
+
+		// the run was killed between the two writes of the first project and after the two
+		// writes of the second project, but before the write stage was recorded
+		Path killedGradleDirectory = tempDir.resolve("killed").resolve("gradle");
+		Files.writeString(
+			killedGradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME),
+			libsVersionsToml);
+		Path writtenGradleDirectory = tempDir.resolve("written").resolve("gradle");
+		Files.writeString(
+			writtenGradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME),
+			libsVersionsToml);
+		Files.writeString(
+			writtenGradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME),
+			dependencies);
+		try (MigrationJournal journal = MigrationJournal.open(journalFile))
+		{
+			for (String name : List.of("killed", "written"))
+			{
+				String key = tempDir.resolve(name).toFile().getAbsolutePath();
+				journal.record(key, MigrationPipeline.DISCOVER_STAGE, MigrationJournal.NO_HASH);
+				journal.record(key, MigrationPipeline.PARSE_STAGE, MigrationJournal.NO_HASH);
+				journal.record(key, MigrationPipeline.RENDER_STAGE, MigrationJournal.NO_HASH);
+				journal.record(key, MigrationPipeline.WRITE_INTENT, intentHash);
+			}
+		}
+
+		List<ProjectMigrationResult> results = MigrationPipeline.of(false)
+			.resume(projects.subList(1, 3), journalFile);
+		assertEquals(2, results.size());
+		for (ProjectMigrationResult result : results)
+		{
+			assertTrue(result.isSuccessful());
+			assertFalse(result.isSkipped());
+			// the files of the killed run are staged as well
+			assertEquals(2, result.getChangedFiles().size());
+		}
+		assertEquals(dependencies, Files.readString(
+			killedGradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME)));
+		assertEquals(libsVersionsToml, Files.readString(
+			killedGradleDirectory.resolve(DependenciesInfo.LIBS_VERSIONS_TOML_FILENAME)));
+		assertEquals(dependencies, Files.readString(
+			writtenGradleDirectory.resolve(DependenciesInfo.DEPENDENCIES_GRADLE_FILENAME)));
+
+		results = MigrationPipeline.of(false).resume(projects.subList(1, 3), journalFile);
+		assertTrue(results.get(0).isSkipped());
+		assertTrue(results.get(1).isSkipped());
+	}
+
+	/**
+	 * Test method for {@link MigrationPipeline#of(boolean, int, int)} with invalid arguments
+	 */
+	@Test
+	public void testOfWithInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> MigrationPipeline.of(false, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> MigrationPipeline.of(false, 1, 0));
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.MigrationOperation;
+
+/**
+ * The unit test class for the class {@link MigrationPlan}
+ */
+public class MigrationPlanTest
+{
+
+	/** The temporary directory for the tests. */
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Test method for {@link MigrationPlan#commit()}
+	 */
+	@Test
+	public void testCommit() throws IOException, InterruptedException
+	{
+		Path existing = tempDir.resolve("existing.txt");
+		Path obsolete = tempDir.resolve("obsolete.txt");
+		Files.writeString(existing, "old", StandardCharsets.UTF_8);
+		Files.writeString(obsolete, "obsolete", StandardCharsets.UTF_8);
+		Path created = tempDir.resolve("gradle").resolve("created.txt");
+		Path renamed = tempDir.resolve("renamed.txt");
+
+		MigrationPlan migrationPlan = MigrationPlan.of().write(created.toFile(), "created")
+			.write(existing.toFile(), "new").move(existing.toFile(), renamed.toFile())
+			.delete(obsolete.toFile());
+
+		assertEquals(List.of(MigrationOperation.Type.WRITE, MigrationOperation.Type.WRITE,
+			MigrationOperation.Type.MOVE, MigrationOperation.Type.DELETE),
+			migrationPlan.getOperations().stream().map(MigrationOperation::getType).toList());
+		assertTrue(migrationPlan.toString().startsWith("WRITE " + created + " (7 characters)\n"));
+		assertFalse(Files.exists(created));
+		assertEquals("old", Files.readString(existing, StandardCharsets.UTF_8));
+
+		List<File> changedFiles = migrationPlan.commit();
+
+		assertEquals(List.of(created.toFile(), existing.toFile(), renamed.toFile()), changedFiles);
+		assertEquals("created", Files.readString(created, StandardCharsets.UTF_8));
+		assertEquals("new", Files.readString(renamed, StandardCharsets.UTF_8));
+		assertFalse(Files.exists(existing));
+		assertFalse(Files.exists(obsolete));
+		try (Stream<Path> files = Files.list(tempDir))
+		{
+			assertEquals(List.of("gradle", "renamed.txt"),
+				files.map(file -> file.getFileName().toString()).sorted().toList());
+		}
+	}
+
+		/**
+	 * Test method for {@link MigrationPlan#commit()} that keeps the permissions of an existing file
+	 * and creates a new file with the default permissions
+	 */
+	@Test
+	public void testCommitKeepsPermissions() throws IOException, InterruptedException
+	{
+		Path existing = tempDir.resolve("gradlew");
+		Files.writeString(existing, "old", StandardCharsets.UTF_8);
+		Set<PosixFilePermission> executable = PosixFilePermissions.fromString("rwxr-x---");
+		Files.setPosixFilePermissions(existing, executable);
+		Set<PosixFilePermission> defaultPermissions = Files
+			.getPosixFilePermissions(Files.createFile(tempDir.resolve("default.txt")));
+		Path created = tempDir.resolve("gradle").resolve("libs.versions.toml");
+
+		MigrationPlan.of().write(existing.toFile(), "new").write(created.toFile(), "[versions]\n")
+			.commit();
+
+		assertEquals("new", Files.readString(existing, StandardCharsets.UTF_8));
+		assertEquals(executable, Files.getPosixFilePermissions(existing));
+		assertEquals(defaultPermissions, Files.getPosixFilePermissions(created));
+	}
+
+/**
+	 * Test method for {@link MigrationPlan#commit()} with a write that fails
+	 */
+	@Test
+	public void testCommitWithFailedWrite() throws IOException
+	{
+		Path regularFile = tempDir.resolve("regular-file");
+		Files.writeString(regularFile, "content", StandardCharsets.UTF_8);
+		Path written = tempDir.resolve("written.txt");
+		Path obsolete = tempDir.resolve("obsolete.txt");
+		Files.writeString(obsolete, "obsolete", StandardCharsets.UTF_8);
+
+		MigrationPlan migrationPlan = MigrationPlan.of().write(written.toFile(), "written")
+			.delete(obsolete.toFile())
+			.write(regularFile.resolve("child.txt").toFile(), "child");
+
+		assertThrows(IOException.class, migrationPlan::commit);
+		assertFalse(Files.exists(written));
+		assertTrue(Files.exists(obsolete));
+		try (Stream<Path> files = Files.list(tempDir))
+		{
+			assertEquals(2, files.count());
+		}
+	}
+
+	/**
+	 * Test method for the serialization of a {@link MigrationPlan}
+	 */
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException
+	{
+		MigrationPlan migrationPlan = MigrationPlan.of()
+			.write(tempDir.resolve("a.txt").toFile(), "a")
+			.addAll(MigrationPlan.of().gitStage(tempDir.toFile(),
+				List.of(tempDir.resolve("a.txt").toFile())));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+		{
+			out.writeObject(migrationPlan);
+		}
+		MigrationPlan deserialized;
+		try (ObjectInputStream in = new ObjectInputStream(
+			new ByteArrayInputStream(bytes.toByteArray())))
+		{
+			deserialized = (MigrationPlan)in.readObject();
+		}
+		assertEquals(migrationPlan.getOperations(), deserialized.getOperations());
+		assertEquals(2, deserialized.getOperations().size());
+		assertEquals(List.of(tempDir.resolve("a.txt").toString()),
+			deserialized.getOperations().get(1).getFiles());
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+import io.github.astrapi69.gradle.migration.info.MergedVersionCatalog;
+
+/**
+ * The unit test class for the class {@link VersionCatalogMerger}
+ */
+public class VersionCatalogMergerTest
+{
+
+	/** The content of the catalog for the tests. */
+	private static final String CONTENT = """
+		# the versions
+		[versions]
+		jackson = "2.17.0" # shared version
+		lombok-version = { strictly = "1.18.30" }
+
+		[libraries]
+		jackson-core = { module = "com.fasterxml.jackson.core:jackson-core", version.ref = "jackson" }
+		jackson-databind = { module = "com.fasterxml.jackson.core:jackson-databind", version.ref = "jackson" }
+		guava = "com.google.guava:guava:33.0.0-jre"
+		commons-text = { module = "org.apache.commons:commons-text", version = "1.11.0" }
+		lombok = { module = "org.projectlombok:lombok", version.ref = "lombok-version" }
+
+		[plugins]
+		versions = { id = "com.github.ben-manes.versions", version = "0.51.0" }
+		""";
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates a {@link DependencyInfo} object
+	 *
+	 * @param groupId
+	 *            the group id
+	 * @param artifactId
+	 *            the artifact id
+	 * @param version
+	 *            the version
+	 * @return the {@link DependencyInfo} object
+	 */
+	private static DependencyInfo dependency(String groupId, String artifactId, String version)
+	{
+		return DependencyInfo.builder().scope("implementation").groupId(groupId)
+			.artifactId(artifactId).version(version).build();
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogMerger#merge(VersionCatalog, List)} without changes
+	 */
+	@Test
+	public void testMergeWithoutChanges()
+	{
+		VersionCatalog catalog = VersionCatalog.of(CONTENT);
+		String merged = VersionCatalogMerger.merge(catalog,
+			List.of(dependency("com.fasterxml.jackson.core", "jackson-core", "2.17.0"),
+				dependency("com.google.guava", "guava", "33.0.0-jre"),
+				dependency("org.apache.commons", "commons-text", null)));
+		assertSame(catalog.getContent(), merged);
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogMerger#merge(VersionCatalog, List)} with changed
+	 * versions
+	 */
+	@Test
+	public void testMergeChangedVersions()
+	{
+		String merged = VersionCatalogMerger.merge(VersionCatalog.of(CONTENT),
+			List.of(dependency("com.fasterxml.jackson.core", "jackson-databind", "2.18.0"),
+				dependency("com.fasterxml.jackson.core", "jackson-core", "2.18.0"),
+				dependency("com.google.guava", "guava", "33.3.1-jre"),
+				dependency("org.apache.commons", "commons-text", "1.12.0"),
+				dependency("org.projectlombok", "lombok", "1.18.34")));
+		String expected = CONTENT.replace("jackson = \"2.17.0\"", "jackson = \"2.18.0\"")
+			.replace("guava:33.0.0-jre", "guava:33.3.1-jre")
+			.replace("version = \"1.11.0\"", "version = \"1.12.0\"");
+		assertEquals(expected, merged);
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogMerger#merge(VersionCatalog, List)} with new libraries
+	 */
+	@Test
+	public void testMergeNewLibraries()
+	{
+		String content = "[libraries]\r\n"
+			+ "guava = \"com.google.guava:guava:33.0.0-jre\" # the guava library\r\n" + "\r\n"
+			+ "[plugins]\r\n" + "versions = \"com.github.ben-manes.versions:0.51.0\"";
+		String merged = VersionCatalogMerger.merge(VersionCatalog.of(content),
+			List.of(dependency("io.github.astrapi69", "silly-io", "3.2"),
+				dependency("org.junit.jupiter", "junit-jupiter", null),
+				dependency("com.example", "guava", "1.0")));
+		String expected = "[libraries]\r\n"
+			+ "guava = \"com.google.guava:guava:33.0.0-jre\" # the guava library\r\n"
+			+ "silly-io = { module = \"io.github.astrapi69:silly-io\", "
+			+ "version.ref = \"silly-io-version\" }\r\n"
+			+ "junit-jupiter = { module = \"org.junit.jupiter:junit-jupiter\" }\r\n"
+			+ "com-example-guava = { module = \"com.example:guava\", "
+			+ "version.ref = \"guava-version\" }\r\n" + "\r\n" + "[plugins]\r\n"
+			+ "versions = \"com.github.ben-manes.versions:0.51.0\"\r\n" + "\r\n" + "[versions]\r\n"
+			+ "silly-io-version = \"3.2\"\r\n" + "guava-version = \"1.0\"\r\n";
+		assertEquals(expected, merged);
+		VersionCatalog mergedCatalog = VersionCatalog.of(merged);
+		assertEquals("3.2", mergedCatalog
+			.resolveVersion(mergedCatalog.get(VersionCatalog.LIBRARIES, "silly-io")));
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogMerger#mergeCatalog(VersionCatalog, List)} with custom
+	 * and colliding aliases
+	 */
+	@Test
+	public void testMergeCatalogAliases()
+	{
+		String content = """
+			[libraries]
+			my-silly-io = { module = "io.github.astrapi69:silly-io", version = "3.1" }
+			guava = "com.google.guava:guava:33.0.0-jre"
+			com-example-guava = "org.example:guava:1.0"
+			""";
+		MergedVersionCatalog mergedVersionCatalog = VersionCatalogMerger.mergeCatalog(
+			VersionCatalog.of(content),
+			List.of(dependency("io.github.astrapi69", "silly-io", "3.2"),
+				dependency("com.google.guava", "guava", "33.0.0-jre"),
+				dependency("com.example", "guava", null),
+				dependency("com.example.other", "guava", null),
+				dependency("com.example", "guava-testlib", null)));
+		String expected = content.replace("version = \"3.1\"", "version = \"3.2\"")
+			+ "com-example-guava-2 = { module = \"com.example:guava\" }\n"
+			+ "com-example-other-guava = { module = \"com.example.other:guava\" }\n"
+			+ "guava-testlib = { module = \"com.example:guava-testlib\" }\n";
+		assertEquals(expected, mergedVersionCatalog.getContent());
+		assertEquals(Map.of("io.github.astrapi69:silly-io", "my-silly-io",
+			"com.google.guava:guava", "guava", "com.example:guava", "com-example-guava-2",
+			"com.example.other:guava", "com-example-other-guava", "com.example:guava-testlib",
+			"guava-testlib"), mergedVersionCatalog.getLibraryAliases());
+		// every alias is declared exactly once
+		VersionCatalog mergedCatalog = VersionCatalog.of(mergedVersionCatalog.getContent());
+		assertEquals(6, mergedCatalog.getTable(VersionCatalog.LIBRARIES).size());
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogMerger#merge(File, List)}
+	 */
+	@Test
+	public void testMergeFile() throws IOException
+	{
+		Path libsVersionsToml = tempDir.resolve("libs.versions.toml");
+		Files.writeString(libsVersionsToml, CONTENT, StandardCharsets.UTF_8);
+		FileTime lastModified = FileTime.fromMillis(1_000_000_000_000L);
+		Files.setLastModifiedTime(libsVersionsToml, lastModified);
+
+		assertFalse(VersionCatalogMerger.merge(libsVersionsToml.toFile(),
+			List.of(dependency("com.google.guava", "guava", "33.0.0-jre"))));
+		assertEquals(lastModified, Files.getLastModifiedTime(libsVersionsToml));
+
+		assertTrue(VersionCatalogMerger.merge(libsVersionsToml.toFile(),
+			List.of(dependency("com.google.guava", "guava", "33.3.1-jre"))));
+		assertEquals(CONTENT.replace("guava:33.0.0-jre", "guava:33.3.1-jre"),
+			Files.readString(libsVersionsToml, StandardCharsets.UTF_8));
+	}
+}
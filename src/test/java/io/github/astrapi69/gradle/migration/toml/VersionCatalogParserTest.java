@@ -0,0 +1,97 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.gradle.migration.info.VersionCatalogEntry;
+
+/**
+ * The unit test class for the class {@link VersionCatalogParser}
+ */
+public class VersionCatalogParserTest
+{
+
+	/**
+	 * Test method for {@link VersionCatalogParser#parse(CharSequence)} with the different TOML
+	 * notations
+	 */
+	@Test
+	public void testParse()
+	{
+		String content = String.join("\r\n", "# a comment [libraries]", "[metadata]",
+			"format.version = \"1.1\"", "[ versions ] # the versions", "\"quoted\" = 'C:\\path'",
+			"escaped = \"a\\\"b\\u0041\"", "rich = { strictly = \"[1.0, 2.0[\", prefer = \"1.5\" }",
+			"multi = \"\"\"", "1.\\", "    0\"\"\"", "[libraries]",
+			"groovy.module = \"org.codehaus.groovy:groovy\"", "groovy.version.ref = \"rich\"",
+			"[bundles]", "groovy = [", "    \"groovy\", # the core", "    'groovy-json',", "]",
+			"[plugins]", "versions = \"com.github.ben-manes.versions:0.51.0\"", "");
+		VersionCatalog catalog = VersionCatalogParser.parse(content);
+		assertEquals(List.of("quoted", "escaped", "rich", "multi"),
+			List.copyOf(catalog.getVersions().keySet()));
+		assertEquals("C:\\path", catalog.getVersion("quoted"));
+		assertEquals("a\"bA", catalog.getVersion("escaped"));
+		assertEquals("[1.0, 2.0[", catalog.getVersion("rich"));
+		assertEquals("1.0", catalog.getVersion("multi"));
+		VersionCatalogEntry groovy = catalog.get(VersionCatalog.LIBRARIES, "groovy");
+		assertEquals("org.codehaus.groovy:groovy", groovy.getModule());
+		assertEquals("rich", groovy.getVersionRef());
+		assertEquals(
+			"groovy.module = \"org.codehaus.groovy:groovy\"\r\ngroovy.version.ref = \"rich\"",
+			content.substring(groovy.getStart(), groovy.getEnd()));
+		assertEquals(List.of("groovy", "groovy-json"),
+			catalog.get(VersionCatalog.BUNDLES, "groovy").getMembers());
+		VersionCatalogEntry versions = catalog.get(VersionCatalog.PLUGINS, "versions");
+		assertEquals("com.github.ben-manes.versions", versions.getId());
+		assertEquals("0.51.0", versions.getVersion());
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogParser#parse(CharSequence)} with invalid content
+	 */
+	@Test
+	public void testParseInvalidContent()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[versions]\na = \"1\"\na = \"2\"\n"));
+		assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[versions]\na = \"1\nb = \"2\"\n"));
+		assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[libraries]\na = { module = \"x:y\"\n"));
+		assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[libraries]\na = \"only-a-group\"\n"));
+		assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[[versions]]\n"));
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+			() -> VersionCatalogParser.parse("[versions]\n\na = \"1\" b = \"2\"\n"));
+		assertEquals("Invalid version catalog at line 3: Expected a line break",
+			exception.getMessage());
+	}
+}
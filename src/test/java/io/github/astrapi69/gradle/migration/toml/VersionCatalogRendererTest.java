@@ -0,0 +1,140 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.astrapi69.gradle.migration.info.DependencyInfo;
+
+/**
+ * The unit test class for the class {@link VersionCatalogRenderer}
+ */
+public class VersionCatalogRendererTest
+{
+
+	@TempDir
+	Path tempDir;
+
+	/**
+	 * Creates the {@link DependencyInfo} objects for the tests
+	 *
+	 * @return the {@link DependencyInfo} objects
+	 */
+	private static List<DependencyInfo> newDependencyInfos()
+	{
+		return List.of(
+			DependencyInfo.builder().scope("compileOnly").groupId("org.projectlombok")
+				.artifactId("lombok").version("1.18.34").build(),
+			DependencyInfo.builder().scope("annotationProcessor").groupId("org.projectlombok")
+				.artifactId("lombok").version("1.18.34").build(),
+			DependencyInfo.builder().scope("implementation").groupId("io.github.astrapi69")
+				.artifactId("silly-collection").version("27.1").build(),
+			DependencyInfo.builder().scope("testImplementation").groupId("org.junit.jupiter")
+				.artifactId("junit-jupiter").build());
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogRenderer#renderDependenciesStructure(List, Appendable)}
+	 */
+	@Test
+	public void testRenderDependenciesStructure() throws IOException
+	{
+		String expected = """
+			dependencies {
+			compileOnly libs.lombok
+			implementation libs.silly.collection
+			testImplementation libs.junit.jupiter
+			}
+			""".replace("\n", System.lineSeparator());
+		StringWriter writer = new StringWriter();
+		VersionCatalogRenderer.renderDependenciesStructure(newDependencyInfos(), writer);
+		assertEquals(expected, writer.toString());
+		assertEquals(expected,
+			VersionCatalogRenderer.getDependenciesStructureAsString(newDependencyInfos()));
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogRenderer#renderLibsVersionsToml(List, Path)}
+	 */
+	@Test
+	public void testRenderLibsVersionsToml() throws IOException
+	{
+		String separator = System.lineSeparator();
+		Path libsVersionsToml = tempDir.resolve("libs.versions.toml");
+		VersionCatalogRenderer.renderLibsVersionsToml(newDependencyInfos(), libsVersionsToml);
+		String actual = Files.readString(libsVersionsToml, StandardCharsets.UTF_8);
+		assertEquals(VersionCatalogRenderer.getLibsVersionsTomlAsString(newDependencyInfos()),
+			actual);
+		assertTrue(actual.startsWith("[versions]" + separator + "lombok-version = \"1.18.34\""
+			+ separator + "silly-collection-version = \"27.1\"" + separator
+			+ "gradle-plugin-grgit-version = \"5.2.2\"" + separator));
+		assertTrue(actual.contains("[libraries]" + separator
+			+ "lombok = { module = \"org.projectlombok:lombok\", version.ref = \"lombok-version\"}"
+			+ separator + "silly-collection = { module = \"io.github.astrapi69:silly-collection\","
+			+ " version.ref = \"silly-collection-version\"}" + separator
+			+ "junit-jupiter = { module = \"org.junit.jupiter:junit-jupiter\"}" + separator));
+		assertTrue(actual.contains("gradle-plugin-lombok-version = \"8.6\""));
+		assertTrue(actual.contains("    \"junit-jupiter\","));
+		assertTrue(actual.contains("lombok-plugin = { id = \"io.freefair.lombok\""));
+		assertEquals(actual.indexOf(separator + "lombok-version ="),
+			actual.lastIndexOf(separator + "lombok-version ="));
+	}
+
+	/**
+	 * Test method for {@link VersionCatalogRenderer#getLibsVersionsTomlAsString(List)} without
+	 * lombok and junit
+	 */
+	@Test
+	public void testGetLibsVersionsTomlAsStringWithDefaults()
+	{
+		String actual = VersionCatalogRenderer.getLibsVersionsTomlAsString(List.of());
+		assertFalse(actual.contains("lombok"));
+		assertTrue(actual.contains("    \"testng\","));
+		assertTrue(actual.endsWith("[plugins]" + System.lineSeparator()
+			+ "gradle-versions-plugin = { id = \"com.github.ben-manes.versions\", version.ref = "
+			+ "\"gradle-plugin-versions-version\" }" + System.lineSeparator()
+			+ "grgit-gradle = { id = \"org.ajoberstar.grgit\", version.ref = "
+			+ "\"gradle-plugin-grgit-version\" }" + System.lineSeparator()
+			+ "license-gradle-plugin = { id = \"com.github.hierynomus.license\", version.ref = "
+			+ "\"gradle-plugin-license-version\" }" + System.lineSeparator()
+			+ "spotless-plugin-gradle = { id = \"com.diffplug.spotless\", version.ref = "
+			+ "\"gradle-plugin-spotless-version\" }" + System.lineSeparator()
+			+ "version-catalog-update = { id = \"nl.littlerobots.version-catalog-update\", "
+			+ "version.ref = \"gradle-plugin-version-catalog-update-version\" }\n"
+			+ System.lineSeparator()));
+	}
+}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2023 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapi69.gradle.migration.toml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.gradle.migration.info.VersionCatalogEntry;
+
+/**
+ * The unit test class for the class {@link VersionCatalog}
+ */
+public class VersionCatalogTest
+{
+
+	/**
+	 * Test method for {@link VersionCatalog#of(File)}
+	 */
+	@Test
+	public void testOf() throws IOException
+	{
+		File libsVersionsToml = PathFinder.getRelativePath(PathFinder.getSrcTestResourcesDir(),
+			"libs.versions.toml");
+		VersionCatalog catalog = VersionCatalog.of(libsVersionsToml);
+		assertEquals(15, catalog.getVersions().size());
+		assertEquals(9, catalog.getLibraries().size());
+		assertEquals(1, catalog.getBundles().size());
+		assertEquals(6, catalog.getPlugins().size());
+		assertEquals("commons-text", catalog.getVersions().keySet().iterator().next());
+		assertEquals("1.18.32", catalog.getVersion("lombok"));
+		assertEquals("org.projectlombok:lombok", catalog.getModule("lombok"));
+		assertEquals("silly-io", catalog.getLibraryAlias("io.github.astrapi69:silly-io"));
+		assertEquals(List.of("junit-jupiter", "meanbean"),
+			catalog.getBundles().get("unit-testing").getMembers());
+		VersionCatalogEntry plugin = catalog.get(VersionCatalog.PLUGINS, "versionCatalogUpdate");
+		assertEquals("nl.littlerobots.version-catalog-update", plugin.getId());
+		assertEquals("0.8.4", catalog.resolveVersion(plugin));
+		VersionCatalogEntry library = catalog.get(VersionCatalog.LIBRARIES, "throwable");
+		String content = catalog.getContent();
+		assertEquals("throwable = { module = \"io.github.astrapi69:throwable\", "
+			+ "version.ref = \"throwable\" }",
+			content.substring(library.getStart(), library.getEnd()));
+	}
+
+	/**
+	 * Test method for {@link VersionCatalog#getLibrariesByVersionRef(String)}
+	 */
+	@Test
+	public void testGetLibrariesByVersionRef()
+	{
+		VersionCatalog catalog = VersionCatalog.of("""
+			[versions]
+			jackson = "2.18.0"
+
+			[libraries]
+			jackson-core = { module = "com.fasterxml.jackson.core:jackson-core", version.ref = "jackson" }
+			jackson-databind = { group = "com.fasterxml.jackson.core", name = "jackson-databind", version = { ref = "jackson" } }
+			guava = "com.google.guava:guava:33.3.1-jre"
+			""");
+		List<VersionCatalogEntry> libraries = catalog.getLibrariesByVersionRef("jackson");
+		assertEquals(List.of("jackson-core", "jackson-databind"),
+			libraries.stream().map(VersionCatalogEntry::getAlias).toList());
+		assertEquals("2.18.0", catalog.resolveVersion(libraries.get(1)));
+		assertEquals("33.3.1-jre",
+			catalog.resolveVersion(catalog.get(VersionCatalog.LIBRARIES, "guava")));
+		assertTrue(catalog.getLibrariesByVersionRef("guava").isEmpty());
+	}
+
+	/**
+	 * Test method for {@link VersionCatalog#put(String, VersionCatalogEntry)} and
+	 * {@link VersionCatalog#remove(String, String)}
+	 */
+	@Test
+	public void testPutAndRemove()
+	{
+		VersionCatalog catalog = VersionCatalog.empty();
+		catalog.put(VersionCatalog.VERSIONS,
+			VersionCatalogEntry.builder().alias("lombok-version").version("1.18.34").build());
+		catalog.put(VersionCatalog.LIBRARIES, VersionCatalogEntry.builder().alias("lombok")
+			.module("org.projectlombok:lombok").versionRef("lombok-version").build());
+		assertEquals("lombok", catalog.getLibraryAlias("org.projectlombok:lombok"));
+		assertEquals(1, catalog.getLibrariesByVersionRef("lombok-version").size());
+
+		catalog.put(VersionCatalog.LIBRARIES, VersionCatalogEntry.builder().alias("lombok")
+			.module("org.projectlombok:lombok").version("1.18.30").build());
+		assertTrue(catalog.getLibrariesByVersionRef("lombok-version").isEmpty());
+		assertEquals("1.18.30",
+			catalog.resolveVersion(catalog.get(VersionCatalog.LIBRARIES, "lombok")));
+
+		catalog.remove(VersionCatalog.LIBRARIES, "lombok");
+		assertNull(catalog.getLibraryAlias("org.projectlombok:lombok"));
+		assertNull(catalog.getContent());
+		assertThrows(IllegalArgumentException.class, () -> catalog.getTable("metadata"));
+	}
+}